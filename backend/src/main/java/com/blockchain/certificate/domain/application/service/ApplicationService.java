@@ -279,47 +279,32 @@ public class ApplicationService {
             throw new BusinessException("证明文件数量不能超过3个");
         }
 
-        List<Map<String, String>> proofFiles = new ArrayList<>();
-        List<String> uploadedCids = new ArrayList<>();
-
-        try {
-            for (MultipartFile file : files) {
-                if (file.isEmpty()) {
-                    continue;
-                }
-
-                // 上传到IPFS
-                String cid = ipfsService.uploadFile(file);
-                uploadedCids.add(cid);
-
-                // 构建文件信息
-                Map<String, String> fileInfo = new HashMap<>();
-                fileInfo.put("name", file.getOriginalFilename());
-                fileInfo.put("cid", cid);
-                fileInfo.put("size", String.valueOf(file.getSize()));
-                fileInfo.put("contentType", file.getContentType());
+        List<MultipartFile> validFiles = files.stream()
+                .filter(file -> !file.isEmpty())
+                .collect(Collectors.toList());
+        if (validFiles.isEmpty()) {
+            throw new BusinessException("没有有效的证明文件");
+        }
 
-                proofFiles.add(fileInfo);
-            }
+        // 并发上传到IPFS，任一文件失败时 IpfsService 会清理本次已上传的文件
+        List<String> cids = ipfsService.uploadFiles(validFiles);
 
-            if (proofFiles.isEmpty()) {
-                throw new BusinessException("没有有效的证明文件");
-            }
+        List<Map<String, String>> proofFiles = new ArrayList<>();
+        for (int i = 0; i < validFiles.size(); i++) {
+            MultipartFile file = validFiles.get(i);
 
-            log.info("证明文件上传成功，文件数量: {}", proofFiles.size());
-            return proofFiles;
+            // 构建文件信息
+            Map<String, String> fileInfo = new HashMap<>();
+            fileInfo.put("name", file.getOriginalFilename());
+            fileInfo.put("cid", cids.get(i));
+            fileInfo.put("size", String.valueOf(file.getSize()));
+            fileInfo.put("contentType", file.getContentType());
 
-        } catch (Exception e) {
-            // 如果上传过程中出现异常，清理已上传的文件
-            for (String cid : uploadedCids) {
-                try {
-                    ipfsService.deleteFile(cid);
-                } catch (Exception cleanupException) {
-                    log.warn("清理IPFS文件失败，CID: {}", cid, cleanupException);
-                }
-            }
-            throw e;
+            proofFiles.add(fileInfo);
         }
+
+        log.info("证明文件上传成功，文件数量: {}", proofFiles.size());
+        return proofFiles;
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.blockchain.certificate.domain.certificate.model;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 证书实体类
@@ -16,7 +18,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@TableName("t_certificate")
+@TableName(value = "t_certificate", autoResultMap = true)
 public class Certificate {
     
     /**
@@ -75,6 +77,28 @@ public class Certificate {
      */
     private Long blockHeight;
     
+    /**
+     * 批量存证的 Merkle 根（单独存证时为空）
+     */
+    private String merkleRoot;
+    
+    /**
+     * 批量存证的 Merkle 证明（JSON格式）
+     * 格式：["L:<hex>", "R:<hex>"]
+     */
+    @TableField(typeHandler = JacksonTypeHandler.class)
+    private List<String> merkleProof;
+    
+    /**
+     * 存证交易的签发账户地址
+     */
+    private String issuerAddress;
+    
+    /**
+     * 区块链群组ID（chain.sharding），为空表示后端默认群组
+     */
+    private Integer chainGroupId;
+    
     /**
      * 颁发日期
      */
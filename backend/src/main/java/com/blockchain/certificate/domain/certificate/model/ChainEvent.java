@@ -0,0 +1,88 @@
+package com.blockchain.certificate.domain.certificate.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 链上事件索引实体类
+ * 记录合约发出的 CertificateStored、CertificateRevoked、CertificateExpiryUpdated 事件
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("t_chain_event")
+public class ChainEvent {
+
+    /**
+     * 事件ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 区块高度
+     */
+    private Long blockNumber;
+
+    /**
+     * 交易哈希
+     */
+    private String txHash;
+
+    /**
+     * 交易内日志序号
+     */
+    private Integer logIndex;
+
+    /**
+     * 事件名称
+     */
+    private String eventName;
+
+    /**
+     * 证书编号（从交易输入中解析，解析失败时为空）
+     */
+    private String certificateNo;
+
+    /**
+     * 证书编号哈希（indexed string 的 topic）
+     */
+    private String certificateNoHash;
+
+    /**
+     * 文件哈希值（仅 CertificateStored）
+     */
+    private String fileHash;
+
+    /**
+     * 操作地址（颁发者、撤销者或更新者）
+     */
+    private String operator;
+
+    /**
+     * 事件时间戳（秒）
+     */
+    private Long eventTimestamp;
+
+    /**
+     * 过期时间戳（秒）
+     */
+    private Long expiryDate;
+
+    /**
+     * 原过期时间戳（秒，仅 CertificateExpiryUpdated）
+     */
+    private Long oldExpiryDate;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,89 @@
+package com.blockchain.certificate.domain.certificate.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 区块链存证发件箱实体类
+ * 与证书记录在同一数据库事务中写入，由后台分发器异步完成上链
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("t_chain_outbox")
+public class ChainOutbox {
+
+    /**
+     * 发件箱ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 证书ID
+     */
+    private Long certificateId;
+
+    /**
+     * 证书编号
+     */
+    private String certificateNo;
+
+    /**
+     * 文件哈希值
+     */
+    private String fileHash;
+
+    /**
+     * 上链操作：STORE, REVOKE, EXPIRY
+     */
+    private String operation;
+
+    /**
+     * 状态：PENDING, PROCESSING, DONE, FAILED（死信）
+     */
+    private String status;
+
+    /**
+     * 已尝试次数
+     */
+    private Integer attempts;
+
+    /**
+     * 下次尝试时间
+     */
+    private LocalDateTime nextAttemptTime;
+
+    /**
+     * 最近一次错误信息
+     */
+    private String lastError;
+
+    /**
+     * 区块链交易哈希
+     */
+    private String txHash;
+
+    /**
+     * 区块高度
+     */
+    private Long blockHeight;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,90 @@
+package com.blockchain.certificate.domain.certificate.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 链上对账差异实体类
+ * 一条记录对应对账任务中一张数据库与链上不一致的证书
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("t_chain_reconcile_diff")
+public class ChainReconcileDiff {
+
+    /**
+     * 差异ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 对账任务ID
+     */
+    private Long runId;
+
+    /**
+     * 证书ID
+     */
+    private Long certificateId;
+
+    /**
+     * 证书编号
+     */
+    private String certificateNo;
+
+    /**
+     * 差异类型：NOT_ANCHORED, TX_HASH_MISSING, NOT_ON_CHAIN, HASH_MISMATCH,
+     * REVOKE_NOT_ON_CHAIN, REVOKED_ONLY_ON_CHAIN, EXPIRED_ON_CHAIN
+     */
+    private String diffType;
+
+    /**
+     * 数据库证书状态
+     */
+    private String dbStatus;
+
+    /**
+     * 数据库交易哈希
+     */
+    private String dbTxHash;
+
+    /**
+     * 链上状态码: 0=有效, 1=不存在, 2=已撤销, 3=已过期, 4=哈希不匹配
+     */
+    private Integer chainStatus;
+
+    /**
+     * 修复操作：STORE, REVOKE, EXPIRY；为空表示需要人工处理
+     */
+    private String repairOperation;
+
+    /**
+     * 修复状态：MANUAL, PENDING, QUEUED
+     */
+    private String repairStatus;
+
+    /**
+     * 修复发件箱记录ID
+     */
+    private Long outboxId;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,94 @@
+package com.blockchain.certificate.domain.certificate.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 链上对账任务实体类
+ * 记录一次数据库与链上数据对账的进度和结果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("t_chain_reconcile_run")
+public class ChainReconcileRun {
+
+    /**
+     * 任务ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 状态：RUNNING, COMPLETED, CANCELLED, FAILED, INTERRUPTED
+     */
+    private String status;
+
+    /**
+     * 触发方式：MANUAL, SCHEDULED
+     */
+    private String triggerType;
+
+    /**
+     * 已处理的最后一个证书ID（游标）
+     */
+    private Long lastCertificateId;
+
+    /**
+     * 已扫描的证书数量
+     */
+    private Long scannedCount;
+
+    /**
+     * 已在链上验证的证书数量
+     */
+    private Long checkedCount;
+
+    /**
+     * 跳过的证书数量（批量存证、发件箱处理中）
+     */
+    private Long skippedCount;
+
+    /**
+     * 发现的差异数量
+     */
+    private Long diffCount;
+
+    /**
+     * 已写入发件箱的修复数量
+     */
+    private Long repairQueuedCount;
+
+    /**
+     * 失败原因
+     */
+    private String lastError;
+
+    /**
+     * 开始时间
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * 结束时间
+     */
+    private LocalDateTime endTime;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
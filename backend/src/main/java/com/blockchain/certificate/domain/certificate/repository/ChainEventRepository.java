@@ -0,0 +1,12 @@
+package com.blockchain.certificate.domain.certificate.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blockchain.certificate.domain.certificate.model.ChainEvent;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 链上事件索引Repository接口
+ */
+@Mapper
+public interface ChainEventRepository extends BaseMapper<ChainEvent> {
+}
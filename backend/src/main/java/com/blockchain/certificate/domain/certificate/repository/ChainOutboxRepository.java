@@ -0,0 +1,12 @@
+package com.blockchain.certificate.domain.certificate.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blockchain.certificate.domain.certificate.model.ChainOutbox;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 区块链存证发件箱Repository接口
+ */
+@Mapper
+public interface ChainOutboxRepository extends BaseMapper<ChainOutbox> {
+}
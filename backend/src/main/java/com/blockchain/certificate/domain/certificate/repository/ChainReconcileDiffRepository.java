@@ -0,0 +1,12 @@
+package com.blockchain.certificate.domain.certificate.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blockchain.certificate.domain.certificate.model.ChainReconcileDiff;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 链上对账差异Repository接口
+ */
+@Mapper
+public interface ChainReconcileDiffRepository extends BaseMapper<ChainReconcileDiff> {
+}
@@ -0,0 +1,12 @@
+package com.blockchain.certificate.domain.certificate.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blockchain.certificate.domain.certificate.model.ChainReconcileRun;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 链上对账任务Repository接口
+ */
+@Mapper
+public interface ChainReconcileRunRepository extends BaseMapper<ChainReconcileRun> {
+}
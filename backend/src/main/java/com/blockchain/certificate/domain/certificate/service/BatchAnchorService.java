@@ -0,0 +1,152 @@
+package com.blockchain.certificate.domain.certificate.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.blockchain.certificate.domain.certificate.model.Certificate;
+import com.blockchain.certificate.domain.certificate.repository.CertificateRepository;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.BlockchainGateway;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainTransactionResult;
+import com.blockchain.certificate.infrastructure.config.AnchorConfig;
+import com.blockchain.certificate.shared.util.MerkleTreeUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 证书批量存证服务
+ * 按时间窗口收集尚未上链的证书，构建 Merkle 树后只将 Merkle 根写入区块链，
+ * 每张证书保存自己的 Merkle 证明，验证时据此证明证书包含在链上的批次中
+ * 启用多群组分片时同一页待上链证书按群组分别构建 Merkle 树，每个群组写入各自的 Merkle 根
+ *
+ * 当 anchor.batch.enabled=true 时启用此服务
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "anchor.batch.enabled", havingValue = "true", matchIfMissing = false)
+public class BatchAnchorService {
+
+    private final CertificateRepository certificateRepository;
+    private final AnchorConfig anchorConfig;
+    private final BlockchainGateway blockchainGateway;
+    private final TransactionTemplate transactionTemplate;
+
+    public BatchAnchorService(
+            CertificateRepository certificateRepository,
+            AnchorConfig anchorConfig,
+            BlockchainGateway blockchainGateway,
+            TransactionTemplate transactionTemplate) {
+        this.certificateRepository = certificateRepository;
+        this.anchorConfig = anchorConfig;
+        this.blockchainGateway = blockchainGateway;
+        this.transactionTemplate = transactionTemplate;
+
+        log.info("批量存证服务初始化：时间窗口 {} ms，批次上限 {}",
+                anchorConfig.getBatch().getWindowMs(), anchorConfig.getBatch().getMaxSize());
+    }
+
+    /**
+     * 定时执行批量存证
+     */
+    @Scheduled(fixedDelayString = "${anchor.batch.window-ms:60000}")
+    public void anchorPendingCertificates() {
+        if (!blockchainGateway.isAvailable()) {
+            return;
+        }
+
+        int anchored;
+        do {
+            anchored = anchorNextBatch();
+        } while (anchored >= anchorConfig.getBatch().getMaxSize());
+    }
+
+    /**
+     * 存证下一批待上链证书
+     *
+     * @return 本批次存证的证书数量
+     */
+    public int anchorNextBatch() {
+        // 查询尚未上链的有效证书（按ID顺序，保证批次内叶子顺序稳定）
+        LambdaQueryWrapper<Certificate> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(Certificate::getStatus, CertificateService.CertificateStatus.VALID.getCode())
+                .isNull(Certificate::getBlockchainTxHash)
+                .isNull(Certificate::getMerkleRoot)
+                .orderByAsc(Certificate::getId);
+
+        Page<Certificate> pageParam = new Page<>(1, anchorConfig.getBatch().getMaxSize(), false);
+        List<Certificate> pending = certificateRepository.selectPage(pageParam, queryWrapper).getRecords();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // 按群组分别存证，群组ID为空的证书发往后端默认群组
+        Map<Integer, List<Certificate>> groups = new LinkedHashMap<>();
+        for (Certificate certificate : pending) {
+            groups.computeIfAbsent(certificate.getChainGroupId(), groupId -> new ArrayList<>()).add(certificate);
+        }
+
+        int anchored = 0;
+        for (Map.Entry<Integer, List<Certificate>> group : groups.entrySet()) {
+            anchored += anchorGroup(group.getKey(), group.getValue());
+        }
+        return anchored;
+    }
+
+    /**
+     * 将同一群组的证书构建为一棵 Merkle 树并存证
+     *
+     * @param groupId 群组ID，为空表示后端默认群组
+     * @return 存证的证书数量，失败时返回 0
+     */
+    private int anchorGroup(Integer groupId, List<Certificate> pending) {
+        // 构建 Merkle 树
+        List<byte[]> leaves = new ArrayList<>(pending.size());
+        for (Certificate certificate : pending) {
+            leaves.add(MerkleTreeUtil.leafHash(certificate.getCertificateNo(), certificate.getFileHash()));
+        }
+        MerkleTreeUtil.MerkleTree tree = MerkleTreeUtil.build(leaves);
+        log.info("开始批量存证，群组: {}, 证书数量: {}, Merkle 根: {}", groupId, pending.size(), tree.getRoot());
+
+        String transactionHash;
+        long blockNumber;
+        String issuerAddress;
+        try {
+            ChainTransactionResult result = blockchainGateway.forGroup(groupId)
+                    .storeBatchRoot(tree.getRoot(), pending.size());
+            transactionHash = result.getTransactionHash();
+            blockNumber = result.getBlockNumber();
+            issuerAddress = result.getIssuerAddress();
+        } catch (Exception e) {
+            // 存证失败时证书保持未上链状态，下一个时间窗口重试
+            log.error("批量存证失败，群组: {}, 证书数量: {}, Merkle 根: {}",
+                    groupId, pending.size(), tree.getRoot(), e);
+            return 0;
+        }
+
+        // 回写每张证书的 Merkle 根和证明：每张证书的证明不同，逐条更新，在同一事务中提交，
+        // 避免中途失败时批次中只有部分证书带有证明；只更新存证字段，不覆盖期间被修改的其他字段
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < pending.size(); i++) {
+                Certificate certificate = pending.get(i);
+                certificateRepository.updateById(Certificate.builder()
+                        .id(certificate.getId())
+                        .merkleRoot(tree.getRoot())
+                        .merkleProof(tree.getProof(i))
+                        .blockchainTxHash(transactionHash)
+                        .blockHeight(blockNumber)
+                        .issuerAddress(issuerAddress)
+                        .build());
+            }
+        });
+
+        log.info("批量存证成功，群组: {}, 证书数量: {}, 交易哈希: {}, 区块号: {}",
+                groupId, pending.size(), transactionHash, blockNumber);
+        return pending.size();
+    }
+}
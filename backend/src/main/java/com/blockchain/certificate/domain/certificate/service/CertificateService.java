@@ -3,9 +3,11 @@ package com.blockchain.certificate.domain.certificate.service;
 
 
 import com.blockchain.certificate.infrastructure.ipfs.IpfsService;
-import com.blockchain.certificate.infrastructure.blockchain.BlockchainService;
-import com.blockchain.certificate.infrastructure.blockchain.WebaseBlockchainService;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.BlockchainGateway;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainGroupRouter;
+import com.blockchain.certificate.infrastructure.config.AnchorConfig;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blockchain.certificate.shared.exception.BusinessException;
@@ -18,25 +20,35 @@ import com.blockchain.certificate.domain.certificate.repository.CertificateRepos
 import com.blockchain.certificate.domain.certificate.repository.CertificateTemplateRepository;
 import com.blockchain.certificate.domain.user.repository.UserRepository;
 import com.blockchain.certificate.shared.util.CertificateNumberGenerator;
+import com.blockchain.certificate.shared.util.HashingOutputStream;
 import com.blockchain.certificate.shared.util.PdfGenerator;
+import com.blockchain.certificate.model.dto.CertificateBulkResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.MessageDigest;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 证书服务类
  * 提供证书生成、查询、撤销、下载等功能
  *
- * 支持两种区块链服务模式：
- * 1. SDK 模式 (blockchain.enabled=true): 使用 FISCO BCOS SDK 直连
- * 2. WeBASE 模式 (webase.enabled=true): 使用 WeBASE-Front HTTP API
+ * 区块链操作通过 BlockchainGateway 进行，由网关选择 SDK 或 WeBASE 后端；
+ * 撤销、更新过期时间上链失败或存证尚未完成时写入发件箱，由 ChainOutboxDispatcher 重试；
+ * 启用多群组分片时证书签发时由 ChainGroupRouter 分配群组，之后的链上操作都发往该群组
  */
 @Service
 @Slf4j
@@ -49,12 +61,10 @@ public class CertificateService {
     private final CertificateNumberGenerator certificateNumberGenerator;
     private final PdfGenerator pdfGenerator;
     private final IpfsService ipfsService;
-    
-    // SDK 模式的区块链服务（可选）
-    private final BlockchainService blockchainService;
-    
-    // WeBASE 模式的区块链服务（可选）
-    private final WebaseBlockchainService webaseBlockchainService;
+    private final AnchorConfig anchorConfig;
+    private final ChainOutboxDispatcher chainOutboxDispatcher;
+    private final BlockchainGateway blockchainGateway;
+    private final ChainGroupRouter chainGroupRouter;
     
     public CertificateService(
             CertificateRepository certificateRepository,
@@ -64,8 +74,10 @@ public class CertificateService {
             CertificateNumberGenerator certificateNumberGenerator,
             PdfGenerator pdfGenerator,
             IpfsService ipfsService,
-            @org.springframework.beans.factory.annotation.Autowired(required = false) BlockchainService blockchainService,
-            @org.springframework.beans.factory.annotation.Autowired(required = false) WebaseBlockchainService webaseBlockchainService) {
+            AnchorConfig anchorConfig,
+            ChainOutboxDispatcher chainOutboxDispatcher,
+            BlockchainGateway blockchainGateway,
+            ChainGroupRouter chainGroupRouter) {
         this.certificateRepository = certificateRepository;
         this.applicationRepository = applicationRepository;
         this.userRepository = userRepository;
@@ -73,37 +85,24 @@ public class CertificateService {
         this.certificateNumberGenerator = certificateNumberGenerator;
         this.pdfGenerator = pdfGenerator;
         this.ipfsService = ipfsService;
-        this.blockchainService = blockchainService;
-        this.webaseBlockchainService = webaseBlockchainService;
-        
-        // 日志输出当前使用的区块链模式
-        if (webaseBlockchainService != null) {
-            log.info("证书服务初始化：使用 WeBASE 模式");
-        } else if (blockchainService != null) {
-            log.info("证书服务初始化：使用 SDK 模式");
-        } else {
-            log.warn("证书服务初始化：区块链服务未启用");
-        }
+        this.anchorConfig = anchorConfig;
+        this.chainOutboxDispatcher = chainOutboxDispatcher;
+        this.blockchainGateway = blockchainGateway;
+        this.chainGroupRouter = chainGroupRouter;
     }
     
     /**
      * 检查区块链服务是否可用
      */
     public boolean isBlockchainAvailable() {
-        return webaseBlockchainService != null || blockchainService != null;
+        return blockchainGateway.isAvailable();
     }
     
     /**
-     * 获取当前使用的区块链模式
+     * 获取当前首选的区块链后端
      */
     public String getBlockchainMode() {
-        if (webaseBlockchainService != null) {
-            return "WeBASE";
-        } else if (blockchainService != null) {
-            return "SDK";
-        } else {
-            return "DISABLED";
-        }
+        return blockchainGateway.getMode();
     }
 
     /**
@@ -198,7 +197,7 @@ public class CertificateService {
         log.info("证书 PDF 生成成功，大小: {} bytes", pdfContent.length);
 
         // 计算文件哈希
-        String fileHash = calculateFileHash(pdfContent);
+        String fileHash = HashingOutputStream.sha256Hex(pdfContent);
         log.info("证书文件哈希: {}", fileHash);
 
         // 上传到 IPFS
@@ -215,6 +214,7 @@ public class CertificateService {
                 .status(CertificateStatus.VALID.getCode())
                 .ipfsCid(ipfsCid)
                 .fileHash(fileHash)
+                .chainGroupId(chainGroupRouter.route(certificateNo, application.getCollegeId()))
                 .issueDate(LocalDate.now())
                 .build();
 
@@ -223,41 +223,14 @@ public class CertificateService {
             certificateRepository.insert(certificate);
             log.info("证书记录保存成功，证书ID: {}", certificate.getId());
 
-            // 区块链存证（优先使用 WeBASE，其次使用 SDK）
-            if (webaseBlockchainService != null) {
-                // 使用 WeBASE 模式
-                try {
-                    WebaseBlockchainService.BlockchainStorageResult blockchainResult =
-                        webaseBlockchainService.storeCertificate(certificateNo, fileHash);
-                    
-                    // 更新区块链信息
-                    certificate.setBlockchainTxHash(blockchainResult.getTransactionHash());
-                    certificate.setBlockHeight(blockchainResult.getBlockNumber());
-                    certificateRepository.updateById(certificate);
-                    
-                    log.info("证书区块链存证成功（WeBASE），交易哈希: {}", blockchainResult.getTransactionHash());
-                } catch (Exception e) {
-                    log.error("证书区块链存证失败（WeBASE），证书编号: {}", certificateNo, e);
-                    // 区块链存证失败不影响证书生成，记录日志即可
-                }
-            } else if (blockchainService != null) {
-                // 使用 SDK 模式
-                try {
-                    BlockchainService.BlockchainStorageResult blockchainResult =
-                        blockchainService.storeCertificate(certificateNo, fileHash);
-                    
-                    // 更新区块链信息
-                    certificate.setBlockchainTxHash(blockchainResult.getTransactionHash());
-                    certificate.setBlockHeight(blockchainResult.getBlockNumber());
-                    certificateRepository.updateById(certificate);
-                    
-                    log.info("证书区块链存证成功（SDK），交易哈希: {}", blockchainResult.getTransactionHash());
-                } catch (Exception e) {
-                    log.error("证书区块链存证失败（SDK），证书编号: {}", certificateNo, e);
-                    // 区块链存证失败不影响证书生成，记录日志即可
-                }
-            } else {
+            // 区块链存证：批量模式交给 BatchAnchorService，否则在同一事务中写入发件箱，
+            // 由 ChainOutboxDispatcher 异步上链并回写交易哈希，签发耗时不再包含共识时间
+            if (!isBlockchainAvailable()) {
                 log.warn("区块链服务未启用，跳过区块链存证");
+            } else if (anchorConfig.getBatch().isEnabled()) {
+                log.info("证书已加入批量存证队列，证书编号: {}", certificateNo);
+            } else {
+                chainOutboxDispatcher.enqueue(certificate);
             }
 
             log.info("证书生成完成，证书编号: {}", certificateNo);
@@ -376,12 +349,14 @@ public class CertificateService {
 
     /**
      * 下载证书
+     * 证书文件从 IPFS 直接写入输出流，写出的同时计算哈希；哈希一致后才写出文件末尾
      * 
      * @param certificateId 证书ID
-     * @return 证书 PDF 内容
-     * @throws BusinessException 业务异常
+     * @param out 输出流，由调用方关闭
+     * @return 写出的字节数
+     * @throws BusinessException 业务异常，完整性验证失败时输出流中只有不完整的文件
      */
-    public byte[] downloadCertificate(String certificateId) throws BusinessException {
+    public long downloadCertificate(String certificateId, OutputStream out) throws BusinessException {
         log.info("下载证书，证书ID: {}", certificateId);
 
         Long certificateIdLong = Long.parseLong(certificateId);
@@ -391,18 +366,26 @@ public class CertificateService {
         }
 
         // 从 IPFS 下载证书
-        byte[] pdfContent = ipfsService.downloadFile(certificate.getIpfsCid());
+        HashingOutputStream hashingOut = new HashingOutputStream(out);
+        ipfsService.downloadFile(certificate.getIpfsCid(), hashingOut);
         
         // 验证文件完整性
-        String downloadedHash = calculateFileHash(pdfContent);
+        String downloadedHash = hashingOut.hash();
         if (!downloadedHash.equals(certificate.getFileHash())) {
             log.error("证书文件哈希不匹配，证书编号: {}, 期望: {}, 实际: {}", 
                     certificate.getCertificateNo(), certificate.getFileHash(), downloadedHash);
             throw new BusinessException("证书文件完整性验证失败");
         }
 
-        log.info("证书下载成功，证书编号: {}, 大小: {} bytes", certificate.getCertificateNo(), pdfContent.length);
-        return pdfContent;
+        try {
+            hashingOut.release();
+        } catch (IOException e) {
+            log.error("输出证书文件失败，证书编号: {}", certificate.getCertificateNo(), e);
+            throw new BusinessException("下载证书失败");
+        }
+
+        log.info("证书下载成功，证书编号: {}, 大小: {} bytes", certificate.getCertificateNo(), hashingOut.size());
+        return hashingOut.size();
     }
 
     /**
@@ -432,30 +415,255 @@ public class CertificateService {
         certificate.setUpdateTime(LocalDateTime.now());
         certificateRepository.updateById(certificate);
 
-        // 区块链撤销（优先使用 WeBASE，其次使用 SDK）
-        if (webaseBlockchainService != null) {
-            try {
-                webaseBlockchainService.revokeCertificate(certificate.getCertificateNo());
-                log.info("证书区块链撤销成功（WeBASE），证书编号: {}", certificate.getCertificateNo());
-            } catch (Exception e) {
-                log.error("证书区块链撤销失败（WeBASE），证书编号: {}", certificate.getCertificateNo(), e);
-                // 区块链撤销失败不影响数据库状态更新
+        // 区块链撤销
+        if (!blockchainGateway.isAvailable()) {
+            log.warn("区块链服务未启用，跳过区块链撤销");
+        } else if (certificate.getMerkleRoot() != null) {
+            log.info("批量存证的证书链上只有 Merkle 根，跳过区块链撤销，证书编号: {}", certificate.getCertificateNo());
+        } else if (StringUtils.isBlank(certificate.getBlockchainTxHash())) {
+            if (chainOutboxDispatcher.findStoreCertificateIds(
+                    Collections.singletonList(certificate.getId())).isEmpty()) {
+                // 等待批量存证的证书：已撤销的证书不再加入批次，链上无需撤销
+                log.info("证书尚未存证且不由发件箱单独存证，跳过区块链撤销，证书编号: {}", certificate.getCertificateNo());
+            } else {
+                // 存证尚未完成，撤销排在存证之后
+                chainOutboxDispatcher.enqueueIfAbsent(certificate, ChainOutboxDispatcher.OPERATION_REVOKE);
             }
-        } else if (blockchainService != null) {
+        } else {
             try {
-                blockchainService.revokeCertificate(certificate.getCertificateNo());
-                log.info("证书区块链撤销成功（SDK），证书编号: {}", certificate.getCertificateNo());
+                blockchainGateway.forGroup(certificate.getChainGroupId())
+                        .revokeCertificate(certificate.getCertificateNo());
+                log.info("证书区块链撤销成功，证书编号: {}", certificate.getCertificateNo());
             } catch (Exception e) {
-                log.error("证书区块链撤销失败（SDK），证书编号: {}", certificate.getCertificateNo(), e);
-                // 区块链撤销失败不影响数据库状态更新
+                // 区块链撤销失败不影响数据库状态更新，写入发件箱重试
+                log.error("证书区块链撤销失败，写入发件箱重试，证书编号: {}", certificate.getCertificateNo(), e);
+                chainOutboxDispatcher.enqueueIfAbsent(certificate, ChainOutboxDispatcher.OPERATION_REVOKE);
             }
-        } else {
-            log.warn("区块链服务未启用，跳过区块链撤销");
         }
 
         log.info("证书撤销成功，证书编号: {}", certificate.getCertificateNo());
     }
 
+    /**
+     * 批量撤销证书
+     * 数据库用一条语句更新，单独存证的证书按群组分组、按分片批量上链撤销
+     *
+     * @param certificateNos 证书编号列表
+     * @param reason 撤销原因
+     * @return 批量操作结果
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public CertificateBulkResponse revokeCertificates(List<String> certificateNos, String reason) {
+        List<String> distinctNos = new ArrayList<>(new LinkedHashSet<>(certificateNos));
+        log.info("开始批量撤销证书，数量: {}, 原因: {}", distinctNos.size(), reason);
+
+        // 需要上链撤销的证书：未撤销且单独存证（批量存证的证书链上只有 Merkle 根）
+        List<Certificate> chainCertificates = selectChainCertificates(distinctNos);
+        List<Certificate> anchored = filterAnchored(chainCertificates, true);
+        List<String> chainNos = toCertificateNos(anchored);
+
+        LambdaUpdateWrapper<Certificate> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.in(Certificate::getCertificateNo, distinctNos)
+                .ne(Certificate::getStatus, CertificateStatus.REVOKED.getCode())
+                .set(Certificate::getStatus, CertificateStatus.REVOKED.getCode())
+                .set(Certificate::getUpdateTime, LocalDateTime.now());
+        int updated = certificateRepository.update(null, updateWrapper);
+
+        CertificateBulkResponse response = CertificateBulkResponse.builder()
+                .requestedCount(distinctNos.size())
+                .updatedCount(updated)
+                .chainCount(chainNos.size())
+                .transactionHashes(new ArrayList<>())
+                .build();
+
+        // 区块链撤销
+        if (!blockchainGateway.isAvailable()) {
+            log.warn("区块链服务未启用，跳过区块链撤销");
+        } else {
+            // 存证尚未完成的证书，撤销排在存证之后
+            enqueueAll(filterQueuedForStore(filterAnchored(chainCertificates, false)),
+                    ChainOutboxDispatcher.OPERATION_REVOKE);
+            if (chainNos.isEmpty()) {
+                log.info("没有需要上链撤销的证书");
+            }
+            for (Map.Entry<Integer, List<Certificate>> group : groupByChainGroup(anchored).entrySet()) {
+                List<String> groupNos = toCertificateNos(group.getValue());
+                try {
+                    response.getTransactionHashes().addAll(blockchainGateway.forGroup(group.getKey())
+                            .revokeCertificates(groupNos).getTransactionHashes());
+                    log.info("证书批量区块链撤销成功，群组: {}, 数量: {}", group.getKey(), groupNos.size());
+                } catch (Exception e) {
+                    // 区块链撤销失败不影响数据库状态更新，写入发件箱逐张重试（链上已撤销的证书按已完成处理）
+                    log.error("证书批量区块链撤销失败，写入发件箱重试，群组: {}, 数量: {}",
+                            group.getKey(), groupNos.size(), e);
+                    response.setChainError(e.getMessage());
+                    enqueueAll(group.getValue(), ChainOutboxDispatcher.OPERATION_REVOKE);
+                }
+            }
+        }
+
+        log.info("证书批量撤销完成，请求: {}, 更新: {}, 上链: {}", distinctNos.size(), updated, chainNos.size());
+        return response;
+    }
+
+    /**
+     * 批量更新证书过期日期
+     * 数据库用一条语句更新（已过期的证书在新日期有效时恢复为有效），单独存证的证书按群组分组、按分片批量上链更新
+     *
+     * @param certificateNos 证书编号列表
+     * @param expiryDate 新的过期日期，为空表示永久有效
+     * @return 批量操作结果
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public CertificateBulkResponse updateExpiryDates(List<String> certificateNos, LocalDate expiryDate) {
+        List<String> distinctNos = new ArrayList<>(new LinkedHashSet<>(certificateNos));
+        log.info("开始批量更新证书过期日期，数量: {}, 新过期日期: {}", distinctNos.size(), expiryDate);
+
+        if (expiryDate != null && expiryDate.isBefore(LocalDate.now())) {
+            throw new BusinessException("过期日期不能早于今天");
+        }
+
+        List<Certificate> chainCertificates = selectChainCertificates(distinctNos);
+        List<Certificate> anchored = filterAnchored(chainCertificates, true);
+        List<String> chainNos = toCertificateNos(anchored);
+
+        LambdaUpdateWrapper<Certificate> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.in(Certificate::getCertificateNo, distinctNos)
+                .ne(Certificate::getStatus, CertificateStatus.REVOKED.getCode())
+                .set(Certificate::getExpiryDate, expiryDate)
+                .set(Certificate::getStatus, CertificateStatus.VALID.getCode())
+                .set(Certificate::getUpdateTime, LocalDateTime.now());
+        int updated = certificateRepository.update(null, updateWrapper);
+
+        CertificateBulkResponse response = CertificateBulkResponse.builder()
+                .requestedCount(distinctNos.size())
+                .updatedCount(updated)
+                .chainCount(chainNos.size())
+                .transactionHashes(new ArrayList<>())
+                .build();
+
+        long expiryTimestamp = toChainExpiryTimestamp(expiryDate);
+
+        // 区块链更新
+        if (!blockchainGateway.isAvailable()) {
+            log.warn("区块链服务未启用，跳过区块链更新");
+        } else {
+            // 存证尚未完成的证书，过期时间更新排在存证之后
+            enqueueAll(filterQueuedForStore(filterAnchored(chainCertificates, false)),
+                    ChainOutboxDispatcher.OPERATION_UPDATE_EXPIRY);
+            if (chainNos.isEmpty()) {
+                log.info("没有需要上链更新的证书");
+            }
+            for (Map.Entry<Integer, List<Certificate>> group : groupByChainGroup(anchored).entrySet()) {
+                List<String> groupNos = toCertificateNos(group.getValue());
+                try {
+                    response.getTransactionHashes().addAll(blockchainGateway.forGroup(group.getKey())
+                            .updateExpiryDates(groupNos, Collections.nCopies(groupNos.size(), expiryTimestamp))
+                            .getTransactionHashes());
+                    log.info("证书过期日期批量上链成功，群组: {}, 数量: {}", group.getKey(), groupNos.size());
+                } catch (Exception e) {
+                    // 写入发件箱逐张重试，发送时读取证书当前的过期日期
+                    log.error("证书过期日期批量上链失败，写入发件箱重试，群组: {}, 数量: {}",
+                            group.getKey(), groupNos.size(), e);
+                    response.setChainError(e.getMessage());
+                    enqueueAll(group.getValue(), ChainOutboxDispatcher.OPERATION_UPDATE_EXPIRY);
+                }
+            }
+        }
+
+        log.info("证书过期日期批量更新完成，请求: {}, 更新: {}, 上链: {}", distinctNos.size(), updated, chainNos.size());
+        return response;
+    }
+
+    /**
+     * 过期日期转换为链上过期时间戳（秒）：过期日期当天结束时失效，0 表示永不过期
+     */
+    static long toChainExpiryTimestamp(LocalDate expiryDate) {
+        return expiryDate == null ? 0L
+                : expiryDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    /**
+     * 查询未撤销且单独存证（含存证尚未完成）的证书
+     */
+    private List<Certificate> selectChainCertificates(List<String> certificateNos) {
+        LambdaQueryWrapper<Certificate> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(Certificate::getId, Certificate::getCertificateNo, Certificate::getFileHash,
+                        Certificate::getBlockchainTxHash, Certificate::getChainGroupId)
+                .in(Certificate::getCertificateNo, certificateNos)
+                .ne(Certificate::getStatus, CertificateStatus.REVOKED.getCode())
+                .isNull(Certificate::getMerkleRoot);
+        return certificateRepository.selectList(queryWrapper);
+    }
+
+    /**
+     * 按是否已有存证交易哈希筛选证书
+     */
+    private static List<Certificate> filterAnchored(List<Certificate> certificates, boolean anchored) {
+        List<Certificate> filtered = new ArrayList<>();
+        for (Certificate certificate : certificates) {
+            if (StringUtils.isNotBlank(certificate.getBlockchainTxHash()) == anchored) {
+                filtered.add(certificate);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * 按群组ID分组，保持证书原有顺序；群组ID为空的证书归入 null（后端默认群组）
+     */
+    private static Map<Integer, List<Certificate>> groupByChainGroup(List<Certificate> certificates) {
+        Map<Integer, List<Certificate>> groups = new LinkedHashMap<>();
+        for (Certificate certificate : certificates) {
+            groups.computeIfAbsent(certificate.getChainGroupId(), groupId -> new ArrayList<>()).add(certificate);
+        }
+        return groups;
+    }
+
+    private static List<String> toCertificateNos(List<Certificate> certificates) {
+        List<String> certificateNos = new ArrayList<>(certificates.size());
+        for (Certificate certificate : certificates) {
+            certificateNos.add(certificate.getCertificateNo());
+        }
+        return certificateNos;
+    }
+
+    /**
+     * 筛选由发件箱单独存证的证书，等待批量存证的证书链上只会有 Merkle 根
+     */
+    private List<Certificate> filterQueuedForStore(List<Certificate> certificates) {
+        if (certificates.isEmpty()) {
+            return certificates;
+        }
+        List<Long> ids = new ArrayList<>(certificates.size());
+        for (Certificate certificate : certificates) {
+            ids.add(certificate.getId());
+        }
+        Set<Long> stored = chainOutboxDispatcher.findStoreCertificateIds(ids);
+        List<Certificate> filtered = new ArrayList<>();
+        for (Certificate certificate : certificates) {
+            if (stored.contains(certificate.getId())) {
+                filtered.add(certificate);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * 为每张证书写入发件箱（已有同类未完成记录的跳过）
+     */
+    private void enqueueAll(List<Certificate> certificates, String operation) {
+        int queued = 0;
+        for (Certificate certificate : certificates) {
+            if (chainOutboxDispatcher.enqueueIfAbsent(certificate, operation)) {
+                queued++;
+            }
+        }
+        if (queued > 0) {
+            log.info("证书已写入发件箱，操作: {}, 数量: {}", operation, queued);
+        }
+    }
+
     /**
      * 获取默认证书模板
      * 
@@ -501,26 +709,6 @@ public class CertificateService {
         return data;
     }
 
-    /**
-     * 计算文件哈希
-     * 
-     * @param content 文件内容
-     * @return SHA-256 哈希值
-     */
-    private String calculateFileHash(byte[] content) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = md.digest(content);
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashBytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("计算文件哈希失败", e);
-        }
-    }
-
     /**
      * 统计证书数量
      * 
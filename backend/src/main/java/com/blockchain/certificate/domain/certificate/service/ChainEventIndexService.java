@@ -0,0 +1,199 @@
+package com.blockchain.certificate.domain.certificate.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.blockchain.certificate.domain.certificate.model.ChainEvent;
+import com.blockchain.certificate.domain.certificate.repository.ChainEventRepository;
+import com.blockchain.certificate.domain.system.model.SystemConfig;
+import com.blockchain.certificate.domain.system.repository.SystemConfigRepository;
+import com.blockchain.certificate.infrastructure.blockchain.ChainEventReader;
+import com.blockchain.certificate.infrastructure.blockchain.ChainReadCache;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainStatusMonitor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * 链上事件索引服务
+ * 从检查点开始逐块读取证书合约事件，写入 t_chain_event，重启后从检查点继续
+ *
+ * 检查点保存在 t_system_config（chain.event.checkpoint），值为已完整索引的最后一个区块高度。
+ * 事件按 (tx_hash, log_index) 唯一，重复处理同一区块不会产生重复记录。
+ *
+ * 当 chain.indexer.enabled=true 时启用此服务
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "chain.indexer.enabled", havingValue = "true", matchIfMissing = false)
+public class ChainEventIndexService {
+
+    /**
+     * 检查点配置键
+     */
+    public static final String CHECKPOINT_KEY = "chain.event.checkpoint";
+
+    private final ChainEventRepository chainEventRepository;
+    private final SystemConfigRepository systemConfigRepository;
+    private final ChainEventReader chainEventReader;
+    private final ChainReadCache chainReadCache;
+    private final ChainStatusMonitor chainStatusMonitor;
+
+    @Value("${chain.indexer.start-block:0}")
+    private long startBlock;
+
+    @Value("${chain.indexer.confirmations:0}")
+    private long confirmations;
+
+    @Value("${chain.indexer.max-blocks-per-run:500}")
+    private int maxBlocksPerRun;
+
+    public ChainEventIndexService(
+            ChainEventRepository chainEventRepository,
+            SystemConfigRepository systemConfigRepository,
+            ChainEventReader chainEventReader,
+            ChainReadCache chainReadCache,
+            ChainStatusMonitor chainStatusMonitor) {
+        this.chainEventRepository = chainEventRepository;
+        this.systemConfigRepository = systemConfigRepository;
+        this.chainEventReader = chainEventReader;
+        this.chainReadCache = chainReadCache;
+        this.chainStatusMonitor = chainStatusMonitor;
+    }
+
+    /**
+     * 缓存按事件主题中的证书编号哈希建立索引，事件没有证书编号时按哈希失效
+     */
+    @PostConstruct
+    public void init() {
+        chainReadCache.setKeyHasher(chainEventReader::certificateNoHash);
+    }
+
+    /**
+     * 定时追块索引
+     */
+    @Scheduled(fixedDelayString = "${chain.indexer.poll-ms:3000}")
+    public void indexNewBlocks() {
+        if (!chainEventReader.isAvailable()) {
+            return;
+        }
+
+        // 最新区块高度读取状态快照，最多落后 chain.status.poll-ms
+        Long latest = chainStatusMonitor.getLatestBlockNumber();
+        if (latest == null) {
+            return;
+        }
+
+        long target = latest - confirmations;
+        long checkpoint = loadCheckpoint();
+        long end = Math.min(target, checkpoint + maxBlocksPerRun);
+
+        for (long blockNumber = checkpoint + 1; blockNumber <= end; blockNumber++) {
+            try {
+                indexBlock(blockNumber);
+                saveCheckpoint(blockNumber);
+            } catch (Exception e) {
+                // 停在失败的区块，下次从该区块重试
+                log.error("索引区块失败，区块高度: {}", blockNumber, e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 索引单个区块
+     *
+     * @param blockNumber 区块高度
+     * @return 新写入的事件数量
+     */
+    public int indexBlock(long blockNumber) {
+        List<ChainEventReader.CertificateEvent> events = chainEventReader.readEvents(blockNumber);
+        int inserted = 0;
+        for (ChainEventReader.CertificateEvent event : events) {
+            ChainEvent chainEvent = ChainEvent.builder()
+                    .blockNumber(event.getBlockNumber())
+                    .txHash(event.getTxHash())
+                    .logIndex(event.getLogIndex())
+                    .eventName(event.getEventName())
+                    .certificateNo(event.getCertificateNo())
+                    .certificateNoHash(event.getCertificateNoHash())
+                    .fileHash(event.getFileHash())
+                    .operator(event.getOperator())
+                    .eventTimestamp(event.getEventTimestamp())
+                    .expiryDate(event.getExpiryDate())
+                    .oldExpiryDate(event.getOldExpiryDate())
+                    .build();
+            try {
+                chainEventRepository.insert(chainEvent);
+                inserted++;
+            } catch (DuplicateKeyException e) {
+                log.debug("事件已索引，交易: {}, 日志序号: {}", event.getTxHash(), event.getLogIndex());
+            }
+
+            // v2 事件和无法解析交易输入的事件只有证书编号哈希，按哈希失效缓存
+            if (event.getCertificateNo() != null) {
+                chainReadCache.onChainEvent(event.getCertificateNo(), blockNumber);
+            } else if (event.getCertificateNoHash() != null) {
+                chainReadCache.onChainEventByHash(event.getCertificateNoHash(), blockNumber);
+            }
+        }
+
+        if (!events.isEmpty()) {
+            log.info("区块 {} 索引完成，事件数: {}, 新写入: {}", blockNumber, events.size(), inserted);
+        }
+        return inserted;
+    }
+
+    /**
+     * 查询证书的链上事件（按区块顺序），供管理端审计
+     * v2 合约的撤销和过期事件只带证书编号哈希，同时按哈希匹配
+     *
+     * @param certificateNo 证书编号
+     * @return 事件列表
+     */
+    public List<ChainEvent> getEvents(String certificateNo) {
+        String certificateNoHash = chainEventReader.certificateNoHash(certificateNo);
+        LambdaQueryWrapper<ChainEvent> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.and(wrapper -> wrapper.eq(ChainEvent::getCertificateNo, certificateNo)
+                        .or().eq(ChainEvent::getCertificateNoHash, certificateNoHash))
+                .orderByAsc(ChainEvent::getBlockNumber)
+                .orderByAsc(ChainEvent::getLogIndex);
+        return chainEventRepository.selectList(queryWrapper);
+    }
+
+    /**
+     * 读取检查点，没有时从 start-block 的前一个区块开始
+     */
+    public long loadCheckpoint() {
+        SystemConfig config = findCheckpoint();
+        if (config == null || config.getConfigValue() == null) {
+            return startBlock - 1;
+        }
+        return Long.parseLong(config.getConfigValue());
+    }
+
+    private void saveCheckpoint(long blockNumber) {
+        SystemConfig config = findCheckpoint();
+        if (config == null) {
+            config = SystemConfig.builder()
+                    .configKey(CHECKPOINT_KEY)
+                    .configValue(String.valueOf(blockNumber))
+                    .description("链上事件索引检查点（已索引的最后区块高度）")
+                    .build();
+            systemConfigRepository.insert(config);
+        } else {
+            config.setConfigValue(String.valueOf(blockNumber));
+            systemConfigRepository.updateById(config);
+        }
+    }
+
+    private SystemConfig findCheckpoint() {
+        LambdaQueryWrapper<SystemConfig> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(SystemConfig::getConfigKey, CHECKPOINT_KEY);
+        return systemConfigRepository.selectOne(queryWrapper);
+    }
+}
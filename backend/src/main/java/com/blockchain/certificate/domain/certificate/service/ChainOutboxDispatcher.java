@@ -0,0 +1,566 @@
+package com.blockchain.certificate.domain.certificate.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.blockchain.certificate.domain.certificate.model.Certificate;
+import com.blockchain.certificate.domain.certificate.model.ChainEvent;
+import com.blockchain.certificate.domain.certificate.model.ChainOutbox;
+import com.blockchain.certificate.domain.certificate.repository.CertificateRepository;
+import com.blockchain.certificate.domain.certificate.repository.ChainEventRepository;
+import com.blockchain.certificate.domain.certificate.repository.ChainOutboxRepository;
+import com.blockchain.certificate.infrastructure.blockchain.ChainAccessException;
+import com.blockchain.certificate.infrastructure.blockchain.ChainEventReader;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.BlockchainGateway;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainTransactionResult;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainVerificationResult;
+import com.blockchain.certificate.infrastructure.config.AnchorConfig;
+import com.blockchain.certificate.shared.common.PageResult;
+import com.blockchain.certificate.shared.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 区块链存证发件箱分发器
+ * 后台轮询 t_chain_outbox，以有限并发将证书上链，失败按带抖动的指数退避重试，
+ * 存证上链成功后回写证书的交易哈希和区块高度
+ *
+ * - 签发时的存证、上链失败的撤销和过期时间更新、对账任务发现的差异都写入发件箱
+ * - 撤销使用单张撤销函数发送，链上不存在或无权撤销时交易回滚，不会误判为完成；
+ *   过期时间更新使用批量合约函数发送（合约跳过不存在的证书），发送前先确认证书已上链
+ * - 同一证书的存证完成前（含存证进入死信），撤销和过期时间更新延后处理
+ * - 存证和撤销重试前、或交易回滚时先查询链上状态：上次发送的交易可能已上链（回执丢失），
+ *   链上已存证（哈希一致）或已撤销时直接完成，交易哈希和区块高度从链上事件索引中查找
+ * - 达到最大尝试次数后进入死信（FAILED），由管理员排查后通过 redrive 重新投递
+ *
+ * 通过 BlockchainGateway 上链；区块链未启用时不做处理，后端熔断时记录快速失败并按退避重试
+ */
+@Service
+@Slf4j
+public class ChainOutboxDispatcher {
+
+    /**
+     * 上链操作：存储证书
+     */
+    public static final String OPERATION_STORE = "STORE";
+
+    /**
+     * 上链操作：撤销证书
+     */
+    public static final String OPERATION_REVOKE = "REVOKE";
+
+    /**
+     * 上链操作：更新过期时间（发送时读取证书当前的过期日期）
+     */
+    public static final String OPERATION_UPDATE_EXPIRY = "EXPIRY";
+
+    private final ChainOutboxRepository chainOutboxRepository;
+    private final CertificateRepository certificateRepository;
+    private final AnchorConfig anchorConfig;
+    private final BlockchainGateway blockchainGateway;
+    private final ChainEventRepository chainEventRepository;
+    private final ChainEventReader chainEventReader;
+
+    private final ExecutorService executor;
+
+    public ChainOutboxDispatcher(
+            ChainOutboxRepository chainOutboxRepository,
+            CertificateRepository certificateRepository,
+            AnchorConfig anchorConfig,
+            BlockchainGateway blockchainGateway,
+            ChainEventRepository chainEventRepository,
+            ChainEventReader chainEventReader) {
+        this.chainOutboxRepository = chainOutboxRepository;
+        this.certificateRepository = certificateRepository;
+        this.anchorConfig = anchorConfig;
+        this.blockchainGateway = blockchainGateway;
+        this.chainEventRepository = chainEventRepository;
+        this.chainEventReader = chainEventReader;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(
+                Math.max(1, anchorConfig.getOutbox().getParallelism()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "chain-outbox-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * 发件箱状态枚举，FAILED 为死信
+     */
+    public enum OutboxStatus {
+        PENDING, PROCESSING, DONE, FAILED
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 写入存证发件箱记录（需在证书记录所在事务中调用）
+     *
+     * @param certificate 证书信息
+     */
+    public void enqueue(Certificate certificate) {
+        enqueue(certificate, OPERATION_STORE);
+    }
+
+    /**
+     * 写入发件箱记录
+     *
+     * @param certificate 证书信息
+     * @param operation 上链操作：STORE、REVOKE、EXPIRY
+     * @return 发件箱记录
+     */
+    public ChainOutbox enqueue(Certificate certificate, String operation) {
+        ChainOutbox outbox = ChainOutbox.builder()
+                .certificateId(certificate.getId())
+                .certificateNo(certificate.getCertificateNo())
+                .fileHash(certificate.getFileHash())
+                .operation(operation)
+                .status(OutboxStatus.PENDING.name())
+                .attempts(0)
+                .nextAttemptTime(LocalDateTime.now())
+                .build();
+        chainOutboxRepository.insert(outbox);
+        log.info("证书已写入发件箱，证书编号: {}, 操作: {}, 发件箱ID: {}",
+                certificate.getCertificateNo(), operation, outbox.getId());
+        return outbox;
+    }
+
+    /**
+     * 证书是否有未完成（待处理或处理中）的发件箱记录
+     *
+     * @param certificateId 证书ID
+     * @param operation 上链操作，为 null 时不限操作
+     */
+    public boolean hasActive(Long certificateId, String operation) {
+        LambdaQueryWrapper<ChainOutbox> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(ChainOutbox::getCertificateId, certificateId)
+                .eq(operation != null, ChainOutbox::getOperation, operation)
+                .in(ChainOutbox::getStatus, OutboxStatus.PENDING.name(), OutboxStatus.PROCESSING.name());
+        return chainOutboxRepository.selectCount(queryWrapper) > 0;
+    }
+
+    /**
+     * 证书没有同类未完成记录时写入发件箱（需在证书记录所在事务中调用）
+     *
+     * @param certificate 证书信息
+     * @param operation 上链操作
+     * @return 是否新写入了记录
+     */
+    public boolean enqueueIfAbsent(Certificate certificate, String operation) {
+        if (hasActive(certificate.getId(), operation)) {
+            return false;
+        }
+        enqueue(certificate, operation);
+        return true;
+    }
+
+    /**
+     * 查询有存证发件箱记录（任意状态）的证书ID，即由发件箱单独上链的证书
+     * 批量存证模式下签发的证书没有存证记录，链上只有 Merkle 根，撤销和过期时间更新无需上链
+     *
+     * @param certificateIds 证书ID列表
+     * @return 其中有存证记录的证书ID
+     */
+    public Set<Long> findStoreCertificateIds(Collection<Long> certificateIds) {
+        if (certificateIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        LambdaQueryWrapper<ChainOutbox> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(ChainOutbox::getCertificateId)
+                .in(ChainOutbox::getCertificateId, certificateIds)
+                .eq(ChainOutbox::getOperation, OPERATION_STORE);
+        Set<Long> stored = new HashSet<>();
+        for (ChainOutbox outbox : chainOutboxRepository.selectList(queryWrapper)) {
+            stored.add(outbox.getCertificateId());
+        }
+        return stored;
+    }
+
+    /**
+     * 分页查询发件箱记录
+     *
+     * @param status 状态（可选）
+     * @param operation 上链操作（可选）
+     */
+    public PageResult<ChainOutbox> listOutbox(String status, String operation, int page, int size) {
+        LambdaQueryWrapper<ChainOutbox> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(StringUtils.isNotBlank(status), ChainOutbox::getStatus, status)
+                .eq(StringUtils.isNotBlank(operation), ChainOutbox::getOperation, operation)
+                .orderByDesc(ChainOutbox::getId);
+        IPage<ChainOutbox> outboxPage = chainOutboxRepository.selectPage(new Page<>(page, size), queryWrapper);
+        return PageResult.<ChainOutbox>builder()
+                .records(outboxPage.getRecords())
+                .total(outboxPage.getTotal())
+                .current(outboxPage.getCurrent())
+                .size(outboxPage.getSize())
+                .build();
+    }
+
+    /**
+     * 按状态和操作统计发件箱记录数
+     *
+     * @return 状态 -> 操作 -> 数量
+     */
+    public Map<String, Map<String, Long>> getStats() {
+        QueryWrapper<ChainOutbox> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("status", "operation", "COUNT(*) AS total")
+                .groupBy("status", "operation");
+        Map<String, Map<String, Long>> stats = new TreeMap<>();
+        for (Map<String, Object> row : chainOutboxRepository.selectMaps(queryWrapper)) {
+            stats.computeIfAbsent(String.valueOf(row.get("status")), key -> new TreeMap<>())
+                    .put(String.valueOf(row.get("operation")), ((Number) row.get("total")).longValue());
+        }
+        return stats;
+    }
+
+    /**
+     * 将死信重新投递，重置尝试次数并立即处理
+     *
+     * @param ids 发件箱ID列表，为空时投递全部死信
+     * @param operation 只投递指定操作的死信（可选）
+     * @return 重新投递的数量
+     */
+    public int redrive(List<Long> ids, String operation) {
+        LambdaUpdateWrapper<ChainOutbox> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(ChainOutbox::getStatus, OutboxStatus.FAILED.name())
+                .in(ids != null && !ids.isEmpty(), ChainOutbox::getId, ids)
+                .eq(StringUtils.isNotBlank(operation), ChainOutbox::getOperation, operation)
+                .set(ChainOutbox::getStatus, OutboxStatus.PENDING.name())
+                .set(ChainOutbox::getAttempts, 0)
+                .set(ChainOutbox::getNextAttemptTime, LocalDateTime.now())
+                .set(ChainOutbox::getUpdateTime, LocalDateTime.now());
+        int redriven = chainOutboxRepository.update(null, updateWrapper);
+        log.info("死信已重新投递，数量: {}, 指定ID: {}, 操作: {}", redriven, ids, operation);
+        return redriven;
+    }
+
+    /**
+     * 查询有未完成发件箱记录的证书ID
+     *
+     * @param certificateIds 证书ID列表
+     * @return 其中有待处理或处理中记录的证书ID
+     */
+    public Set<Long> findActiveCertificateIds(Collection<Long> certificateIds) {
+        if (certificateIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        LambdaQueryWrapper<ChainOutbox> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(ChainOutbox::getCertificateId)
+                .in(ChainOutbox::getCertificateId, certificateIds)
+                .in(ChainOutbox::getStatus, OutboxStatus.PENDING.name(), OutboxStatus.PROCESSING.name());
+        Set<Long> active = new HashSet<>();
+        for (ChainOutbox outbox : chainOutboxRepository.selectList(queryWrapper)) {
+            active.add(outbox.getCertificateId());
+        }
+        return active;
+    }
+
+    /**
+     * 定时分发发件箱记录
+     */
+    @Scheduled(fixedDelayString = "${anchor.outbox.poll-ms:2000}")
+    public void dispatch() {
+        if (!blockchainGateway.isAvailable()) {
+            return;
+        }
+
+        recoverStaleProcessing();
+
+        LambdaQueryWrapper<ChainOutbox> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(ChainOutbox::getStatus, OutboxStatus.PENDING.name())
+                .le(ChainOutbox::getNextAttemptTime, LocalDateTime.now())
+                .orderByAsc(ChainOutbox::getId);
+        Page<ChainOutbox> pageParam = new Page<>(1, anchorConfig.getOutbox().getBatchSize(), false);
+        List<ChainOutbox> due = chainOutboxRepository.selectPage(pageParam, queryWrapper).getRecords();
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(due.size());
+        for (ChainOutbox outbox : due) {
+            if (claim(outbox)) {
+                futures.add(executor.submit(() -> process(outbox)));
+            }
+        }
+
+        // 等待本轮全部完成，保证同一时刻在途交易数不超过 parallelism
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("发件箱分发任务异常", e);
+            }
+        }
+    }
+
+    /**
+     * 领取发件箱记录（PENDING -> PROCESSING），避免重复处理
+     */
+    private boolean claim(ChainOutbox outbox) {
+        LambdaUpdateWrapper<ChainOutbox> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(ChainOutbox::getId, outbox.getId())
+                .eq(ChainOutbox::getStatus, OutboxStatus.PENDING.name())
+                .set(ChainOutbox::getStatus, OutboxStatus.PROCESSING.name())
+                .set(ChainOutbox::getUpdateTime, LocalDateTime.now());
+        return chainOutboxRepository.update(null, updateWrapper) == 1;
+    }
+
+    /**
+     * 将处理超时的记录重新放回待处理（例如进程在处理中途退出）
+     */
+    private void recoverStaleProcessing() {
+        LocalDateTime deadline = LocalDateTime.now()
+                .minusNanos(anchorConfig.getOutbox().getProcessingTimeoutMs() * 1_000_000L);
+        LambdaUpdateWrapper<ChainOutbox> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.eq(ChainOutbox::getStatus, OutboxStatus.PROCESSING.name())
+                .lt(ChainOutbox::getUpdateTime, deadline)
+                .set(ChainOutbox::getStatus, OutboxStatus.PENDING.name())
+                .set(ChainOutbox::getNextAttemptTime, LocalDateTime.now());
+        int recovered = chainOutboxRepository.update(null, updateWrapper);
+        if (recovered > 0) {
+            log.warn("重置处理超时的发件箱记录: {} 条", recovered);
+        }
+    }
+
+    /**
+     * 处理单条发件箱记录
+     */
+    private void process(ChainOutbox outbox) {
+        if (!OPERATION_STORE.equals(outbox.getOperation()) && hasEarlierActiveStore(outbox)) {
+            // 存证尚未完成（或在死信中等待 redrive），不计入尝试次数
+            outbox.setStatus(OutboxStatus.PENDING.name());
+            outbox.setNextAttemptTime(LocalDateTime.now().plusNanos(
+                    anchorConfig.getOutbox().getInitialBackoffMs() * 1_000_000L));
+            outbox.setUpdateTime(LocalDateTime.now());
+            chainOutboxRepository.updateById(outbox);
+            return;
+        }
+
+        int attempts = outbox.getAttempts() == null ? 1 : outbox.getAttempts() + 1;
+        try {
+            ChainTransactionResult result = send(outbox, attempts > 1);
+            if (result == null) {
+                outbox.setStatus(OutboxStatus.DONE.name());
+                outbox.setAttempts(attempts);
+                outbox.setUpdateTime(LocalDateTime.now());
+                chainOutboxRepository.updateById(outbox);
+                return;
+            }
+            String transactionHash = result.getTransactionHash();
+            long blockNumber = result.getBlockNumber();
+
+            // 存证成功后回写证书的区块链信息；链上已存证但未找到交易时保留原值
+            if (OPERATION_STORE.equals(outbox.getOperation()) && transactionHash != null) {
+                LambdaUpdateWrapper<Certificate> certificateUpdate = new LambdaUpdateWrapper<>();
+                certificateUpdate.eq(Certificate::getId, outbox.getCertificateId())
+                        .set(Certificate::getBlockchainTxHash, transactionHash)
+                        .set(Certificate::getBlockHeight, blockNumber)
+                        .set(Certificate::getIssuerAddress, result.getIssuerAddress());
+                certificateRepository.update(null, certificateUpdate);
+            }
+
+            outbox.setStatus(OutboxStatus.DONE.name());
+            outbox.setAttempts(attempts);
+            outbox.setTxHash(transactionHash);
+            outbox.setBlockHeight(transactionHash != null ? blockNumber : null);
+            outbox.setLastError(null);
+            outbox.setUpdateTime(LocalDateTime.now());
+            chainOutboxRepository.updateById(outbox);
+
+            log.info("发件箱上链成功，证书编号: {}, 操作: {}, 交易哈希: {}, 区块号: {}",
+                    outbox.getCertificateNo(), outbox.getOperation(), transactionHash, blockNumber);
+
+        } catch (Exception e) {
+            int maxAttempts = anchorConfig.getOutbox().getMaxAttempts();
+            outbox.setAttempts(attempts);
+            outbox.setLastError(StringUtils.abbreviate(e.getMessage(), 2000));
+            outbox.setUpdateTime(LocalDateTime.now());
+
+            if (attempts >= maxAttempts) {
+                outbox.setStatus(OutboxStatus.FAILED.name());
+                log.error("发件箱上链失败且已达最大尝试次数，转入死信，证书编号: {}, 操作: {}, 尝试次数: {}",
+                        outbox.getCertificateNo(), outbox.getOperation(), attempts, e);
+            } else {
+                long backoffMs = computeBackoff(attempts);
+                outbox.setStatus(OutboxStatus.PENDING.name());
+                outbox.setNextAttemptTime(LocalDateTime.now().plusNanos(backoffMs * 1_000_000L));
+                log.warn("发件箱上链失败，{} ms 后重试，证书编号: {}, 操作: {}, 尝试次数: {}, 原因: {}",
+                        backoffMs, outbox.getCertificateNo(), outbox.getOperation(), attempts, e.getMessage());
+            }
+            chainOutboxRepository.updateById(outbox);
+        }
+    }
+
+    /**
+     * 发送上链交易，发往证书记录的群组（chain.sharding）
+     *
+     * @param retry 是否为重试，重试前先确认上次发送的交易是否已上链
+     * @return 交易结果，无需发送时返回 null
+     */
+    private ChainTransactionResult send(ChainOutbox outbox, boolean retry) {
+        String certificateNo = outbox.getCertificateNo();
+        Certificate certificate = certificateRepository.selectById(outbox.getCertificateId());
+        BlockchainGateway gateway = blockchainGateway.forGroup(
+                certificate != null ? certificate.getChainGroupId() : null);
+        if (!OPERATION_UPDATE_EXPIRY.equals(outbox.getOperation())) {
+            ChainTransactionResult landed = retry ? findLanded(gateway, outbox) : null;
+            if (landed != null) {
+                return landed;
+            }
+            try {
+                // 批量撤销函数会跳过链上不存在的证书，单张撤销在这种情况下回滚
+                return OPERATION_STORE.equals(outbox.getOperation())
+                        ? gateway.storeCertificate(certificateNo, outbox.getFileHash())
+                        : gateway.revokeCertificate(certificateNo);
+            } catch (BusinessException e) {
+                if (ChainAccessException.CODE.equals(e.getCode())) {
+                    throw e;
+                }
+                // 交易回滚（证书已存在、已撤销等）：链上状态与目标一致时视为完成
+                landed = findLanded(gateway, outbox);
+                if (landed != null) {
+                    return landed;
+                }
+                throw e;
+            }
+        }
+        if (certificate == null) {
+            log.warn("证书已不存在，跳过过期时间更新，证书编号: {}", certificateNo);
+            return null;
+        }
+        long expiryTimestamp = CertificateService.toChainExpiryTimestamp(certificate.getExpiryDate());
+        if (expiryTimestamp != 0 && expiryTimestamp <= System.currentTimeMillis() / 1000) {
+            // 合约要求新的过期时间晚于当前区块时间，已过期的日期无法再同步
+            log.warn("证书过期日期已过，跳过过期时间更新，证书编号: {}, 过期日期: {}",
+                    certificateNo, certificate.getExpiryDate());
+            return null;
+        }
+        // 批量更新函数跳过链上不存在和已撤销的证书，先确认证书状态，避免未更新却标记为完成
+        Integer status = gateway.verifyCertificate(certificateNo, outbox.getFileHash()).getStatus();
+        if (status != null && status == 1) {
+            throw new BusinessException("链上未找到证书，过期时间未更新");
+        }
+        if (status != null && status == 2) {
+            log.warn("证书已在链上撤销，跳过过期时间更新，证书编号: {}", certificateNo);
+            return null;
+        }
+        return gateway.updateExpiryDates(
+                Collections.singletonList(certificateNo), Collections.singletonList(expiryTimestamp));
+    }
+
+    /**
+     * 查询链上状态，存证（哈希一致）或撤销已生效时返回对应的交易结果
+     *
+     * @return 交易结果，交易哈希和区块高度取自事件索引，索引中没有时为空；链上尚未生效时返回 null
+     */
+    private ChainTransactionResult findLanded(BlockchainGateway gateway, ChainOutbox outbox) {
+        boolean store = OPERATION_STORE.equals(outbox.getOperation());
+        ChainVerificationResult verification = gateway.verifyCertificate(outbox.getCertificateNo(), outbox.getFileHash());
+        Integer status = verification.getStatus();
+        String eventName = store ? ChainEventReader.CERTIFICATE_STORED : ChainEventReader.CERTIFICATE_REVOKED;
+        ChainEvent event;
+        if (store && status != null && status == 0) {
+            event = findEvent(outbox.getCertificateNo(), eventName);
+        } else if (store && status != null && (status == 2 || status == 3)) {
+            // 已撤销、已过期时合约不比较哈希，用存证事件中的哈希确认
+            event = findEvent(outbox.getCertificateNo(), eventName);
+            if (event == null || !sameHash(event.getFileHash(), outbox.getFileHash())) {
+                return null;
+            }
+        } else if (!store && status != null && status == 2) {
+            event = findEvent(outbox.getCertificateNo(), eventName);
+        } else {
+            return null;
+        }
+
+        if (event == null) {
+            log.warn("链上已{}，事件索引中未找到交易，证书编号: {}",
+                    store ? "存证" : "撤销", outbox.getCertificateNo());
+            return ChainTransactionResult.builder().success(true).build();
+        }
+        log.info("链上已{}，按已上链交易完成，证书编号: {}, 交易哈希: {}",
+                store ? "存证" : "撤销", outbox.getCertificateNo(), event.getTxHash());
+        return ChainTransactionResult.builder()
+                .success(true)
+                .transactionHash(event.getTxHash())
+                .blockNumber(event.getBlockNumber())
+                .issuerAddress(store ? event.getOperator() : null)
+                .build();
+    }
+
+    /**
+     * 查询证书最近一次的指定事件，按证书编号或证书编号哈希（v2 合约）匹配
+     */
+    private ChainEvent findEvent(String certificateNo, String eventName) {
+        String certificateNoHash = chainEventReader.certificateNoHash(certificateNo);
+        LambdaQueryWrapper<ChainEvent> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(ChainEvent::getEventName, eventName)
+                .and(wrapper -> wrapper.eq(ChainEvent::getCertificateNo, certificateNo)
+                        .or().eq(ChainEvent::getCertificateNoHash, certificateNoHash))
+                .orderByDesc(ChainEvent::getBlockNumber)
+                .last("LIMIT 1");
+        return chainEventRepository.selectOne(queryWrapper);
+    }
+
+    private static boolean sameHash(String chainHash, String fileHash) {
+        return chainHash != null && fileHash != null
+                && StringUtils.removeStartIgnoreCase(chainHash, "0x").equalsIgnoreCase(
+                        StringUtils.removeStartIgnoreCase(fileHash, "0x"));
+    }
+
+    /**
+     * 同一证书是否有更早的未完成存证记录，死信中的存证也算未完成（等待 redrive）
+     */
+    private boolean hasEarlierActiveStore(ChainOutbox outbox) {
+        LambdaQueryWrapper<ChainOutbox> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(ChainOutbox::getCertificateId, outbox.getCertificateId())
+                .eq(ChainOutbox::getOperation, OPERATION_STORE)
+                .lt(ChainOutbox::getId, outbox.getId())
+                .in(ChainOutbox::getStatus, OutboxStatus.PENDING.name(), OutboxStatus.PROCESSING.name(),
+                        OutboxStatus.FAILED.name());
+        return chainOutboxRepository.selectCount(queryWrapper) > 0;
+    }
+
+    /**
+     * 计算指数退避时间（带 ±20% 随机抖动，避免重试集中）
+     */
+    private long computeBackoff(int attempts) {
+        AnchorConfig.Outbox config = anchorConfig.getOutbox();
+        long backoff = config.getInitialBackoffMs() << Math.min(attempts - 1, 20);
+        backoff = Math.min(backoff, config.getMaxBackoffMs());
+        long jitter = (long) (backoff * 0.2);
+        if (jitter > 0) {
+            backoff += ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+        }
+        return Math.max(backoff, 0);
+    }
+}
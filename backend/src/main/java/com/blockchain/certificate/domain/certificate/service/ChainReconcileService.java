@@ -0,0 +1,586 @@
+package com.blockchain.certificate.domain.certificate.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.blockchain.certificate.domain.certificate.model.Certificate;
+import com.blockchain.certificate.domain.certificate.model.ChainOutbox;
+import com.blockchain.certificate.domain.certificate.model.ChainReconcileDiff;
+import com.blockchain.certificate.domain.certificate.model.ChainReconcileRun;
+import com.blockchain.certificate.domain.certificate.repository.CertificateRepository;
+import com.blockchain.certificate.domain.certificate.repository.ChainReconcileDiffRepository;
+import com.blockchain.certificate.domain.certificate.repository.ChainReconcileRunRepository;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.BlockchainGateway;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainVerificationResult;
+import com.blockchain.certificate.infrastructure.config.ReconcileConfig;
+import com.blockchain.certificate.shared.common.PageResult;
+import com.blockchain.certificate.shared.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 数据库与链上数据对账服务
+ * 按证书ID游标分页读取 t_certificate，每页分片后并发调用批量验证（限速），差异写入 t_chain_reconcile_diff
+ *
+ * - 每次只在内存中保留一页证书，可处理数十万条记录
+ * - 批量存证的证书链上只有 Merkle 根，发件箱中处理中的证书尚未上链，两者都跳过
+ * - 缺失的存证、未上链的撤销和过期时间可写入发件箱补发，其余差异需要人工处理
+ * - 同一时刻只运行一个对账任务；中断的任务可从游标继续
+ */
+@Service
+@Slf4j
+public class ChainReconcileService {
+
+    /**
+     * 对账任务状态枚举
+     */
+    public enum RunStatus {
+        RUNNING, COMPLETED, CANCELLED, FAILED, INTERRUPTED
+    }
+
+    /**
+     * 差异类型枚举
+     */
+    public enum DiffType {
+        /** 数据库无交易哈希，链上不存在 */
+        NOT_ANCHORED,
+        /** 数据库无交易哈希，链上已存在（回执丢失） */
+        TX_HASH_MISSING,
+        /** 数据库有交易哈希，链上不存在 */
+        NOT_ON_CHAIN,
+        /** 链上文件哈希与数据库不一致 */
+        HASH_MISMATCH,
+        /** 数据库已撤销，链上未撤销 */
+        REVOKE_NOT_ON_CHAIN,
+        /** 链上已撤销，数据库未撤销 */
+        REVOKED_ONLY_ON_CHAIN,
+        /** 数据库有效，链上已过期（过期时间更新未上链） */
+        EXPIRED_ON_CHAIN
+    }
+
+    /**
+     * 修复状态枚举
+     */
+    public enum RepairStatus {
+        MANUAL, PENDING, QUEUED
+    }
+
+    public static final String TRIGGER_MANUAL = "MANUAL";
+    public static final String TRIGGER_SCHEDULED = "SCHEDULED";
+
+    /**
+     * 链上验证状态码
+     */
+    private static final int CHAIN_VALID = 0;
+    private static final int CHAIN_NOT_FOUND = 1;
+    private static final int CHAIN_REVOKED = 2;
+    private static final int CHAIN_EXPIRED = 3;
+    private static final int CHAIN_HASH_MISMATCH = 4;
+
+    private final CertificateRepository certificateRepository;
+    private final ChainReconcileRunRepository chainReconcileRunRepository;
+    private final ChainReconcileDiffRepository chainReconcileDiffRepository;
+    private final ChainOutboxDispatcher chainOutboxDispatcher;
+    private final ReconcileConfig reconcileConfig;
+    private final BlockchainGateway blockchainGateway;
+
+    private final ExecutorService runner;
+    private final ExecutorService workers;
+
+    /**
+     * 当前运行的任务ID，没有时为 null，由 this 锁保护
+     */
+    private Long activeRunId;
+    private volatile boolean cancelRequested;
+
+    public ChainReconcileService(
+            CertificateRepository certificateRepository,
+            ChainReconcileRunRepository chainReconcileRunRepository,
+            ChainReconcileDiffRepository chainReconcileDiffRepository,
+            ChainOutboxDispatcher chainOutboxDispatcher,
+            ReconcileConfig reconcileConfig,
+            BlockchainGateway blockchainGateway) {
+        this.certificateRepository = certificateRepository;
+        this.chainReconcileRunRepository = chainReconcileRunRepository;
+        this.chainReconcileDiffRepository = chainReconcileDiffRepository;
+        this.chainOutboxDispatcher = chainOutboxDispatcher;
+        this.reconcileConfig = reconcileConfig;
+        this.blockchainGateway = blockchainGateway;
+
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chain-reconcile-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(
+                Math.max(1, reconcileConfig.getParallelism()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "chain-reconcile-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cancelRequested = true;
+        runner.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * 启动时将上次进程退出时仍在运行的任务标记为中断，可通过 resume 继续
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedRuns() {
+        LambdaQueryWrapper<ChainReconcileRun> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(ChainReconcileRun::getStatus, RunStatus.RUNNING.name());
+        for (ChainReconcileRun run : chainReconcileRunRepository.selectList(queryWrapper)) {
+            run.setStatus(RunStatus.INTERRUPTED.name());
+            run.setEndTime(LocalDateTime.now());
+            chainReconcileRunRepository.updateById(run);
+            log.warn("对账任务在进程退出时中断，任务ID: {}, 游标: {}", run.getId(), run.getLastCertificateId());
+        }
+    }
+
+    /**
+     * 定时对账（chain.reconcile.cron）
+     */
+    @Scheduled(cron = "${chain.reconcile.cron:-}")
+    public void scheduledReconcile() {
+        if (!blockchainGateway.isAvailable()) {
+            return;
+        }
+        try {
+            startRun(TRIGGER_SCHEDULED);
+        } catch (BusinessException e) {
+            log.warn("跳过定时对账: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 启动新的对账任务，从第一张证书开始
+     *
+     * @param triggerType 触发方式
+     * @return 对账任务
+     */
+    public ChainReconcileRun startRun(String triggerType) {
+        ChainReconcileRun run = ChainReconcileRun.builder()
+                .status(RunStatus.RUNNING.name())
+                .triggerType(triggerType)
+                .lastCertificateId(0L)
+                .scannedCount(0L)
+                .checkedCount(0L)
+                .skippedCount(0L)
+                .diffCount(0L)
+                .repairQueuedCount(0L)
+                .startTime(LocalDateTime.now())
+                .build();
+        return submit(run, true);
+    }
+
+    /**
+     * 从游标继续已中断、失败或取消的对账任务
+     *
+     * @param runId 任务ID
+     * @return 对账任务
+     */
+    public ChainReconcileRun resumeRun(Long runId) {
+        ChainReconcileRun run = getRun(runId);
+        if (RunStatus.RUNNING.name().equals(run.getStatus()) || RunStatus.COMPLETED.name().equals(run.getStatus())) {
+            throw new BusinessException("对账任务状态为 " + run.getStatus() + "，不能继续");
+        }
+        run.setStatus(RunStatus.RUNNING.name());
+        run.setLastError(null);
+        run.setEndTime(null);
+        return submit(run, false);
+    }
+
+    /**
+     * 请求取消正在运行的任务，当前页处理完后停止
+     *
+     * @param runId 任务ID
+     */
+    public synchronized void cancelRun(Long runId) {
+        if (!runId.equals(activeRunId)) {
+            throw new BusinessException("对账任务未在运行");
+        }
+        cancelRequested = true;
+        log.info("请求取消对账任务，任务ID: {}", runId);
+    }
+
+    public ChainReconcileRun getRun(Long runId) {
+        ChainReconcileRun run = chainReconcileRunRepository.selectById(runId);
+        if (run == null) {
+            throw new BusinessException("对账任务不存在");
+        }
+        return run;
+    }
+
+    public PageResult<ChainReconcileRun> listRuns(int page, int size) {
+        LambdaQueryWrapper<ChainReconcileRun> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.orderByDesc(ChainReconcileRun::getId);
+        return toPageResult(chainReconcileRunRepository.selectPage(new Page<>(page, size), queryWrapper));
+    }
+
+    /**
+     * 查询任务的差异报告
+     *
+     * @param runId 任务ID
+     * @param diffType 差异类型（可选）
+     * @param repairStatus 修复状态（可选）
+     */
+    public PageResult<ChainReconcileDiff> listDiffs(Long runId, String diffType, String repairStatus, int page, int size) {
+        LambdaQueryWrapper<ChainReconcileDiff> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(ChainReconcileDiff::getRunId, runId)
+                .eq(StringUtils.isNotBlank(diffType), ChainReconcileDiff::getDiffType, diffType)
+                .eq(StringUtils.isNotBlank(repairStatus), ChainReconcileDiff::getRepairStatus, repairStatus)
+                .orderByAsc(ChainReconcileDiff::getId);
+        return toPageResult(chainReconcileDiffRepository.selectPage(new Page<>(page, size), queryWrapper));
+    }
+
+    /**
+     * 将任务中待修复的差异写入发件箱
+     *
+     * @param runId 任务ID
+     * @return 本次写入发件箱的数量
+     */
+    public int queueRepairs(Long runId) {
+        ChainReconcileRun run = getRun(runId);
+        int pageSize = Math.max(1, reconcileConfig.getPageSize());
+        long cursor = 0;
+        int queued = 0;
+
+        while (true) {
+            LambdaQueryWrapper<ChainReconcileDiff> queryWrapper = new LambdaQueryWrapper<>();
+            queryWrapper.eq(ChainReconcileDiff::getRunId, runId)
+                    .eq(ChainReconcileDiff::getRepairStatus, RepairStatus.PENDING.name())
+                    .gt(ChainReconcileDiff::getId, cursor)
+                    .orderByAsc(ChainReconcileDiff::getId);
+            List<ChainReconcileDiff> diffs = chainReconcileDiffRepository
+                    .selectPage(new Page<>(1, pageSize, false), queryWrapper).getRecords();
+            if (diffs.isEmpty()) {
+                break;
+            }
+            cursor = diffs.get(diffs.size() - 1).getId();
+
+            Set<Long> certificateIds = diffs.stream().map(ChainReconcileDiff::getCertificateId).collect(Collectors.toSet());
+            Map<Long, Certificate> certificates = certificateRepository.selectBatchIds(certificateIds).stream()
+                    .collect(Collectors.toMap(Certificate::getId, c -> c));
+            for (ChainReconcileDiff diff : diffs) {
+                Certificate certificate = certificates.get(diff.getCertificateId());
+                if (certificate != null && queueRepair(diff, certificate)) {
+                    queued++;
+                }
+            }
+        }
+
+        if (queued > 0) {
+            // 与运行中的任务并发更新时以数据库中的计数为准累加
+            ChainReconcileRun latest = getRun(run.getId());
+            latest.setRepairQueuedCount(nullToZero(latest.getRepairQueuedCount()) + queued);
+            chainReconcileRunRepository.updateById(latest);
+        }
+        log.info("对账差异已写入发件箱，任务ID: {}, 数量: {}", runId, queued);
+        return queued;
+    }
+
+    // ========== 任务执行 ==========
+
+    private synchronized ChainReconcileRun submit(ChainReconcileRun run, boolean insert) {
+        if (!blockchainGateway.isAvailable()) {
+            throw new BusinessException("区块链服务未启用，无法对账");
+        }
+        if (activeRunId != null) {
+            throw new BusinessException("已有对账任务正在运行，任务ID: " + activeRunId);
+        }
+
+        if (insert) {
+            chainReconcileRunRepository.insert(run);
+        } else {
+            chainReconcileRunRepository.updateById(run);
+        }
+        activeRunId = run.getId();
+        cancelRequested = false;
+        runner.submit(() -> execute(run));
+        log.info("对账任务已启动，任务ID: {}, 游标: {}", run.getId(), run.getLastCertificateId());
+        return run;
+    }
+
+    private void execute(ChainReconcileRun run) {
+        int pageSize = Math.max(1, reconcileConfig.getPageSize());
+        CallRateLimiter rateLimiter = new CallRateLimiter(reconcileConfig.getMaxCallsPerSecond());
+        try {
+            while (true) {
+                if (cancelRequested) {
+                    finish(run, RunStatus.CANCELLED, null);
+                    return;
+                }
+
+                LambdaQueryWrapper<Certificate> queryWrapper = new LambdaQueryWrapper<>();
+                queryWrapper.select(Certificate::getId, Certificate::getCertificateNo, Certificate::getFileHash,
+                                Certificate::getStatus, Certificate::getBlockchainTxHash, Certificate::getMerkleRoot,
+                                Certificate::getExpiryDate, Certificate::getChainGroupId)
+                        .gt(Certificate::getId, run.getLastCertificateId())
+                        .orderByAsc(Certificate::getId);
+                List<Certificate> page = certificateRepository
+                        .selectPage(new Page<>(1, pageSize, false), queryWrapper).getRecords();
+                if (page.isEmpty()) {
+                    finish(run, RunStatus.COMPLETED, null);
+                    return;
+                }
+
+                reconcilePage(run, page, rateLimiter);
+                run.setLastCertificateId(page.get(page.size() - 1).getId());
+                run.setScannedCount(run.getScannedCount() + page.size());
+                chainReconcileRunRepository.updateById(run);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(run, RunStatus.INTERRUPTED, "对账线程被中断");
+        } catch (Exception e) {
+            // 停在失败的页，可从游标继续
+            log.error("对账任务失败，任务ID: {}, 游标: {}", run.getId(), run.getLastCertificateId(), e);
+            finish(run, RunStatus.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * 对账一页证书：按群组分片并发验证，写入差异
+     */
+    private void reconcilePage(ChainReconcileRun run, List<Certificate> page, CallRateLimiter rateLimiter)
+            throws InterruptedException, ExecutionException {
+        List<Certificate> candidates = new ArrayList<>(page.size());
+        for (Certificate certificate : page) {
+            if (certificate.getMerkleRoot() == null) {
+                candidates.add(certificate);
+            }
+        }
+        Set<Long> inFlight = chainOutboxDispatcher.findActiveCertificateIds(
+                candidates.stream().map(Certificate::getId).collect(Collectors.toList()));
+        candidates.removeIf(certificate -> inFlight.contains(certificate.getId()));
+        run.setSkippedCount(run.getSkippedCount() + page.size() - candidates.size());
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // 同一群组的证书排在一起，分片不跨群组；结果按 candidates 顺序对齐
+        Map<Integer, List<Certificate>> groups = new LinkedHashMap<>();
+        for (Certificate certificate : candidates) {
+            groups.computeIfAbsent(certificate.getChainGroupId(), groupId -> new ArrayList<>()).add(certificate);
+        }
+        candidates.clear();
+
+        int chunkSize = Math.max(1, reconcileConfig.getChunkSize());
+        List<Future<List<ChainVerificationResult>>> futures = new ArrayList<>();
+        for (Map.Entry<Integer, List<Certificate>> group : groups.entrySet()) {
+            BlockchainGateway gateway = blockchainGateway.forGroup(group.getKey());
+            List<Certificate> members = group.getValue();
+            candidates.addAll(members);
+            for (int start = 0; start < members.size(); start += chunkSize) {
+                List<Certificate> chunk = members.subList(start, Math.min(start + chunkSize, members.size()));
+                List<String> certificateNos = new ArrayList<>(chunk.size());
+                List<String> fileHashes = new ArrayList<>(chunk.size());
+                for (Certificate certificate : chunk) {
+                    certificateNos.add(certificate.getCertificateNo());
+                    fileHashes.add(certificate.getFileHash());
+                }
+                futures.add(workers.submit(() -> {
+                    rateLimiter.acquire();
+                    return gateway.verifyCertificates(certificateNos, fileHashes);
+                }));
+            }
+        }
+
+        int index = 0;
+        for (Future<List<ChainVerificationResult>> future : futures) {
+            for (ChainVerificationResult result : future.get()) {
+                Certificate certificate = candidates.get(index++);
+                ChainReconcileDiff diff = compare(run.getId(), certificate, result);
+                if (diff == null) {
+                    continue;
+                }
+                diff = saveDiff(diff);
+                run.setDiffCount(run.getDiffCount() + 1);
+                if (reconcileConfig.isAutoRepair() && RepairStatus.PENDING.name().equals(diff.getRepairStatus())
+                        && queueRepair(diff, certificate)) {
+                    run.setRepairQueuedCount(run.getRepairQueuedCount() + 1);
+                }
+            }
+        }
+        run.setCheckedCount(run.getCheckedCount() + candidates.size());
+    }
+
+    /**
+     * 比较数据库记录和链上验证结果，一致时返回 null
+     */
+    private ChainReconcileDiff compare(Long runId, Certificate certificate, ChainVerificationResult result) {
+        Integer chainStatus = resolveChainStatus(result);
+        if (chainStatus == null) {
+            return null;
+        }
+
+        boolean hasTxHash = StringUtils.isNotBlank(certificate.getBlockchainTxHash());
+        boolean dbRevoked = CertificateService.CertificateStatus.REVOKED.getCode().equals(certificate.getStatus());
+        boolean dbValid = CertificateService.CertificateStatus.VALID.getCode().equals(certificate.getStatus())
+                && (certificate.getExpiryDate() == null || certificate.getExpiryDate().isAfter(LocalDate.now()));
+
+        DiffType diffType;
+        String repairOperation = null;
+        if (chainStatus == CHAIN_NOT_FOUND) {
+            // 已撤销的证书补发存证后，下一次对账会发现撤销未上链并继续补发撤销
+            diffType = hasTxHash ? DiffType.NOT_ON_CHAIN : DiffType.NOT_ANCHORED;
+            repairOperation = ChainOutboxDispatcher.OPERATION_STORE;
+        } else if (!hasTxHash) {
+            diffType = DiffType.TX_HASH_MISSING;
+        } else if (chainStatus == CHAIN_HASH_MISMATCH) {
+            diffType = DiffType.HASH_MISMATCH;
+        } else if (dbRevoked && chainStatus != CHAIN_REVOKED) {
+            diffType = DiffType.REVOKE_NOT_ON_CHAIN;
+            repairOperation = ChainOutboxDispatcher.OPERATION_REVOKE;
+        } else if (!dbRevoked && chainStatus == CHAIN_REVOKED) {
+            diffType = DiffType.REVOKED_ONLY_ON_CHAIN;
+        } else if (dbValid && chainStatus == CHAIN_EXPIRED) {
+            diffType = DiffType.EXPIRED_ON_CHAIN;
+            repairOperation = ChainOutboxDispatcher.OPERATION_UPDATE_EXPIRY;
+        } else {
+            return null;
+        }
+
+        return ChainReconcileDiff.builder()
+                .runId(runId)
+                .certificateId(certificate.getId())
+                .certificateNo(certificate.getCertificateNo())
+                .diffType(diffType.name())
+                .dbStatus(certificate.getStatus())
+                .dbTxHash(certificate.getBlockchainTxHash())
+                .chainStatus(chainStatus)
+                .repairOperation(repairOperation)
+                .repairStatus(repairOperation == null ? RepairStatus.MANUAL.name() : RepairStatus.PENDING.name())
+                .build();
+    }
+
+    /**
+     * 写入差异；同一任务中证书已有差异时返回已有记录
+     *
+     * 游标在整页处理完后才保存，失败或中断后继续时会重新对账这一页，已写入的差异由唯一键
+     * uk_run_certificate 去重。这些差异尚未计入任务的计数，仍按本页的差异累加，待修复的照常写入发件箱
+     */
+    private ChainReconcileDiff saveDiff(ChainReconcileDiff diff) {
+        try {
+            chainReconcileDiffRepository.insert(diff);
+            return diff;
+        } catch (DuplicateKeyException e) {
+            LambdaQueryWrapper<ChainReconcileDiff> queryWrapper = new LambdaQueryWrapper<>();
+            queryWrapper.eq(ChainReconcileDiff::getRunId, diff.getRunId())
+                    .eq(ChainReconcileDiff::getCertificateId, diff.getCertificateId());
+            ChainReconcileDiff existing = chainReconcileDiffRepository.selectOne(queryWrapper);
+            log.debug("差异已记录，任务ID: {}, 证书ID: {}", diff.getRunId(), diff.getCertificateId());
+            return existing != null ? existing : diff;
+        }
+    }
+
+    /**
+     * 链上状态码；后端不返回状态码时只能区分有效和不存在
+     */
+    private static Integer resolveChainStatus(ChainVerificationResult result) {
+        if (result.getStatus() != null) {
+            return result.getStatus();
+        }
+        if (result.isValid()) {
+            return CHAIN_VALID;
+        }
+        return result.getTimestamp() == 0 ? CHAIN_NOT_FOUND : null;
+    }
+
+    /**
+     * 将差异写入发件箱，证书已有同类未完成记录时不重复写入
+     *
+     * @return 是否新写入了发件箱记录
+     */
+    private boolean queueRepair(ChainReconcileDiff diff, Certificate certificate) {
+        boolean queued = false;
+        if (!chainOutboxDispatcher.hasActive(certificate.getId(), diff.getRepairOperation())) {
+            ChainOutbox outbox = chainOutboxDispatcher.enqueue(certificate, diff.getRepairOperation());
+            diff.setOutboxId(outbox.getId());
+            queued = true;
+        }
+        diff.setRepairStatus(RepairStatus.QUEUED.name());
+        diff.setUpdateTime(LocalDateTime.now());
+        chainReconcileDiffRepository.updateById(diff);
+        return queued;
+    }
+
+    private void finish(ChainReconcileRun run, RunStatus status, String error) {
+        run.setStatus(status.name());
+        run.setLastError(StringUtils.abbreviate(error, 2000));
+        run.setEndTime(LocalDateTime.now());
+        chainReconcileRunRepository.updateById(run);
+        synchronized (this) {
+            activeRunId = null;
+        }
+        log.info("对账任务结束，任务ID: {}, 状态: {}, 扫描: {}, 验证: {}, 差异: {}, 已写入发件箱: {}",
+                run.getId(), status, run.getScannedCount(), run.getCheckedCount(),
+                run.getDiffCount(), run.getRepairQueuedCount());
+    }
+
+    private static <T> PageResult<T> toPageResult(IPage<T> page) {
+        return PageResult.<T>builder()
+                .records(page.getRecords())
+                .total(page.getTotal())
+                .current(page.getCurrent())
+                .size(page.getSize())
+                .build();
+    }
+
+    private static long nullToZero(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    /**
+     * 调用限速器，按固定间隔发放调用许可
+     */
+    private static final class CallRateLimiter {
+        private final long intervalNanos;
+        private long nextFreeNanos;
+
+        CallRateLimiter(double permitsPerSecond) {
+            this.intervalNanos = permitsPerSecond <= 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+            this.nextFreeNanos = System.nanoTime();
+        }
+
+        void acquire() throws InterruptedException {
+            if (intervalNanos == 0) {
+                return;
+            }
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(now, nextFreeNanos);
+                nextFreeNanos = slot + intervalNanos;
+                waitNanos = slot - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
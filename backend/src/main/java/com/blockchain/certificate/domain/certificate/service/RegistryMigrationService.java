@@ -0,0 +1,158 @@
+package com.blockchain.certificate.domain.certificate.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.blockchain.certificate.domain.certificate.model.Certificate;
+import com.blockchain.certificate.domain.certificate.repository.CertificateRepository;
+import com.blockchain.certificate.domain.system.model.SystemConfig;
+import com.blockchain.certificate.domain.system.repository.SystemConfigRepository;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.BlockchainGateway;
+import com.blockchain.certificate.infrastructure.config.RegistryConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 证书合约 v1 -> v2 迁移服务
+ * 按证书ID顺序从数据库读取已单独存证的证书，分批重放到 v2 合约（bytes32 键），重启后从检查点继续
+ *
+ * 检查点保存在 t_system_config（chain.registry.migration.checkpoint），值为已迁移的最后一个证书ID。
+ * v2 合约跳过已存在的证书键，重复迁移同一批次不会产生重复记录。
+ * 批量存证的证书链上只有 Merkle 根，不需要迁移。
+ *
+ * 当 chain.registry.migration.enabled=true 时启用此服务
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "chain.registry.migration.enabled", havingValue = "true", matchIfMissing = false)
+public class RegistryMigrationService {
+
+    /**
+     * 检查点配置键
+     */
+    public static final String CHECKPOINT_KEY = "chain.registry.migration.checkpoint";
+
+    private final CertificateRepository certificateRepository;
+    private final SystemConfigRepository systemConfigRepository;
+    private final RegistryConfig registryConfig;
+    private final BlockchainGateway blockchainGateway;
+
+    public RegistryMigrationService(
+            CertificateRepository certificateRepository,
+            SystemConfigRepository systemConfigRepository,
+            RegistryConfig registryConfig,
+            BlockchainGateway blockchainGateway) {
+        this.certificateRepository = certificateRepository;
+        this.systemConfigRepository = systemConfigRepository;
+        this.registryConfig = registryConfig;
+        this.blockchainGateway = blockchainGateway;
+
+        log.info("合约迁移服务初始化：v2 合约地址 {}，批次大小 {}",
+                registryConfig.getV2Address(), registryConfig.getMigration().getBatchSize());
+    }
+
+    /**
+     * 定时迁移下一批证书
+     */
+    @Scheduled(fixedDelayString = "${chain.registry.migration.poll-ms:10000}")
+    public void migratePending() {
+        if (!blockchainGateway.isAvailable()) {
+            return;
+        }
+        if (StringUtils.isBlank(registryConfig.getV2Address())) {
+            log.warn("v2 合约地址未配置，跳过迁移");
+            return;
+        }
+
+        int migrated;
+        do {
+            migrated = migrateNextBatch();
+        } while (migrated >= registryConfig.getMigration().getBatchSize());
+    }
+
+    /**
+     * 迁移下一批证书
+     *
+     * @return 本批次迁移的证书数量
+     */
+    public int migrateNextBatch() {
+        long checkpoint = loadCheckpoint();
+
+        LambdaQueryWrapper<Certificate> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.gt(Certificate::getId, checkpoint)
+                .isNotNull(Certificate::getBlockchainTxHash)
+                .isNull(Certificate::getMerkleRoot)
+                .orderByAsc(Certificate::getId);
+        Page<Certificate> pageParam = new Page<>(1, registryConfig.getMigration().getBatchSize(), false);
+        List<Certificate> batch = certificateRepository.selectPage(pageParam, queryWrapper).getRecords();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<String> certificateNos = new ArrayList<>(batch.size());
+        List<String> fileHashes = new ArrayList<>(batch.size());
+        List<Long> timestamps = new ArrayList<>(batch.size());
+        List<Long> expiryDates = new ArrayList<>(batch.size());
+        List<Boolean> revokedFlags = new ArrayList<>(batch.size());
+        for (Certificate certificate : batch) {
+            certificateNos.add(certificate.getCertificateNo());
+            fileHashes.add(certificate.getFileHash());
+            // 链上存证时间与 block.timestamp 一致（毫秒），以证书创建时间近似
+            timestamps.add(certificate.getCreateTime() == null ? 0L
+                    : certificate.getCreateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            expiryDates.add(CertificateService.toChainExpiryTimestamp(certificate.getExpiryDate()));
+            revokedFlags.add(CertificateService.CertificateStatus.REVOKED.getCode().equals(certificate.getStatus()));
+        }
+
+        long lastId = batch.get(batch.size() - 1).getId();
+        try {
+            blockchainGateway.migrateCertificates(certificateNos, fileHashes, timestamps, expiryDates, revokedFlags);
+        } catch (Exception e) {
+            // 停在失败的批次，下次从检查点重试
+            log.error("证书迁移失败，证书ID范围: ({}, {}]", checkpoint, lastId, e);
+            return 0;
+        }
+
+        saveCheckpoint(lastId);
+        log.info("证书迁移完成，证书ID范围: ({}, {}], 数量: {}", checkpoint, lastId, batch.size());
+        return batch.size();
+    }
+
+    /**
+     * 读取检查点，没有时从头开始
+     */
+    public long loadCheckpoint() {
+        SystemConfig config = findCheckpoint();
+        if (config == null || config.getConfigValue() == null) {
+            return 0L;
+        }
+        return Long.parseLong(config.getConfigValue());
+    }
+
+    private void saveCheckpoint(long certificateId) {
+        SystemConfig config = findCheckpoint();
+        if (config == null) {
+            config = SystemConfig.builder()
+                    .configKey(CHECKPOINT_KEY)
+                    .configValue(String.valueOf(certificateId))
+                    .description("证书合约 v2 迁移检查点（已迁移的最后证书ID）")
+                    .build();
+            systemConfigRepository.insert(config);
+        } else {
+            config.setConfigValue(String.valueOf(certificateId));
+            systemConfigRepository.updateById(config);
+        }
+    }
+
+    private SystemConfig findCheckpoint() {
+        LambdaQueryWrapper<SystemConfig> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(SystemConfig::getConfigKey, CHECKPOINT_KEY);
+        return systemConfigRepository.selectOne(queryWrapper);
+    }
+}
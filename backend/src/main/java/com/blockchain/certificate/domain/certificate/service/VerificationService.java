@@ -3,55 +3,53 @@ package com.blockchain.certificate.domain.certificate.service;
 
 
 import com.blockchain.certificate.infrastructure.ipfs.IpfsService;
-import com.blockchain.certificate.infrastructure.blockchain.BlockchainService;
-import com.blockchain.certificate.infrastructure.blockchain.WebaseBlockchainService;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.BlockchainGateway;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainBatchRootResult;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainVerificationResult;
 import com.blockchain.certificate.shared.exception.BusinessException;
 import com.blockchain.certificate.domain.certificate.model.Certificate;
+import com.blockchain.certificate.shared.util.HashingOutputStream;
+import com.blockchain.certificate.shared.util.MerkleTreeUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
-import java.security.MessageDigest;
+import java.io.OutputStream;
 
 /**
  * 证书核验服务类
  * 提供证书三级验证功能（数据库 + 区块链 + IPFS）
  *
- * 支持两种区块链服务模式：
- * 1. SDK 模式 (blockchain.enabled=true): 使用 FISCO BCOS SDK 直连
- * 2. WeBASE 模式 (webase.enabled=true): 使用 WeBASE-Front HTTP API
+ * 区块链验证通过 BlockchainGateway 进行，由网关选择 SDK 或 WeBASE 后端
  */
 @Service
 @Slf4j
 public class VerificationService {
 
+    /**
+     * IPFS 完整性验证只需要哈希，下载的内容直接丢弃
+     */
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
     private final CertificateService certificateService;
     private final IpfsService ipfsService;
-    
-    // SDK 模式的区块链服务（可选）
-    private final BlockchainService blockchainService;
-    
-    // WeBASE 模式的区块链服务（可选）
-    private final WebaseBlockchainService webaseBlockchainService;
+    private final BlockchainGateway blockchainGateway;
     
     public VerificationService(
             CertificateService certificateService,
             IpfsService ipfsService,
-            @org.springframework.beans.factory.annotation.Autowired(required = false) BlockchainService blockchainService,
-            @org.springframework.beans.factory.annotation.Autowired(required = false) WebaseBlockchainService webaseBlockchainService) {
+            BlockchainGateway blockchainGateway) {
         this.certificateService = certificateService;
         this.ipfsService = ipfsService;
-        this.blockchainService = blockchainService;
-        this.webaseBlockchainService = webaseBlockchainService;
-        
-        // 日志输出当前使用的区块链模式
-        if (webaseBlockchainService != null) {
-            log.info("验证服务初始化：使用 WeBASE 模式");
-        } else if (blockchainService != null) {
-            log.info("验证服务初始化：使用 SDK 模式");
-        } else {
-            log.warn("验证服务初始化：区块链服务未启用");
-        }
+        this.blockchainGateway = blockchainGateway;
     }
 
     /**
@@ -142,7 +140,6 @@ public class VerificationService {
 
     /**
      * 第二级验证：区块链验证
-     * 优先使用 WeBASE 模式，其次使用 SDK 模式
      *
      * @param certificate 证书信息
      * @param result 验证结果
@@ -157,14 +154,13 @@ public class VerificationService {
                 return true;
             }
 
-            // 优先使用 WeBASE 模式
-            if (webaseBlockchainService != null) {
-                return performWebaseBlockchainCheck(certificate, result);
+            // 批量存证的证书：验证 Merkle 证明并核对链上的 Merkle 根
+            if (StringUtils.isNotBlank(certificate.getMerkleRoot())) {
+                return performMerkleBlockchainCheck(certificate, result);
             }
-            
-            // 其次使用 SDK 模式
-            if (blockchainService != null) {
-                return performSdkBlockchainCheck(certificate, result);
+
+            if (blockchainGateway.isAvailable()) {
+                return performGatewayBlockchainCheck(certificate, result);
             }
             
             // 如果区块链服务未启用，跳过区块链验证
@@ -180,57 +176,73 @@ public class VerificationService {
     }
     
     /**
-     * 使用 WeBASE 模式进行区块链验证
+     * 批量存证证书的区块链验证
+     * 先用本地保存的 Merkle 证明计算根，再查询链上是否存在该根
      */
-    private boolean performWebaseBlockchainCheck(Certificate certificate, VerificationResult result) {
+    private boolean performMerkleBlockchainCheck(Certificate certificate, VerificationResult result) {
+        result.setTransactionHash(certificate.getBlockchainTxHash());
+        result.setBlockHeight(certificate.getBlockHeight());
+
+        if (!MerkleTreeUtil.verify(certificate.getCertificateNo(), certificate.getFileHash(),
+                certificate.getMerkleProof(), certificate.getMerkleRoot())) {
+            log.warn("Merkle 证明验证失败，证书编号: {}", certificate.getCertificateNo());
+            result.setBlockchainCheck(false);
+            return false;
+        }
+
+        if (!blockchainGateway.isAvailable()) {
+            log.warn("区块链服务未启用，跳过 Merkle 根链上验证，证书编号: {}", certificate.getCertificateNo());
+            result.setBlockchainCheck(true);
+            return true;
+        }
+
         try {
-            WebaseBlockchainService.CertificateVerificationResult blockchainResult =
-                webaseBlockchainService.verifyCertificate(certificate.getCertificateNo(), certificate.getFileHash());
+            ChainBatchRootResult batchRoot = blockchainGateway.forGroup(certificate.getChainGroupId())
+                    .getBatchRoot(certificate.getMerkleRoot());
+            boolean exists = batchRoot.isExists();
 
-            result.setBlockchainCheck(blockchainResult.isValid());
-            result.setTransactionHash(certificate.getBlockchainTxHash());
-            result.setBlockHeight(certificate.getBlockHeight());
-            result.setBlockchainTimestamp(blockchainResult.getTimestamp());
-            result.setBlockchainStatus(blockchainResult.getStatus());
-            result.setBlockchainStatusDescription(blockchainResult.getStatusDescription());
+            result.setBlockchainCheck(exists);
+            result.setBlockchainTimestamp(batchRoot.getTimestamp());
 
-            if (blockchainResult.isValid()) {
-                log.info("区块链验证通过（WeBASE），证书编号: {}", certificate.getCertificateNo());
-                return true;
+            if (exists) {
+                log.info("区块链验证通过（Merkle），证书编号: {}", certificate.getCertificateNo());
             } else {
-                log.warn("区块链验证失败（WeBASE），证书编号: {}, 状态: {}",
-                        certificate.getCertificateNo(), blockchainResult.getStatusDescription());
-                return false;
+                log.warn("链上不存在 Merkle 根，证书编号: {}, Merkle 根: {}",
+                        certificate.getCertificateNo(), certificate.getMerkleRoot());
             }
+            return exists;
         } catch (Exception e) {
-            log.error("区块链验证异常（WeBASE），证书编号: {}", certificate.getCertificateNo(), e);
+            log.error("区块链验证异常（Merkle），证书编号: {}", certificate.getCertificateNo(), e);
             result.setBlockchainCheck(false);
             return false;
         }
     }
-    
+
     /**
-     * 使用 SDK 模式进行区块链验证
+     * 通过区块链网关验证单独存证的证书
      */
-    private boolean performSdkBlockchainCheck(Certificate certificate, VerificationResult result) {
+    private boolean performGatewayBlockchainCheck(Certificate certificate, VerificationResult result) {
         try {
-            BlockchainService.CertificateVerificationResult blockchainResult =
-                blockchainService.verifyCertificate(certificate.getCertificateNo(), certificate.getFileHash());
+            ChainVerificationResult blockchainResult = blockchainGateway.forGroup(certificate.getChainGroupId())
+                .verifyCertificate(certificate.getCertificateNo(), certificate.getFileHash());
 
             result.setBlockchainCheck(blockchainResult.isValid());
             result.setTransactionHash(certificate.getBlockchainTxHash());
             result.setBlockHeight(certificate.getBlockHeight());
             result.setBlockchainTimestamp(blockchainResult.getTimestamp());
+            result.setBlockchainStatus(blockchainResult.getStatus());
+            result.setBlockchainStatusDescription(blockchainResult.getStatusDescription());
 
             if (blockchainResult.isValid()) {
-                log.info("区块链验证通过（SDK），证书编号: {}", certificate.getCertificateNo());
+                log.info("区块链验证通过（{}），证书编号: {}", blockchainResult.getBackend(), certificate.getCertificateNo());
                 return true;
             } else {
-                log.warn("区块链验证失败（SDK），证书编号: {}", certificate.getCertificateNo());
+                log.warn("区块链验证失败（{}），证书编号: {}, 状态: {}", blockchainResult.getBackend(),
+                        certificate.getCertificateNo(), blockchainResult.getStatusDescription());
                 return false;
             }
         } catch (Exception e) {
-            log.error("区块链验证异常（SDK），证书编号: {}", certificate.getCertificateNo(), e);
+            log.error("区块链验证异常，证书编号: {}", certificate.getCertificateNo(), e);
             result.setBlockchainCheck(false);
             return false;
         }
@@ -245,11 +257,12 @@ public class VerificationService {
      */
     private boolean performIpfsCheck(Certificate certificate, VerificationResult result) {
         try {
-            // 从 IPFS 下载证书文件
-            byte[] pdfContent = ipfsService.downloadFile(certificate.getIpfsCid());
+            // 从 IPFS 下载证书文件，只计算哈希，不保留内容
+            HashingOutputStream hashingOut = new HashingOutputStream(DISCARD);
+            ipfsService.downloadFile(certificate.getIpfsCid(), hashingOut);
 
             // 计算文件哈希
-            String downloadedHash = calculateFileHash(pdfContent);
+            String downloadedHash = hashingOut.hash();
 
             // 验证哈希是否一致
             boolean hashMatch = downloadedHash.equals(certificate.getFileHash());
@@ -276,11 +289,14 @@ public class VerificationService {
     /**
      * 下载证书（公开接口，用于核验后下载）
      * 
+     * 证书文件从 IPFS 直接写入输出流，写出的同时计算哈希；哈希一致后才写出文件末尾
+     * 
      * @param certificateNo 证书编号
-     * @return 证书 PDF 内容
-     * @throws BusinessException 业务异常
+     * @param out 输出流，由调用方关闭
+     * @return 写出的字节数
+     * @throws BusinessException 业务异常，完整性验证失败时输出流中只有不完整的文件
      */
-    public byte[] downloadCertificateByNo(String certificateNo) throws BusinessException {
+    public long downloadCertificateByNo(String certificateNo, OutputStream out) throws BusinessException {
         log.info("下载证书，证书编号: {}", certificateNo);
 
         if (StringUtils.isBlank(certificateNo)) {
@@ -296,17 +312,18 @@ public class VerificationService {
             }
 
             // 从 IPFS 下载证书
-            byte[] pdfContent = ipfsService.downloadFile(certificate.getIpfsCid());
+            HashingOutputStream hashingOut = new HashingOutputStream(out);
+            ipfsService.downloadFile(certificate.getIpfsCid(), hashingOut);
             
             // 验证文件完整性
-            String downloadedHash = calculateFileHash(pdfContent);
-            if (!downloadedHash.equals(certificate.getFileHash())) {
+            if (!hashingOut.hash().equals(certificate.getFileHash())) {
                 log.error("证书文件哈希不匹配，证书编号: {}", certificateNo);
                 throw new BusinessException("证书文件完整性验证失败");
             }
+            hashingOut.release();
 
             log.info("证书下载成功，证书编号: {}", certificateNo);
-            return pdfContent;
+            return hashingOut.size();
 
         } catch (BusinessException e) {
             throw e;
@@ -316,26 +333,6 @@ public class VerificationService {
         }
     }
 
-    /**
-     * 计算文件哈希
-     * 
-     * @param content 文件内容
-     * @return SHA-256 哈希值
-     */
-    private String calculateFileHash(byte[] content) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = md.digest(content);
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hashBytes) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("计算文件哈希失败", e);
-        }
-    }
-
     /**
      * 构建证书信息
      * 
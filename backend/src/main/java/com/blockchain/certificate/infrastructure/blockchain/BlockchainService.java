@@ -1,13 +1,20 @@
 package com.blockchain.certificate.infrastructure.blockchain;
 
 import com.blockchain.certificate.shared.exception.BusinessException;
+import com.blockchain.certificate.shared.util.MerkleTreeUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.fisco.bcos.sdk.client.Client;
 import org.fisco.bcos.sdk.model.TransactionReceipt;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 区块链服务类
  * 提供证书存证、验证等区块链相关功能
@@ -23,6 +30,21 @@ public class BlockchainService {
     @Autowired
     private Client client;
 
+    @Autowired
+    private ChainReadCache chainReadCache;
+
+    @Value("${chain.verify.chunk-size:200}")
+    private int verifyChunkSize;
+
+    @Value("${chain.verify.max-call-bytes:65536}")
+    private int verifyMaxCallBytes;
+
+    @Value("${chain.bulk.chunk-size:100}")
+    private int bulkChunkSize;
+
+    @Value("${chain.bulk.max-tx-bytes:32768}")
+    private int bulkMaxTxBytes;
+
     /**
      * 存储证书到区块链
      * @param certificateNo 证书编号
@@ -35,6 +57,7 @@ public class BlockchainService {
         try {
             // 调用智能合约存储证书
             TransactionReceipt receipt = certificateContract.storeCertificate(certificateNo, fileHash);
+            chainReadCache.evict(certificateNo);
             
             if (!receipt.isStatusOK()) {
                 log.error("区块链存证失败，状态码: {}", receipt.getStatus());
@@ -48,6 +71,7 @@ public class BlockchainService {
             result.setFileHash(fileHash);
             result.setTransactionHash(receipt.getTransactionHash());
             result.setBlockNumber(Long.parseLong(receipt.getBlockNumber()));
+            result.setIssuerAddress(receipt.getFrom());
             result.setTimestamp(System.currentTimeMillis());
             
             log.info("区块链存证成功，交易哈希: {}, 区块号: {}",
@@ -55,9 +79,11 @@ public class BlockchainService {
             
             return result;
             
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             log.error("区块链存证失败，证书编号: {}", certificateNo, e);
-            throw new BusinessException("区块链存证失败: " + e.getMessage());
+            throw new ChainAccessException("区块链存证失败: " + e.getMessage(), e);
         }
     }
 
@@ -68,6 +94,11 @@ public class BlockchainService {
      * @return 验证结果
      */
     public CertificateVerificationResult verifyCertificate(String certificateNo, String fileHash) {
+        return chainReadCache.get("verify", certificateNo, fileHash,
+            () -> loadVerifyCertificate(certificateNo, fileHash));
+    }
+
+    private CertificateVerificationResult loadVerifyCertificate(String certificateNo, String fileHash) {
         log.info("开始区块链验证，证书编号: {}, 文件哈希: {}", certificateNo, fileHash);
         
         try {
@@ -81,15 +112,62 @@ public class BlockchainService {
             result.setFileHash(fileHash);
             result.setValid(contractResult.isValid());
             result.setTimestamp(contractResult.getTimestamp());
+            result.setStatus(contractResult.getStatus());
             result.setVerificationTime(System.currentTimeMillis());
             
             log.info("区块链验证完成，结果: {}", contractResult.isValid());
             
             return result;
             
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             log.error("区块链验证失败，证书编号: {}", certificateNo, e);
-            throw new BusinessException("区块链验证失败: " + e.getMessage());
+            throw new ChainAccessException("区块链验证失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量验证证书
+     * 按条目数和调用大小自动分片，每片一次节点调用
+     * @param certificateNos 证书编号列表
+     * @param fileHashes 文件哈希值列表（与证书编号一一对应）
+     * @return 验证结果列表，顺序与入参一致
+     */
+    public List<CertificateVerificationResult> verifyCertificates(List<String> certificateNos, List<String> fileHashes) {
+        if (certificateNos.size() != fileHashes.size()) {
+            throw new BusinessException("证书编号与文件哈希数量不一致");
+        }
+        log.info("开始区块链批量验证，数量: {}", certificateNos.size());
+
+        List<CertificateVerificationResult> results = new ArrayList<>(certificateNos.size());
+        try {
+            long verificationTime = System.currentTimeMillis();
+            for (int[] chunk : ChainCallChunker.split(verifyChunkSize, verifyMaxCallBytes, certificateNos, fileHashes)) {
+                List<String> nos = certificateNos.subList(chunk[0], chunk[1]);
+                List<String> hashes = fileHashes.subList(chunk[0], chunk[1]);
+                List<CertificateContract.CertificateVerificationResult> chunkResults =
+                    certificateContract.verifyCertificates(nos, hashes);
+                for (int i = 0; i < chunkResults.size(); i++) {
+                    CertificateVerificationResult result = new CertificateVerificationResult();
+                    result.setCertificateNo(nos.get(i));
+                    result.setFileHash(hashes.get(i));
+                    result.setValid(chunkResults.get(i).isValid());
+                    result.setTimestamp(chunkResults.get(i).getTimestamp());
+                    result.setStatus(chunkResults.get(i).getStatus());
+                    result.setVerificationTime(verificationTime);
+                    results.add(result);
+                }
+            }
+
+            log.info("区块链批量验证完成，数量: {}", results.size());
+            return results;
+
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("区块链批量验证失败，数量: {}", certificateNos.size(), e);
+            throw new ChainAccessException("区块链批量验证失败: " + e.getMessage(), e);
         }
     }
 
@@ -99,6 +177,10 @@ public class BlockchainService {
      * @return 证书信息
      */
     public CertificateBlockchainInfo getCertificate(String certificateNo) {
+        return chainReadCache.get("info", certificateNo, null, () -> loadCertificate(certificateNo));
+    }
+
+    private CertificateBlockchainInfo loadCertificate(String certificateNo) {
         log.info("查询区块链证书信息，证书编号: {}", certificateNo);
         
         try {
@@ -119,9 +201,30 @@ public class BlockchainService {
             
             return result;
             
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             log.error("查询区块链证书信息失败，证书编号: {}", certificateNo, e);
-            throw new BusinessException("查询区块链证书信息失败: " + e.getMessage());
+            throw new ChainAccessException("查询区块链证书信息失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 检查证书是否存在
+     * @param certificateNo 证书编号
+     * @return 是否存在
+     */
+    public boolean certificateExists(String certificateNo) {
+        return chainReadCache.get("exists", certificateNo, null, () -> loadCertificateExists(certificateNo));
+    }
+
+    private Boolean loadCertificateExists(String certificateNo) {
+        try {
+            return certificateContract.certificateExists(certificateNo);
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ChainAccessException("检查证书存在性失败: " + e.getMessage(), e);
         }
     }
 
@@ -136,6 +239,7 @@ public class BlockchainService {
         try {
             // 调用智能合约撤销证书
             TransactionReceipt receipt = certificateContract.revokeCertificate(certificateNo);
+            chainReadCache.evict(certificateNo);
             
             if (!receipt.isStatusOK()) {
                 log.error("区块链撤销失败，状态码: {}", receipt.getStatus());
@@ -154,9 +258,211 @@ public class BlockchainService {
             
             return result;
             
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             log.error("区块链撤销失败，证书编号: {}", certificateNo, e);
-            throw new BusinessException("区块链撤销失败: " + e.getMessage());
+            throw new ChainAccessException("区块链撤销失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量撤销证书
+     * 按条目数和交易大小分片，每片一笔交易；某一片失败时停止，之前的分片已上链
+     * @param certificateNos 证书编号列表
+     * @return 批量撤销结果
+     */
+    public BlockchainBulkResult revokeCertificates(List<String> certificateNos) {
+        log.info("开始区块链批量撤销，数量: {}", certificateNos.size());
+
+        BlockchainBulkResult result = new BlockchainBulkResult();
+        int submitted = 0;
+        try {
+            for (int[] chunk : ChainCallChunker.split(bulkChunkSize, bulkMaxTxBytes, certificateNos)) {
+                List<String> nos = certificateNos.subList(chunk[0], chunk[1]);
+                TransactionReceipt receipt = certificateContract.revokeCertificates(nos);
+                nos.forEach(chainReadCache::evict);
+                if (!receipt.isStatusOK()) {
+                    throw new BusinessException("状态码: " + receipt.getStatus());
+                }
+                result.getTransactionHashes().add(receipt.getTransactionHash());
+                result.setBlockNumber(Long.parseLong(receipt.getBlockNumber()));
+                submitted = chunk[1];
+            }
+
+            result.setSuccess(true);
+            result.setCertificateCount(certificateNos.size());
+            result.setOperationTime(System.currentTimeMillis());
+            log.info("区块链批量撤销成功，数量: {}, 交易数: {}",
+                    certificateNos.size(), result.getTransactionHashes().size());
+            return result;
+
+        } catch (Exception e) {
+            log.error("区块链批量撤销失败，已提交: {}/{}", submitted, certificateNos.size(), e);
+            throw bulkFailure("区块链批量撤销失败（已提交 " + submitted + "/" + certificateNos.size() + "）: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量更新证书过期时间
+     * 按条目数和交易大小分片，每片一笔交易；某一片失败时停止，之前的分片已上链
+     * @param certificateNos 证书编号列表
+     * @param newExpiryDates 新的过期时间戳列表（秒），0表示永不过期
+     * @return 批量更新结果
+     */
+    public BlockchainBulkResult updateExpiryDates(List<String> certificateNos, List<Long> newExpiryDates) {
+        if (certificateNos.size() != newExpiryDates.size()) {
+            throw new BusinessException("证书编号与过期时间数量不一致");
+        }
+        log.info("开始区块链批量更新过期时间，数量: {}", certificateNos.size());
+
+        BlockchainBulkResult result = new BlockchainBulkResult();
+        int submitted = 0;
+        try {
+            // 每个条目另有一个 uint256 过期时间
+            for (int[] chunk : ChainCallChunker.split(bulkChunkSize, bulkMaxTxBytes, 32, certificateNos)) {
+                List<String> nos = certificateNos.subList(chunk[0], chunk[1]);
+                List<BigInteger> dates = new ArrayList<>(chunk[1] - chunk[0]);
+                for (Long date : newExpiryDates.subList(chunk[0], chunk[1])) {
+                    dates.add(BigInteger.valueOf(date));
+                }
+                TransactionReceipt receipt = certificateContract.updateExpiryDates(nos, dates);
+                nos.forEach(chainReadCache::evict);
+                if (!receipt.isStatusOK()) {
+                    throw new BusinessException("状态码: " + receipt.getStatus());
+                }
+                result.getTransactionHashes().add(receipt.getTransactionHash());
+                result.setBlockNumber(Long.parseLong(receipt.getBlockNumber()));
+                submitted = chunk[1];
+            }
+
+            result.setSuccess(true);
+            result.setCertificateCount(certificateNos.size());
+            result.setOperationTime(System.currentTimeMillis());
+            log.info("区块链批量更新过期时间成功，数量: {}, 交易数: {}",
+                    certificateNos.size(), result.getTransactionHashes().size());
+            return result;
+
+        } catch (Exception e) {
+            log.error("区块链批量更新过期时间失败，已提交: {}/{}", submitted, certificateNos.size(), e);
+            throw bulkFailure("区块链批量更新过期时间失败（已提交 " + submitted + "/" + certificateNos.size() + "）: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 将证书记录迁移到 v2 合约（一笔交易）
+     * @param certificateNos 证书编号列表
+     * @param fileHashes 文件哈希值列表
+     * @param timestamps 原存证时间戳列表
+     * @param expiryDates 过期时间戳列表（秒），0表示永不过期
+     * @param revokedFlags 是否已撤销列表
+     * @return 迁移结果
+     */
+    public BlockchainBulkResult migrateCertificates(List<String> certificateNos, List<String> fileHashes,
+                                                    List<Long> timestamps, List<Long> expiryDates,
+                                                    List<Boolean> revokedFlags) {
+        log.info("开始迁移证书到 v2 合约，数量: {}", certificateNos.size());
+
+        try {
+            List<BigInteger> timestampParams = new ArrayList<>(timestamps.size());
+            for (Long timestamp : timestamps) {
+                timestampParams.add(BigInteger.valueOf(timestamp));
+            }
+            List<BigInteger> expiryParams = new ArrayList<>(expiryDates.size());
+            for (Long expiryDate : expiryDates) {
+                expiryParams.add(BigInteger.valueOf(expiryDate));
+            }
+            TransactionReceipt receipt = certificateContract.migrateCertificates(
+                certificateNos, fileHashes, timestampParams, expiryParams, revokedFlags);
+            if (!receipt.isStatusOK()) {
+                throw new BusinessException("证书迁移失败，状态码: " + receipt.getStatus());
+            }
+
+            BlockchainBulkResult result = new BlockchainBulkResult();
+            result.setSuccess(true);
+            result.setCertificateCount(certificateNos.size());
+            result.getTransactionHashes().add(receipt.getTransactionHash());
+            result.setBlockNumber(Long.parseLong(receipt.getBlockNumber()));
+            result.setOperationTime(System.currentTimeMillis());
+
+            log.info("证书迁移成功，数量: {}, 交易哈希: {}", certificateNos.size(), result.getTransactionHashes());
+            return result;
+
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("证书迁移失败，数量: {}", certificateNos.size(), e);
+            throw new ChainAccessException("证书迁移失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 存储批量证书的 Merkle 根到区块链
+     * @param batchRoot Merkle 根（十六进制）
+     * @param leafCount 批次包含的证书数量
+     * @return 区块链存证结果（fileHash 为 Merkle 根）
+     */
+    public BlockchainStorageResult storeBatchRoot(String batchRoot, int leafCount) {
+        log.info("开始批量存证，Merkle 根: {}, 证书数量: {}", batchRoot, leafCount);
+
+        try {
+            TransactionReceipt receipt = certificateContract.storeBatchRoot(
+                MerkleTreeUtil.toBytes32(batchRoot), leafCount);
+
+            if (!receipt.isStatusOK()) {
+                log.error("批量存证失败，状态码: {}", receipt.getStatus());
+                throw new BusinessException("批量存证失败");
+            }
+
+            BlockchainStorageResult result = new BlockchainStorageResult();
+            result.setSuccess(true);
+            result.setFileHash(batchRoot);
+            result.setTransactionHash(receipt.getTransactionHash());
+            result.setBlockNumber(Long.parseLong(receipt.getBlockNumber()));
+            result.setIssuerAddress(receipt.getFrom());
+            result.setTimestamp(System.currentTimeMillis());
+
+            log.info("批量存证成功，交易哈希: {}, 区块号: {}",
+                result.getTransactionHash(), result.getBlockNumber());
+
+            return result;
+
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("批量存证失败，Merkle 根: {}", batchRoot, e);
+            throw new ChainAccessException("批量存证失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 查询批量存证记录
+     * @param batchRoot Merkle 根（十六进制）
+     * @return 批量存证记录
+     */
+    public BatchRootResult getBatchRoot(String batchRoot) {
+        log.info("查询批量存证记录，Merkle 根: {}", batchRoot);
+
+        try {
+            CertificateContract.BatchRootInfo info =
+                certificateContract.getBatchRoot(MerkleTreeUtil.toBytes32(batchRoot));
+
+            BatchRootResult result = new BatchRootResult();
+            result.setBatchRoot(batchRoot);
+            result.setExists(info.isExists());
+            result.setIssuer(info.getIssuer());
+            result.setTimestamp(info.getTimestamp());
+            result.setLeafCount(info.getLeafCount());
+
+            return result;
+
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("查询批量存证记录失败，Merkle 根: {}", batchRoot, e);
+            throw new ChainAccessException("查询批量存证记录失败: " + e.getMessage(), e);
         }
     }
 
@@ -188,6 +494,27 @@ public class BlockchainService {
         }
     }
 
+    /**
+     * 获取节点已连接的对等节点数
+     * @return 对等节点数，获取失败时返回 null
+     */
+    public Integer getPeerCount() {
+        try {
+            return client.getPeers().getPeers().size();
+        } catch (Exception e) {
+            log.error("获取节点连接数失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 获取签发账户池状态
+     * @return 各签发账户的在途交易数和使用次数
+     */
+    public Map<String, Object> getIssuerPoolStatus() {
+        return certificateContract.getIssuerPoolStatus();
+    }
+
     /**
      * 获取当前区块高度
      * @return 区块高度
@@ -201,6 +528,16 @@ public class BlockchainService {
         }
     }
 
+    /**
+     * 分片提交中断：回执状态非 0 时为业务异常，其余为区块链访问异常
+     */
+    private static BusinessException bulkFailure(String message, Exception cause) {
+        if (cause instanceof BusinessException && !(cause instanceof ChainAccessException)) {
+            return new BusinessException(message);
+        }
+        return new ChainAccessException(message, cause);
+    }
+
     /**
      * 区块链存证结果类
      */
@@ -210,6 +547,7 @@ public class BlockchainService {
         private String fileHash;
         private String transactionHash;
         private long blockNumber;
+        private String issuerAddress;
         private long timestamp;
 
         // Getters and Setters
@@ -228,6 +566,9 @@ public class BlockchainService {
         public long getBlockNumber() { return blockNumber; }
         public void setBlockNumber(long blockNumber) { this.blockNumber = blockNumber; }
         
+        public String getIssuerAddress() { return issuerAddress; }
+        public void setIssuerAddress(String issuerAddress) { this.issuerAddress = issuerAddress; }
+        
         public long getTimestamp() { return timestamp; }
         public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
 
@@ -238,6 +579,7 @@ public class BlockchainService {
                     ", certificateNo='" + certificateNo + '\'' +
                     ", transactionHash='" + transactionHash + '\'' +
                     ", blockNumber=" + blockNumber +
+                    ", issuerAddress='" + issuerAddress + '\'' +
                     ", timestamp=" + timestamp +
                     '}';
         }
@@ -251,6 +593,7 @@ public class BlockchainService {
         private String fileHash;
         private boolean valid;
         private long timestamp;
+        private Integer status;
         private long verificationTime;
 
         // Getters and Setters
@@ -266,6 +609,9 @@ public class BlockchainService {
         public long getTimestamp() { return timestamp; }
         public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
         
+        public Integer getStatus() { return status; }
+        public void setStatus(Integer status) { this.status = status; }
+        
         public long getVerificationTime() { return verificationTime; }
         public void setVerificationTime(long verificationTime) { this.verificationTime = verificationTime; }
 
@@ -275,6 +621,7 @@ public class BlockchainService {
                     "certificateNo='" + certificateNo + '\'' +
                     ", valid=" + valid +
                     ", timestamp=" + timestamp +
+                    ", status=" + status +
                     ", verificationTime=" + verificationTime +
                     '}';
         }
@@ -360,4 +707,80 @@ public class BlockchainService {
                     '}';
         }
     }
+
+    /**
+     * 区块链批量操作结果类
+     */
+    public static class BlockchainBulkResult {
+        private boolean success;
+        private int certificateCount;
+        private List<String> transactionHashes = new ArrayList<>();
+        private long blockNumber;
+        private long operationTime;
+
+        // Getters and Setters
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+        
+        public int getCertificateCount() { return certificateCount; }
+        public void setCertificateCount(int certificateCount) { this.certificateCount = certificateCount; }
+        
+        public List<String> getTransactionHashes() { return transactionHashes; }
+        public void setTransactionHashes(List<String> transactionHashes) { this.transactionHashes = transactionHashes; }
+        
+        public long getBlockNumber() { return blockNumber; }
+        public void setBlockNumber(long blockNumber) { this.blockNumber = blockNumber; }
+        
+        public long getOperationTime() { return operationTime; }
+        public void setOperationTime(long operationTime) { this.operationTime = operationTime; }
+
+        @Override
+        public String toString() {
+            return "BlockchainBulkResult{" +
+                    "success=" + success +
+                    ", certificateCount=" + certificateCount +
+                    ", transactionHashes=" + transactionHashes +
+                    ", blockNumber=" + blockNumber +
+                    ", operationTime=" + operationTime +
+                    '}';
+        }
+    }
+
+    /**
+     * 批量存证记录类
+     */
+    public static class BatchRootResult {
+        private String batchRoot;
+        private boolean exists;
+        private String issuer;
+        private long timestamp;
+        private long leafCount;
+
+        // Getters and Setters
+        public String getBatchRoot() { return batchRoot; }
+        public void setBatchRoot(String batchRoot) { this.batchRoot = batchRoot; }
+        
+        public boolean isExists() { return exists; }
+        public void setExists(boolean exists) { this.exists = exists; }
+        
+        public String getIssuer() { return issuer; }
+        public void setIssuer(String issuer) { this.issuer = issuer; }
+        
+        public long getTimestamp() { return timestamp; }
+        public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+        
+        public long getLeafCount() { return leafCount; }
+        public void setLeafCount(long leafCount) { this.leafCount = leafCount; }
+
+        @Override
+        public String toString() {
+            return "BatchRootResult{" +
+                    "batchRoot='" + batchRoot + '\'' +
+                    ", exists=" + exists +
+                    ", issuer='" + issuer + '\'' +
+                    ", timestamp=" + timestamp +
+                    ", leafCount=" + leafCount +
+                    '}';
+        }
+    }
 }
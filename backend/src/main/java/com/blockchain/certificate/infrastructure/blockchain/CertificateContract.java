@@ -1,8 +1,15 @@
 package com.blockchain.certificate.infrastructure.blockchain;
 
 import com.blockchain.certificate.infrastructure.config.BlockchainConfig;
+import com.blockchain.certificate.infrastructure.config.IssuerPoolConfig;
+import com.blockchain.certificate.infrastructure.config.RegistryConfig;
+import com.blockchain.certificate.infrastructure.config.ShardingConfig;
 import lombok.extern.slf4j.Slf4j;
+import org.fisco.bcos.sdk.BcosSDK;
+import org.fisco.bcos.sdk.abi.ABICodec;
 import org.fisco.bcos.sdk.client.Client;
+import org.fisco.bcos.sdk.client.protocol.request.Transaction;
+import org.fisco.bcos.sdk.client.protocol.response.Call;
 import org.fisco.bcos.sdk.crypto.keypair.CryptoKeyPair;
 import org.fisco.bcos.sdk.model.TransactionReceipt;
 import org.fisco.bcos.sdk.transaction.manager.AssembleTransactionProcessor;
@@ -11,23 +18,33 @@ import org.fisco.bcos.sdk.transaction.model.dto.CallResponse;
 import org.fisco.bcos.sdk.transaction.model.dto.TransactionResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import javax.annotation.PostConstruct;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 证书存证智能合约 Java 包装类
  * 提供与智能合约交互的高级接口
+ *
+ * chain.registry.version=2 时调用 CertificateRegistryV2：证书编号编码为 keccak256 键，文件哈希编码为 bytes32
  */
 @Slf4j
 @Component
 @ConditionalOnProperty(name = "blockchain.enabled", havingValue = "true", matchIfMissing = false)
 public class CertificateContract {
 
+    @Autowired
+    private BcosSDK bcosSDK;
+
     @Autowired
     private Client client;
 
@@ -37,12 +54,53 @@ public class CertificateContract {
     @Autowired
     private BlockchainConfig blockchainConfig;
 
-    private AssembleTransactionProcessor transactionProcessor;
+    @Autowired
+    private RegistryConfig registryConfig;
+
+    @Autowired
+    private IssuerPoolConfig issuerPoolConfig;
+
+    @Autowired
+    private ChainMetrics chainMetrics;
+
+    @Autowired
+    private ShardingConfig shardingConfig;
+
+    /**
+     * 只读调用多节点路由，未启用 chain.read-routing 时为空
+     */
+    @Autowired(required = false)
+    private ChainReadRouter readRouter;
+
+    /**
+     * 默认群组（fisco.group-id）的客户端、交易处理器和签发账户池
+     */
+    private GroupChannel defaultChannel;
+
+    /**
+     * 分片群组（chain.sharding）的客户端、交易处理器和签发账户池，首次调用时创建
+     */
+    private final Map<Integer, GroupChannel> groupChannels = new ConcurrentHashMap<>();
+
+    /**
+     * 验证调用的专用编解码，函数选择器按链的哈希算法预先计算
+     */
+    private RegistryCallCodec callCodec;
+
+    /**
+     * 经多节点路由发起的只读调用（getCertificate 等）的编解码
+     */
+    private ABICodec abiCodec;
 
     /**
      * 合约ABI定义
      */
-    private static final String CONTRACT_ABI = "[{\"constant\":false,\"inputs\":[{\"name\":\"issuer\",\"type\":\"address\"}],\"name\":\"addAuthorizedIssuer\",\"outputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"\",\"type\":\"address\"}],\"name\":\"authorizedIssuers\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"}],\"name\":\"certificateExists\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"}],\"name\":\"getCertificate\",\"outputs\":[{\"name\":\"certNo\",\"type\":\"string\"},{\"name\":\"fileHash\",\"type\":\"string\"},{\"name\":\"issuer\",\"type\":\"address\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},{\"name\":\"exists\",\"type\":\"bool\"},{\"name\":\"revoked\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[],\"name\":\"getVersion\",\"outputs\":[{\"name\":\"\",\"type\":\"string\"}],\"payable\":false,\"stateMutability\":\"pure\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"}],\"name\":\"isCertificateRevoked\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[],\"name\":\"owner\",\"outputs\":[{\"name\":\"\",\"type\":\"address\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"issuer\",\"type\":\"address\"}],\"name\":\"removeAuthorizedIssuer\",\"outputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"}],\"name\":\"revokeCertificate\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"},{\"name\":\"fileHash\",\"type\":\"string\"}],\"name\":\"storeCertificate\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"},{\"name\":\"fileHash\",\"type\":\"string\"}],\"name\":\"verifyCertificate\",\"outputs\":[{\"name\":\"isValid\",\"type\":\"bool\"},{\"name\":\"timestamp\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"inputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"constructor\"},{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateNo\",\"type\":\"string\"},{\"indexed\":false,\"name\":\"fileHash\",\"type\":\"string\"},{\"indexed\":true,\"name\":\"issuer\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"}],\"name\":\"CertificateStored\",\"type\":\"event\"},{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateNo\",\"type\":\"string\"},{\"indexed\":true,\"name\":\"revoker\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"}],\"name\":\"CertificateRevoked\",\"type\":\"event\"}]";
+    private static final String CONTRACT_ABI = "[{\"constant\":false,\"inputs\":[{\"name\":\"issuer\",\"type\":\"address\"}],\"name\":\"addAuthorizedIssuer\",\"outputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"\",\"type\":\"address\"}],\"name\":\"authorizedIssuers\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"}],\"name\":\"certificateExists\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"}],\"name\":\"getCertificate\",\"outputs\":[{\"name\":\"certNo\",\"type\":\"string\"},{\"name\":\"fileHash\",\"type\":\"string\"},{\"name\":\"issuer\",\"type\":\"address\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},{\"name\":\"exists\",\"type\":\"bool\"},{\"name\":\"revoked\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[],\"name\":\"getVersion\",\"outputs\":[{\"name\":\"\",\"type\":\"string\"}],\"payable\":false,\"stateMutability\":\"pure\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"}],\"name\":\"isCertificateRevoked\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[],\"name\":\"owner\",\"outputs\":[{\"name\":\"\",\"type\":\"address\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"issuer\",\"type\":\"address\"}],\"name\":\"removeAuthorizedIssuer\",\"outputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"}],\"name\":\"revokeCertificate\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"},{\"name\":\"fileHash\",\"type\":\"string\"}],\"name\":\"storeCertificate\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"},{\"name\":\"fileHash\",\"type\":\"string\"}],\"name\":\"verifyCertificate\",\"outputs\":[{\"name\":\"isValid\",\"type\":\"bool\"},{\"name\":\"timestamp\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"batchRoot\",\"type\":\"bytes32\"},{\"name\":\"leafCount\",\"type\":\"uint256\"}],\"name\":\"storeBatchRoot\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"batchRoot\",\"type\":\"bytes32\"}],\"name\":\"getBatchRoot\",\"outputs\":[{\"name\":\"exists\",\"type\":\"bool\"},{\"name\":\"issuer\",\"type\":\"address\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},{\"name\":\"leafCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateNos\",\"type\":\"string[]\"},{\"name\":\"fileHashes\",\"type\":\"string[]\"}],\"name\":\"verifyCertificates\",\"outputs\":[{\"name\":\"isValid\",\"type\":\"bool[]\"},{\"name\":\"timestamps\",\"type\":\"uint256[]\"},{\"name\":\"statuses\",\"type\":\"uint8[]\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateNos\",\"type\":\"string[]\"}],\"name\":\"revokeCertificates\",\"outputs\":[{\"name\":\"revokedCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateNos\",\"type\":\"string[]\"},{\"name\":\"newExpiryDates\",\"type\":\"uint256[]\"}],\"name\":\"updateExpiryDates\",\"outputs\":[{\"name\":\"updatedCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"inputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"constructor\"},{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateNo\",\"type\":\"string\"},{\"indexed\":false,\"name\":\"fileHash\",\"type\":\"string\"},{\"indexed\":true,\"name\":\"issuer\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"}],\"name\":\"CertificateStored\",\"type\":\"event\"},{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateNo\",\"type\":\"string\"},{\"indexed\":true,\"name\":\"revoker\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"}],\"name\":\"CertificateRevoked\",\"type\":\"event\"},{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"batchRoot\",\"type\":\"bytes32\"},{\"indexed\":false,\"name\":\"leafCount\",\"type\":\"uint256\"},{\"indexed\":true,\"name\":\"issuer\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"}],\"name\":\"BatchRootStored\",\"type\":\"event\"}]";
+
+    /**
+     * v2 合约ABI定义（bytes32 键）
+     */
+    private static final String CONTRACT_ABI_V2 = "[{\"constant\":false,\"inputs\":[{\"name\":\"issuer\",\"type\":\"address\"}],\"name\":\"addAuthorizedIssuer\",\"outputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"\",\"type\":\"address\"}],\"name\":\"authorizedIssuers\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"}],\"name\":\"certificateExists\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"batchRoot\",\"type\":\"bytes32\"}],\"name\":\"getBatchRoot\",\"outputs\":[{\"name\":\"exists\",\"type\":\"bool\"},{\"name\":\"issuer\",\"type\":\"address\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},{\"name\":\"leafCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"}],\"name\":\"getCertificate\",\"outputs\":[{\"name\":\"fileHash\",\"type\":\"bytes32\"},{\"name\":\"issuer\",\"type\":\"address\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},{\"name\":\"expiryDate\",\"type\":\"uint256\"},{\"name\":\"exists\",\"type\":\"bool\"},{\"name\":\"revoked\",\"type\":\"bool\"},{\"name\":\"expired\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"}],\"name\":\"getCertificateStatus\",\"outputs\":[{\"name\":\"status\",\"type\":\"uint8\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[],\"name\":\"getVersion\",\"outputs\":[{\"name\":\"\",\"type\":\"string\"}],\"payable\":false,\"stateMutability\":\"pure\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"}],\"name\":\"isCertificateRevoked\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateKeys\",\"type\":\"bytes32[]\"},{\"name\":\"fileHashes\",\"type\":\"bytes32[]\"},{\"name\":\"timestamps\",\"type\":\"uint256[]\"},{\"name\":\"expiryDates\",\"type\":\"uint256[]\"},{\"name\":\"revokedFlags\",\"type\":\"bool[]\"}],\"name\":\"migrateCertificates\",\"outputs\":[{\"name\":\"migratedCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[],\"name\":\"owner\",\"outputs\":[{\"name\":\"\",\"type\":\"address\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"issuer\",\"type\":\"address\"}],\"name\":\"removeAuthorizedIssuer\",\"outputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"}],\"name\":\"revokeCertificate\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateKeys\",\"type\":\"bytes32[]\"}],\"name\":\"revokeCertificates\",\"outputs\":[{\"name\":\"revokedCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"batchRoot\",\"type\":\"bytes32\"},{\"name\":\"leafCount\",\"type\":\"uint256\"}],\"name\":\"storeBatchRoot\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"name\":\"fileHash\",\"type\":\"bytes32\"},{\"name\":\"expiryDate\",\"type\":\"uint256\"}],\"name\":\"storeCertificate\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"name\":\"newExpiryDate\",\"type\":\"uint256\"}],\"name\":\"updateExpiryDate\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":\"certificateKeys\",\"type\":\"bytes32[]\"},{\"name\":\"newExpiryDates\",\"type\":\"uint256[]\"}],\"name\":\"updateExpiryDates\",\"outputs\":[{\"name\":\"updatedCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"name\":\"fileHash\",\"type\":\"bytes32\"}],\"name\":\"verifyCertificate\",\"outputs\":[{\"name\":\"isValid\",\"type\":\"bool\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},{\"name\":\"status\",\"type\":\"uint8\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"constant\":true,\"inputs\":[{\"name\":\"certificateKeys\",\"type\":\"bytes32[]\"},{\"name\":\"fileHashes\",\"type\":\"bytes32[]\"}],\"name\":\"verifyCertificates\",\"outputs\":[{\"name\":\"isValid\",\"type\":\"bool[]\"},{\"name\":\"timestamps\",\"type\":\"uint256[]\"},{\"name\":\"statuses\",\"type\":\"uint8[]\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},{\"inputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"constructor\"},{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"indexed\":false,\"name\":\"fileHash\",\"type\":\"bytes32\"},{\"indexed\":true,\"name\":\"issuer\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"},{\"indexed\":false,\"name\":\"expiryDate\",\"type\":\"uint256\"}],\"name\":\"CertificateStored\",\"type\":\"event\"},{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"indexed\":true,\"name\":\"revoker\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"}],\"name\":\"CertificateRevoked\",\"type\":\"event\"},{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"indexed\":false,\"name\":\"oldExpiryDate\",\"type\":\"uint256\"},{\"indexed\":false,\"name\":\"newExpiryDate\",\"type\":\"uint256\"},{\"indexed\":true,\"name\":\"updater\",\"type\":\"address\"}],\"name\":\"CertificateExpiryUpdated\",\"type\":\"event\"},{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"batchRoot\",\"type\":\"bytes32\"},{\"indexed\":false,\"name\":\"leafCount\",\"type\":\"uint256\"},{\"indexed\":true,\"name\":\"issuer\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"}],\"name\":\"BatchRootStored\",\"type\":\"event\"}]";
 
     private String contractAddress;
     
@@ -52,9 +110,11 @@ public class CertificateContract {
             // 获取合约地址
             this.contractAddress = blockchainConfig.getContractAddress();
             
-            // 使用 AssembleTransactionProcessor 直接创建，不需要 ABI/BIN 目录
-            this.transactionProcessor = TransactionProcessorFactory.createAssembleTransactionProcessor(
-                client, cryptoKeyPair);
+            this.callCodec = new RegistryCallCodec(client.getCryptoSuite());
+            this.abiCodec = new ABICodec(client.getCryptoSuite());
+
+            this.defaultChannel = openChannel(client, "sdk");
+            chainMetrics.gauge("chain.sdk.issuer.inFlight", defaultChannel.issuerPool::getInFlight);
             
             if (StringUtils.hasText(contractAddress)) {
                 log.info("证书合约包装类初始化成功，合约地址: {}", contractAddress);
@@ -67,6 +127,45 @@ public class CertificateContract {
         }
     }
 
+    /**
+     * 创建群组的默认账户交易处理器和签发账户池
+     * 使用 AssembleTransactionProcessor 直接创建，不需要 ABI/BIN 目录
+     */
+    private GroupChannel openChannel(Client groupClient, String poolName) {
+        try {
+            AssembleTransactionProcessor transactionProcessor =
+                TransactionProcessorFactory.createAssembleTransactionProcessor(groupClient, cryptoKeyPair);
+
+            IssuerKeyPool<AssembleTransactionProcessor> issuerPool = new IssuerKeyPool<>(poolName,
+                issuerPoolConfig.getMaxInFlightPerKey(), issuerPoolConfig.getAcquireTimeoutMs());
+            issuerPool.add(cryptoKeyPair.getAddress(), transactionProcessor);
+            for (String privateKey : issuerPoolConfig.getPrivateKeys()) {
+                if (StringUtils.hasText(privateKey)) {
+                    CryptoKeyPair issuerKeyPair = groupClient.getCryptoSuite().createKeyPair(privateKey.trim());
+                    issuerPool.add(issuerKeyPair.getAddress(),
+                        TransactionProcessorFactory.createAssembleTransactionProcessor(groupClient, issuerKeyPair));
+                }
+            }
+            log.info("签发账户池初始化，账户池: {}, 账户数: {}, 每账户在途上限: {}",
+                poolName, issuerPool.size(), issuerPoolConfig.getMaxInFlightPerKey());
+            return new GroupChannel(groupClient, transactionProcessor, issuerPool);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to open chain group channel: " + poolName, e);
+        }
+    }
+
+    /**
+     * 当前调用所在群组（ChainGroupContext）的通道，未设置或为 fisco.group-id 时返回默认群组
+     */
+    private GroupChannel channel() {
+        ChainGroupContext group = ChainGroupContext.current();
+        if (group == null || blockchainConfig.getGroupId().equals(group.getGroupId())) {
+            return defaultChannel;
+        }
+        return groupChannels.computeIfAbsent(group.getGroupId(),
+            groupId -> openChannel(bcosSDK.getClient(groupId), "sdk@" + groupId));
+    }
+
     /**
      * 存储证书到区块链
      * @param certificateNo 证书编号
@@ -80,9 +179,11 @@ public class CertificateContract {
         
         try {
             // SDK 3.x: sendTransactionAndGetResponse需要传入函数名和参数列表（Object类型）
-            List<Object> params = Arrays.asList(certificateNo, fileHash);
-            TransactionResponse response = transactionProcessor.sendTransactionAndGetResponse(
-                contractAddress, CONTRACT_ABI, "storeCertificate", params);
+            List<Object> params = v2()
+                ? Arrays.asList(keyParam(certificateNo), hashParam(fileHash), BigInteger.ZERO)
+                : Arrays.asList(certificateNo, fileHash);
+            TransactionResponse response = sendTransaction(
+                address(), abi(), "storeCertificate", params);
             
             TransactionReceipt receipt = response.getTransactionReceipt();
             
@@ -113,29 +214,42 @@ public class CertificateContract {
         log.debug("验证证书，证书编号: {}, 文件哈希: {}", certificateNo, fileHash);
         
         try {
-            // SDK 3.x: sendCall需要传入合约地址、ABI、函数名和参数列表
-            List<Object> params = Arrays.asList(certificateNo, fileHash);
-            CallResponse response = transactionProcessor.sendCall(
-                cryptoKeyPair.getAddress(), contractAddress, CONTRACT_ABI, "verifyCertificate", params);
-            
-            // SDK 3.x: 使用getReturnObject()获取返回值
-            List<Object> results = response.getReturnObject();
-            if (results != null && results.size() >= 2) {
-                boolean isValid = (Boolean) results.get(0);
-                BigInteger timestamp = (BigInteger) results.get(1);
-                
-                log.debug("证书验证结果，有效性: {}, 时间戳: {}", isValid, timestamp);
-                
-                return new CertificateVerificationResult(isValid, timestamp.longValue());
-            } else {
-                throw new RuntimeException("验证结果格式错误");
-            }
+            // 验证热路径使用专用编解码，不经过 SDK 的通用 ABI 编解码
+            String output = sendRawCall("verifyCertificate",
+                callCodec.encodeVerifyCertificate(v2(), certificateNo, fileHash));
+            CertificateVerificationResult result = RegistryCallCodec.decodeVerifyCertificate(output);
+
+            log.debug("证书验证结果，有效性: {}, 时间戳: {}, 状态码: {}",
+                result.isValid(), result.getTimestamp(), result.getStatus());
+            return result;
         } catch (Exception e) {
             log.error("验证证书失败，证书编号: {}", certificateNo, e);
             throw e;
         }
     }
 
+    /**
+     * 批量验证证书（一次 view 调用）
+     * @param certificateNos 证书编号列表
+     * @param fileHashes 文件哈希值列表（与证书编号一一对应）
+     * @return 验证结果列表，顺序与入参一致
+     */
+    public List<CertificateVerificationResult> verifyCertificates(List<String> certificateNos, List<String> fileHashes)
+            throws Exception {
+        validateContractAddress();
+
+        log.debug("批量验证证书，数量: {}", certificateNos.size());
+
+        try {
+            String output = sendRawCall("verifyCertificates",
+                callCodec.encodeVerifyCertificates(v2(), certificateNos, fileHashes));
+            return RegistryCallCodec.decodeVerifyCertificates(output, certificateNos.size());
+        } catch (Exception e) {
+            log.error("批量验证证书失败，数量: {}", certificateNos.size(), e);
+            throw e;
+        }
+    }
+
     /**
      * 获取证书信息
      * @param certificateNo 证书编号
@@ -147,12 +261,19 @@ public class CertificateContract {
         log.debug("获取证书信息，证书编号: {}", certificateNo);
         
         try {
-            List<Object> params = Arrays.asList(certificateNo);
-            CallResponse response = transactionProcessor.sendCall(
-                cryptoKeyPair.getAddress(), contractAddress, CONTRACT_ABI, "getCertificate", params);
-            
-            List<Object> results = response.getReturnObject();
-            if (results != null && results.size() >= 6) {
+            List<Object> params = Arrays.asList(keyParam(certificateNo));
+            List<Object> results = sendRoutedCall("getCertificate", params);
+            if (v2() && results != null && results.size() >= 7) {
+                // v2 返回: fileHash(bytes32), issuer, timestamp, expiryDate, exists, revoked, expired
+                String fileHash = bytes32ToHex(results.get(0));
+                String issuer = (String) results.get(1);
+                BigInteger timestamp = (BigInteger) results.get(2);
+                Boolean exists = (Boolean) results.get(4);
+                Boolean revoked = (Boolean) results.get(5);
+
+                return new CertificateInfo(certificateNo, fileHash, issuer,
+                    timestamp.longValue(), exists, revoked);
+            } else if (!v2() && results != null && results.size() >= 6) {
                 String certNo = (String) results.get(0);
                 String fileHash = (String) results.get(1);
                 String issuer = (String) results.get(2);
@@ -182,9 +303,8 @@ public class CertificateContract {
         log.info("撤销证书，证书编号: {}", certificateNo);
         
         try {
-            List<Object> params = Arrays.asList(certificateNo);
-            TransactionResponse response = transactionProcessor.sendTransactionAndGetResponse(
-                contractAddress, CONTRACT_ABI, "revokeCertificate", params);
+            List<Object> params = Arrays.asList(keyParam(certificateNo));
+            TransactionResponse response = sendOwnerTransaction("revokeCertificate", params);
             
             TransactionReceipt receipt = response.getTransactionReceipt();
             
@@ -201,6 +321,173 @@ public class CertificateContract {
         }
     }
 
+    /**
+     * 批量撤销证书（一笔交易）
+     * @param certificateNos 证书编号列表
+     * @return 交易回执
+     */
+    public TransactionReceipt revokeCertificates(List<String> certificateNos) throws Exception {
+        validateContractAddress();
+
+        log.info("批量撤销证书，数量: {}", certificateNos.size());
+
+        try {
+            List<Object> params = Arrays.asList((Object) keyParams(certificateNos));
+            TransactionResponse response = sendOwnerTransaction("revokeCertificates", params);
+
+            TransactionReceipt receipt = response.getTransactionReceipt();
+
+            if (receipt.isStatusOK()) {
+                log.info("证书批量撤销成功，交易哈希: {}", receipt.getTransactionHash());
+            } else {
+                log.error("证书批量撤销失败，状态码: {}", receipt.getStatus());
+            }
+
+            return receipt;
+        } catch (Exception e) {
+            log.error("批量撤销证书失败，数量: {}", certificateNos.size(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 批量更新证书过期时间（一笔交易）
+     * @param certificateNos 证书编号列表
+     * @param newExpiryDates 新的过期时间戳列表（秒），0表示永不过期
+     * @return 交易回执
+     */
+    public TransactionReceipt updateExpiryDates(List<String> certificateNos, List<BigInteger> newExpiryDates)
+            throws Exception {
+        validateContractAddress();
+
+        log.info("批量更新证书过期时间，数量: {}", certificateNos.size());
+
+        try {
+            List<Object> params = Arrays.asList(keyParams(certificateNos), newExpiryDates);
+            TransactionResponse response = sendOwnerTransaction("updateExpiryDates", params);
+
+            TransactionReceipt receipt = response.getTransactionReceipt();
+
+            if (receipt.isStatusOK()) {
+                log.info("证书过期时间批量更新成功，交易哈希: {}", receipt.getTransactionHash());
+            } else {
+                log.error("证书过期时间批量更新失败，状态码: {}", receipt.getStatus());
+            }
+
+            return receipt;
+        } catch (Exception e) {
+            log.error("批量更新证书过期时间失败，数量: {}", certificateNos.size(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 存储批量证书的 Merkle 根
+     * @param batchRoot Merkle 根（bytes32）
+     * @param leafCount 批次包含的证书数量
+     * @return 交易回执
+     */
+    public TransactionReceipt storeBatchRoot(byte[] batchRoot, long leafCount) throws Exception {
+        validateContractAddress();
+
+        log.info("存储批量 Merkle 根到区块链，证书数量: {}", leafCount);
+
+        try {
+            List<Object> params = Arrays.asList(batchRoot, BigInteger.valueOf(leafCount));
+            TransactionResponse response = sendTransaction(
+                address(), abi(), "storeBatchRoot", params);
+
+            TransactionReceipt receipt = response.getTransactionReceipt();
+
+            if (receipt.isStatusOK()) {
+                log.info("批量 Merkle 根存储成功，交易哈希: {}, 区块号: {}",
+                    receipt.getTransactionHash(), receipt.getBlockNumber());
+            } else {
+                log.error("批量 Merkle 根存储失败，状态码: {}, 交易哈希: {}",
+                    receipt.getStatus(), receipt.getTransactionHash());
+            }
+
+            return receipt;
+        } catch (Exception e) {
+            log.error("存储批量 Merkle 根到区块链失败", e);
+            throw e;
+        }
+    }
+
+    /**
+     * 获取批量存证记录
+     * @param batchRoot Merkle 根（bytes32）
+     * @return 批量存证记录
+     */
+    public BatchRootInfo getBatchRoot(byte[] batchRoot) throws Exception {
+        validateContractAddress();
+
+        try {
+            List<Object> params = Arrays.asList((Object) batchRoot);
+            CallResponse response = sendCall("getBatchRoot", params);
+
+            List<Object> results = response.getReturnObject();
+            if (results != null && results.size() >= 4) {
+                Boolean exists = (Boolean) results.get(0);
+                String issuer = (String) results.get(1);
+                BigInteger timestamp = (BigInteger) results.get(2);
+                BigInteger leafCount = (BigInteger) results.get(3);
+
+                return new BatchRootInfo(exists, issuer, timestamp.longValue(), leafCount.longValue());
+            } else {
+                throw new RuntimeException("批量存证记录格式错误");
+            }
+        } catch (Exception e) {
+            log.error("获取批量存证记录失败", e);
+            throw e;
+        }
+    }
+
+    /**
+     * 将证书记录迁移到 v2 合约（一笔交易，始终发送到 v2 合约地址）
+     * @param certificateNos 证书编号列表
+     * @param fileHashes 文件哈希值列表
+     * @param timestamps 原存证时间戳列表
+     * @param expiryDates 过期时间戳列表（秒），0表示永不过期
+     * @param revokedFlags 是否已撤销列表
+     * @return 交易回执
+     */
+    public TransactionReceipt migrateCertificates(List<String> certificateNos, List<String> fileHashes,
+                                                  List<BigInteger> timestamps, List<BigInteger> expiryDates,
+                                                  List<Boolean> revokedFlags) throws Exception {
+        String v2Address = registryConfig.getV2Address();
+        if (!StringUtils.hasText(v2Address)) {
+            throw new RuntimeException("v2 合约地址未配置");
+        }
+
+        log.info("迁移证书到 v2 合约，数量: {}", certificateNos.size());
+
+        try {
+            List<byte[]> keys = new ArrayList<>(certificateNos.size());
+            List<byte[]> hashes = new ArrayList<>(certificateNos.size());
+            for (int i = 0; i < certificateNos.size(); i++) {
+                keys.add(RegistryV2Codec.certificateKey(certificateNos.get(i)));
+                hashes.add(RegistryV2Codec.fileHash(fileHashes.get(i)));
+            }
+            List<Object> params = Arrays.asList(keys, hashes, timestamps, expiryDates, revokedFlags);
+            TransactionResponse response = sendTransaction(
+                channel().transactionProcessor, v2Address, CONTRACT_ABI_V2, "migrateCertificates", params);
+
+            TransactionReceipt receipt = response.getTransactionReceipt();
+
+            if (receipt.isStatusOK()) {
+                log.info("证书迁移成功，交易哈希: {}", receipt.getTransactionHash());
+            } else {
+                log.error("证书迁移失败，状态码: {}", receipt.getStatus());
+            }
+
+            return receipt;
+        } catch (Exception e) {
+            log.error("迁移证书到 v2 合约失败，数量: {}", certificateNos.size(), e);
+            throw e;
+        }
+    }
+
     /**
      * 检查证书是否存在
      * @param certificateNo 证书编号
@@ -210,11 +497,8 @@ public class CertificateContract {
         validateContractAddress();
         
         try {
-            List<Object> params = Arrays.asList(certificateNo);
-            CallResponse response = transactionProcessor.sendCall(
-                cryptoKeyPair.getAddress(), contractAddress, CONTRACT_ABI, "certificateExists", params);
-            
-            List<Object> results = response.getReturnObject();
+            List<Object> params = Arrays.asList(keyParam(certificateNo));
+            List<Object> results = sendRoutedCall("certificateExists", params);
             if (results != null && !results.isEmpty()) {
                 return (Boolean) results.get(0);
             }
@@ -234,11 +518,8 @@ public class CertificateContract {
         validateContractAddress();
         
         try {
-            List<Object> params = Arrays.asList(certificateNo);
-            CallResponse response = transactionProcessor.sendCall(
-                cryptoKeyPair.getAddress(), contractAddress, CONTRACT_ABI, "isCertificateRevoked", params);
-            
-            List<Object> results = response.getReturnObject();
+            List<Object> params = Arrays.asList(keyParam(certificateNo));
+            List<Object> results = sendRoutedCall("isCertificateRevoked", params);
             if (results != null && !results.isEmpty()) {
                 return (Boolean) results.get(0);
             }
@@ -258,8 +539,7 @@ public class CertificateContract {
         
         try {
             List<Object> params = Arrays.asList();
-            CallResponse response = transactionProcessor.sendCall(
-                cryptoKeyPair.getAddress(), contractAddress, CONTRACT_ABI, "getVersion", params);
+            CallResponse response = sendCall("getVersion", params);
             
             List<Object> results = response.getReturnObject();
             if (results != null && !results.isEmpty()) {
@@ -281,10 +561,12 @@ public class CertificateContract {
             // SDK 3.x: 需要重新创建交易处理器
             try {
                 this.contractAddress = newContractAddress;
-                this.transactionProcessor = TransactionProcessorFactory.createAssembleTransactionProcessor(
+                defaultChannel.transactionProcessor = TransactionProcessorFactory.createAssembleTransactionProcessor(
                     client, cryptoKeyPair, CONTRACT_ABI, "", newContractAddress);
                 blockchainConfig.setContractAddress(newContractAddress);
                 log.info("合约地址已更新: {}", newContractAddress);
+                // 新合约只授权了部署账户
+                registerIssuers();
             } catch (Exception e) {
                 log.error("更新合约地址失败", e);
                 throw new RuntimeException("Failed to update contract address", e);
@@ -292,26 +574,272 @@ public class CertificateContract {
         }
     }
 
+    /**
+     * 检查额外签发账户的授权状态
+     * 未授权的账户在 register-on-startup=true 时由默认账户（合约所有者）调用 addAuthorizedIssuer 授权，
+     * 授权失败或未开启自动授权的账户停用
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerIssuers() {
+        registerGroupIssuers();
+        // 分片群组的合约各自维护授权列表
+        for (ShardingConfig.Group group : shardingConfig.getGroups()) {
+            if (StringUtils.hasText(group.getContractAddress())) {
+                ChainGroupContext.call(group.getGroupId(), group.getContractAddress(), () -> {
+                    registerGroupIssuers();
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * 检查并授权当前群组合约的额外签发账户
+     */
+    private void registerGroupIssuers() {
+        if (!StringUtils.hasText(address())) {
+            return;
+        }
+        IssuerKeyPool<AssembleTransactionProcessor> issuerPool = channel().issuerPool;
+        for (String issuerAddress : issuerPool.getAdditionalAddresses()) {
+            try {
+                boolean authorized = isAuthorizedIssuer(issuerAddress);
+                if (!authorized && issuerPoolConfig.isRegisterOnStartup()) {
+                    TransactionResponse response = sendOwnerTransaction(
+                        "addAuthorizedIssuer", Arrays.asList(issuerAddress));
+                    authorized = response.getTransactionReceipt().isStatusOK();
+                    log.info("授权签发账户{}，地址: {}", authorized ? "成功" : "失败", issuerAddress);
+                }
+                issuerPool.setEnabled(issuerAddress, authorized);
+                if (!authorized) {
+                    log.warn("签发账户未授权，已停用，地址: {}", issuerAddress);
+                }
+            } catch (Exception e) {
+                log.error("检查签发账户授权失败，已停用，地址: {}", issuerAddress, e);
+                issuerPool.setEnabled(issuerAddress, false);
+            }
+        }
+    }
+
+    /**
+     * 查询账户是否为授权签发者
+     * @param issuerAddress 账户地址
+     * @return 是否已授权
+     */
+    public boolean isAuthorizedIssuer(String issuerAddress) throws Exception {
+        validateContractAddress();
+
+        List<Object> params = Arrays.asList(issuerAddress);
+        CallResponse response = sendCall("authorizedIssuers", params);
+
+        List<Object> results = response.getReturnObject();
+        return results != null && !results.isEmpty() && (Boolean) results.get(0);
+    }
+
+    /**
+     * 签发账户池状态
+     */
+    public Map<String, Object> getIssuerPoolStatus() {
+        return channel().issuerPool.snapshot();
+    }
+
+    /**
+     * 租用签发账户发送存证交易，回执返回后归还账户
+     * 回执的 from 字段即实际使用的签发账户。
+     * 撤销、更新过期时间要求调用方为证书签发者或合约所有者，仍由默认账户（合约所有者）发送
+     */
+    private TransactionResponse sendTransaction(String to, String abi, String funcName, List<Object> params)
+            throws Exception {
+        try (IssuerKeyPool.Lease<AssembleTransactionProcessor> issuer = channel().issuerPool.acquire()) {
+            return sendTransaction(issuer.getSigner(), to, abi, funcName, params);
+        }
+    }
+
+    /**
+     * 使用默认账户（合约所有者）发送交易
+     */
+    private TransactionResponse sendOwnerTransaction(String funcName, List<Object> params) throws Exception {
+        return sendTransaction(channel().transactionProcessor, address(), abi(), funcName, params);
+    }
+
+    /**
+     * 同步发送交易并等待回执，记录发送到回执返回的耗时
+     */
+    private TransactionResponse sendTransaction(AssembleTransactionProcessor processor, String to, String abi,
+                                                String funcName, List<Object> params) throws Exception {
+        long start = System.nanoTime();
+        String outcome = ChainMetrics.OUTCOME_ERROR;
+        try {
+            TransactionResponse response = processor.sendTransactionAndGetResponse(to, abi, funcName, params);
+            outcome = outcomeOf(response.getTransactionReceipt());
+            return response;
+        } finally {
+            chainMetrics.record(ChainMetrics.SDK_TRANSACTION, ChainMetrics.BACKEND_SDK, funcName, outcome,
+                System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 使用默认账户发起只读调用，记录调用耗时
+     */
+    private CallResponse sendCall(String funcName, List<Object> params) throws Exception {
+        long start = System.nanoTime();
+        String outcome = ChainMetrics.OUTCOME_ERROR;
+        try {
+            CallResponse response = channel().transactionProcessor.sendCall(
+                cryptoKeyPair.getAddress(), address(), abi(), funcName, params);
+            outcome = ChainMetrics.OUTCOME_SUCCESS;
+            return response;
+        } finally {
+            chainMetrics.record(ChainMetrics.SDK_CALL, ChainMetrics.BACKEND_SDK, funcName, outcome,
+                System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 使用默认账户发起只读调用并解码返回值，启用多节点路由时发往选中的节点
+     */
+    private List<Object> sendRoutedCall(String funcName, List<Object> params) throws Exception {
+        if (readRouter == null) {
+            return sendCall(funcName, params).getReturnObject();
+        }
+        String output = sendRawCall(funcName, abiCodec.encodeMethod(abi(), funcName, params));
+        return abiCodec.decodeMethod(abi(), funcName, output);
+    }
+
+    /**
+     * 使用默认账户发起已编码的只读调用，返回十六进制输出，记录调用耗时；
+     * 启用多节点路由时发往选中的节点
+     */
+    private String sendRawCall(String funcName, String data) {
+        long start = System.nanoTime();
+        String outcome = ChainMetrics.OUTCOME_ERROR;
+        try {
+            Transaction transaction = new Transaction(cryptoKeyPair.getAddress(), address(), data);
+            GroupChannel channel = channel();
+            // 多节点路由只覆盖默认群组
+            Call.CallOutput callOutput = readRouter != null && channel == defaultChannel
+                ? readRouter.call(transaction) : channel.client.call(transaction).getCallResult();
+            if (!"0x0".equals(callOutput.getStatus()) && !"0".equals(callOutput.getStatus())) {
+                outcome = ChainMetrics.OUTCOME_FAILED;
+                throw new RuntimeException(funcName + " 调用失败，状态: " + callOutput.getStatus());
+            }
+            outcome = ChainMetrics.OUTCOME_SUCCESS;
+            return callOutput.getOutput();
+        } finally {
+            chainMetrics.record(ChainMetrics.SDK_CALL, ChainMetrics.BACKEND_SDK, funcName, outcome,
+                System.nanoTime() - start);
+        }
+    }
+
+    private static String outcomeOf(TransactionReceipt receipt) {
+        return receipt != null && receipt.isStatusOK() ? ChainMetrics.OUTCOME_SUCCESS : ChainMetrics.OUTCOME_FAILED;
+    }
+
     /**
      * 验证合约地址是否已配置
      */
     private void validateContractAddress() {
-        String contractAddress = blockchainConfig.getContractAddress();
-        if (!StringUtils.hasText(contractAddress)) {
+        if (!StringUtils.hasText(address())) {
             throw new RuntimeException("合约地址未配置，请先部署合约或配置合约地址");
         }
     }
 
+    // ========== 合约版本路由 ==========
+
+    private boolean v2() {
+        return registryConfig.isV2();
+    }
+
+    /**
+     * 当前合约地址：分片群组使用群组配置的合约地址，否则按合约版本选择
+     */
+    private String address() {
+        ChainGroupContext group = ChainGroupContext.current();
+        if (group != null && StringUtils.hasText(group.getContractAddress())) {
+            return group.getContractAddress();
+        }
+        return v2() ? registryConfig.getV2Address() : contractAddress;
+    }
+
+    private String abi() {
+        return v2() ? CONTRACT_ABI_V2 : CONTRACT_ABI;
+    }
+
+    /**
+     * 证书编号参数：v1 为 string，v2 为 bytes32 键
+     */
+    private Object keyParam(String certificateNo) {
+        return v2() ? RegistryV2Codec.certificateKey(certificateNo) : certificateNo;
+    }
+
+    /**
+     * 文件哈希参数：v1 为 string，v2 为 bytes32
+     */
+    private Object hashParam(String fileHash) {
+        return v2() ? RegistryV2Codec.fileHash(fileHash) : fileHash;
+    }
+
+    private List<?> keyParams(List<String> certificateNos) {
+        if (!v2()) {
+            return certificateNos;
+        }
+        List<byte[]> keys = new ArrayList<>(certificateNos.size());
+        for (String certificateNo : certificateNos) {
+            keys.add(RegistryV2Codec.certificateKey(certificateNo));
+        }
+        return keys;
+    }
+
+    /**
+     * SDK 对 bytes32 返回值可能是字节数组或十六进制字符串
+     */
+    private static String bytes32ToHex(Object value) {
+        if (value instanceof byte[]) {
+            return RegistryV2Codec.toHex((byte[]) value);
+        }
+        String hex = String.valueOf(value);
+        return hex.startsWith("0x") ? hex.substring(2) : hex;
+    }
+
+    /**
+     * 单个群组的客户端、默认账户交易处理器和签发账户池
+     */
+    private static class GroupChannel {
+        private final Client client;
+        /**
+         * 默认群组更新合约地址时替换
+         */
+        private volatile AssembleTransactionProcessor transactionProcessor;
+        private final IssuerKeyPool<AssembleTransactionProcessor> issuerPool;
+
+        private GroupChannel(Client client, AssembleTransactionProcessor transactionProcessor,
+                             IssuerKeyPool<AssembleTransactionProcessor> issuerPool) {
+            this.client = client;
+            this.transactionProcessor = transactionProcessor;
+            this.issuerPool = issuerPool;
+        }
+    }
+
     /**
      * 证书验证结果类
      */
     public static class CertificateVerificationResult {
         private final boolean valid;
         private final long timestamp;
+        /**
+         * 状态码: 0=有效, 1=不存在, 2=已撤销, 3=已过期, 4=哈希不匹配；合约未返回时为 null
+         */
+        private final Integer status;
 
         public CertificateVerificationResult(boolean valid, long timestamp) {
+            this(valid, timestamp, null);
+        }
+
+        public CertificateVerificationResult(boolean valid, long timestamp, Integer status) {
             this.valid = valid;
             this.timestamp = timestamp;
+            this.status = status;
         }
 
         public boolean isValid() {
@@ -322,11 +850,16 @@ public class CertificateContract {
             return timestamp;
         }
 
+        public Integer getStatus() {
+            return status;
+        }
+
         @Override
         public String toString() {
             return "CertificateVerificationResult{" +
                     "valid=" + valid +
                     ", timestamp=" + timestamp +
+                    ", status=" + status +
                     '}';
         }
     }
@@ -372,4 +905,37 @@ public class CertificateContract {
                     '}';
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 批量存证记录类
+     */
+    public static class BatchRootInfo {
+        private final boolean exists;
+        private final String issuer;
+        private final long timestamp;
+        private final long leafCount;
+
+        public BatchRootInfo(boolean exists, String issuer, long timestamp, long leafCount) {
+            this.exists = exists;
+            this.issuer = issuer;
+            this.timestamp = timestamp;
+            this.leafCount = leafCount;
+        }
+
+        // Getters
+        public boolean isExists() { return exists; }
+        public String getIssuer() { return issuer; }
+        public long getTimestamp() { return timestamp; }
+        public long getLeafCount() { return leafCount; }
+
+        @Override
+        public String toString() {
+            return "BatchRootInfo{" +
+                    "exists=" + exists +
+                    ", issuer='" + issuer + '\'' +
+                    ", timestamp=" + timestamp +
+                    ", leafCount=" + leafCount +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import com.blockchain.certificate.shared.exception.BusinessException;
+
+/**
+ * 区块链访问异常：节点或 WeBASE-Front 不可达、超时、未返回回执等，交易是否执行未知
+ *
+ * 与合约执行回滚（require 失败，抛出普通 BusinessException）区分：
+ * 网关只把访问异常记入熔断器，回滚说明后端工作正常
+ */
+public class ChainAccessException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 区块链不可用的错误码
+     */
+    public static final String CODE = "503";
+
+    public ChainAccessException(String message) {
+        super(CODE, message);
+    }
+
+    public ChainAccessException(String message, Throwable cause) {
+        super(CODE, message, cause);
+    }
+}
@@ -0,0 +1,76 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量合约调用分片工具
+ * 按条目数和估算的 ABI 编码字节数切分批量参数，避免单次调用超过节点的调用大小限制
+ */
+final class ChainCallChunker {
+
+    /**
+     * 每个 string 参数的固定开销：数组内偏移量 + 长度字
+     */
+    private static final int STRING_OVERHEAD = 64;
+
+    private ChainCallChunker() {
+    }
+
+    /**
+     * 切分参数
+     * @param maxItems 每片最多条目数
+     * @param maxBytes 每片最多估算字节数
+     * @param columns 并列的字符串参数列（长度必须一致）
+     * @return 每片的 [起始下标, 结束下标)
+     */
+    @SafeVarargs
+    static List<int[]> split(int maxItems, int maxBytes, List<String>... columns) {
+        return split(maxItems, maxBytes, 0, columns);
+    }
+
+    /**
+     * 切分参数（每个条目另有定长参数，如 uint256[] 中的元素）
+     * @param maxItems 每片最多条目数
+     * @param maxBytes 每片最多估算字节数
+     * @param fixedBytesPerItem 每个条目的定长参数字节数
+     * @param columns 并列的字符串参数列（长度必须一致）
+     * @return 每片的 [起始下标, 结束下标)
+     */
+    @SafeVarargs
+    static List<int[]> split(int maxItems, int maxBytes, int fixedBytesPerItem, List<String>... columns) {
+        int size = columns[0].size();
+        for (List<String> column : columns) {
+            if (column.size() != size) {
+                throw new IllegalArgumentException("批量参数长度不一致");
+            }
+        }
+
+        List<int[]> chunks = new ArrayList<>();
+        int start = 0;
+        long bytes = 0;
+        for (int i = 0; i < size; i++) {
+            long itemBytes = fixedBytesPerItem;
+            for (List<String> column : columns) {
+                itemBytes += encodedSize(column.get(i));
+            }
+            boolean full = i - start >= maxItems || (i > start && bytes + itemBytes > maxBytes);
+            if (full) {
+                chunks.add(new int[]{start, i});
+                start = i;
+                bytes = 0;
+            }
+            bytes += itemBytes;
+        }
+        if (start < size) {
+            chunks.add(new int[]{start, size});
+        }
+        return chunks;
+    }
+
+    private static long encodedSize(String value) {
+        int length = value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+        return STRING_OVERHEAD + ((length + 31) / 32) * 32L;
+    }
+}
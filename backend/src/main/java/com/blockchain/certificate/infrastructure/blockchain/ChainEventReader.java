@@ -0,0 +1,422 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import com.blockchain.certificate.infrastructure.config.BlockchainConfig;
+import com.blockchain.certificate.infrastructure.config.RegistryConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.fisco.bcos.sdk.client.Client;
+import org.fisco.bcos.sdk.client.protocol.response.BcosBlock;
+import org.fisco.bcos.sdk.crypto.hash.Hash;
+import org.fisco.bcos.sdk.crypto.hash.Keccak256;
+import org.fisco.bcos.sdk.crypto.hash.SM3Hash;
+import org.fisco.bcos.sdk.model.TransactionReceipt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 链上事件读取器
+ * 按区块读取证书合约发出的事件并解码，支持 SDK 模式和 WeBASE 模式（优先 WeBASE）
+ *
+ * 解码的事件：
+ * - CertificateStored(string indexed certificateNo, string fileHash, address indexed issuer, uint256 timestamp, uint256 expiryDate)
+ * - CertificateStored(string indexed certificateNo, string fileHash, address indexed issuer, uint256 timestamp)（v1.0 合约）
+ * - CertificateRevoked(string indexed certificateNo, address indexed revoker, uint256 timestamp)
+ * - CertificateExpiryUpdated(string indexed certificateNo, uint256 oldExpiryDate, uint256 newExpiryDate, address indexed updater)
+ *
+ * indexed string 在日志中只保留哈希，证书编号从交易输入的第一个参数解析，并用哈希校验
+ *
+ * v2 合约（bytes32 键）的同名事件也会解码：证书键在非国密链上与 v1 的证书编号哈希相同，
+ * 但交易输入中没有证书编号，事件只记录证书键
+ *
+ * 事件主题和证书编号哈希使用链的哈希算法：SDK 模式取客户端的 CryptoSuite，
+ * WeBASE 模式按 webase.signing.sm-crypto 选择 SM3 或 Keccak-256
+ */
+@Slf4j
+@Component
+public class ChainEventReader {
+
+    public static final String CERTIFICATE_STORED = "CertificateStored";
+    public static final String CERTIFICATE_REVOKED = "CertificateRevoked";
+    public static final String CERTIFICATE_EXPIRY_UPDATED = "CertificateExpiryUpdated";
+
+    @Autowired(required = false)
+    private Client client;
+
+    @Autowired(required = false)
+    private WebaseFrontClient webaseFrontClient;
+
+    @Autowired
+    private BlockchainConfig blockchainConfig;
+
+    @Autowired
+    private RegistryConfig registryConfig;
+
+    @Value("${webase.signing.sm-crypto:false}")
+    private boolean webaseSmCrypto;
+
+    /**
+     * 链的哈希算法，启动时按连接方式确定
+     */
+    private Hash hasher;
+
+    private String topicStored;
+    private String topicStoredV1;
+    private String topicRevoked;
+    private String topicExpiryUpdated;
+
+    private String topicStoredV2;
+    private String topicRevokedV2;
+    private String topicExpiryUpdatedV2;
+
+    @PostConstruct
+    public void init() {
+        if (webaseFrontClient != null) {
+            hasher = webaseSmCrypto ? new SM3Hash() : new Keccak256();
+        } else if (client != null) {
+            hasher = client.getCryptoSuite().getHashImpl();
+        } else {
+            hasher = new Keccak256();
+        }
+
+        topicStored = hashOf("CertificateStored(string,string,address,uint256,uint256)");
+        topicStoredV1 = hashOf("CertificateStored(string,string,address,uint256)");
+        topicRevoked = hashOf("CertificateRevoked(string,address,uint256)");
+        topicExpiryUpdated = hashOf("CertificateExpiryUpdated(string,uint256,uint256,address)");
+
+        topicStoredV2 = hashOf("CertificateStored(bytes32,bytes32,address,uint256,uint256)");
+        topicRevokedV2 = hashOf("CertificateRevoked(bytes32,address,uint256)");
+        topicExpiryUpdatedV2 = hashOf("CertificateExpiryUpdated(bytes32,uint256,uint256,address)");
+    }
+
+    /**
+     * 是否有可用的区块链连接
+     */
+    public boolean isAvailable() {
+        return webaseFrontClient != null || client != null;
+    }
+
+    /**
+     * 读取指定区块中证书合约的事件
+     * @param blockNumber 区块高度
+     * @return 按交易和日志顺序排列的事件列表
+     */
+    public List<CertificateEvent> readEvents(long blockNumber) {
+        String contractAddress = getContractAddress();
+        if (contractAddress == null || contractAddress.isEmpty()) {
+            throw new IllegalStateException("合约地址未配置，无法读取链上事件");
+        }
+
+        List<CertificateEvent> events = new ArrayList<>();
+        for (RawReceipt receipt : readReceipts(blockNumber)) {
+            for (int i = 0; i < receipt.logs.size(); i++) {
+                RawLog rawLog = receipt.logs.get(i);
+                if (!contractAddress.equalsIgnoreCase(rawLog.address) || rawLog.topics.size() < 2) {
+                    continue;
+                }
+                CertificateEvent event;
+                try {
+                    event = decode(rawLog);
+                } catch (RuntimeException e) {
+                    // 单条日志编码异常时跳过，不让整个区块的索引卡住
+                    log.warn("事件解码失败，区块: {}, 交易: {}, 原因: {}", blockNumber, receipt.txHash, e.getMessage());
+                    continue;
+                }
+                if (event == null) {
+                    continue;
+                }
+                event.setBlockNumber(blockNumber);
+                event.setTxHash(receipt.txHash);
+                event.setLogIndex(i);
+                event.setCertificateNo(decodeCertificateNo(receipt.input, event.getCertificateNoHash()));
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private String getContractAddress() {
+        if (webaseFrontClient != null) {
+            return webaseFrontClient.getContractAddress();
+        }
+        return registryConfig.isV2() ? registryConfig.getV2Address() : blockchainConfig.getContractAddress();
+    }
+
+    private List<RawReceipt> readReceipts(long blockNumber) {
+        List<RawReceipt> receipts = new ArrayList<>();
+        if (webaseFrontClient != null) {
+            List<String> hashes = webaseFrontClient.getBlockTransactionHashes(blockNumber);
+            if (hashes == null) {
+                throw new IllegalStateException("读取区块失败: " + blockNumber);
+            }
+            for (String hash : hashes) {
+                JsonNode receipt = webaseFrontClient.getTransactionReceipt(hash);
+                if (receipt == null) {
+                    throw new IllegalStateException("读取交易回执失败: " + hash);
+                }
+                List<RawLog> logs = new ArrayList<>();
+                for (JsonNode logNode : receipt.path("logs")) {
+                    List<String> topics = new ArrayList<>();
+                    for (JsonNode topic : logNode.path("topics")) {
+                        topics.add(topic.asText());
+                    }
+                    logs.add(new RawLog(logNode.path("address").asText(), topics, logNode.path("data").asText()));
+                }
+                receipts.add(new RawReceipt(hash, receipt.path("input").asText(null), logs));
+            }
+        } else if (client != null) {
+            BcosBlock.Block block = client.getBlockByNumber(BigInteger.valueOf(blockNumber), false).getBlock();
+            for (BcosBlock.TransactionResult tx : block.getTransactions()) {
+                String hash = String.valueOf(tx.get());
+                TransactionReceipt receipt = client.getTransactionReceipt(hash).getTransactionReceipt().orElse(null);
+                if (receipt == null) {
+                    throw new IllegalStateException("读取交易回执失败: " + hash);
+                }
+                List<RawLog> logs = new ArrayList<>();
+                if (receipt.getLogs() != null) {
+                    for (TransactionReceipt.Logs sdkLog : receipt.getLogs()) {
+                        logs.add(new RawLog(sdkLog.getAddress(), sdkLog.getTopics(), sdkLog.getData()));
+                    }
+                }
+                receipts.add(new RawReceipt(hash, receipt.getInput(), logs));
+            }
+        }
+        return receipts;
+    }
+
+    /**
+     * 按 topic0 解码事件数据
+     */
+    private CertificateEvent decode(RawLog rawLog) {
+        String signature = normalize(rawLog.topics.get(0));
+        byte[] data = decodeHex(rawLog.data);
+
+        CertificateEvent event = new CertificateEvent();
+        event.setCertificateNoHash(normalize(rawLog.topics.get(1)));
+        event.setOperator(rawLog.topics.size() > 2 ? topicToAddress(rawLog.topics.get(2)) : null);
+
+        if (topicStored.equals(signature) || topicStoredV1.equals(signature)) {
+            // data: [offset(fileHash), timestamp, (expiryDate), fileHash...]
+            event.setEventName(CERTIFICATE_STORED);
+            event.setFileHash(readString(data, 0));
+            event.setEventTimestamp(readUint(data, 1));
+            event.setExpiryDate(topicStored.equals(signature) ? readUint(data, 2) : 0L);
+        } else if (topicStoredV2.equals(signature)) {
+            // data: [fileHash(bytes32), timestamp, expiryDate]
+            event.setEventName(CERTIFICATE_STORED);
+            event.setFileHash(readBytes32(data, 0));
+            event.setEventTimestamp(readUint(data, 1));
+            event.setExpiryDate(readUint(data, 2));
+        } else if (topicRevoked.equals(signature) || topicRevokedV2.equals(signature)) {
+            // data: [timestamp]
+            event.setEventName(CERTIFICATE_REVOKED);
+            event.setEventTimestamp(readUint(data, 0));
+        } else if (topicExpiryUpdated.equals(signature) || topicExpiryUpdatedV2.equals(signature)) {
+            // data: [oldExpiryDate, newExpiryDate]
+            event.setEventName(CERTIFICATE_EXPIRY_UPDATED);
+            event.setOldExpiryDate(readUint(data, 0));
+            event.setExpiryDate(readUint(data, 1));
+        } else {
+            return null;
+        }
+        return event;
+    }
+
+    /**
+     * 从交易输入解析证书编号
+     * 单条写方法的第一个参数为 string certificateNo，批量写方法的第一个参数为 string[] certificateNos，
+     * 批量时按哈希在数组中查找对应的证书编号
+     */
+    private String decodeCertificateNo(String input, String expectedHash) {
+        if (input == null) {
+            return null;
+        }
+        byte[] params;
+        try {
+            byte[] bytes = decodeHex(input);
+            if (bytes.length < 4 + 32) {
+                return null;
+            }
+            params = Arrays.copyOfRange(bytes, 4, bytes.length);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        try {
+            String certificateNo = readString(params, 0);
+            if (hashOf(certificateNo).equals(expectedHash)) {
+                return certificateNo;
+            }
+        } catch (RuntimeException e) {
+            // 不是 string 参数，按 string[] 继续尝试
+        }
+        try {
+            for (String certificateNo : readStringArray(params, 0)) {
+                if (hashOf(certificateNo).equals(expectedHash)) {
+                    return certificateNo;
+                }
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * 事件中证书编号所在主题的值：v1 合约为 indexed string 的链上哈希，v2 合约为证书键
+     *
+     * v2 证书键由本服务固定按 Keccak-256 计算，国密链上与 v1 主题不同
+     */
+    public String certificateNoHash(String certificateNo) {
+        if (registryConfig.isV2()) {
+            return RegistryV2Codec.toHex(RegistryV2Codec.certificateKey(certificateNo));
+        }
+        return hashOf(certificateNo);
+    }
+
+    private String hashOf(String value) {
+        return Hex.encodeHexString(hasher.hash(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // ========== ABI 解码工具 ==========
+
+    private static long readUint(byte[] data, int slot) {
+        int offset = slotOffset(data, slot);
+        return new BigInteger(1, Arrays.copyOfRange(data, offset, offset + 32)).longValue();
+    }
+
+    private static String readBytes32(byte[] data, int slot) {
+        int offset = slotOffset(data, slot);
+        return Hex.encodeHexString(Arrays.copyOfRange(data, offset, offset + 32));
+    }
+
+    /**
+     * 槽位的字节偏移，槽位超出数据范围时抛出 IllegalArgumentException
+     */
+    private static int slotOffset(byte[] data, int slot) {
+        long offset = slot * 32L;
+        if (slot < 0 || offset + 32 > data.length) {
+            throw new IllegalArgumentException("事件数据长度不足");
+        }
+        return (int) offset;
+    }
+
+    /**
+     * 读取偏移或长度字段：数值不超过数据长度，否则抛出 IllegalArgumentException
+     * （按 uint256 完整比较，截断为 long 或 int 后可能变成负数或绕回到范围内）
+     */
+    private static int readSize(byte[] data, int slot) {
+        int offset = slotOffset(data, slot);
+        BigInteger value = new BigInteger(1, Arrays.copyOfRange(data, offset, offset + 32));
+        if (value.compareTo(BigInteger.valueOf(data.length)) > 0) {
+            throw new IllegalArgumentException("偏移或长度超出数据范围");
+        }
+        return value.intValue();
+    }
+
+    private static String readString(byte[] data, int slot) {
+        int offset = readSize(data, slot);
+        if (offset % 32 != 0) {
+            throw new IllegalArgumentException("字符串编码错误");
+        }
+        int length = readSize(data, offset / 32);
+        long start = offset + 32L;
+        if (data.length < start + length) {
+            throw new IllegalArgumentException("字符串编码错误");
+        }
+        return new String(data, (int) start, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 读取 string[] 参数：[偏移] -> [长度, 各元素相对偏移..., 各元素编码...]
+     */
+    private static List<String> readStringArray(byte[] data, int slot) {
+        int offset = readSize(data, slot);
+        if (offset % 32 != 0) {
+            throw new IllegalArgumentException("数组编码错误");
+        }
+        int count = readSize(data, offset / 32);
+        if (count > (data.length - offset - 32) / 32) {
+            throw new IllegalArgumentException("数组长度错误");
+        }
+        byte[] body = Arrays.copyOfRange(data, offset + 32, data.length);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(body, i));
+        }
+        return values;
+    }
+
+    private static String topicToAddress(String topic) {
+        String hex = normalize(topic);
+        return hex.length() >= 40 ? "0x" + hex.substring(hex.length() - 40) : null;
+    }
+
+    private static String normalize(String hex) {
+        String value = hex.startsWith("0x") || hex.startsWith("0X") ? hex.substring(2) : hex;
+        return value.toLowerCase();
+    }
+
+    private static byte[] decodeHex(String hex) {
+        if (hex == null || hex.isEmpty()) {
+            return new byte[0];
+        }
+        try {
+            return Hex.decodeHex(normalize(hex));
+        } catch (DecoderException e) {
+            throw new IllegalArgumentException("十六进制格式错误", e);
+        }
+    }
+
+    private static class RawReceipt {
+        private final String txHash;
+        private final String input;
+        private final List<RawLog> logs;
+
+        RawReceipt(String txHash, String input, List<RawLog> logs) {
+            this.txHash = txHash;
+            this.input = input;
+            this.logs = logs;
+        }
+    }
+
+    private static class RawLog {
+        private final String address;
+        private final List<String> topics;
+        private final String data;
+
+        RawLog(String address, List<String> topics, String data) {
+            this.address = address;
+            this.topics = topics == null ? Collections.emptyList() : topics;
+            this.data = data;
+        }
+    }
+
+    /**
+     * 解码后的证书事件
+     */
+    @Data
+    public static class CertificateEvent {
+        private long blockNumber;
+        private String txHash;
+        private int logIndex;
+        private String eventName;
+        private String certificateNo;
+        private String certificateNoHash;
+        private String fileHash;
+        private String operator;
+        private Long eventTimestamp;
+        private Long expiryDate;
+        private Long oldExpiryDate;
+    }
+}
@@ -0,0 +1,57 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前线程的区块链调用群组
+ *
+ * 由网关的群组视图（BlockchainGateway.forGroup）在调用后端前设置、调用结束后恢复，
+ * CertificateContract、WebaseFrontClient 据此选择群组和合约地址；未设置时使用各后端的默认群组和合约
+ */
+public final class ChainGroupContext {
+
+    private static final ThreadLocal<ChainGroupContext> CURRENT = new ThreadLocal<>();
+
+    private final int groupId;
+    private final String contractAddress;
+
+    private ChainGroupContext(int groupId, String contractAddress) {
+        this.groupId = groupId;
+        this.contractAddress = contractAddress;
+    }
+
+    /**
+     * 在指定群组中执行调用，支持嵌套
+     *
+     * @param groupId         群组ID
+     * @param contractAddress 该群组的合约地址，为空时使用后端默认合约地址
+     */
+    public static <T> T call(int groupId, String contractAddress, Supplier<T> call) {
+        ChainGroupContext previous = CURRENT.get();
+        CURRENT.set(new ChainGroupContext(groupId, contractAddress));
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 当前群组，未设置时返回 null
+     */
+    public static ChainGroupContext current() {
+        return CURRENT.get();
+    }
+
+    public int getGroupId() {
+        return groupId;
+    }
+
+    public String getContractAddress() {
+        return contractAddress;
+    }
+}
@@ -0,0 +1,215 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 区块链调用指标
+ *
+ * 计时器按 指标名/后端/函数/结果 分组，记录调用次数、总耗时、最大耗时和分桶耗时（用于估算 p50/p95/p99）；
+ * 指标名：
+ * - chain.gateway：网关调用（含熔断拒绝），按后端区分
+ * - chain.sdk.call / chain.sdk.transaction：SDK 只读调用 / 同步交易（发送 + 等待回执）
+ * - chain.webase.http：WeBASE-Front HTTP 往返（交易接口同步返回回执）
+ * - chain.webase.sign：WeBASE 本地签名模式下的 ABI 编码和签名
+ *
+ * 仪表（在途交易数、熔断状态等）由各组件注册取值函数，读取指标时计算
+ */
+@Slf4j
+@Component
+public class ChainMetrics {
+
+    public static final String GATEWAY = "chain.gateway";
+    public static final String SDK_CALL = "chain.sdk.call";
+    public static final String SDK_TRANSACTION = "chain.sdk.transaction";
+    public static final String WEBASE_HTTP = "chain.webase.http";
+    public static final String WEBASE_SIGN = "chain.webase.sign";
+
+    public static final String BACKEND_SDK = "sdk";
+    public static final String BACKEND_WEBASE = "webase";
+
+    /**
+     * 调用成功（交易回执状态正常、HTTP 2xx）
+     */
+    public static final String OUTCOME_SUCCESS = "success";
+    /**
+     * 交易已上链但执行失败（回执状态非 0）或 HTTP 非 2xx
+     */
+    public static final String OUTCOME_FAILED = "failed";
+    /**
+     * 调用抛出异常（网络错误、解析失败等）
+     */
+    public static final String OUTCOME_ERROR = "error";
+    /**
+     * 等待交易回执超时
+     */
+    public static final String OUTCOME_TIMEOUT = "timeout";
+    /**
+     * 后端熔断中，调用未发出
+     */
+    public static final String OUTCOME_REJECTED = "rejected";
+
+    /**
+     * 耗时分桶上界（毫秒），最后一个桶为超过 30 秒的调用
+     */
+    private static final long[] BUCKET_BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<Object>> gauges = new ConcurrentSkipListMap<>();
+
+    /**
+     * 记录一次调用
+     *
+     * @param name         指标名
+     * @param backend      后端：sdk / webase
+     * @param function     合约函数或接口名
+     * @param outcome      结果
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    public void record(String name, String backend, String function, String outcome, long elapsedNanos) {
+        String key = name + '|' + backend + '|' + function + '|' + outcome;
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> new Timer(name, backend, function, outcome));
+        }
+        timer.record(elapsedNanos);
+    }
+
+    /**
+     * 注册仪表，同名仪表后注册的覆盖先注册的
+     *
+     * @param name  仪表名
+     * @param value 取值函数，读取指标时调用
+     */
+    public void gauge(String name, Supplier<Object> value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * 指标快照
+     */
+    public Map<String, Object> snapshot() {
+        List<Timer> sorted = new ArrayList<>(timers.values());
+        sorted.sort(Comparator.comparing((Timer timer) -> timer.name)
+                .thenComparing(timer -> timer.backend)
+                .thenComparing(timer -> timer.function)
+                .thenComparing(timer -> timer.outcome));
+
+        List<Map<String, Object>> timerSnapshots = new ArrayList<>(sorted.size());
+        for (Timer timer : sorted) {
+            timerSnapshots.add(timer.snapshot());
+        }
+
+        Map<String, Object> gaugeValues = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<Object>> entry : gauges.entrySet()) {
+            try {
+                gaugeValues.put(entry.getKey(), entry.getValue().get());
+            } catch (RuntimeException e) {
+                log.debug("读取仪表失败，仪表: {}, 原因: {}", entry.getKey(), e.getMessage());
+                gaugeValues.put(entry.getKey(), null);
+            }
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timers", timerSnapshots);
+        snapshot.put("gauges", gaugeValues);
+        return snapshot;
+    }
+
+    /**
+     * 清空计时器（仪表保留）
+     */
+    public void reset() {
+        timers.clear();
+    }
+
+    private static class Timer {
+        private final String name;
+        private final String backend;
+        private final String function;
+        private final String outcome;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MS.length + 1);
+
+        private Timer(String name, String backend, String function, String outcome) {
+            this.name = name;
+            this.backend = backend;
+            this.function = function;
+            this.outcome = outcome;
+        }
+
+        private void record(long elapsedNanos) {
+            long nanos = Math.max(0, elapsedNanos);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            buckets.incrementAndGet(bucketOf(nanos / 1_000_000));
+        }
+
+        private Map<String, Object> snapshot() {
+            long total = count.sum();
+            long[] bucketCounts = new long[buckets.length()];
+            for (int i = 0; i < bucketCounts.length; i++) {
+                bucketCounts[i] = buckets.get(i);
+            }
+
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("name", name);
+            snapshot.put("backend", backend);
+            snapshot.put("function", function);
+            snapshot.put("outcome", outcome);
+            snapshot.put("count", total);
+            snapshot.put("totalMs", totalNanos.sum() / 1_000_000);
+            snapshot.put("meanMs", total == 0 ? 0 : totalNanos.sum() / total / 1_000_000);
+            snapshot.put("maxMs", maxNanos.get() / 1_000_000);
+            snapshot.put("p50Ms", percentile(bucketCounts, 0.50));
+            snapshot.put("p95Ms", percentile(bucketCounts, 0.95));
+            snapshot.put("p99Ms", percentile(bucketCounts, 0.99));
+            return snapshot;
+        }
+
+        /**
+         * 分桶估算分位数，返回所在桶的上界；落在最后一个桶时返回最大耗时
+         */
+        private long percentile(long[] bucketCounts, double quantile) {
+            long total = 0;
+            for (long bucketCount : bucketCounts) {
+                total += bucketCount;
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= rank) {
+                    return BUCKET_BOUNDS_MS[i];
+                }
+            }
+            return maxNanos.get() / 1_000_000;
+        }
+
+        private static int bucketOf(long elapsedMs) {
+            for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+                if (elapsedMs <= BUCKET_BOUNDS_MS[i]) {
+                    return i;
+                }
+            }
+            return BUCKET_BOUNDS_MS.length;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 区块链只读调用缓存
+ * 缓存 verifyCertificate、getCertificate 等 view 调用结果，按证书编号索引，同一证书下按调用名称（和文件哈希）区分
+ *
+ * 失效规则：
+ * - 本地撤销、更新过期时间后立即失效对应证书
+ * - 链上事件（CertificateStored/Revoked/ExpiryUpdated）到达后失效对应证书；v2 合约的事件和无法解析交易输入的事件
+ *   只带证书编号哈希，事件索引启用时缓存同时按证书编号哈希建立索引，按哈希失效
+ * - 缓存时的区块高度落后最新区块超过 max-block-lag，或超过 ttl-ms 后视为过期
+ *
+ * 失效时递增证书的代数（generation），开始加载时记录当时的代数，
+ * 加载期间证书被失效过则丢弃加载结果，避免失效前发起的调用在失效后写回旧值
+ *
+ * 最新区块高度由 ChainStatusMonitor 轮询后推送，缓存本身不访问节点
+ */
+@Slf4j
+@Component
+public class ChainReadCache {
+
+    private static final char KEY_SEPARATOR = '|';
+
+    @Value("${chain.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chain.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${chain.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${chain.cache.max-block-lag:50}")
+    private long maxBlockLag;
+
+    /**
+     * 证书编号 -> 该证书的缓存条目，修改证书的条目时通过 compute 串行执行
+     */
+    private final Map<String, CertificateEntries> certificates = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * 证书编号哈希 -> 证书编号，与 certificates 同步维护；未设置 keyHasher 时为空
+     */
+    private final Map<String, String> certificateNosByHash = new ConcurrentHashMap<>();
+
+    /**
+     * 计算事件主题中的证书编号哈希，由链上事件索引服务设置
+     */
+    private volatile Function<String, String> keyHasher;
+
+    /**
+     * 代数时钟，每次失效递增
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * 已回收的证书索引中最大的代数：重新创建的索引从该代数开始，回收前被失效过的加载不会写回
+     */
+    private final AtomicLong reclaimedGeneration = new AtomicLong();
+
+    /**
+     * 最近一次观察到的区块高度（-1 表示未知）
+     */
+    private volatile long latestBlockHeight = -1;
+    private volatile long latestBlockPollTime;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong staleMisses = new AtomicLong();
+    private final AtomicLong staleLoads = new AtomicLong();
+    private final AtomicLong localInvalidations = new AtomicLong();
+    private final AtomicLong eventInvalidations = new AtomicLong();
+    private final AtomicLong unresolvedEventInvalidations = new AtomicLong();
+    private final AtomicLong servedBlockLagTotal = new AtomicLong();
+
+    /**
+     * 读取缓存，未命中时调用 loader 并写入缓存
+     *
+     * @param operation 调用名称（verify、info 等）
+     * @param certificateNo 证书编号
+     * @param fileHash 文件哈希值（没有则传 null）
+     * @param loader 实际的链上调用
+     * @return 调用结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String operation, String certificateNo, String fileHash, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        String key = buildKey(operation, fileHash);
+        CertificateEntries cached = certificates.get(certificateNo);
+        CacheEntry entry = cached == null ? null : cached.entries.get(key);
+        if (entry != null) {
+            if (isFresh(entry)) {
+                hits.incrementAndGet();
+                if (latestBlockHeight >= 0 && entry.blockHeight >= 0) {
+                    servedBlockLagTotal.addAndGet(Math.max(0, latestBlockHeight - entry.blockHeight));
+                }
+                return (T) entry.value;
+            }
+            certificates.computeIfPresent(certificateNo, (no, current) -> {
+                if (current.entries.remove(key, entry)) {
+                    size.decrementAndGet();
+                }
+                return current;
+            });
+            staleMisses.incrementAndGet();
+        }
+
+        misses.incrementAndGet();
+        long generation = clock.get();
+        T value = loader.get();
+        if (value != null) {
+            ensureCapacity();
+            put(certificateNo, key, new CacheEntry(value, latestBlockHeight, System.currentTimeMillis()), generation);
+        }
+        return value;
+    }
+
+    /**
+     * 本地写操作（撤销、更新过期时间）后失效证书的全部缓存
+     *
+     * @param certificateNo 证书编号
+     */
+    public void evict(String certificateNo) {
+        if (invalidate(certificateNo) > 0) {
+            localInvalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * 链上事件到达后失效证书的全部缓存
+     *
+     * @param certificateNo 证书编号
+     * @param blockHeight 事件所在区块高度
+     */
+    public void onChainEvent(String certificateNo, long blockHeight) {
+        if (blockHeight > latestBlockHeight) {
+            latestBlockHeight = blockHeight;
+        }
+        if (invalidate(certificateNo) > 0) {
+            eventInvalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * 链上事件只带证书编号哈希时，按哈希失效证书的全部缓存
+     * 哈希没有对应的缓存证书时推进回收代数，拦截进行中的加载
+     *
+     * @param certificateNoHash 事件主题中的证书编号哈希（十六进制，不带 0x）
+     * @param blockHeight 事件所在区块高度
+     */
+    public void onChainEventByHash(String certificateNoHash, long blockHeight) {
+        String certificateNo = certificateNosByHash.get(certificateNoHash);
+        if (certificateNo != null) {
+            onChainEvent(certificateNo, blockHeight);
+            return;
+        }
+        if (blockHeight > latestBlockHeight) {
+            latestBlockHeight = blockHeight;
+        }
+        reclaimedGeneration.accumulateAndGet(clock.incrementAndGet(), Math::max);
+        unresolvedEventInvalidations.incrementAndGet();
+    }
+
+    /**
+     * 设置证书编号哈希的计算方式，之后写入的证书同时按哈希建立索引
+     *
+     * @param keyHasher 证书编号 -> 事件主题中的证书编号哈希
+     */
+    public void setKeyHasher(Function<String, String> keyHasher) {
+        this.keyHasher = keyHasher;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        reclaimedGeneration.accumulateAndGet(clock.get(), Math::max);
+        certificates.clear();
+        certificateNosByHash.clear();
+        size.set(0);
+    }
+
+    /**
+     * 更新最新区块高度，用于判断缓存条目落后的区块数
+     *
+     * @param blockHeight 轮询到的区块高度
+     */
+    public void onBlockHeight(long blockHeight) {
+        latestBlockHeight = blockHeight;
+        latestBlockPollTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", size.get());
+        stats.put("certificates", certificates.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("staleMisses", staleMisses.get());
+        stats.put("staleLoads", staleLoads.get());
+        stats.put("localInvalidations", localInvalidations.get());
+        stats.put("eventInvalidations", eventInvalidations.get());
+        stats.put("unresolvedEventInvalidations", unresolvedEventInvalidations.get());
+        stats.put("avgServedBlockLag", hitCount == 0 ? 0.0 : (double) servedBlockLagTotal.get() / hitCount);
+        stats.put("latestBlockHeight", latestBlockHeight);
+        stats.put("blockHeightAgeMs", latestBlockPollTime == 0 ? -1 : System.currentTimeMillis() - latestBlockPollTime);
+        stats.put("maxBlockLag", maxBlockLag);
+        stats.put("ttlMs", ttlMs);
+        return stats;
+    }
+
+    private boolean isFresh(CacheEntry entry) {
+        if (System.currentTimeMillis() - entry.createTime > ttlMs) {
+            return false;
+        }
+        if (latestBlockHeight >= 0 && entry.blockHeight >= 0) {
+            return latestBlockHeight - entry.blockHeight <= maxBlockLag;
+        }
+        return true;
+    }
+
+    /**
+     * 写入加载结果，加载开始后证书被失效过时丢弃
+     */
+    private void put(String certificateNo, String key, CacheEntry entry, long generation) {
+        certificates.compute(certificateNo, (no, cached) -> {
+            long invalidatedAt = cached == null ? reclaimedGeneration.get() : cached.generation;
+            if (generation < invalidatedAt) {
+                // 丢弃的加载不新建证书索引
+                staleLoads.incrementAndGet();
+                return cached;
+            }
+            if (cached == null) {
+                cached = new CertificateEntries(invalidatedAt);
+                indexHash(no, cached);
+            }
+            if (cached.entries.put(key, entry) == null) {
+                size.incrementAndGet();
+            }
+            return cached;
+        });
+    }
+
+    /**
+     * 失效证书的全部条目并递增代数
+     * 证书没有缓存索引时不新建索引，改为推进回收代数：之后新建的索引从该代数开始，拦截进行中的加载
+     * （同时拦截其他未缓存证书的加载，只多一次链上调用）
+     *
+     * @return 移除的条目数
+     */
+    private int invalidate(String certificateNo) {
+        int[] removed = new int[1];
+        certificates.compute(certificateNo, (no, cached) -> {
+            if (cached == null) {
+                reclaimedGeneration.accumulateAndGet(clock.incrementAndGet(), Math::max);
+                return null;
+            }
+            removed[0] = cached.entries.size();
+            cached.entries.clear();
+            cached.generation = clock.incrementAndGet();
+            return cached;
+        });
+        size.addAndGet(-removed[0]);
+        return removed[0];
+    }
+
+    /**
+     * 超过容量时先清理过期条目和没有条目的证书索引，仍超出则淘汰最早写入的条目
+     */
+    private void ensureCapacity() {
+        if (size.get() < maxEntries && certificates.size() < maxEntries) {
+            return;
+        }
+        removeEntries(entry -> !isFresh(entry));
+        if (size.get() < maxEntries) {
+            return;
+        }
+        long cutoff = certificates.values().stream()
+                .flatMap(cached -> cached.entries.values().stream())
+                .mapToLong(e -> e.createTime)
+                .sorted()
+                .skip(Math.max(0, size.get() / 10))
+                .findFirst()
+                .orElse(Long.MAX_VALUE);
+        removeEntries(entry -> entry.createTime <= cutoff);
+    }
+
+    /**
+     * 移除符合条件的条目，没有条目的证书索引一并回收
+     */
+    private void removeEntries(Predicate<CacheEntry> filter) {
+        for (String certificateNo : certificates.keySet()) {
+            certificates.computeIfPresent(certificateNo, (no, cached) -> {
+                int before = cached.entries.size();
+                cached.entries.values().removeIf(filter);
+                size.addAndGet(cached.entries.size() - before);
+                if (!cached.entries.isEmpty()) {
+                    return cached;
+                }
+                reclaimedGeneration.accumulateAndGet(cached.generation, Math::max);
+                if (cached.keyHash != null) {
+                    certificateNosByHash.remove(cached.keyHash, no);
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 新建证书索引时记录证书编号哈希（在 certificates.compute 中调用）
+     */
+    private void indexHash(String certificateNo, CertificateEntries cached) {
+        Function<String, String> hasher = keyHasher;
+        if (hasher == null) {
+            return;
+        }
+        cached.keyHash = hasher.apply(certificateNo);
+        certificateNosByHash.put(cached.keyHash, certificateNo);
+    }
+
+    private static String buildKey(String operation, String fileHash) {
+        return operation + KEY_SEPARATOR + (fileHash == null ? "" : fileHash);
+    }
+
+    /**
+     * 单个证书的缓存条目
+     */
+    private static class CertificateEntries {
+        private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+        /**
+         * 最近一次失效时的代数，由 certificates.compute 串行修改
+         */
+        private long generation;
+
+        /**
+         * 证书编号哈希，未设置 keyHasher 时为 null
+         */
+        private String keyHash;
+
+        CertificateEntries(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static class CacheEntry {
+        private final Object value;
+        private final long blockHeight;
+        private final long createTime;
+
+        CacheEntry(Object value, long blockHeight, long createTime) {
+            this.value = value;
+            this.blockHeight = blockHeight;
+            this.createTime = createTime;
+        }
+    }
+}
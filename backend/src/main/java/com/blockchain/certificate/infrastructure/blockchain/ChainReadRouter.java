@@ -0,0 +1,240 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import com.blockchain.certificate.infrastructure.config.BlockchainConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.fisco.bcos.sdk.BcosSDK;
+import org.fisco.bcos.sdk.client.Client;
+import org.fisco.bcos.sdk.client.JsonRpcService;
+import org.fisco.bcos.sdk.client.protocol.request.JsonRpcRequest;
+import org.fisco.bcos.sdk.client.protocol.request.Transaction;
+import org.fisco.bcos.sdk.client.protocol.response.Call;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SDK 模式只读调用的多节点路由
+ *
+ * SDK 的 Client 按群组发送请求，由 SDK 自行挑选连接；启用后 view 调用（verifyCertificate、getCertificate 等）
+ * 直接发往 fisco.nodes 中的某个节点：
+ * - 选择 EWMA 延迟 × (在途数 + 1) 最小的健康节点，从轮转起点开始比较，得分相同时轮流分配
+ * - 后台定时逐个节点查询区块高度，同时更新延迟；落后最高节点超过 max-block-lag 个区块的节点被摘除
+ * - 调用失败的节点立即摘除，下次探测成功后恢复；没有健康节点或节点调用失败时回退到 SDK 默认路由
+ *
+ * 交易仍通过 Client 按群组发送，不经过本路由
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = {"blockchain.enabled", "chain.read-routing.enabled"}, havingValue = "true",
+        matchIfMissing = false)
+public class ChainReadRouter {
+
+    private final BcosSDK bcosSDK;
+    private final Client client;
+    private final BlockchainConfig blockchainConfig;
+    private final ChainMetrics chainMetrics;
+
+    @Value("${chain.read-routing.max-block-lag:10}")
+    private long maxBlockLag;
+
+    @Value("${chain.read-routing.ewma-alpha:0.3}")
+    private double ewmaAlpha;
+
+    private JsonRpcService jsonRpcService;
+    private List<Node> nodes = Collections.emptyList();
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public ChainReadRouter(BcosSDK bcosSDK, Client client, BlockchainConfig blockchainConfig,
+                           ChainMetrics chainMetrics) {
+        this.bcosSDK = bcosSDK;
+        this.client = client;
+        this.blockchainConfig = blockchainConfig;
+        this.chainMetrics = chainMetrics;
+    }
+
+    @PostConstruct
+    public void init() {
+        this.jsonRpcService = new JsonRpcService(bcosSDK.getGroupManagerService(), bcosSDK.getChannel(),
+                blockchainConfig.getGroupId());
+
+        List<Node> configured = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        if (blockchainConfig.getNodes() != null) {
+            for (String peer : blockchainConfig.getNodes()) {
+                if (StringUtils.hasText(peer) && seen.add(peer.trim())) {
+                    configured.add(new Node(peer.trim()));
+                }
+            }
+        }
+        this.nodes = Collections.unmodifiableList(configured);
+
+        List<String> available = bcosSDK.getChannel().getAvailablePeer();
+        for (Node node : nodes) {
+            if (available == null || !available.contains(node.peer)) {
+                log.warn("节点未在 SDK 连接列表中，探测成功前不参与只读路由: {}", node.peer);
+            }
+        }
+        log.info("只读调用多节点路由初始化，节点: {}, 最大落后区块数: {}", configured, maxBlockLag);
+        chainMetrics.gauge("chain.sdk.read-routing.nodes", this::getStatus);
+
+        probe();
+    }
+
+    /**
+     * 发起只读调用：优先发往选中的节点，失败时摘除该节点并回退到 SDK 默认路由
+     *
+     * @param transaction 调用参数（from、to、data）
+     */
+    public Call.CallOutput call(Transaction transaction) {
+        Node node = select();
+        if (node != null) {
+            node.inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                Call call = jsonRpcService.sendRequestToPeer(
+                        new JsonRpcRequest<>("call", Arrays.asList(blockchainConfig.getGroupId(), transaction)),
+                        node.peer, Call.class);
+                if (call.getError() == null && call.getCallResult() != null) {
+                    node.observe(System.nanoTime() - start, ewmaAlpha);
+                    return call.getCallResult();
+                }
+                node.eject("调用返回错误: " + call.getError().getMessage());
+            } catch (RuntimeException e) {
+                node.eject("调用失败: " + e.getMessage());
+            } finally {
+                node.inFlight.decrementAndGet();
+            }
+            log.warn("节点只读调用失败，回退到默认路由，节点: {}, 原因: {}", node.peer, node.lastError);
+        }
+        return client.call(transaction).getCallResult();
+    }
+
+    /**
+     * 选择得分最低的健康节点，没有健康节点时返回 null
+     */
+    private Node select() {
+        List<Node> current = nodes;
+        int size = current.size();
+        if (size == 0) {
+            return null;
+        }
+
+        int start = Math.floorMod(cursor.getAndIncrement(), size);
+        Node best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Node node = current.get((start + i) % size);
+            if (!node.healthy) {
+                continue;
+            }
+            double score = node.ewmaNanos * (node.inFlight.get() + 1);
+            if (score < bestScore) {
+                best = node;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 定时探测节点区块高度和延迟，摘除落后或不可达的节点
+     */
+    @Scheduled(fixedDelayString = "${chain.read-routing.probe-ms:3000}")
+    public void probe() {
+        long highest = -1;
+        for (Node node : nodes) {
+            long start = System.nanoTime();
+            try {
+                long blockNumber = client.getBlockNumber(blockchainConfig.getGroupId(), node.peer)
+                        .getBlockNumber().longValue();
+                node.observe(System.nanoTime() - start, ewmaAlpha);
+                node.blockNumber = blockNumber;
+                node.probed = true;
+                highest = Math.max(highest, blockNumber);
+            } catch (RuntimeException e) {
+                node.probed = false;
+                node.eject("探测失败: " + e.getMessage());
+            }
+        }
+
+        for (Node node : nodes) {
+            if (!node.probed) {
+                continue;
+            }
+            long lag = highest - node.blockNumber;
+            if (lag > maxBlockLag) {
+                node.eject("落后最高区块 " + lag + " 个区块");
+            } else {
+                node.restore();
+            }
+        }
+    }
+
+    /**
+     * 各节点路由状态
+     */
+    public List<Map<String, Object>> getStatus() {
+        List<Map<String, Object>> status = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("peer", node.peer);
+            item.put("healthy", node.healthy);
+            item.put("blockNumber", node.blockNumber);
+            item.put("latencyMs", Math.round(node.ewmaNanos / 1_000_000.0));
+            item.put("inFlight", node.inFlight.get());
+            item.put("lastError", node.lastError);
+            status.add(item);
+        }
+        return status;
+    }
+
+    private static class Node {
+        private final String peer;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        /**
+         * 以下状态只做近似统计，不加锁
+         */
+        private volatile double ewmaNanos;
+        private volatile long blockNumber = -1;
+        private volatile boolean healthy;
+        private volatile boolean probed;
+        private volatile String lastError;
+
+        private Node(String peer) {
+            this.peer = peer;
+        }
+
+        private void observe(long elapsedNanos, double alpha) {
+            double previous = ewmaNanos;
+            ewmaNanos = previous == 0 ? elapsedNanos : previous + alpha * (elapsedNanos - previous);
+        }
+
+        private void eject(String reason) {
+            if (healthy) {
+                log.warn("节点摘出只读路由，节点: {}, 原因: {}", peer, reason);
+            }
+            healthy = false;
+            lastError = reason;
+        }
+
+        private void restore() {
+            if (!healthy) {
+                log.info("节点加入只读路由，节点: {}, 区块高度: {}", peer, blockNumber);
+            }
+            healthy = true;
+            lastError = null;
+        }
+
+        @Override
+        public String toString() {
+            return peer;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import com.blockchain.certificate.shared.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 签发账户池
+ *
+ * 单个账户发送的交易在节点交易池中排队，吞吐受限于单账户；
+ * 账户池把交易分散到多个已授权的签发账户，每个账户有独立的在途交易上限。
+ *
+ * - acquire 选择在途交易最少的可用账户，相同时按轮询顺序
+ * - 所有账户都达到上限时阻塞等待，超过 acquire-timeout-ms 抛出 BusinessException
+ * - 未通过授权检查的账户被停用，不参与选择
+ *
+ * @param <S> 签名方：SDK 模式为交易处理器，WeBASE 模式为用户地址
+ */
+@Slf4j
+public class IssuerKeyPool<S> {
+
+    private final String name;
+    private final int maxInFlightPerKey;
+    private final long acquireTimeoutMs;
+
+    /**
+     * 账户列表，第一个为默认账户（合约所有者），由 this 锁保护
+     */
+    private final List<IssuerKey<S>> keys = new ArrayList<>();
+    private int cursor;
+
+    public IssuerKeyPool(String name, int maxInFlightPerKey, long acquireTimeoutMs) {
+        this.name = name;
+        this.maxInFlightPerKey = Math.max(1, maxInFlightPerKey);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    /**
+     * 添加签发账户，地址重复时忽略
+     *
+     * @param address 账户地址
+     * @param signer 签名方
+     */
+    public synchronized void add(String address, S signer) {
+        for (IssuerKey<S> key : keys) {
+            if (key.address.equalsIgnoreCase(address)) {
+                return;
+            }
+        }
+        keys.add(new IssuerKey<>(address, signer));
+    }
+
+    /**
+     * 默认账户（第一个添加的账户）
+     */
+    public synchronized String getDefaultAddress() {
+        return keys.isEmpty() ? null : keys.get(0).address;
+    }
+
+    /**
+     * 默认账户之外的账户地址
+     */
+    public synchronized List<String> getAdditionalAddresses() {
+        List<String> addresses = new ArrayList<>();
+        for (int i = 1; i < keys.size(); i++) {
+            addresses.add(keys.get(i).address);
+        }
+        return addresses;
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    /**
+     * 启用或停用账户
+     *
+     * @param address 账户地址
+     * @param enabled 是否参与交易分配
+     */
+    public synchronized void setEnabled(String address, boolean enabled) {
+        for (IssuerKey<S> key : keys) {
+            if (key.address.equalsIgnoreCase(address) && key.enabled != enabled) {
+                key.enabled = enabled;
+                log.info("签发账户{}，账户池: {}, 地址: {}", enabled ? "启用" : "停用", name, address);
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 租用一个签发账户，使用完毕后必须 close 归还
+     *
+     * @return 账户租约
+     */
+    public synchronized Lease<S> acquire() {
+        long deadline = System.currentTimeMillis() + acquireTimeoutMs;
+        while (true) {
+            IssuerKey<S> key = pickLeastLoaded();
+            if (key != null) {
+                key.inFlight++;
+                key.leased++;
+                return new Lease<>(this, key);
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new BusinessException("签发账户均已达到在途交易上限，请稍后重试");
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException("等待签发账户时被中断");
+            }
+        }
+    }
+
+    /**
+     * 所有账户的在途交易总数
+     */
+    public synchronized int getInFlight() {
+        int inFlight = 0;
+        for (IssuerKey<S> key : keys) {
+            inFlight += key.inFlight;
+        }
+        return inFlight;
+    }
+
+    /**
+     * 账户池状态快照
+     */
+    public synchronized Map<String, Object> snapshot() {
+        List<Map<String, Object>> keyStates = new ArrayList<>(keys.size());
+        for (IssuerKey<S> key : keys) {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("address", key.address);
+            state.put("enabled", key.enabled);
+            state.put("inFlight", key.inFlight);
+            state.put("leased", key.leased);
+            keyStates.add(state);
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("pool", name);
+        snapshot.put("maxInFlightPerKey", maxInFlightPerKey);
+        snapshot.put("keys", keyStates);
+        return snapshot;
+    }
+
+    /**
+     * 从轮询位置开始选择在途交易最少且未达上限的启用账户
+     */
+    private IssuerKey<S> pickLeastLoaded() {
+        int size = keys.size();
+        if (size == 0) {
+            throw new IllegalStateException("签发账户池为空: " + name);
+        }
+
+        IssuerKey<S> best = null;
+        int start = cursor;
+        for (int i = 0; i < size; i++) {
+            IssuerKey<S> key = keys.get((start + i) % size);
+            if (key.enabled && key.inFlight < maxInFlightPerKey
+                    && (best == null || key.inFlight < best.inFlight)) {
+                best = key;
+            }
+        }
+        cursor = (start + 1) % size;
+        return best;
+    }
+
+    private synchronized void release(IssuerKey<S> key) {
+        key.inFlight--;
+        notify();
+    }
+
+    private static class IssuerKey<S> {
+        private final String address;
+        private final S signer;
+        private boolean enabled = true;
+        private int inFlight;
+        private long leased;
+
+        private IssuerKey(String address, S signer) {
+            this.address = address;
+            this.signer = signer;
+        }
+    }
+
+    /**
+     * 账户租约
+     */
+    public static class Lease<S> implements AutoCloseable {
+        private final IssuerKeyPool<S> pool;
+        private final IssuerKey<S> key;
+        private boolean released;
+
+        private Lease(IssuerKeyPool<S> pool, IssuerKey<S> key) {
+            this.pool = pool;
+            this.key = key;
+        }
+
+        public String getAddress() {
+            return key.address;
+        }
+
+        public S getSigner() {
+            return key.signer;
+        }
+
+        /**
+         * 归还账户，重复调用无效
+         */
+        @Override
+        public synchronized void close() {
+            if (!released) {
+                released = true;
+                pool.release(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import org.apache.commons.codec.binary.Hex;
+import org.fisco.bcos.sdk.crypto.CryptoSuite;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 证书验证 view 调用的专用 ABI 编解码
+ *
+ * 只覆盖验证热路径上的 verifyCertificate / verifyCertificates（v1 string 参数、v2 bytes32 参数），
+ * 函数选择器在构造时按链的哈希算法（keccak256 / 国密 SM3）预先计算，
+ * 编码时先算出总长度再一次性写入字节数组，解码时直接按 32 字节字读取十六进制输出，不经过 SDK 的反射编解码。
+ */
+final class RegistryCallCodec {
+
+    private static final int WORD = 32;
+    private static final int WORD_HEX = WORD * 2;
+
+    private final byte[] verifyCertificateV1;
+    private final byte[] verifyCertificatesV1;
+    private final byte[] verifyCertificateV2;
+    private final byte[] verifyCertificatesV2;
+
+    RegistryCallCodec(CryptoSuite cryptoSuite) {
+        this.verifyCertificateV1 = selector(cryptoSuite, "verifyCertificate(string,string)");
+        this.verifyCertificatesV1 = selector(cryptoSuite, "verifyCertificates(string[],string[])");
+        this.verifyCertificateV2 = selector(cryptoSuite, "verifyCertificate(bytes32,bytes32)");
+        this.verifyCertificatesV2 = selector(cryptoSuite, "verifyCertificates(bytes32[],bytes32[])");
+    }
+
+    private static byte[] selector(CryptoSuite cryptoSuite, String signature) {
+        return Arrays.copyOf(cryptoSuite.hash(signature.getBytes(StandardCharsets.UTF_8)), 4);
+    }
+
+    // ========== 编码 ==========
+
+    /**
+     * 编码 verifyCertificate 调用数据
+     *
+     * @return 0x 前缀的十六进制调用数据
+     */
+    String encodeVerifyCertificate(boolean v2, String certificateNo, String fileHash) {
+        if (v2) {
+            Writer writer = new Writer(verifyCertificateV2, 2 * WORD);
+            writer.bytes32(RegistryV2Codec.certificateKey(certificateNo));
+            writer.bytes32(RegistryV2Codec.fileHash(fileHash));
+            return writer.toHex();
+        }
+
+        byte[] no = certificateNo.getBytes(StandardCharsets.UTF_8);
+        byte[] hash = fileHash.getBytes(StandardCharsets.UTF_8);
+        Writer writer = new Writer(verifyCertificateV1, 2 * WORD + stringSize(no) + stringSize(hash));
+        writer.uint(2 * WORD);
+        writer.uint(2 * WORD + stringSize(no));
+        writer.string(no);
+        writer.string(hash);
+        return writer.toHex();
+    }
+
+    /**
+     * 编码 verifyCertificates 调用数据
+     *
+     * @return 0x 前缀的十六进制调用数据
+     */
+    String encodeVerifyCertificates(boolean v2, List<String> certificateNos, List<String> fileHashes) {
+        int count = certificateNos.size();
+        if (v2) {
+            int arraySize = WORD + count * WORD;
+            Writer writer = new Writer(verifyCertificatesV2, 2 * WORD + 2 * arraySize);
+            writer.uint(2 * WORD);
+            writer.uint(2 * WORD + arraySize);
+            writer.uint(count);
+            for (String certificateNo : certificateNos) {
+                writer.bytes32(RegistryV2Codec.certificateKey(certificateNo));
+            }
+            writer.uint(count);
+            for (String fileHash : fileHashes) {
+                writer.bytes32(RegistryV2Codec.fileHash(fileHash));
+            }
+            return writer.toHex();
+        }
+
+        byte[][] nos = utf8(certificateNos);
+        byte[][] hashes = utf8(fileHashes);
+        int nosSize = stringArraySize(nos);
+        Writer writer = new Writer(verifyCertificatesV1, 2 * WORD + nosSize + stringArraySize(hashes));
+        writer.uint(2 * WORD);
+        writer.uint(2 * WORD + nosSize);
+        writer.stringArray(nos);
+        writer.stringArray(hashes);
+        return writer.toHex();
+    }
+
+    private static byte[][] utf8(List<String> values) {
+        byte[][] bytes = new byte[values.size()][];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = values.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    /**
+     * string 的编码长度：长度字 + 按 32 字节补齐的内容
+     */
+    private static int stringSize(byte[] value) {
+        return WORD + (value.length + WORD - 1) / WORD * WORD;
+    }
+
+    /**
+     * string[] 的编码长度：元素个数字 + 各元素偏移字 + 各元素编码
+     */
+    private static int stringArraySize(byte[][] values) {
+        int size = WORD + values.length * WORD;
+        for (byte[] value : values) {
+            size += stringSize(value);
+        }
+        return size;
+    }
+
+    /**
+     * 定长写入器，调用数据 = 4 字节选择器 + 参数编码
+     */
+    private static final class Writer {
+        private final byte[] data;
+        private int position;
+
+        private Writer(byte[] selector, int paramSize) {
+            this.data = new byte[selector.length + paramSize];
+            System.arraycopy(selector, 0, data, 0, selector.length);
+            this.position = selector.length;
+        }
+
+        private void uint(long value) {
+            position += WORD;
+            for (int i = 1; i <= 8; i++) {
+                data[position - i] = (byte) (value >>> (8 * (i - 1)));
+            }
+        }
+
+        private void bytes32(byte[] value) {
+            System.arraycopy(value, 0, data, position, Math.min(value.length, WORD));
+            position += WORD;
+        }
+
+        private void string(byte[] value) {
+            uint(value.length);
+            System.arraycopy(value, 0, data, position, value.length);
+            position += (value.length + WORD - 1) / WORD * WORD;
+        }
+
+        private void stringArray(byte[][] values) {
+            uint(values.length);
+            // 元素偏移相对于偏移区起点
+            int offset = values.length * WORD;
+            for (byte[] value : values) {
+                uint(offset);
+                offset += stringSize(value);
+            }
+            for (byte[] value : values) {
+                string(value);
+            }
+        }
+
+        private String toHex() {
+            return "0x" + Hex.encodeHexString(data);
+        }
+    }
+
+    // ========== 解码 ==========
+
+    /**
+     * 解码 verifyCertificate 返回值 (bool isValid, uint256 timestamp[, uint8 status])
+     */
+    static CertificateContract.CertificateVerificationResult decodeVerifyCertificate(String output) {
+        int base = hexStart(output);
+        int words = (output.length() - base) / WORD_HEX;
+        if (words < 2) {
+            throw new RuntimeException("验证结果格式错误");
+        }
+        boolean valid = word(output, base, 0) != 0;
+        long timestamp = word(output, base, 1);
+        Integer status = words >= 3 ? (int) word(output, base, 2) : null;
+        return new CertificateContract.CertificateVerificationResult(valid, timestamp, status);
+    }
+
+    /**
+     * 解码 verifyCertificates 返回值 (bool[] isValid, uint256[] timestamps[, uint8[] statuses])
+     *
+     * @param expected 期望的结果数量（与入参数量一致）
+     */
+    static List<CertificateContract.CertificateVerificationResult> decodeVerifyCertificates(String output,
+                                                                                           int expected) {
+        int base = hexStart(output);
+        if ((output.length() - base) / WORD_HEX < 2) {
+            throw new RuntimeException("批量验证结果格式错误");
+        }
+        // 第一个数组紧跟在头部偏移之后，首个偏移即头部长度，据此判断是否返回了 statuses
+        int heads = (int) (word(output, base, 0) / WORD);
+        int validAt = arrayStart(output, base, 0, expected);
+        int timestampAt = arrayStart(output, base, 1, expected);
+        int statusAt = heads >= 3 ? arrayStart(output, base, 2, expected) : -1;
+
+        List<CertificateContract.CertificateVerificationResult> results = new ArrayList<>(expected);
+        for (int i = 0; i < expected; i++) {
+            boolean valid = word(output, base, validAt + i) != 0;
+            long timestamp = word(output, base, timestampAt + i);
+            Integer status = statusAt < 0 ? null : (int) word(output, base, statusAt + i);
+            results.add(new CertificateContract.CertificateVerificationResult(valid, timestamp, status));
+        }
+        return results;
+    }
+
+    /**
+     * 读取第 headIndex 个返回值（动态数组）的偏移，校验长度后返回第一个元素所在的字序号
+     */
+    private static int arrayStart(String output, int base, int headIndex, int expected) {
+        int lengthAt = (int) (word(output, base, headIndex) / WORD);
+        if (word(output, base, lengthAt) != expected) {
+            throw new RuntimeException("批量验证结果数量不匹配");
+        }
+        return lengthAt + 1;
+    }
+
+    private static int hexStart(String output) {
+        if (output == null) {
+            throw new RuntimeException("调用返回为空");
+        }
+        return output.startsWith("0x") || output.startsWith("0X") ? 2 : 0;
+    }
+
+    /**
+     * 读取第 index 个 32 字节字的低 64 位（bool、uint8、时间戳和偏移都不会超出）
+     */
+    private static long word(String output, int base, int index) {
+        int end = base + (index + 1) * WORD_HEX;
+        if (end > output.length()) {
+            throw new RuntimeException("调用返回数据长度不足");
+        }
+        long value = 0;
+        for (int i = end - 16; i < end; i++) {
+            value = (value << 4) | Character.digit(output.charAt(i), 16);
+        }
+        return value;
+    }
+}
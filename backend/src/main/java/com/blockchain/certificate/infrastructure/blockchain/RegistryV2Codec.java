@@ -0,0 +1,57 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.fisco.bcos.sdk.crypto.hash.Keccak256;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * v2 合约（bytes32 键）参数编码工具
+ *
+ * - 证书键：keccak256(证书编号 UTF-8)，与链的哈希算法无关；非国密链上与 v1 事件中 indexed string 的主题值相同
+ * - 文件哈希：64 位十六进制（SHA-256）直接解码为 32 字节；其他格式取 keccak256(UTF-8)
+ */
+final class RegistryV2Codec {
+
+    private static final Keccak256 KECCAK = new Keccak256();
+
+    private RegistryV2Codec() {
+    }
+
+    /**
+     * 计算证书键
+     */
+    static byte[] certificateKey(String certificateNo) {
+        return KECCAK.hash(certificateNo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 将文件哈希编码为 bytes32
+     */
+    static byte[] fileHash(String fileHash) {
+        String hex = fileHash.startsWith("0x") || fileHash.startsWith("0X") ? fileHash.substring(2) : fileHash;
+        if (hex.length() == 64) {
+            try {
+                return Hex.decodeHex(hex);
+            } catch (DecoderException e) {
+                // 不是十六进制，按字符串处理
+            }
+        }
+        return KECCAK.hash(fileHash.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * bytes32 转为不带 0x 前缀的小写十六进制
+     */
+    static String toHex(byte[] value) {
+        return Hex.encodeHexString(value);
+    }
+
+    /**
+     * bytes32 转为 0x 前缀的十六进制（WeBASE 参数格式）
+     */
+    static String toParam(byte[] value) {
+        return "0x" + Hex.encodeHexString(value);
+    }
+}
@@ -0,0 +1,367 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import com.blockchain.certificate.shared.exception.BusinessException;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 模拟账本客户端
+ * 替代 WeBASE-Front HTTP 客户端，把调用转发到进程内的 SimulatedLedger，
+ * WebaseBlockchainService、ChainEventReader、ChainReadCache 无需改动即可在没有节点的环境运行
+ *
+ * 每次调用前按配置注入网络延迟和故障：
+ * - latency-ms / latency-jitter-ms：固定延迟加随机抖动
+ * - failure-rate：调用在到达账本前失败的概率（0~1）
+ * - lost-receipt-rate：交易已上链但回执丢失的概率（0~1），用于验证重试的幂等性
+ *
+ * 仅模拟 v1 合约（CertificateRegistry 1.4.0），chain.registry.version 对模拟账本不生效。
+ *
+ * 当 chain.simulator.enabled=true 时启用，优先于 WeBASE-Front 客户端注入
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "chain.simulator.enabled", havingValue = "true", matchIfMissing = false)
+public class SimulatedFrontClient extends WebaseFrontClient {
+
+    private static final String SIMULATOR_URL = "simulator://local";
+
+    private final SimulatedLedger ledger;
+
+    @Value("${chain.simulator.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${chain.simulator.latency-jitter-ms:0}")
+    private long latencyJitterMs;
+
+    @Value("${chain.simulator.failure-rate:0}")
+    private double failureRate;
+
+    @Value("${chain.simulator.lost-receipt-rate:0}")
+    private double lostReceiptRate;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong injectedFailures = new AtomicLong();
+    private final AtomicLong lostReceipts = new AtomicLong();
+
+    public SimulatedFrontClient(SimulatedLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    @Override
+    @PostConstruct
+    public void init() {
+        initIssuerPool(ledger.getSenderAddress());
+        log.info("模拟账本客户端初始化，延迟: {}ms(±{}ms), 故障率: {}, 回执丢失率: {}",
+                latencyMs, latencyJitterMs, failureRate, lostReceiptRate);
+    }
+
+    @Override
+    @PreDestroy
+    public void destroy() {
+        log.info("模拟账本客户端已关闭，统计: {}", getStats());
+    }
+
+    @Override
+    public boolean testConnection() {
+        try {
+            simulateNetwork();
+            return true;
+        } catch (SimulatedNodeException e) {
+            log.error("模拟账本连接测试失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public Long getBlockNumber() {
+        return read("获取区块高度", ledger::getBlockNumber);
+    }
+
+    @Override
+    public String getNodeVersion() {
+        return read("获取节点版本", () -> "chain-simulator/" + SimulatedLedger.CONTRACT_VERSION);
+    }
+
+    @Override
+    public Integer getPeerCount() {
+        // 模拟账本为单节点
+        return read("获取节点连接数", () -> 0);
+    }
+
+    @Override
+    public List<String> getBlockTransactionHashes(long blockNumber) {
+        return read("获取区块交易", () -> ledger.getBlockTransactionHashes(blockNumber));
+    }
+
+    @Override
+    public JsonNode getTransactionReceipt(String transactionHash) {
+        return read("获取交易回执", () -> ledger.getTransactionReceipt(transactionHash));
+    }
+
+    @Override
+    public TransactionResult storeCertificate(String certificateNo, String fileHash, long expiryDate) {
+        return writeAsIssuer("证书存储", issuer -> ledger.storeCertificate(issuer, certificateNo, fileHash, expiryDate));
+    }
+
+    @Override
+    public VerificationResult verifyCertificate(String certificateNo, String fileHash) {
+        VerificationResult result = read("证书验证", () -> toVerificationResult(ledger.verifyCertificate(certificateNo, fileHash)));
+        return result != null ? result : new VerificationResult();
+    }
+
+    @Override
+    public List<VerificationResult> verifyCertificates(List<String> certificateNos, List<String> fileHashes) {
+        return read("批量验证", () -> {
+            List<VerificationResult> results = new ArrayList<>(certificateNos.size());
+            for (int i = 0; i < certificateNos.size(); i++) {
+                results.add(toVerificationResult(ledger.verifyCertificate(certificateNos.get(i), fileHashes.get(i))));
+            }
+            return results;
+        });
+    }
+
+    @Override
+    public CertificateInfo getCertificate(String certificateNo) {
+        return read("获取证书信息", () -> {
+            SimulatedLedger.CertificateRecord record = ledger.getCertificate(certificateNo);
+            CertificateInfo info = new CertificateInfo();
+            if (record != null) {
+                info.setCertificateNo(record.getCertificateNo());
+                info.setFileHash(record.getFileHash());
+                info.setIssuer(record.getIssuer());
+                info.setTimestamp(record.getTimestamp());
+                info.setExpiryDate(record.getExpiryDate());
+                info.setExists(true);
+                info.setRevoked(record.isRevoked());
+                info.setExpired(record.isExpired());
+            }
+            return info;
+        });
+    }
+
+    @Override
+    public int getCertificateStatus(String certificateNo) {
+        Integer status = read("获取证书状态", () -> {
+            SimulatedLedger.CertificateRecord record = ledger.getCertificate(certificateNo);
+            if (record == null) {
+                return 1;
+            }
+            if (record.isRevoked()) {
+                return 2;
+            }
+            return record.isExpired() ? 3 : 0;
+        });
+        return status != null ? status : -1;
+    }
+
+    @Override
+    public TransactionResult revokeCertificate(String certificateNo) {
+        return write("证书撤销", () -> ledger.revokeCertificate(certificateNo));
+    }
+
+    @Override
+    public TransactionResult updateExpiryDate(String certificateNo, long newExpiryDate) {
+        return write("更新过期时间", () -> ledger.updateExpiryDate(certificateNo, newExpiryDate));
+    }
+
+    @Override
+    public TransactionResult revokeCertificates(List<String> certificateNos) {
+        return write("证书批量撤销", () -> ledger.revokeCertificates(certificateNos));
+    }
+
+    @Override
+    public TransactionResult updateExpiryDates(List<String> certificateNos, List<Long> newExpiryDates) {
+        return write("批量更新过期时间", () -> ledger.updateExpiryDates(certificateNos, newExpiryDates));
+    }
+
+    @Override
+    public TransactionResult storeBatchRoot(String batchRoot, long leafCount) {
+        return writeAsIssuer("批量 Merkle 根存储", issuer -> ledger.storeBatchRoot(issuer, batchRoot, leafCount));
+    }
+
+    @Override
+    public BatchRootInfo getBatchRoot(String batchRoot) {
+        return read("获取批量存证记录", () -> {
+            SimulatedLedger.BatchRootRecord record = ledger.getBatchRoot(batchRoot);
+            BatchRootInfo info = new BatchRootInfo();
+            info.setBatchRoot(batchRoot);
+            if (record != null) {
+                info.setExists(true);
+                info.setIssuer(record.getIssuer());
+                info.setTimestamp(record.getTimestamp());
+                info.setLeafCount(record.getLeafCount());
+            }
+            return info;
+        });
+    }
+
+    @Override
+    public String getContractVersion() {
+        return read("获取合约版本", () -> SimulatedLedger.CONTRACT_VERSION);
+    }
+
+    @Override
+    public TransactionResult migrateCertificates(List<String> certificateNos, List<String> fileHashes,
+                                                 List<Long> timestamps, List<Long> expiryDates,
+                                                 List<Boolean> revokedFlags) {
+        TransactionResult txResult = new TransactionResult();
+        txResult.setSuccess(false);
+        txResult.setReverted(true);
+        txResult.setErrorMessage("模拟账本不支持 v2 合约迁移");
+        return txResult;
+    }
+
+    @Override
+    public Boolean isAuthorizedIssuer(String issuerAddress) {
+        return read("查询签发账户授权状态", () -> ledger.isAuthorizedIssuer(issuerAddress));
+    }
+
+    @Override
+    public TransactionResult addAuthorizedIssuer(String issuerAddress) {
+        return write("授权签发账户", () -> ledger.addAuthorizedIssuer(issuerAddress));
+    }
+
+    @Override
+    public String getContractAddress() {
+        return ledger.getContractAddress();
+    }
+
+    @Override
+    public void setContractAddress(String contractAddress) {
+        log.warn("模拟账本合约地址固定为 {}，忽略设置: {}", ledger.getContractAddress(), contractAddress);
+    }
+
+    @Override
+    public String getWebaseFrontUrl() {
+        return SIMULATOR_URL;
+    }
+
+    @Override
+    public String getUserAddress() {
+        return ledger.getSenderAddress();
+    }
+
+    /**
+     * 客户端和账本统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(ledger.getStats());
+        stats.put("calls", calls.get());
+        stats.put("injectedFailures", injectedFailures.get());
+        stats.put("lostReceipts", lostReceipts.get());
+        return stats;
+    }
+
+    // ========== 延迟和故障注入 ==========
+
+    /**
+     * 只读调用，失败时返回 null（与 WeBASE-Front 客户端一致）
+     */
+    private <T> T read(String operation, Supplier<T> call) {
+        try {
+            simulateNetwork();
+            return call.get();
+        } catch (Exception e) {
+            log.error("{}失败: {}", operation, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 交易调用，失败时返回 success=false 的结果（与 WeBASE-Front 客户端一致）
+     */
+    private TransactionResult write(String operation, Supplier<SimulatedLedger.Receipt> call) {
+        TransactionResult txResult = new TransactionResult();
+        try {
+            simulateNetwork();
+            SimulatedLedger.Receipt receipt = call.get();
+            if (ThreadLocalRandom.current().nextDouble() < lostReceiptRate) {
+                lostReceipts.incrementAndGet();
+                throw new SimulatedNodeException("等待交易回执超时（模拟回执丢失）");
+            }
+
+            txResult.setSuccess(receipt.isSuccess());
+            txResult.setReverted(!receipt.isSuccess());
+            txResult.setTransactionHash(receipt.getTransactionHash());
+            txResult.setBlockNumber(receipt.getBlockNumber());
+            txResult.setErrorMessage(receipt.getErrorMessage());
+            if (receipt.isSuccess()) {
+                log.info("{}成功，交易哈希: {}", operation, receipt.getTransactionHash());
+            } else {
+                log.error("{}失败，交易已回滚: {}", operation, receipt.getErrorMessage());
+            }
+        } catch (Exception e) {
+            log.error("{}失败: {}", operation, e.getMessage());
+            txResult.setSuccess(false);
+            txResult.setErrorMessage(e.getMessage());
+        }
+        return txResult;
+    }
+
+    /**
+     * 租用签发账户发送交易，账户由账本记录为签发者
+     */
+    private TransactionResult writeAsIssuer(String operation, Function<String, SimulatedLedger.Receipt> call) {
+        try (IssuerKeyPool.Lease<String> issuer = acquireIssuer()) {
+            TransactionResult txResult = write(operation, () -> call.apply(issuer.getAddress()));
+            txResult.setIssuerAddress(issuer.getAddress());
+            return txResult;
+        } catch (BusinessException e) {
+            log.error("{}失败: {}", operation, e.getMessage());
+            TransactionResult txResult = new TransactionResult();
+            txResult.setSuccess(false);
+            txResult.setErrorMessage(e.getMessage());
+            return txResult;
+        }
+    }
+
+    private void simulateNetwork() {
+        calls.incrementAndGet();
+        long delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SimulatedNodeException("调用被中断");
+            }
+        }
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            injectedFailures.incrementAndGet();
+            throw new SimulatedNodeException("模拟节点故障");
+        }
+    }
+
+    private static VerificationResult toVerificationResult(long[] output) {
+        VerificationResult result = new VerificationResult();
+        result.setValid(output[0] == 1);
+        result.setTimestamp(output[1]);
+        result.setStatus((int) output[2]);
+        return result;
+    }
+
+    /**
+     * 注入的节点故障
+     */
+    private static class SimulatedNodeException extends RuntimeException {
+        SimulatedNodeException(String message) {
+            super(message);
+        }
+    }
+}
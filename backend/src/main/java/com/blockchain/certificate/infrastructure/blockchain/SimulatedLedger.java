@@ -0,0 +1,600 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.fisco.bcos.sdk.crypto.hash.Keccak256;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 进程内模拟账本
+ * 在内存中执行 CertificateRegistry 1.4.0 的合约语义，按出块间隔打包交易，
+ * 交易回执中的 input 和事件日志按 ABI 编码，可直接被 ChainEventReader 解码
+ *
+ * 出块规则：
+ * - block-time-ms > 0 时按固定间隔打包待处理交易，没有交易时不出块，发送方阻塞等待回执
+ * - block-time-ms = 0 时每笔交易立即单独出块
+ *
+ * 交易执行失败（对应合约 require 不满足）时状态不变、不产生事件，回执状态为 0x16，与 FISCO BCOS 一致。
+ * 时间戳统一使用秒。
+ *
+ * 当 chain.simulator.enabled=true 时启用，由 SimulatedFrontClient 接入 WeBASE 模式的调用链
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chain.simulator.enabled", havingValue = "true", matchIfMissing = false)
+public class SimulatedLedger {
+
+    public static final String CONTRACT_VERSION = "1.4.0";
+
+    private static final String STATUS_OK = "0x0";
+    private static final String STATUS_REVERTED = "0x16";
+
+    private static final Keccak256 KECCAK = new Keccak256();
+
+    private static final String EVENT_STORED = "CertificateStored(string,string,address,uint256,uint256)";
+    private static final String EVENT_REVOKED = "CertificateRevoked(string,address,uint256)";
+    private static final String EVENT_EXPIRY_UPDATED = "CertificateExpiryUpdated(string,uint256,uint256,address)";
+    private static final String EVENT_BATCH_ROOT_STORED = "BatchRootStored(bytes32,uint256,address,uint256)";
+
+    @Value("${chain.simulator.block-time-ms:1000}")
+    private long blockTimeMs;
+
+    @Value("${chain.simulator.receipt-timeout-ms:30000}")
+    private long receiptTimeoutMs;
+
+    @Value("${chain.simulator.contract-address:0x5100000000000000000000000000000000000001}")
+    private String contractAddress;
+
+    @Value("${chain.simulator.sender-address:0x5100000000000000000000000000000000000002}")
+    private String senderAddress;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 以下状态均由 this 锁保护
+     */
+    private final Map<String, CertificateRecord> certificates = new HashMap<>();
+    private final Map<String, BatchRootRecord> batchRoots = new HashMap<>();
+    private final Set<String> authorizedIssuers = new HashSet<>();
+    private final List<List<String>> blocks = new ArrayList<>();
+    private final Map<String, ObjectNode> receipts = new HashMap<>();
+    private final List<PendingTransaction> pending = new ArrayList<>();
+    private long nonce;
+    private long revertedCount;
+
+    private ScheduledExecutorService sealer;
+
+    @PostConstruct
+    public void init() {
+        // 创世块，部署账户即合约所有者和默认签发者
+        blocks.add(Collections.emptyList());
+        authorizedIssuers.add(senderAddress.toLowerCase());
+        if (blockTimeMs > 0) {
+            sealer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "chain-simulator-sealer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sealer.scheduleAtFixedRate(this::sealBlock, blockTimeMs, blockTimeMs, TimeUnit.MILLISECONDS);
+        }
+        log.info("模拟账本已启动，出块间隔: {}ms, 合约地址: {}, 发送方地址: {}", blockTimeMs, contractAddress, senderAddress);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (sealer != null) {
+            sealer.shutdownNow();
+        }
+        log.info("模拟账本已关闭，统计: {}", getStats());
+    }
+
+    // ========== 交易 ==========
+
+    /**
+     * 存储证书
+     * @param issuer 签发账户，需已授权
+     */
+    public Receipt storeCertificate(String issuer, String certificateNo, String fileHash, long expiryDate) {
+        return submit(issuer, "storeCertificate(string,string,uint256)",
+                Arrays.asList(certificateNo, fileHash, expiryDate),
+                (timestamp, logs) -> {
+                    requireAuthorized(issuer);
+                    require(!certificates.containsKey(certificateNo), "Certificate already exists");
+                    require(certificateNo != null && !certificateNo.isEmpty(), "Certificate number cannot be empty");
+                    require(fileHash != null && !fileHash.isEmpty(), "File hash cannot be empty");
+                    require(expiryDate == 0 || expiryDate > timestamp, "Expiry date must be in the future");
+
+                    CertificateRecord record = new CertificateRecord();
+                    record.setCertificateNo(certificateNo);
+                    record.setFileHash(fileHash);
+                    record.setIssuer(issuer);
+                    record.setTimestamp(timestamp);
+                    record.setExpiryDate(expiryDate);
+                    certificates.put(certificateNo, record);
+
+                    logs.add(eventLog(EVENT_STORED, Arrays.asList(hashOf(certificateNo), addressTopic(issuer)),
+                            Arrays.asList(fileHash, timestamp, expiryDate)));
+                });
+    }
+
+    public Receipt revokeCertificate(String certificateNo) {
+        return submit(senderAddress, "revokeCertificate(string)",
+                Collections.singletonList(certificateNo),
+                (timestamp, logs) -> {
+                    CertificateRecord record = certificates.get(certificateNo);
+                    require(record != null, "Certificate does not exist");
+                    require(!record.isRevoked(), "Certificate already revoked");
+
+                    record.setRevoked(true);
+                    logs.add(revokedLog(certificateNo, timestamp));
+                });
+    }
+
+    public Receipt revokeCertificates(List<String> certificateNos) {
+        return submit(senderAddress, "revokeCertificates(string[])",
+                Collections.singletonList(certificateNos),
+                (timestamp, logs) -> {
+                    for (String certificateNo : certificateNos) {
+                        CertificateRecord record = certificates.get(certificateNo);
+                        if (record == null || record.isRevoked()) {
+                            continue;
+                        }
+                        record.setRevoked(true);
+                        logs.add(revokedLog(certificateNo, timestamp));
+                    }
+                });
+    }
+
+    public Receipt updateExpiryDate(String certificateNo, long newExpiryDate) {
+        return submit(senderAddress, "updateExpiryDate(string,uint256)",
+                Arrays.asList(certificateNo, newExpiryDate),
+                (timestamp, logs) -> {
+                    CertificateRecord record = certificates.get(certificateNo);
+                    require(record != null, "Certificate does not exist");
+                    require(!record.isRevoked(), "Certificate is revoked");
+                    require(newExpiryDate == 0 || newExpiryDate > timestamp, "New expiry date must be in the future");
+
+                    logs.add(expiryUpdatedLog(certificateNo, record.getExpiryDate(), newExpiryDate));
+                    record.setExpiryDate(newExpiryDate);
+                });
+    }
+
+    public Receipt updateExpiryDates(List<String> certificateNos, List<Long> newExpiryDates) {
+        return submit(senderAddress, "updateExpiryDates(string[],uint256[])",
+                Arrays.asList(certificateNos, newExpiryDates),
+                (timestamp, logs) -> {
+                    require(certificateNos.size() == newExpiryDates.size(), "Length mismatch");
+                    // 先校验整批，任一失败则整笔交易回滚
+                    for (Long newExpiryDate : newExpiryDates) {
+                        require(newExpiryDate == 0 || newExpiryDate > timestamp, "New expiry date must be in the future");
+                    }
+                    for (int i = 0; i < certificateNos.size(); i++) {
+                        CertificateRecord record = certificates.get(certificateNos.get(i));
+                        if (record == null || record.isRevoked()) {
+                            continue;
+                        }
+                        logs.add(expiryUpdatedLog(certificateNos.get(i), record.getExpiryDate(), newExpiryDates.get(i)));
+                        record.setExpiryDate(newExpiryDates.get(i));
+                    }
+                });
+    }
+
+    /**
+     * 存储批量 Merkle 根
+     * @param issuer 签发账户，需已授权
+     */
+    public Receipt storeBatchRoot(String issuer, String batchRoot, long leafCount) {
+        byte[] root = decodeBytes32(batchRoot);
+        return submit(issuer, "storeBatchRoot(bytes32,uint256)",
+                Arrays.asList(root, leafCount),
+                (timestamp, logs) -> {
+                    requireAuthorized(issuer);
+                    String key = Hex.encodeHexString(root);
+                    require(!Arrays.equals(root, new byte[32]), "Batch root cannot be empty");
+                    require(leafCount > 0, "Leaf count must be positive");
+                    require(!batchRoots.containsKey(key), "Batch root already exists");
+
+                    BatchRootRecord record = new BatchRootRecord();
+                    record.setIssuer(issuer);
+                    record.setTimestamp(timestamp);
+                    record.setLeafCount(leafCount);
+                    batchRoots.put(key, record);
+
+                    logs.add(eventLog(EVENT_BATCH_ROOT_STORED, Arrays.asList("0x" + key, addressTopic(issuer)),
+                            Arrays.asList(leafCount, timestamp)));
+                });
+    }
+
+    /**
+     * 授权签发账户，由部署账户（合约所有者）发送
+     * @param issuer 签发账户地址
+     */
+    public Receipt addAuthorizedIssuer(String issuer) {
+        return submit(senderAddress, "addAuthorizedIssuer(address)",
+                Collections.singletonList(decodeBytes32(addressTopic(issuer))),
+                (timestamp, logs) -> authorizedIssuers.add(issuer.toLowerCase()));
+    }
+
+    // ========== 只读调用 ==========
+
+    public synchronized boolean isAuthorizedIssuer(String issuer) {
+        return authorizedIssuers.contains(issuer.toLowerCase());
+    }
+
+    /**
+     * 验证证书
+     * @return [isValid(0/1), timestamp, status]，状态码含义同合约 verifyCertificate
+     */
+    public synchronized long[] verifyCertificate(String certificateNo, String fileHash) {
+        CertificateRecord record = certificates.get(certificateNo);
+        if (record == null) {
+            return new long[]{0, 0, 1};
+        }
+        if (record.isRevoked()) {
+            return new long[]{0, record.getTimestamp(), 2};
+        }
+        if (isExpired(record)) {
+            return new long[]{0, record.getTimestamp(), 3};
+        }
+        if (!record.getFileHash().equals(fileHash)) {
+            return new long[]{0, record.getTimestamp(), 4};
+        }
+        return new long[]{1, record.getTimestamp(), 0};
+    }
+
+    /**
+     * 获取证书记录副本，不存在时返回 null
+     */
+    public synchronized CertificateRecord getCertificate(String certificateNo) {
+        CertificateRecord record = certificates.get(certificateNo);
+        if (record == null) {
+            return null;
+        }
+        CertificateRecord copy = new CertificateRecord();
+        copy.setCertificateNo(record.getCertificateNo());
+        copy.setFileHash(record.getFileHash());
+        copy.setIssuer(record.getIssuer());
+        copy.setTimestamp(record.getTimestamp());
+        copy.setExpiryDate(record.getExpiryDate());
+        copy.setRevoked(record.isRevoked());
+        copy.setExpired(isExpired(record));
+        return copy;
+    }
+
+    /**
+     * 获取批量存证记录副本，不存在时返回 null
+     */
+    public synchronized BatchRootRecord getBatchRoot(String batchRoot) {
+        BatchRootRecord record = batchRoots.get(Hex.encodeHexString(decodeBytes32(batchRoot)));
+        if (record == null) {
+            return null;
+        }
+        BatchRootRecord copy = new BatchRootRecord();
+        copy.setIssuer(record.getIssuer());
+        copy.setTimestamp(record.getTimestamp());
+        copy.setLeafCount(record.getLeafCount());
+        return copy;
+    }
+
+    public synchronized long getBlockNumber() {
+        return blocks.size() - 1;
+    }
+
+    /**
+     * 获取指定区块中的交易哈希列表，区块不存在时返回 null
+     */
+    public synchronized List<String> getBlockTransactionHashes(long blockNumber) {
+        if (blockNumber < 0 || blockNumber >= blocks.size()) {
+            return null;
+        }
+        return new ArrayList<>(blocks.get((int) blockNumber));
+    }
+
+    /**
+     * 获取交易回执（WeBASE-Front 格式的 JSON），不存在时返回 null
+     */
+    public synchronized JsonNode getTransactionReceipt(String transactionHash) {
+        ObjectNode receipt = receipts.get(transactionHash);
+        return receipt == null ? null : receipt.deepCopy();
+    }
+
+    public String getContractAddress() {
+        return contractAddress;
+    }
+
+    public String getSenderAddress() {
+        return senderAddress;
+    }
+
+    /**
+     * 账本统计信息
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("blockNumber", blocks.size() - 1);
+        stats.put("transactions", receipts.size());
+        stats.put("revertedTransactions", revertedCount);
+        stats.put("pendingTransactions", pending.size());
+        stats.put("certificates", certificates.size());
+        stats.put("batchRoots", batchRoots.size());
+        stats.put("authorizedIssuers", authorizedIssuers.size());
+        stats.put("blockTimeMs", blockTimeMs);
+        return stats;
+    }
+
+    // ========== 出块 ==========
+
+    /**
+     * 提交交易并等待打包
+     */
+    private Receipt submit(String from, String function, List<Object> params, TransactionBody body) {
+        PendingTransaction tx;
+        synchronized (this) {
+            byte[] input = concat(selector(function), encodeParams(params));
+            String hash = "0x" + Hex.encodeHexString(KECCAK.hash(concat(input, encodeParams(Collections.singletonList(nonce++)))));
+            tx = new PendingTransaction(hash, from, "0x" + Hex.encodeHexString(input), body);
+            pending.add(tx);
+            if (blockTimeMs <= 0) {
+                sealBlock();
+            }
+        }
+
+        try {
+            return tx.future.get(receiptTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("等待交易回执超时: " + tx.hash);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待交易回执被中断: " + tx.hash);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("交易执行异常: " + tx.hash, e.getCause());
+        }
+    }
+
+    /**
+     * 将待处理交易按提交顺序打包为一个区块
+     */
+    private synchronized void sealBlock() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long blockNumber = blocks.size();
+        long timestamp = System.currentTimeMillis() / 1000;
+        List<String> hashes = new ArrayList<>(pending.size());
+
+        for (PendingTransaction tx : pending) {
+            List<ObjectNode> logs = new ArrayList<>();
+            String status = STATUS_OK;
+            String message = null;
+            try {
+                tx.body.execute(timestamp, logs);
+            } catch (RuntimeException e) {
+                // 执行体内的异常都按回滚处理，避免中断出块线程
+                status = STATUS_REVERTED;
+                message = e.getMessage();
+                logs.clear();
+                revertedCount++;
+            }
+
+            ObjectNode receipt = objectMapper.createObjectNode();
+            receipt.put("transactionHash", tx.hash);
+            receipt.put("blockNumber", blockNumber);
+            receipt.put("from", tx.from);
+            receipt.put("to", contractAddress);
+            receipt.put("input", tx.input);
+            receipt.put("status", status);
+            receipt.put("message", message);
+            ArrayNode logArray = receipt.putArray("logs");
+            logs.forEach(logArray::add);
+            receipts.put(tx.hash, receipt);
+            hashes.add(tx.hash);
+
+            Receipt result = new Receipt();
+            result.setTransactionHash(tx.hash);
+            result.setBlockNumber(blockNumber);
+            result.setSuccess(STATUS_OK.equals(status));
+            result.setErrorMessage(message);
+            result.setEventCount(logs.size());
+            tx.future.complete(result);
+        }
+
+        blocks.add(hashes);
+        pending.clear();
+    }
+
+    // ========== 合约语义辅助 ==========
+
+    private boolean isExpired(CertificateRecord record) {
+        return record.getExpiryDate() != 0 && System.currentTimeMillis() / 1000 > record.getExpiryDate();
+    }
+
+    private void requireAuthorized(String issuer) {
+        require(issuer != null && authorizedIssuers.contains(issuer.toLowerCase()),
+                "Only authorized issuer can call this function");
+    }
+
+    private static void require(boolean condition, String reason) {
+        if (!condition) {
+            throw new RevertException(reason);
+        }
+    }
+
+    private ObjectNode revokedLog(String certificateNo, long timestamp) {
+        return eventLog(EVENT_REVOKED, Arrays.asList(hashOf(certificateNo), addressTopic(senderAddress)),
+                Collections.singletonList(timestamp));
+    }
+
+    private ObjectNode expiryUpdatedLog(String certificateNo, long oldExpiryDate, long newExpiryDate) {
+        return eventLog(EVENT_EXPIRY_UPDATED, Arrays.asList(hashOf(certificateNo), addressTopic(senderAddress)),
+                Arrays.asList(oldExpiryDate, newExpiryDate));
+    }
+
+    /**
+     * 构建事件日志：topic0 为事件签名哈希，其后为 indexed 参数，data 为非 indexed 参数的 ABI 编码
+     */
+    private ObjectNode eventLog(String eventSignature, List<String> indexedTopics, List<Object> data) {
+        ObjectNode logNode = objectMapper.createObjectNode();
+        logNode.put("address", contractAddress);
+        ArrayNode topics = logNode.putArray("topics");
+        topics.add("0x" + Hex.encodeHexString(KECCAK.hash(eventSignature.getBytes(StandardCharsets.UTF_8))));
+        indexedTopics.forEach(topics::add);
+        logNode.put("data", "0x" + Hex.encodeHexString(encodeParams(data)));
+        return logNode;
+    }
+
+    private static String hashOf(String value) {
+        return "0x" + Hex.encodeHexString(KECCAK.hash(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String addressTopic(String address) {
+        String hex = address.startsWith("0x") ? address.substring(2) : address;
+        StringBuilder topic = new StringBuilder("0x");
+        for (int i = hex.length(); i < 64; i++) {
+            topic.append('0');
+        }
+        return topic.append(hex.toLowerCase()).toString();
+    }
+
+    // ========== ABI 编码 ==========
+
+    private static byte[] selector(String function) {
+        return Arrays.copyOf(KECCAK.hash(function.getBytes(StandardCharsets.UTF_8)), 4);
+    }
+
+    /**
+     * 按 ABI 规则编码参数元组
+     * 支持 String（string）、Long（uint256）、byte[32]（bytes32）以及由它们组成的 List（动态数组）
+     */
+    private static byte[] encodeParams(List<?> params) {
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        ByteArrayOutputStream tail = new ByteArrayOutputStream();
+        int headSize = params.size() * 32;
+        for (Object param : params) {
+            if (param instanceof String || param instanceof List) {
+                writeBytes(head, uint256(headSize + tail.size()));
+                writeBytes(tail, encodeDynamic(param));
+            } else if (param instanceof byte[]) {
+                writeBytes(head, (byte[]) param);
+            } else if (param instanceof Long) {
+                writeBytes(head, uint256((Long) param));
+            } else {
+                throw new IllegalArgumentException("不支持的参数类型: " + param);
+            }
+        }
+        writeBytes(head, tail.toByteArray());
+        return head.toByteArray();
+    }
+
+    private static byte[] encodeDynamic(Object param) {
+        if (param instanceof List) {
+            List<?> values = (List<?>) param;
+            return concat(uint256(values.size()), encodeParams(values));
+        }
+        byte[] bytes = ((String) param).getBytes(StandardCharsets.UTF_8);
+        byte[] padded = Arrays.copyOf(bytes, (bytes.length + 31) / 32 * 32);
+        return concat(uint256(bytes.length), padded);
+    }
+
+    private static byte[] uint256(long value) {
+        return ByteBuffer.allocate(32).putLong(24, value).array();
+    }
+
+    private static byte[] decodeBytes32(String hex) {
+        String value = hex.startsWith("0x") ? hex.substring(2) : hex;
+        try {
+            byte[] bytes = Hex.decodeHex(value);
+            if (bytes.length != 32) {
+                throw new IllegalArgumentException("bytes32 长度错误: " + hex);
+            }
+            return bytes;
+        } catch (org.apache.commons.codec.DecoderException e) {
+            throw new IllegalArgumentException("十六进制格式错误: " + hex, e);
+        }
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, byte[] bytes) {
+        out.write(bytes, 0, bytes.length);
+    }
+
+    // ========== 内部类 ==========
+
+    /**
+     * 交易执行体，在出块时于账本锁内执行
+     */
+    @FunctionalInterface
+    private interface TransactionBody {
+        void execute(long timestamp, List<ObjectNode> logs);
+    }
+
+    private static class PendingTransaction {
+        private final String hash;
+        private final String from;
+        private final String input;
+        private final TransactionBody body;
+        private final CompletableFuture<Receipt> future = new CompletableFuture<>();
+
+        PendingTransaction(String hash, String from, String input, TransactionBody body) {
+            this.hash = hash;
+            this.from = from;
+            this.input = input;
+            this.body = body;
+        }
+    }
+
+    /**
+     * 合约 require 不满足，交易回滚
+     */
+    private static class RevertException extends RuntimeException {
+        RevertException(String reason) {
+            super(reason);
+        }
+    }
+
+    @Data
+    public static class Receipt {
+        private boolean success;
+        private String transactionHash;
+        private long blockNumber;
+        private String errorMessage;
+        private int eventCount;
+    }
+
+    @Data
+    public static class CertificateRecord {
+        private String certificateNo;
+        private String fileHash;
+        private String issuer;
+        private long timestamp;
+        private long expiryDate;
+        private boolean revoked;
+        private boolean expired;
+    }
+
+    @Data
+    public static class BatchRootRecord {
+        private String issuer;
+        private long timestamp;
+        private long leafCount;
+    }
+}
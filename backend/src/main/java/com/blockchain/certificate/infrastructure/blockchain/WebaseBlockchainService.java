@@ -3,23 +3,44 @@ package com.blockchain.certificate.infrastructure.blockchain;
 import com.blockchain.certificate.shared.exception.BusinessException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 基于 WeBASE-Front 的区块链服务
  * 通过 HTTP API 与区块链交互，无需 SDK 证书
  * 
- * 当 webase.enabled=true 时启用此服务
+ * 当 webase.enabled=true 时启用此服务；chain.simulator.enabled=true 时同样启用，
+ * 此时 WebaseFrontClient 由 SimulatedFrontClient 替代，调用进程内模拟账本
  */
 @Slf4j
 @Service
-@ConditionalOnProperty(name = "webase.enabled", havingValue = "true", matchIfMissing = false)
+@ConditionalOnExpression("${webase.enabled:false} or ${chain.simulator.enabled:false}")
 public class WebaseBlockchainService {
 
     @Autowired
     private WebaseFrontClient webaseFrontClient;
 
+    @Autowired
+    private ChainReadCache chainReadCache;
+
+    @Value("${chain.verify.chunk-size:200}")
+    private int verifyChunkSize;
+
+    @Value("${chain.verify.max-call-bytes:65536}")
+    private int verifyMaxCallBytes;
+
+    @Value("${chain.bulk.chunk-size:100}")
+    private int bulkChunkSize;
+
+    @Value("${chain.bulk.max-tx-bytes:32768}")
+    private int bulkMaxTxBytes;
+
     /**
      * 存储证书到区块链（永久有效）
      * @param certificateNo 证书编号
@@ -44,10 +65,11 @@ public class WebaseBlockchainService {
         try {
             WebaseFrontClient.TransactionResult txResult = 
                 webaseFrontClient.storeCertificate(certificateNo, fileHash, expiryDate);
+            chainReadCache.evict(certificateNo);
             
             if (!txResult.isSuccess()) {
                 log.error("区块链存证失败: {}", txResult.getErrorMessage());
-                throw new BusinessException("区块链存证失败: " + txResult.getErrorMessage());
+                throw txFailure("区块链存证失败: " + txResult.getErrorMessage(), txResult);
             }
             
             // 构建返回结果
@@ -57,6 +79,7 @@ public class WebaseBlockchainService {
             result.setFileHash(fileHash);
             result.setTransactionHash(txResult.getTransactionHash());
             result.setBlockNumber(txResult.getBlockNumber());
+            result.setIssuerAddress(txResult.getIssuerAddress());
             result.setTimestamp(System.currentTimeMillis());
             
             log.info("区块链存证成功（WeBASE），交易哈希: {}, 区块号: {}",
@@ -68,7 +91,7 @@ public class WebaseBlockchainService {
             throw e;
         } catch (Exception e) {
             log.error("区块链存证失败，证书编号: {}", certificateNo, e);
-            throw new BusinessException("区块链存证失败: " + e.getMessage());
+            throw new ChainAccessException("区块链存证失败: " + e.getMessage(), e);
         }
     }
 
@@ -79,6 +102,11 @@ public class WebaseBlockchainService {
      * @return 验证结果
      */
     public CertificateVerificationResult verifyCertificate(String certificateNo, String fileHash) {
+        return chainReadCache.get("verify", certificateNo, fileHash,
+            () -> loadVerifyCertificate(certificateNo, fileHash));
+    }
+
+    private CertificateVerificationResult loadVerifyCertificate(String certificateNo, String fileHash) {
         log.info("开始区块链验证（WeBASE），证书编号: {}, 文件哈希: {}", certificateNo, fileHash);
         
         try {
@@ -102,7 +130,56 @@ public class WebaseBlockchainService {
             
         } catch (Exception e) {
             log.error("区块链验证失败，证书编号: {}", certificateNo, e);
-            throw new BusinessException("区块链验证失败: " + e.getMessage());
+            throw new ChainAccessException("区块链验证失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量验证证书
+     * 按条目数和调用大小自动分片，每片一次节点调用
+     * @param certificateNos 证书编号列表
+     * @param fileHashes 文件哈希值列表（与证书编号一一对应）
+     * @return 验证结果列表，顺序与入参一致
+     */
+    public List<CertificateVerificationResult> verifyCertificates(List<String> certificateNos, List<String> fileHashes) {
+        if (certificateNos.size() != fileHashes.size()) {
+            throw new BusinessException("证书编号与文件哈希数量不一致");
+        }
+        log.info("开始区块链批量验证（WeBASE），数量: {}", certificateNos.size());
+
+        List<CertificateVerificationResult> results = new ArrayList<>(certificateNos.size());
+        try {
+            long verificationTime = System.currentTimeMillis();
+            for (int[] chunk : ChainCallChunker.split(verifyChunkSize, verifyMaxCallBytes, certificateNos, fileHashes)) {
+                List<String> nos = certificateNos.subList(chunk[0], chunk[1]);
+                List<String> hashes = fileHashes.subList(chunk[0], chunk[1]);
+                List<WebaseFrontClient.VerificationResult> chunkResults =
+                    webaseFrontClient.verifyCertificates(nos, hashes);
+                if (chunkResults == null) {
+                    throw new ChainAccessException("批量验证失败");
+                }
+                for (int i = 0; i < chunkResults.size(); i++) {
+                    WebaseFrontClient.VerificationResult verifyResult = chunkResults.get(i);
+                    CertificateVerificationResult result = new CertificateVerificationResult();
+                    result.setCertificateNo(nos.get(i));
+                    result.setFileHash(hashes.get(i));
+                    result.setValid(verifyResult.isValid());
+                    result.setTimestamp(verifyResult.getTimestamp());
+                    result.setStatus(verifyResult.getStatus());
+                    result.setStatusDescription(verifyResult.getStatusDescription());
+                    result.setVerificationTime(verificationTime);
+                    results.add(result);
+                }
+            }
+
+            log.info("区块链批量验证完成（WeBASE），数量: {}", results.size());
+            return results;
+
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("区块链批量验证失败，数量: {}", certificateNos.size(), e);
+            throw new ChainAccessException("区块链批量验证失败: " + e.getMessage(), e);
         }
     }
 
@@ -112,6 +189,10 @@ public class WebaseBlockchainService {
      * @return 证书信息
      */
     public CertificateBlockchainInfo getCertificate(String certificateNo) {
+        return chainReadCache.get("info", certificateNo, null, () -> loadCertificate(certificateNo));
+    }
+
+    private CertificateBlockchainInfo loadCertificate(String certificateNo) {
         log.info("查询区块链证书信息（WeBASE），证书编号: {}", certificateNo);
         
         try {
@@ -119,7 +200,7 @@ public class WebaseBlockchainService {
                 webaseFrontClient.getCertificate(certificateNo);
             
             if (certInfo == null) {
-                throw new BusinessException("证书不存在");
+                throw new ChainAccessException("查询区块链证书信息失败");
             }
             
             // 构建返回结果
@@ -141,8 +222,34 @@ public class WebaseBlockchainService {
             throw e;
         } catch (Exception e) {
             log.error("查询区块链证书信息失败，证书编号: {}", certificateNo, e);
-            throw new BusinessException("查询区块链证书信息失败: " + e.getMessage());
+            throw new ChainAccessException("查询区块链证书信息失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取证书状态
+     * @param certificateNo 证书编号
+     * @return 状态码: 0=有效, 1=不存在, 2=已撤销, 3=已过期
+     */
+    public int getCertificateStatus(String certificateNo) {
+        return chainReadCache.get("status", certificateNo, null, () -> loadCertificateStatus(certificateNo));
+    }
+
+    private Integer loadCertificateStatus(String certificateNo) {
+        int status = webaseFrontClient.getCertificateStatus(certificateNo);
+        if (status < 0) {
+            throw new ChainAccessException("查询区块链证书状态失败");
         }
+        return status;
+    }
+
+    /**
+     * 检查证书是否存在（与 getCertificate 共用缓存）
+     * @param certificateNo 证书编号
+     * @return 是否存在
+     */
+    public boolean certificateExists(String certificateNo) {
+        return getCertificate(certificateNo).isExists();
     }
 
     /**
@@ -156,10 +263,11 @@ public class WebaseBlockchainService {
         try {
             WebaseFrontClient.TransactionResult txResult = 
                 webaseFrontClient.revokeCertificate(certificateNo);
+            chainReadCache.evict(certificateNo);
             
             if (!txResult.isSuccess()) {
                 log.error("区块链撤销失败: {}", txResult.getErrorMessage());
-                throw new BusinessException("区块链撤销失败: " + txResult.getErrorMessage());
+                throw txFailure("区块链撤销失败: " + txResult.getErrorMessage(), txResult);
             }
             
             // 构建返回结果
@@ -178,7 +286,7 @@ public class WebaseBlockchainService {
             throw e;
         } catch (Exception e) {
             log.error("区块链撤销失败，证书编号: {}", certificateNo, e);
-            throw new BusinessException("区块链撤销失败: " + e.getMessage());
+            throw new ChainAccessException("区块链撤销失败: " + e.getMessage(), e);
         }
     }
 
@@ -194,10 +302,11 @@ public class WebaseBlockchainService {
         try {
             WebaseFrontClient.TransactionResult txResult = 
                 webaseFrontClient.updateExpiryDate(certificateNo, newExpiryDate);
+            chainReadCache.evict(certificateNo);
             
             if (!txResult.isSuccess()) {
                 log.error("更新过期时间失败: {}", txResult.getErrorMessage());
-                throw new BusinessException("更新过期时间失败: " + txResult.getErrorMessage());
+                throw txFailure("更新过期时间失败: " + txResult.getErrorMessage(), txResult);
             }
             
             // 构建返回结果
@@ -216,7 +325,198 @@ public class WebaseBlockchainService {
             throw e;
         } catch (Exception e) {
             log.error("更新过期时间失败，证书编号: {}", certificateNo, e);
-            throw new BusinessException("更新过期时间失败: " + e.getMessage());
+            throw new ChainAccessException("更新过期时间失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量撤销证书
+     * 按条目数和交易大小分片，每片一笔交易；某一片失败时停止，之前的分片已上链
+     * @param certificateNos 证书编号列表
+     * @return 批量撤销结果
+     */
+    public BlockchainBulkResult revokeCertificates(List<String> certificateNos) {
+        log.info("开始区块链批量撤销（WeBASE），数量: {}", certificateNos.size());
+
+        BlockchainBulkResult result = new BlockchainBulkResult();
+        int submitted = 0;
+        try {
+            for (int[] chunk : ChainCallChunker.split(bulkChunkSize, bulkMaxTxBytes, certificateNos)) {
+                List<String> nos = certificateNos.subList(chunk[0], chunk[1]);
+                WebaseFrontClient.TransactionResult txResult = webaseFrontClient.revokeCertificates(nos);
+                nos.forEach(chainReadCache::evict);
+                if (!txResult.isSuccess()) {
+                    throw txFailure(txResult.getErrorMessage(), txResult);
+                }
+                result.getTransactionHashes().add(txResult.getTransactionHash());
+                result.setBlockNumber(txResult.getBlockNumber());
+                submitted = chunk[1];
+            }
+
+            result.setSuccess(true);
+            result.setCertificateCount(certificateNos.size());
+            result.setOperationTime(System.currentTimeMillis());
+            log.info("区块链批量撤销成功（WeBASE），数量: {}, 交易数: {}",
+                    certificateNos.size(), result.getTransactionHashes().size());
+            return result;
+
+        } catch (Exception e) {
+            log.error("区块链批量撤销失败，已提交: {}/{}", submitted, certificateNos.size(), e);
+            throw bulkFailure("区块链批量撤销失败（已提交 " + submitted + "/" + certificateNos.size() + "）: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 批量更新证书过期时间
+     * 按条目数和交易大小分片，每片一笔交易；某一片失败时停止，之前的分片已上链
+     * @param certificateNos 证书编号列表
+     * @param newExpiryDates 新的过期时间戳列表（秒），0表示永不过期
+     * @return 批量更新结果
+     */
+    public BlockchainBulkResult updateExpiryDates(List<String> certificateNos, List<Long> newExpiryDates) {
+        if (certificateNos.size() != newExpiryDates.size()) {
+            throw new BusinessException("证书编号与过期时间数量不一致");
+        }
+        log.info("开始区块链批量更新过期时间（WeBASE），数量: {}", certificateNos.size());
+
+        BlockchainBulkResult result = new BlockchainBulkResult();
+        int submitted = 0;
+        try {
+            // 每个条目另有一个 uint256 过期时间
+            for (int[] chunk : ChainCallChunker.split(bulkChunkSize, bulkMaxTxBytes, 32, certificateNos)) {
+                List<String> nos = certificateNos.subList(chunk[0], chunk[1]);
+                WebaseFrontClient.TransactionResult txResult =
+                    webaseFrontClient.updateExpiryDates(nos, newExpiryDates.subList(chunk[0], chunk[1]));
+                nos.forEach(chainReadCache::evict);
+                if (!txResult.isSuccess()) {
+                    throw txFailure(txResult.getErrorMessage(), txResult);
+                }
+                result.getTransactionHashes().add(txResult.getTransactionHash());
+                result.setBlockNumber(txResult.getBlockNumber());
+                submitted = chunk[1];
+            }
+
+            result.setSuccess(true);
+            result.setCertificateCount(certificateNos.size());
+            result.setOperationTime(System.currentTimeMillis());
+            log.info("区块链批量更新过期时间成功（WeBASE），数量: {}, 交易数: {}",
+                    certificateNos.size(), result.getTransactionHashes().size());
+            return result;
+
+        } catch (Exception e) {
+            log.error("区块链批量更新过期时间失败，已提交: {}/{}", submitted, certificateNos.size(), e);
+            throw bulkFailure("区块链批量更新过期时间失败（已提交 " + submitted + "/" + certificateNos.size() + "）: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 将证书记录迁移到 v2 合约（一笔交易）
+     * @param certificateNos 证书编号列表
+     * @param fileHashes 文件哈希值列表
+     * @param timestamps 原存证时间戳列表
+     * @param expiryDates 过期时间戳列表（秒），0表示永不过期
+     * @param revokedFlags 是否已撤销列表
+     * @return 迁移结果
+     */
+    public BlockchainBulkResult migrateCertificates(List<String> certificateNos, List<String> fileHashes,
+                                                    List<Long> timestamps, List<Long> expiryDates,
+                                                    List<Boolean> revokedFlags) {
+        log.info("开始迁移证书到 v2 合约（WeBASE），数量: {}", certificateNos.size());
+
+        try {
+            WebaseFrontClient.TransactionResult txResult = webaseFrontClient.migrateCertificates(
+                certificateNos, fileHashes, timestamps, expiryDates, revokedFlags);
+            if (!txResult.isSuccess()) {
+                throw txFailure("证书迁移失败: " + txResult.getErrorMessage(), txResult);
+            }
+
+            BlockchainBulkResult result = new BlockchainBulkResult();
+            result.setSuccess(true);
+            result.setCertificateCount(certificateNos.size());
+            result.getTransactionHashes().add(txResult.getTransactionHash());
+            result.setBlockNumber(txResult.getBlockNumber());
+            result.setOperationTime(System.currentTimeMillis());
+
+            log.info("证书迁移成功（WeBASE），数量: {}, 交易哈希: {}", certificateNos.size(), result.getTransactionHashes());
+            return result;
+
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("证书迁移失败，数量: {}", certificateNos.size(), e);
+            throw new ChainAccessException("证书迁移失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 存储批量证书的 Merkle 根到区块链
+     * @param batchRoot Merkle 根（十六进制）
+     * @param leafCount 批次包含的证书数量
+     * @return 区块链存证结果（fileHash 为 Merkle 根）
+     */
+    public BlockchainStorageResult storeBatchRoot(String batchRoot, int leafCount) {
+        log.info("开始批量存证（WeBASE），Merkle 根: {}, 证书数量: {}", batchRoot, leafCount);
+
+        try {
+            WebaseFrontClient.TransactionResult txResult =
+                webaseFrontClient.storeBatchRoot(batchRoot, leafCount);
+
+            if (!txResult.isSuccess()) {
+                log.error("批量存证失败: {}", txResult.getErrorMessage());
+                throw txFailure("批量存证失败: " + txResult.getErrorMessage(), txResult);
+            }
+
+            BlockchainStorageResult result = new BlockchainStorageResult();
+            result.setSuccess(true);
+            result.setFileHash(batchRoot);
+            result.setTransactionHash(txResult.getTransactionHash());
+            result.setBlockNumber(txResult.getBlockNumber());
+            result.setIssuerAddress(txResult.getIssuerAddress());
+            result.setTimestamp(System.currentTimeMillis());
+
+            log.info("批量存证成功（WeBASE），交易哈希: {}, 区块号: {}",
+                result.getTransactionHash(), result.getBlockNumber());
+
+            return result;
+
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("批量存证失败，Merkle 根: {}", batchRoot, e);
+            throw new ChainAccessException("批量存证失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 查询批量存证记录
+     * @param batchRoot Merkle 根（十六进制）
+     * @return 批量存证记录
+     */
+    public BatchRootResult getBatchRoot(String batchRoot) {
+        log.info("查询批量存证记录（WeBASE），Merkle 根: {}", batchRoot);
+
+        try {
+            WebaseFrontClient.BatchRootInfo info = webaseFrontClient.getBatchRoot(batchRoot);
+            if (info == null) {
+                throw new ChainAccessException("查询批量存证记录失败");
+            }
+
+            BatchRootResult result = new BatchRootResult();
+            result.setBatchRoot(batchRoot);
+            result.setExists(info.isExists());
+            result.setIssuer(info.getIssuer());
+            result.setTimestamp(info.getTimestamp());
+            result.setLeafCount(info.getLeafCount());
+
+            return result;
+
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("查询批量存证记录失败，Merkle 根: {}", batchRoot, e);
+            throw new ChainAccessException("查询批量存证记录失败: " + e.getMessage(), e);
         }
     }
 
@@ -246,6 +546,22 @@ public class WebaseBlockchainService {
         }
     }
 
+    /**
+     * 获取节点已连接的对等节点数
+     * @return 对等节点数，获取失败时返回 null
+     */
+    public Integer getPeerCount() {
+        return webaseFrontClient.getPeerCount();
+    }
+
+    /**
+     * 获取签发账户池状态
+     * @return 各签发账户的在途交易数和使用次数
+     */
+    public Map<String, Object> getIssuerPoolStatus() {
+        return webaseFrontClient.getIssuerPoolStatus();
+    }
+
     /**
      * 获取当前区块高度
      * @return 区块高度
@@ -280,6 +596,23 @@ public class WebaseBlockchainService {
         return webaseFrontClient.getContractAddress();
     }
 
+    /**
+     * 交易失败：执行回滚为业务异常，请求未送达或未取得回执为区块链访问异常
+     */
+    private static BusinessException txFailure(String message, WebaseFrontClient.TransactionResult txResult) {
+        return txResult.isReverted() ? new BusinessException(message) : new ChainAccessException(message);
+    }
+
+    /**
+     * 分片提交中断：保留中断原因的异常类型
+     */
+    private static BusinessException bulkFailure(String message, Exception cause) {
+        if (cause instanceof BusinessException && !(cause instanceof ChainAccessException)) {
+            return new BusinessException(message);
+        }
+        return new ChainAccessException(message, cause);
+    }
+
     // ========== 结果类 ==========
 
     /**
@@ -291,6 +624,7 @@ public class WebaseBlockchainService {
         private String fileHash;
         private String transactionHash;
         private long blockNumber;
+        private String issuerAddress;
         private long timestamp;
 
         // Getters and Setters
@@ -309,6 +643,9 @@ public class WebaseBlockchainService {
         public long getBlockNumber() { return blockNumber; }
         public void setBlockNumber(long blockNumber) { this.blockNumber = blockNumber; }
         
+        public String getIssuerAddress() { return issuerAddress; }
+        public void setIssuerAddress(String issuerAddress) { this.issuerAddress = issuerAddress; }
+        
         public long getTimestamp() { return timestamp; }
         public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
 
@@ -319,6 +656,7 @@ public class WebaseBlockchainService {
                     ", certificateNo='" + certificateNo + '\'' +
                     ", transactionHash='" + transactionHash + '\'' +
                     ", blockNumber=" + blockNumber +
+                    ", issuerAddress='" + issuerAddress + '\'' +
                     ", timestamp=" + timestamp +
                     '}';
         }
@@ -501,4 +839,80 @@ public class WebaseBlockchainService {
                     '}';
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 区块链批量操作结果类
+     */
+    public static class BlockchainBulkResult {
+        private boolean success;
+        private int certificateCount;
+        private List<String> transactionHashes = new ArrayList<>();
+        private long blockNumber;
+        private long operationTime;
+
+        // Getters and Setters
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+        
+        public int getCertificateCount() { return certificateCount; }
+        public void setCertificateCount(int certificateCount) { this.certificateCount = certificateCount; }
+        
+        public List<String> getTransactionHashes() { return transactionHashes; }
+        public void setTransactionHashes(List<String> transactionHashes) { this.transactionHashes = transactionHashes; }
+        
+        public long getBlockNumber() { return blockNumber; }
+        public void setBlockNumber(long blockNumber) { this.blockNumber = blockNumber; }
+        
+        public long getOperationTime() { return operationTime; }
+        public void setOperationTime(long operationTime) { this.operationTime = operationTime; }
+
+        @Override
+        public String toString() {
+            return "BlockchainBulkResult{" +
+                    "success=" + success +
+                    ", certificateCount=" + certificateCount +
+                    ", transactionHashes=" + transactionHashes +
+                    ", blockNumber=" + blockNumber +
+                    ", operationTime=" + operationTime +
+                    '}';
+        }
+    }
+
+    /**
+     * 批量存证记录类
+     */
+    public static class BatchRootResult {
+        private String batchRoot;
+        private boolean exists;
+        private String issuer;
+        private long timestamp;
+        private long leafCount;
+
+        // Getters and Setters
+        public String getBatchRoot() { return batchRoot; }
+        public void setBatchRoot(String batchRoot) { this.batchRoot = batchRoot; }
+        
+        public boolean isExists() { return exists; }
+        public void setExists(boolean exists) { this.exists = exists; }
+        
+        public String getIssuer() { return issuer; }
+        public void setIssuer(String issuer) { this.issuer = issuer; }
+        
+        public long getTimestamp() { return timestamp; }
+        public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+        
+        public long getLeafCount() { return leafCount; }
+        public void setLeafCount(long leafCount) { this.leafCount = leafCount; }
+
+        @Override
+        public String toString() {
+            return "BatchRootResult{" +
+                    "batchRoot='" + batchRoot + '\'' +
+                    ", exists=" + exists +
+                    ", issuer='" + issuer + '\'' +
+                    ", timestamp=" + timestamp +
+                    ", leafCount=" + leafCount +
+                    '}';
+        }
+    }
+}
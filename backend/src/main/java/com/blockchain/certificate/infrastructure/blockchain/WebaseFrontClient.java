@@ -1,23 +1,40 @@
 package com.blockchain.certificate.infrastructure.blockchain;
 
+import com.blockchain.certificate.infrastructure.config.IssuerPoolConfig;
+import com.blockchain.certificate.infrastructure.config.RegistryConfig;
+import com.blockchain.certificate.infrastructure.config.ShardingConfig;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * WeBASE-Front HTTP API 客户端
  * 通过 WeBASE-Front 的 HTTP 接口与区块链交互，无需 SDK 证书
  * 
- * 支持合约版本: 1.1.0 (包含过期功能)
+ * 支持合约版本: 1.4.0 (包含过期功能、Merkle 批量存证、批量验证和批量撤销/更新)
+ * 以及 2.0.0 (bytes32 键，chain.registry.version=2 时使用)
  */
 @Slf4j
 @Component
@@ -36,10 +53,86 @@ public class WebaseFrontClient {
     @Value("${webase.contract.address:}")
     private String contractAddress;
 
-    private final RestTemplate restTemplate;
+    @Value("${webase.front.http.max-total:100}")
+    private int maxTotalConnections;
+
+    @Value("${webase.front.http.max-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${webase.front.http.connect-timeout:5000}")
+    private int connectTimeout;
+
+    @Value("${webase.front.http.read-timeout:30000}")
+    private int readTimeout;
+
+    @Value("${webase.front.http.connection-request-timeout:3000}")
+    private int connectionRequestTimeout;
+
+    @Value("${webase.front.http.keep-alive:30000}")
+    private long keepAlive;
+
+    /**
+     * 交易签名方式：front 由 WeBASE-Front 签名（trans/handle），local 在本服务签名后提交（trans/signed-transaction）
+     */
+    @Value("${webase.signing.mode:front}")
+    private String signingMode;
+
+    @Value("${webase.signing.private-key:}")
+    private String signingPrivateKey;
+
+    @Value("${webase.signing.sm-crypto:false}")
+    private boolean signingSmCrypto;
+
+    @Value("${webase.signing.chain-id:1}")
+    private int signingChainId;
+
+    @Value("${webase.signing.block-limit-margin:500}")
+    private long blockLimitMargin;
+
+    @Value("${webase.signing.block-number-refresh-ms:1000}")
+    private long blockNumberRefreshMs;
+
+    private static final HttpHeaders JSON_HEADERS;
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        JSON_HEADERS = HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private RestTemplate restTemplate;
+    private CloseableHttpClient httpClient;
     private final ObjectMapper objectMapper;
 
-    // 合约 ABI (v1.1.0 - 包含过期功能)
+    /**
+     * 按函数名拆分后的 ABI（启动时解析一次，每次调用只发送对应函数的 ABI）
+     */
+    private final Map<String, JsonNode> functionAbis;
+    private final Map<String, JsonNode> functionAbisV2;
+
+    @Autowired
+    private RegistryConfig registryConfig;
+
+    @Autowired
+    private IssuerPoolConfig issuerPoolConfig;
+
+    @Autowired
+    private ChainMetrics chainMetrics;
+
+    @Autowired
+    private ShardingConfig shardingConfig;
+
+    /**
+     * 签发账户池，存证交易按账户分散发送；只读调用和撤销、更新过期时间仍使用默认账户
+     */
+    private IssuerKeyPool<String> issuerPool;
+
+    /**
+     * 本地签名器，webase.signing.mode=local 时创建
+     */
+    private WebaseTransactionSigner localSigner;
+
+    // 合约 ABI (v1.4.0 - 包含过期功能、批量存证、批量验证和批量撤销/更新)
     // 注意：这个 ABI 需要在部署合约后从 WeBASE 获取最新版本
     private static final String CONTRACT_ABI = "["
         + "{\"constant\":false,\"inputs\":[{\"name\":\"issuer\",\"type\":\"address\"}],\"name\":\"addAuthorizedIssuer\",\"outputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
@@ -58,32 +151,169 @@ public class WebaseFrontClient {
         + "{\"constant\":false,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"},{\"name\":\"fileHash\",\"type\":\"string\"}],\"name\":\"storeCertificatePermanent\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
         + "{\"constant\":false,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"},{\"name\":\"newExpiryDate\",\"type\":\"uint256\"}],\"name\":\"updateExpiryDate\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
         + "{\"constant\":true,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"},{\"name\":\"fileHash\",\"type\":\"string\"}],\"name\":\"verifyCertificate\",\"outputs\":[{\"name\":\"isValid\",\"type\":\"bool\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},{\"name\":\"status\",\"type\":\"uint8\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"batchRoot\",\"type\":\"bytes32\"},{\"name\":\"leafCount\",\"type\":\"uint256\"}],\"name\":\"storeBatchRoot\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[{\"name\":\"batchRoot\",\"type\":\"bytes32\"}],\"name\":\"getBatchRoot\",\"outputs\":[{\"name\":\"exists\",\"type\":\"bool\"},{\"name\":\"issuer\",\"type\":\"address\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},{\"name\":\"leafCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[{\"name\":\"certificateNos\",\"type\":\"string[]\"},{\"name\":\"fileHashes\",\"type\":\"string[]\"}],\"name\":\"verifyCertificates\",\"outputs\":[{\"name\":\"isValid\",\"type\":\"bool[]\"},{\"name\":\"timestamps\",\"type\":\"uint256[]\"},{\"name\":\"statuses\",\"type\":\"uint8[]\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"certificateNos\",\"type\":\"string[]\"}],\"name\":\"revokeCertificates\",\"outputs\":[{\"name\":\"revokedCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"certificateNos\",\"type\":\"string[]\"},{\"name\":\"newExpiryDates\",\"type\":\"uint256[]\"}],\"name\":\"updateExpiryDates\",\"outputs\":[{\"name\":\"updatedCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
         + "{\"inputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"constructor\"},"
         + "{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateNo\",\"type\":\"string\"},{\"indexed\":false,\"name\":\"fileHash\",\"type\":\"string\"},{\"indexed\":true,\"name\":\"issuer\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"},{\"indexed\":false,\"name\":\"expiryDate\",\"type\":\"uint256\"}],\"name\":\"CertificateStored\",\"type\":\"event\"},"
         + "{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateNo\",\"type\":\"string\"},{\"indexed\":true,\"name\":\"revoker\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"}],\"name\":\"CertificateRevoked\",\"type\":\"event\"},"
-        + "{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateNo\",\"type\":\"string\"},{\"indexed\":false,\"name\":\"oldExpiryDate\",\"type\":\"uint256\"},{\"indexed\":false,\"name\":\"newExpiryDate\",\"type\":\"uint256\"},{\"indexed\":true,\"name\":\"updater\",\"type\":\"address\"}],\"name\":\"CertificateExpiryUpdated\",\"type\":\"event\"}"
+        + "{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateNo\",\"type\":\"string\"},{\"indexed\":false,\"name\":\"oldExpiryDate\",\"type\":\"uint256\"},{\"indexed\":false,\"name\":\"newExpiryDate\",\"type\":\"uint256\"},{\"indexed\":true,\"name\":\"updater\",\"type\":\"address\"}],\"name\":\"CertificateExpiryUpdated\",\"type\":\"event\"},"
+        + "{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"batchRoot\",\"type\":\"bytes32\"},{\"indexed\":false,\"name\":\"leafCount\",\"type\":\"uint256\"},{\"indexed\":true,\"name\":\"issuer\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"}],\"name\":\"BatchRootStored\",\"type\":\"event\"}"
+        + "]";
+
+    // v2 合约 ABI (v2.0.0 - bytes32 键)
+    private static final String CONTRACT_ABI_V2 = "["
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"issuer\",\"type\":\"address\"}],\"name\":\"addAuthorizedIssuer\",\"outputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[{\"name\":\"\",\"type\":\"address\"}],\"name\":\"authorizedIssuers\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"}],\"name\":\"certificateExists\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[{\"name\":\"batchRoot\",\"type\":\"bytes32\"}],\"name\":\"getBatchRoot\",\"outputs\":[{\"name\":\"exists\",\"type\":\"bool\"},{\"name\":\"issuer\",\"type\":\"address\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},{\"name\":\"leafCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"}],\"name\":\"getCertificate\",\"outputs\":[{\"name\":\"fileHash\",\"type\":\"bytes32\"},{\"name\":\"issuer\",\"type\":\"address\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},{\"name\":\"expiryDate\",\"type\":\"uint256\"},{\"name\":\"exists\",\"type\":\"bool\"},{\"name\":\"revoked\",\"type\":\"bool\"},{\"name\":\"expired\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"}],\"name\":\"getCertificateStatus\",\"outputs\":[{\"name\":\"status\",\"type\":\"uint8\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[],\"name\":\"getVersion\",\"outputs\":[{\"name\":\"\",\"type\":\"string\"}],\"payable\":false,\"stateMutability\":\"pure\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"}],\"name\":\"isCertificateRevoked\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"certificateKeys\",\"type\":\"bytes32[]\"},{\"name\":\"fileHashes\",\"type\":\"bytes32[]\"},{\"name\":\"timestamps\",\"type\":\"uint256[]\"},{\"name\":\"expiryDates\",\"type\":\"uint256[]\"},{\"name\":\"revokedFlags\",\"type\":\"bool[]\"}],\"name\":\"migrateCertificates\",\"outputs\":[{\"name\":\"migratedCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[],\"name\":\"owner\",\"outputs\":[{\"name\":\"\",\"type\":\"address\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"issuer\",\"type\":\"address\"}],\"name\":\"removeAuthorizedIssuer\",\"outputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"}],\"name\":\"revokeCertificate\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"certificateKeys\",\"type\":\"bytes32[]\"}],\"name\":\"revokeCertificates\",\"outputs\":[{\"name\":\"revokedCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"batchRoot\",\"type\":\"bytes32\"},{\"name\":\"leafCount\",\"type\":\"uint256\"}],\"name\":\"storeBatchRoot\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"name\":\"fileHash\",\"type\":\"bytes32\"},{\"name\":\"expiryDate\",\"type\":\"uint256\"}],\"name\":\"storeCertificate\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"name\":\"newExpiryDate\",\"type\":\"uint256\"}],\"name\":\"updateExpiryDate\",\"outputs\":[{\"name\":\"\",\"type\":\"bool\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
+        + "{\"constant\":false,\"inputs\":[{\"name\":\"certificateKeys\",\"type\":\"bytes32[]\"},{\"name\":\"newExpiryDates\",\"type\":\"uint256[]\"}],\"name\":\"updateExpiryDates\",\"outputs\":[{\"name\":\"updatedCount\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[{\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"name\":\"fileHash\",\"type\":\"bytes32\"}],\"name\":\"verifyCertificate\",\"outputs\":[{\"name\":\"isValid\",\"type\":\"bool\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},{\"name\":\"status\",\"type\":\"uint8\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"constant\":true,\"inputs\":[{\"name\":\"certificateKeys\",\"type\":\"bytes32[]\"},{\"name\":\"fileHashes\",\"type\":\"bytes32[]\"}],\"name\":\"verifyCertificates\",\"outputs\":[{\"name\":\"isValid\",\"type\":\"bool[]\"},{\"name\":\"timestamps\",\"type\":\"uint256[]\"},{\"name\":\"statuses\",\"type\":\"uint8[]\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+        + "{\"inputs\":[],\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"constructor\"},"
+        + "{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"indexed\":false,\"name\":\"fileHash\",\"type\":\"bytes32\"},{\"indexed\":true,\"name\":\"issuer\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"},{\"indexed\":false,\"name\":\"expiryDate\",\"type\":\"uint256\"}],\"name\":\"CertificateStored\",\"type\":\"event\"},"
+        + "{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"indexed\":true,\"name\":\"revoker\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"}],\"name\":\"CertificateRevoked\",\"type\":\"event\"},"
+        + "{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"certificateKey\",\"type\":\"bytes32\"},{\"indexed\":false,\"name\":\"oldExpiryDate\",\"type\":\"uint256\"},{\"indexed\":false,\"name\":\"newExpiryDate\",\"type\":\"uint256\"},{\"indexed\":true,\"name\":\"updater\",\"type\":\"address\"}],\"name\":\"CertificateExpiryUpdated\",\"type\":\"event\"},"
+        + "{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"batchRoot\",\"type\":\"bytes32\"},{\"indexed\":false,\"name\":\"leafCount\",\"type\":\"uint256\"},{\"indexed\":true,\"name\":\"issuer\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"timestamp\",\"type\":\"uint256\"}],\"name\":\"BatchRootStored\",\"type\":\"event\"}"
         + "]";
 
     public WebaseFrontClient() {
-        this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
+        this.functionAbis = parseFunctionAbis(CONTRACT_ABI);
+        this.functionAbisV2 = parseFunctionAbis(CONTRACT_ABI_V2);
     }
 
     @PostConstruct
     public void init() {
+        // 连接池 + 长连接，避免每次调用重新建立 TCP 连接
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotalConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .build();
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+                .evictExpiredConnections()
+                .build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        if ("local".equalsIgnoreCase(signingMode)) {
+            initLocalSigner();
+        }
+        initIssuerPool(userAddress);
+
         log.info("WeBASE-Front 客户端初始化");
         log.info("WeBASE-Front URL: {}", webaseFrontUrl);
         log.info("Group ID: {}", groupId);
         log.info("合约地址: {}", contractAddress);
     }
 
+    /**
+     * 初始化本地签名器，默认账户改为 webase.signing.private-key 对应的地址，
+     * 额外签发账户由 chain.issuers.private-keys 推导
+     */
+    private void initLocalSigner() {
+        this.localSigner = new WebaseTransactionSigner(signingSmCrypto, signingPrivateKey,
+                issuerPoolConfig.getPrivateKeys(), signingChainId, blockLimitMargin, blockNumberRefreshMs,
+                this::getBlockNumber);
+        if (StringUtils.hasText(userAddress) && !userAddress.equalsIgnoreCase(localSigner.getOwnerAddress())) {
+            log.warn("webase.front.user-address 与本地签名私钥地址不一致，使用私钥地址: {}", localSigner.getOwnerAddress());
+        }
+        this.userAddress = localSigner.getOwnerAddress();
+        log.info("WeBASE 交易本地签名已启用，默认账户: {}", userAddress);
+    }
+
+    /**
+     * 初始化签发账户池，默认账户之后依次加入 chain.issuers.addresses（本地签名时为 chain.issuers.private-keys 对应的地址）
+     * @param defaultAddress 默认账户（合约所有者）地址
+     */
+    protected void initIssuerPool(String defaultAddress) {
+        this.issuerPool = new IssuerKeyPool<>("webase",
+                issuerPoolConfig.getMaxInFlightPerKey(), issuerPoolConfig.getAcquireTimeoutMs());
+        issuerPool.add(defaultAddress, defaultAddress);
+        List<String> additionalAddresses = localSigner != null
+                ? localSigner.getIssuerAddresses() : issuerPoolConfig.getAddresses();
+        for (String address : additionalAddresses) {
+            if (StringUtils.hasText(address)) {
+                issuerPool.add(address.trim(), address.trim());
+            }
+        }
+        log.info("签发账户池初始化，账户数: {}, 每账户在途上限: {}",
+                issuerPool.size(), issuerPoolConfig.getMaxInFlightPerKey());
+        chainMetrics.gauge("chain.webase.issuer.inFlight", issuerPool::getInFlight);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (httpClient != null) {
+            try {
+                httpClient.close();
+                log.info("WeBASE-Front 客户端已关闭");
+            } catch (IOException e) {
+                log.error("关闭 WeBASE-Front 客户端失败", e);
+            }
+        }
+    }
+
+    /**
+     * 解析合约 ABI，按函数名拆分为只包含单个函数的 ABI 数组
+     */
+    private Map<String, JsonNode> parseFunctionAbis(String abi) {
+        try {
+            Map<String, JsonNode> result = new HashMap<>();
+            for (JsonNode entry : objectMapper.readTree(abi)) {
+                if ("function".equals(entry.path("type").asText())) {
+                    ArrayNode single = objectMapper.createArrayNode();
+                    single.add(entry);
+                    result.put(entry.path("name").asText(), single);
+                }
+            }
+            return Collections.unmodifiableMap(result);
+        } catch (IOException e) {
+            throw new IllegalStateException("解析合约 ABI 失败", e);
+        }
+    }
+
+    /**
+     * 获取指定函数的 ABI
+     */
+    private JsonNode functionAbi(String funcName) {
+        JsonNode abi = (v2() ? functionAbisV2 : functionAbis).get(funcName);
+        if (abi == null) {
+            throw new IllegalArgumentException("合约 ABI 中不存在函数: " + funcName);
+        }
+        return abi;
+    }
+
     /**
      * 测试连接
      */
     public boolean testConnection() {
         try {
-            String url = webaseFrontUrl + "/WeBASE-Front/" + groupId + "/web3/blockNumber";
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            String url = webaseFrontUrl + "/WeBASE-Front/" + groupId() + "/web3/blockNumber";
+            ResponseEntity<String> response = get("blockNumber", url);
             log.info("WeBASE-Front 连接测试成功，当前区块高度: {}", response.getBody());
             return response.getStatusCode() == HttpStatus.OK;
         } catch (Exception e) {
@@ -96,12 +326,19 @@ public class WebaseFrontClient {
      * 获取当前区块高度
      */
     public Long getBlockNumber() {
+        return getBlockNumber(groupId());
+    }
+
+    /**
+     * 获取指定群组的当前区块高度
+     */
+    private Long getBlockNumber(int groupId) {
         try {
             String url = webaseFrontUrl + "/WeBASE-Front/" + groupId + "/web3/blockNumber";
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            ResponseEntity<String> response = get("blockNumber", url);
             return Long.parseLong(response.getBody());
         } catch (Exception e) {
-            log.error("获取区块高度失败", e);
+            log.error("获取区块高度失败，群组: {}", groupId, e);
             return null;
         }
     }
@@ -111,8 +348,8 @@ public class WebaseFrontClient {
      */
     public String getNodeVersion() {
         try {
-            String url = webaseFrontUrl + "/WeBASE-Front/" + groupId + "/web3/clientVersion";
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            String url = webaseFrontUrl + "/WeBASE-Front/" + groupId() + "/web3/clientVersion";
+            ResponseEntity<String> response = get("clientVersion", url);
             return response.getBody();
         } catch (Exception e) {
             log.error("获取节点版本失败", e);
@@ -120,6 +357,59 @@ public class WebaseFrontClient {
         }
     }
 
+    /**
+     * 获取节点已连接的对等节点数
+     */
+    public Integer getPeerCount() {
+        try {
+            String url = webaseFrontUrl + "/WeBASE-Front/" + groupId() + "/web3/peers";
+            ResponseEntity<String> response = get("peers", url);
+            return objectMapper.readTree(response.getBody()).size();
+        } catch (Exception e) {
+            log.error("获取节点连接数失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 获取指定区块中的交易哈希列表
+     * @param blockNumber 区块高度
+     * @return 交易哈希列表，失败时返回 null
+     */
+    public List<String> getBlockTransactionHashes(long blockNumber) {
+        try {
+            String url = webaseFrontUrl + "/WeBASE-Front/" + groupId() + "/web3/blockByNumber/" + blockNumber;
+            ResponseEntity<String> response = get("blockByNumber", url);
+            JsonNode transactions = objectMapper.readTree(response.getBody()).path("transactions");
+
+            List<String> hashes = new ArrayList<>();
+            for (JsonNode tx : transactions) {
+                // 交易可能以对象或哈希字符串形式返回
+                hashes.add(tx.isTextual() ? tx.asText() : tx.path("hash").asText());
+            }
+            return hashes;
+        } catch (Exception e) {
+            log.error("获取区块交易失败，区块高度: {}", blockNumber, e);
+            return null;
+        }
+    }
+
+    /**
+     * 获取交易回执（原始 JSON）
+     * @param transactionHash 交易哈希
+     * @return 交易回执，失败时返回 null
+     */
+    public JsonNode getTransactionReceipt(String transactionHash) {
+        try {
+            String url = webaseFrontUrl + "/WeBASE-Front/" + groupId() + "/web3/transactionReceipt/" + transactionHash;
+            ResponseEntity<String> response = get("transactionReceipt", url);
+            return objectMapper.readTree(response.getBody());
+        } catch (Exception e) {
+            log.error("获取交易回执失败，交易哈希: {}", transactionHash, e);
+            return null;
+        }
+    }
+
     /**
      * 存储证书到区块链（带过期时间）
      * @param certificateNo 证书编号
@@ -133,30 +423,26 @@ public class WebaseFrontClient {
         try {
             // 构建请求
             Map<String, Object> request = new HashMap<>();
-            request.put("groupId", groupId);
-            request.put("user", userAddress);
-            request.put("contractAddress", contractAddress);
+            request.put("groupId", groupId());
+            request.put("contractAddress", getContractAddress());
             request.put("funcName", "storeCertificate");
-            request.put("contractAbi", objectMapper.readTree(CONTRACT_ABI));
-            request.put("funcParam", Arrays.asList(certificateNo, fileHash, expiryDate));
+            request.put("contractAbi", functionAbi("storeCertificate"));
+            request.put("funcParam", Arrays.asList(keyParam(certificateNo), hashParam(fileHash), expiryDate));
 
             // 发送交易
             String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-
-            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
+            ResponseEntity<String> response = postIssuerTransaction(url, request);
             
             if (response.getStatusCode() == HttpStatus.OK) {
                 JsonNode result = objectMapper.readTree(response.getBody());
                 
                 TransactionResult txResult = new TransactionResult();
-                txResult.setSuccess(true);
+                applyReceipt(txResult, result);
                 txResult.setTransactionHash(result.path("transactionHash").asText());
                 txResult.setBlockNumber(result.path("blockNumber").asLong());
+                txResult.setIssuerAddress((String) request.get("user"));
                 
-                log.info("证书存储成功，交易哈希: {}", txResult.getTransactionHash());
+                log.info("证书存储交易已上链，交易哈希: {}", txResult.getTransactionHash());
                 return txResult;
             } else {
                 log.error("证书存储失败，响应: {}", response.getBody());
@@ -192,20 +478,18 @@ public class WebaseFrontClient {
         try {
             // 构建请求（查询操作）
             Map<String, Object> request = new HashMap<>();
-            request.put("groupId", groupId);
+            request.put("groupId", groupId());
             request.put("user", userAddress);
-            request.put("contractAddress", contractAddress);
+            request.put("contractAddress", getContractAddress());
             request.put("funcName", "verifyCertificate");
-            request.put("contractAbi", objectMapper.readTree(CONTRACT_ABI));
-            request.put("funcParam", Arrays.asList(certificateNo, fileHash));
+            request.put("contractAbi", functionAbi("verifyCertificate"));
+            request.put("funcParam", Arrays.asList(keyParam(certificateNo), hashParam(fileHash)));
 
             // 发送查询
             String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
+            ResponseEntity<String> response = post(url, entity);
             
             if (response.getStatusCode() == HttpStatus.OK) {
                 JsonNode result = objectMapper.readTree(response.getBody());
@@ -230,6 +514,76 @@ public class WebaseFrontClient {
         }
     }
 
+    /**
+     * 批量验证证书（一次 view 调用）
+     * @param certificateNos 证书编号列表
+     * @param fileHashes 文件哈希值列表（与证书编号一一对应）
+     * @return 验证结果列表，顺序与入参一致；失败时返回 null
+     */
+    public List<VerificationResult> verifyCertificates(List<String> certificateNos, List<String> fileHashes) {
+        log.info("通过 WeBASE-Front 批量验证证书，数量: {}", certificateNos.size());
+
+        try {
+            Map<String, Object> request = new HashMap<>();
+            request.put("groupId", groupId());
+            request.put("user", userAddress);
+            request.put("contractAddress", getContractAddress());
+            request.put("funcName", "verifyCertificates");
+            request.put("contractAbi", functionAbi("verifyCertificates"));
+            request.put("funcParam", Arrays.asList(keyParams(certificateNos), hashParams(fileHashes)));
+
+            String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
+
+            ResponseEntity<String> response = post(url, entity);
+
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JsonNode output = objectMapper.readTree(response.getBody()).path("output");
+                if (!output.isArray() || output.size() < 3) {
+                    log.error("批量验证结果格式错误，响应: {}", response.getBody());
+                    return null;
+                }
+
+                JsonNode validList = toArrayNode(output.get(0));
+                JsonNode timestampList = toArrayNode(output.get(1));
+                JsonNode statusList = toArrayNode(output.get(2));
+                if (validList.size() != certificateNos.size()) {
+                    log.error("批量验证结果数量不匹配，期望: {}, 实际: {}", certificateNos.size(), validList.size());
+                    return null;
+                }
+
+                List<VerificationResult> results = new ArrayList<>(certificateNos.size());
+                for (int i = 0; i < certificateNos.size(); i++) {
+                    VerificationResult verifyResult = new VerificationResult();
+                    verifyResult.setValid(validList.get(i).asBoolean());
+                    verifyResult.setTimestamp(timestampList.get(i).asLong());
+                    verifyResult.setStatus(statusList.get(i).asInt());
+                    results.add(verifyResult);
+                }
+                return results;
+            } else {
+                log.error("批量验证失败，响应: {}", response.getBody());
+            }
+        } catch (Exception e) {
+            log.error("批量验证失败", e);
+        }
+        return null;
+    }
+
+    /**
+     * WeBASE 对数组返回值可能直接返回 JSON 数组，也可能返回数组的字符串形式
+     */
+    private JsonNode toArrayNode(JsonNode node) throws IOException {
+        if (node.isArray()) {
+            return node;
+        }
+        JsonNode parsed = objectMapper.readTree(node.asText());
+        if (!parsed.isArray()) {
+            throw new IOException("无法解析数组返回值: " + node);
+        }
+        return parsed;
+    }
+
     /**
      * 获取证书信息（包含过期信息）
      */
@@ -238,27 +592,36 @@ public class WebaseFrontClient {
 
         try {
             Map<String, Object> request = new HashMap<>();
-            request.put("groupId", groupId);
+            request.put("groupId", groupId());
             request.put("user", userAddress);
-            request.put("contractAddress", contractAddress);
+            request.put("contractAddress", getContractAddress());
             request.put("funcName", "getCertificate");
-            request.put("contractAbi", objectMapper.readTree(CONTRACT_ABI));
-            request.put("funcParam", Collections.singletonList(certificateNo));
+            request.put("contractAbi", functionAbi("getCertificate"));
+            request.put("funcParam", Collections.singletonList(keyParam(certificateNo)));
 
             String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
+            ResponseEntity<String> response = post(url, entity);
             
             if (response.getStatusCode() == HttpStatus.OK) {
                 JsonNode result = objectMapper.readTree(response.getBody());
                 JsonNode output = result.path("output");
                 
                 CertificateInfo info = new CertificateInfo();
-                // 新版合约返回8个字段: certNo, fileHash, issuer, timestamp, expiryDate, exists, revoked, expired
-                if (output.isArray() && output.size() >= 8) {
+                // v2 合约返回7个字段: fileHash(bytes32), issuer, timestamp, expiryDate, exists, revoked, expired
+                if (v2() && output.isArray() && output.size() >= 7) {
+                    String fileHash = output.get(0).asText();
+                    info.setCertificateNo(certificateNo);
+                    info.setFileHash(fileHash.startsWith("0x") ? fileHash.substring(2) : fileHash);
+                    info.setIssuer(output.get(1).asText());
+                    info.setTimestamp(output.get(2).asLong());
+                    info.setExpiryDate(output.get(3).asLong());
+                    info.setExists(output.get(4).asBoolean());
+                    info.setRevoked(output.get(5).asBoolean());
+                    info.setExpired(output.get(6).asBoolean());
+                // v1 合约返回8个字段: certNo, fileHash, issuer, timestamp, expiryDate, exists, revoked, expired
+                } else if (output.isArray() && output.size() >= 8) {
                     info.setCertificateNo(output.get(0).asText());
                     info.setFileHash(output.get(1).asText());
                     info.setIssuer(output.get(2).asText());
@@ -286,19 +649,17 @@ public class WebaseFrontClient {
 
         try {
             Map<String, Object> request = new HashMap<>();
-            request.put("groupId", groupId);
+            request.put("groupId", groupId());
             request.put("user", userAddress);
-            request.put("contractAddress", contractAddress);
+            request.put("contractAddress", getContractAddress());
             request.put("funcName", "getCertificateStatus");
-            request.put("contractAbi", objectMapper.readTree(CONTRACT_ABI));
-            request.put("funcParam", Collections.singletonList(certificateNo));
+            request.put("contractAbi", functionAbi("getCertificateStatus"));
+            request.put("funcParam", Collections.singletonList(keyParam(certificateNo)));
 
             String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
+            ResponseEntity<String> response = post(url, entity);
             
             if (response.getStatusCode() == HttpStatus.OK) {
                 JsonNode result = objectMapper.readTree(response.getBody());
@@ -322,29 +683,27 @@ public class WebaseFrontClient {
 
         try {
             Map<String, Object> request = new HashMap<>();
-            request.put("groupId", groupId);
+            request.put("groupId", groupId());
             request.put("user", userAddress);
-            request.put("contractAddress", contractAddress);
+            request.put("contractAddress", getContractAddress());
             request.put("funcName", "revokeCertificate");
-            request.put("contractAbi", objectMapper.readTree(CONTRACT_ABI));
-            request.put("funcParam", Collections.singletonList(certificateNo));
+            request.put("contractAbi", functionAbi("revokeCertificate"));
+            request.put("funcParam", Collections.singletonList(keyParam(certificateNo)));
 
             String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
+            ResponseEntity<String> response = post(url, entity);
             
             if (response.getStatusCode() == HttpStatus.OK) {
                 JsonNode result = objectMapper.readTree(response.getBody());
                 
                 TransactionResult txResult = new TransactionResult();
-                txResult.setSuccess(true);
+                applyReceipt(txResult, result);
                 txResult.setTransactionHash(result.path("transactionHash").asText());
                 txResult.setBlockNumber(result.path("blockNumber").asLong());
                 
-                log.info("证书撤销成功，交易哈希: {}", txResult.getTransactionHash());
+                log.info("证书撤销交易已上链，交易哈希: {}", txResult.getTransactionHash());
                 return txResult;
             } else {
                 TransactionResult txResult = new TransactionResult();
@@ -371,29 +730,27 @@ public class WebaseFrontClient {
 
         try {
             Map<String, Object> request = new HashMap<>();
-            request.put("groupId", groupId);
+            request.put("groupId", groupId());
             request.put("user", userAddress);
-            request.put("contractAddress", contractAddress);
+            request.put("contractAddress", getContractAddress());
             request.put("funcName", "updateExpiryDate");
-            request.put("contractAbi", objectMapper.readTree(CONTRACT_ABI));
-            request.put("funcParam", Arrays.asList(certificateNo, newExpiryDate));
+            request.put("contractAbi", functionAbi("updateExpiryDate"));
+            request.put("funcParam", Arrays.asList(keyParam(certificateNo), newExpiryDate));
 
             String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
+            ResponseEntity<String> response = post(url, entity);
             
             if (response.getStatusCode() == HttpStatus.OK) {
                 JsonNode result = objectMapper.readTree(response.getBody());
                 
                 TransactionResult txResult = new TransactionResult();
-                txResult.setSuccess(true);
+                applyReceipt(txResult, result);
                 txResult.setTransactionHash(result.path("transactionHash").asText());
                 txResult.setBlockNumber(result.path("blockNumber").asLong());
                 
-                log.info("证书过期时间更新成功，交易哈希: {}", txResult.getTransactionHash());
+                log.info("证书过期时间更新交易已上链，交易哈希: {}", txResult.getTransactionHash());
                 return txResult;
             } else {
                 TransactionResult txResult = new TransactionResult();
@@ -410,25 +767,203 @@ public class WebaseFrontClient {
         }
     }
 
+    /**
+     * 批量撤销证书（一笔交易）
+     * @param certificateNos 证书编号列表
+     */
+    public TransactionResult revokeCertificates(List<String> certificateNos) {
+        log.info("通过 WeBASE-Front 批量撤销证书，数量: {}", certificateNos.size());
+
+        try {
+            Map<String, Object> request = new HashMap<>();
+            request.put("groupId", groupId());
+            request.put("user", userAddress);
+            request.put("contractAddress", getContractAddress());
+            request.put("funcName", "revokeCertificates");
+            request.put("contractAbi", functionAbi("revokeCertificates"));
+            request.put("funcParam", Collections.singletonList(keyParams(certificateNos)));
+
+            String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
+
+            ResponseEntity<String> response = post(url, entity);
+
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JsonNode result = objectMapper.readTree(response.getBody());
+
+                TransactionResult txResult = new TransactionResult();
+                applyReceipt(txResult, result);
+                txResult.setTransactionHash(result.path("transactionHash").asText());
+                txResult.setBlockNumber(result.path("blockNumber").asLong());
+
+                log.info("证书批量撤销交易已上链，交易哈希: {}", txResult.getTransactionHash());
+                return txResult;
+            } else {
+                TransactionResult txResult = new TransactionResult();
+                txResult.setSuccess(false);
+                txResult.setErrorMessage("HTTP 状态码: " + response.getStatusCode());
+                return txResult;
+            }
+        } catch (Exception e) {
+            log.error("证书批量撤销失败", e);
+            TransactionResult txResult = new TransactionResult();
+            txResult.setSuccess(false);
+            txResult.setErrorMessage(e.getMessage());
+            return txResult;
+        }
+    }
+
+    /**
+     * 批量更新证书过期时间（一笔交易）
+     * @param certificateNos 证书编号列表
+     * @param newExpiryDates 新的过期时间戳列表（秒），0表示永不过期
+     */
+    public TransactionResult updateExpiryDates(List<String> certificateNos, List<Long> newExpiryDates) {
+        log.info("通过 WeBASE-Front 批量更新证书过期时间，数量: {}", certificateNos.size());
+
+        try {
+            Map<String, Object> request = new HashMap<>();
+            request.put("groupId", groupId());
+            request.put("user", userAddress);
+            request.put("contractAddress", getContractAddress());
+            request.put("funcName", "updateExpiryDates");
+            request.put("contractAbi", functionAbi("updateExpiryDates"));
+            request.put("funcParam", Arrays.asList(keyParams(certificateNos), newExpiryDates));
+
+            String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
+
+            ResponseEntity<String> response = post(url, entity);
+
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JsonNode result = objectMapper.readTree(response.getBody());
+
+                TransactionResult txResult = new TransactionResult();
+                applyReceipt(txResult, result);
+                txResult.setTransactionHash(result.path("transactionHash").asText());
+                txResult.setBlockNumber(result.path("blockNumber").asLong());
+
+                log.info("证书过期时间批量更新交易已上链，交易哈希: {}", txResult.getTransactionHash());
+                return txResult;
+            } else {
+                TransactionResult txResult = new TransactionResult();
+                txResult.setSuccess(false);
+                txResult.setErrorMessage("HTTP 状态码: " + response.getStatusCode());
+                return txResult;
+            }
+        } catch (Exception e) {
+            log.error("证书过期时间批量更新失败", e);
+            TransactionResult txResult = new TransactionResult();
+            txResult.setSuccess(false);
+            txResult.setErrorMessage(e.getMessage());
+            return txResult;
+        }
+    }
+
+    /**
+     * 存储批量证书的 Merkle 根
+     * @param batchRoot Merkle 根（十六进制，bytes32）
+     * @param leafCount 批次包含的证书数量
+     */
+    public TransactionResult storeBatchRoot(String batchRoot, long leafCount) {
+        log.info("通过 WeBASE-Front 存储批量 Merkle 根: {}, 证书数量: {}", batchRoot, leafCount);
+
+        try {
+            Map<String, Object> request = new HashMap<>();
+            request.put("groupId", groupId());
+            request.put("contractAddress", getContractAddress());
+            request.put("funcName", "storeBatchRoot");
+            request.put("contractAbi", functionAbi("storeBatchRoot"));
+            request.put("funcParam", Arrays.asList(toBytes32Param(batchRoot), leafCount));
+
+            String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
+            ResponseEntity<String> response = postIssuerTransaction(url, request);
+
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JsonNode result = objectMapper.readTree(response.getBody());
+
+                TransactionResult txResult = new TransactionResult();
+                applyReceipt(txResult, result);
+                txResult.setTransactionHash(result.path("transactionHash").asText());
+                txResult.setBlockNumber(result.path("blockNumber").asLong());
+                txResult.setIssuerAddress((String) request.get("user"));
+
+                log.info("批量 Merkle 根存储交易已上链，交易哈希: {}", txResult.getTransactionHash());
+                return txResult;
+            } else {
+                TransactionResult txResult = new TransactionResult();
+                txResult.setSuccess(false);
+                txResult.setErrorMessage("HTTP 状态码: " + response.getStatusCode());
+                return txResult;
+            }
+        } catch (Exception e) {
+            log.error("批量 Merkle 根存储失败", e);
+            TransactionResult txResult = new TransactionResult();
+            txResult.setSuccess(false);
+            txResult.setErrorMessage(e.getMessage());
+            return txResult;
+        }
+    }
+
+    /**
+     * 获取批量存证记录
+     * @param batchRoot Merkle 根（十六进制，bytes32）
+     */
+    public BatchRootInfo getBatchRoot(String batchRoot) {
+        log.info("通过 WeBASE-Front 获取批量存证记录，Merkle 根: {}", batchRoot);
+
+        try {
+            Map<String, Object> request = new HashMap<>();
+            request.put("groupId", groupId());
+            request.put("user", userAddress);
+            request.put("contractAddress", getContractAddress());
+            request.put("funcName", "getBatchRoot");
+            request.put("contractAbi", functionAbi("getBatchRoot"));
+            request.put("funcParam", Collections.singletonList(toBytes32Param(batchRoot)));
+
+            String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
+
+            ResponseEntity<String> response = post(url, entity);
+
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JsonNode result = objectMapper.readTree(response.getBody());
+                JsonNode output = result.path("output");
+
+                BatchRootInfo info = new BatchRootInfo();
+                info.setBatchRoot(batchRoot);
+                // 返回4个字段: exists, issuer, timestamp, leafCount
+                if (output.isArray() && output.size() >= 4) {
+                    info.setExists(output.get(0).asBoolean());
+                    info.setIssuer(output.get(1).asText());
+                    info.setTimestamp(output.get(2).asLong());
+                    info.setLeafCount(output.get(3).asLong());
+                }
+                return info;
+            }
+        } catch (Exception e) {
+            log.error("获取批量存证记录失败", e);
+        }
+        return null;
+    }
+
     /**
      * 获取合约版本
      */
     public String getContractVersion() {
         try {
             Map<String, Object> request = new HashMap<>();
-            request.put("groupId", groupId);
+            request.put("groupId", groupId());
             request.put("user", userAddress);
-            request.put("contractAddress", contractAddress);
+            request.put("contractAddress", getContractAddress());
             request.put("funcName", "getVersion");
-            request.put("contractAbi", objectMapper.readTree(CONTRACT_ABI));
+            request.put("contractAbi", functionAbi("getVersion"));
             request.put("funcParam", Collections.emptyList());
 
             String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
+            ResponseEntity<String> response = post(url, entity);
             
             if (response.getStatusCode() == HttpStatus.OK) {
                 JsonNode result = objectMapper.readTree(response.getBody());
@@ -444,6 +979,333 @@ public class WebaseFrontClient {
         return null;
     }
 
+    /**
+     * 将证书记录迁移到 v2 合约（一笔交易，始终发送到 v2 合约地址）
+     * @param certificateNos 证书编号列表
+     * @param fileHashes 文件哈希值列表
+     * @param timestamps 原存证时间戳列表
+     * @param expiryDates 过期时间戳列表（秒），0表示永不过期
+     * @param revokedFlags 是否已撤销列表
+     */
+    public TransactionResult migrateCertificates(List<String> certificateNos, List<String> fileHashes,
+                                                 List<Long> timestamps, List<Long> expiryDates,
+                                                 List<Boolean> revokedFlags) {
+        log.info("通过 WeBASE-Front 迁移证书到 v2 合约，数量: {}", certificateNos.size());
+
+        try {
+            List<String> keys = new ArrayList<>(certificateNos.size());
+            List<String> hashes = new ArrayList<>(certificateNos.size());
+            for (int i = 0; i < certificateNos.size(); i++) {
+                keys.add(RegistryV2Codec.toParam(RegistryV2Codec.certificateKey(certificateNos.get(i))));
+                hashes.add(RegistryV2Codec.toParam(RegistryV2Codec.fileHash(fileHashes.get(i))));
+            }
+
+            Map<String, Object> request = new HashMap<>();
+            request.put("groupId", groupId());
+            request.put("user", userAddress);
+            request.put("contractAddress", registryConfig.getV2Address());
+            request.put("funcName", "migrateCertificates");
+            request.put("contractAbi", functionAbisV2.get("migrateCertificates"));
+            request.put("funcParam", Arrays.asList(keys, hashes, timestamps, expiryDates, revokedFlags));
+
+            String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
+
+            ResponseEntity<String> response = post(url, entity);
+
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JsonNode result = objectMapper.readTree(response.getBody());
+
+                TransactionResult txResult = new TransactionResult();
+                applyReceipt(txResult, result);
+                txResult.setTransactionHash(result.path("transactionHash").asText());
+                txResult.setBlockNumber(result.path("blockNumber").asLong());
+
+                log.info("证书迁移交易已上链，交易哈希: {}", txResult.getTransactionHash());
+                return txResult;
+            } else {
+                TransactionResult txResult = new TransactionResult();
+                txResult.setSuccess(false);
+                txResult.setErrorMessage("HTTP 状态码: " + response.getStatusCode());
+                return txResult;
+            }
+        } catch (Exception e) {
+            log.error("证书迁移失败", e);
+            TransactionResult txResult = new TransactionResult();
+            txResult.setSuccess(false);
+            txResult.setErrorMessage(e.getMessage());
+            return txResult;
+        }
+    }
+
+    // ========== 签发账户 ==========
+
+    /**
+     * 检查额外签发账户的授权状态
+     * 未授权的账户在 register-on-startup=true 时由默认账户（合约所有者）调用 addAuthorizedIssuer 授权，
+     * 授权失败或未开启自动授权的账户停用；签发账户池由各群组共用，启用分片时需在所有群组的合约中均已授权
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerIssuers() {
+        if (!StringUtils.hasText(getContractAddress())) {
+            return;
+        }
+        for (String issuerAddress : issuerPool.getAdditionalAddresses()) {
+            boolean enabled = authorizeIssuer(issuerAddress);
+            for (ShardingConfig.Group group : shardingConfig.getGroups()) {
+                if (StringUtils.hasText(group.getContractAddress())) {
+                    enabled &= ChainGroupContext.call(group.getGroupId(), group.getContractAddress(),
+                            () -> authorizeIssuer(issuerAddress));
+                }
+            }
+            issuerPool.setEnabled(issuerAddress, enabled);
+            if (!enabled) {
+                log.warn("签发账户未授权，已停用，地址: {}", issuerAddress);
+            }
+        }
+    }
+
+    /**
+     * 检查当前群组合约中账户的授权状态，未授权时按 register-on-startup 自动授权
+     * @return 账户是否已授权
+     */
+    private boolean authorizeIssuer(String issuerAddress) {
+        Boolean authorized = isAuthorizedIssuer(issuerAddress);
+        if (Boolean.FALSE.equals(authorized) && issuerPoolConfig.isRegisterOnStartup()) {
+            authorized = addAuthorizedIssuer(issuerAddress).isSuccess();
+            log.info("授权签发账户{}，群组: {}, 地址: {}", authorized ? "成功" : "失败", groupId(), issuerAddress);
+        }
+        return Boolean.TRUE.equals(authorized);
+    }
+
+    /**
+     * 查询账户是否为授权签发者
+     * @param issuerAddress 账户地址
+     * @return 是否已授权，查询失败时返回 null
+     */
+    public Boolean isAuthorizedIssuer(String issuerAddress) {
+        try {
+            Map<String, Object> request = new HashMap<>();
+            request.put("groupId", groupId());
+            request.put("user", userAddress);
+            request.put("contractAddress", getContractAddress());
+            request.put("funcName", "authorizedIssuers");
+            request.put("contractAbi", functionAbi("authorizedIssuers"));
+            request.put("funcParam", Collections.singletonList(issuerAddress));
+
+            String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
+
+            ResponseEntity<String> response = post(url, entity);
+
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JsonNode output = objectMapper.readTree(response.getBody()).path("output");
+                if (output.isArray() && output.size() >= 1) {
+                    return output.get(0).asBoolean();
+                }
+            }
+        } catch (Exception e) {
+            log.error("查询签发账户授权状态失败，地址: {}", issuerAddress, e);
+        }
+        return null;
+    }
+
+    /**
+     * 授权签发账户（由默认账户发送，需为合约所有者）
+     * @param issuerAddress 账户地址
+     */
+    public TransactionResult addAuthorizedIssuer(String issuerAddress) {
+        log.info("通过 WeBASE-Front 授权签发账户: {}", issuerAddress);
+
+        try {
+            Map<String, Object> request = new HashMap<>();
+            request.put("groupId", groupId());
+            request.put("user", userAddress);
+            request.put("contractAddress", getContractAddress());
+            request.put("funcName", "addAuthorizedIssuer");
+            request.put("contractAbi", functionAbi("addAuthorizedIssuer"));
+            request.put("funcParam", Collections.singletonList(issuerAddress));
+
+            String url = webaseFrontUrl + "/WeBASE-Front/trans/handle";
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, JSON_HEADERS);
+
+            ResponseEntity<String> response = post(url, entity);
+
+            TransactionResult txResult = new TransactionResult();
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JsonNode result = objectMapper.readTree(response.getBody());
+                applyReceipt(txResult, result);
+                txResult.setTransactionHash(result.path("transactionHash").asText());
+                txResult.setBlockNumber(result.path("blockNumber").asLong());
+            } else {
+                txResult.setSuccess(false);
+                txResult.setErrorMessage("HTTP 状态码: " + response.getStatusCode());
+            }
+            return txResult;
+        } catch (Exception e) {
+            log.error("授权签发账户失败", e);
+            TransactionResult txResult = new TransactionResult();
+            txResult.setSuccess(false);
+            txResult.setErrorMessage(e.getMessage());
+            return txResult;
+        }
+    }
+
+    /**
+     * 签发账户池状态
+     */
+    public Map<String, Object> getIssuerPoolStatus() {
+        return issuerPool.snapshot();
+    }
+
+    /**
+     * 租用签发账户
+     */
+    protected IssuerKeyPool.Lease<String> acquireIssuer() {
+        return issuerPool.acquire();
+    }
+
+    /**
+     * 租用签发账户发送存证交易，回执返回后归还账户，request 的 user 字段即实际使用的签发账户
+     * 撤销、更新过期时间要求调用方为证书签发者或合约所有者，仍由默认账户（合约所有者）发送
+     */
+    private ResponseEntity<String> postIssuerTransaction(String url, Map<String, Object> request) throws Exception {
+        try (IssuerKeyPool.Lease<String> issuer = acquireIssuer()) {
+            request.put("user", issuer.getSigner());
+            return post(url, new HttpEntity<>(request, JSON_HEADERS));
+        }
+    }
+
+    /**
+     * 调用合约接口（trans/handle），按请求中的函数名记录 HTTP 往返耗时
+     */
+    private ResponseEntity<String> post(String url, HttpEntity<Map<String, Object>> entity) throws Exception {
+        Map<String, Object> request = entity.getBody();
+        String funcName = String.valueOf(request.get("funcName"));
+        JsonNode contractAbi = (JsonNode) request.get("contractAbi");
+        if (localSigner != null && !WebaseTransactionSigner.isReadOnly(contractAbi)) {
+            url = webaseFrontUrl + "/WeBASE-Front/trans/signed-transaction";
+            entity = new HttpEntity<>(signTransaction(request, funcName, contractAbi), JSON_HEADERS);
+        }
+
+        long start = System.nanoTime();
+        String outcome = ChainMetrics.OUTCOME_ERROR;
+        try {
+            ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
+            outcome = outcomeOf(response);
+            return response;
+        } finally {
+            chainMetrics.record(ChainMetrics.WEBASE_HTTP, ChainMetrics.BACKEND_WEBASE, funcName, outcome,
+                    System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 本地编码并签名 trans/handle 请求对应的交易，返回 trans/signed-transaction 请求体
+     */
+    private Map<String, Object> signTransaction(Map<String, Object> request, String funcName, JsonNode contractAbi)
+            throws Exception {
+        long start = System.nanoTime();
+        String outcome = ChainMetrics.OUTCOME_ERROR;
+        try {
+            int groupId = (Integer) request.get("groupId");
+            String signedStr = localSigner.sign(groupId, (String) request.get("user"),
+                    (String) request.get("contractAddress"), contractAbi, funcName, (List<?>) request.get("funcParam"));
+            outcome = ChainMetrics.OUTCOME_SUCCESS;
+
+            Map<String, Object> signedRequest = new HashMap<>();
+            signedRequest.put("groupId", groupId);
+            signedRequest.put("signedStr", signedStr);
+            signedRequest.put("sync", true);
+            return signedRequest;
+        } finally {
+            chainMetrics.record(ChainMetrics.WEBASE_SIGN, ChainMetrics.BACKEND_WEBASE, funcName, outcome,
+                    System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 调用节点查询接口（web3），记录 HTTP 往返耗时
+     */
+    private ResponseEntity<String> get(String resource, String url) {
+        long start = System.nanoTime();
+        String outcome = ChainMetrics.OUTCOME_ERROR;
+        try {
+            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+            outcome = outcomeOf(response);
+            return response;
+        } finally {
+            chainMetrics.record(ChainMetrics.WEBASE_HTTP, ChainMetrics.BACKEND_WEBASE, resource, outcome,
+                    System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 按回执状态设置交易结果，status 非 0x0 表示交易已上链但执行回滚
+     */
+    private static void applyReceipt(TransactionResult txResult, JsonNode receipt) {
+        String status = receipt.path("status").asText("0x0");
+        txResult.setSuccess("0x0".equals(status));
+        if (!txResult.isSuccess()) {
+            txResult.setReverted(true);
+            txResult.setErrorMessage("交易回滚，状态码: " + status + ", " + receipt.path("message").asText(""));
+            log.warn("交易执行回滚，交易哈希: {}, 状态码: {}", receipt.path("transactionHash").asText(), status);
+        }
+    }
+
+    private static String outcomeOf(ResponseEntity<String> response) {
+        return response.getStatusCode().is2xxSuccessful() ? ChainMetrics.OUTCOME_SUCCESS : ChainMetrics.OUTCOME_FAILED;
+    }
+
+    // ========== 合约版本路由 ==========
+
+    private boolean v2() {
+        return registryConfig.isV2();
+    }
+
+    /**
+     * 证书编号参数：v1 为 string，v2 为 bytes32 键
+     */
+    private String keyParam(String certificateNo) {
+        return v2() ? RegistryV2Codec.toParam(RegistryV2Codec.certificateKey(certificateNo)) : certificateNo;
+    }
+
+    /**
+     * 文件哈希参数：v1 为 string，v2 为 bytes32
+     */
+    private String hashParam(String fileHash) {
+        return v2() ? RegistryV2Codec.toParam(RegistryV2Codec.fileHash(fileHash)) : fileHash;
+    }
+
+    private List<String> keyParams(List<String> certificateNos) {
+        if (!v2()) {
+            return certificateNos;
+        }
+        List<String> keys = new ArrayList<>(certificateNos.size());
+        for (String certificateNo : certificateNos) {
+            keys.add(keyParam(certificateNo));
+        }
+        return keys;
+    }
+
+    private List<String> hashParams(List<String> fileHashes) {
+        if (!v2()) {
+            return fileHashes;
+        }
+        List<String> hashes = new ArrayList<>(fileHashes.size());
+        for (String fileHash : fileHashes) {
+            hashes.add(hashParam(fileHash));
+        }
+        return hashes;
+    }
+
+    /**
+     * bytes32 参数统一使用 0x 前缀的十六进制字符串
+     */
+    private String toBytes32Param(String hex) {
+        return hex.startsWith("0x") ? hex : "0x" + hex;
+    }
+
     // ========== 内部类 ==========
 
     @Data
@@ -451,7 +1313,15 @@ public class WebaseFrontClient {
         private boolean success;
         private String transactionHash;
         private long blockNumber;
+        /**
+         * 发送交易的签发账户地址
+         */
+        private String issuerAddress;
         private String errorMessage;
+        /**
+         * 交易已上链但执行回滚（合约 require 失败）；false 且 success=false 表示请求未送达或未取得回执
+         */
+        private boolean reverted;
     }
 
     @Data
@@ -494,10 +1364,35 @@ public class WebaseFrontClient {
         }
     }
 
+    @Data
+    public static class BatchRootInfo {
+        private String batchRoot;
+        private boolean exists;
+        private String issuer;
+        private long timestamp;
+        private long leafCount;
+    }
+
     // ========== Getter/Setter ==========
 
+    /**
+     * 当前使用的合约地址：分片群组（ChainGroupContext）使用群组配置的合约地址，
+     * 否则为默认合约地址（chain.registry.version=2 时为 v2 合约地址）
+     */
     public String getContractAddress() {
-        return contractAddress;
+        ChainGroupContext group = ChainGroupContext.current();
+        if (group != null && StringUtils.hasText(group.getContractAddress())) {
+            return group.getContractAddress();
+        }
+        return v2() ? registryConfig.getV2Address() : contractAddress;
+    }
+
+    /**
+     * 当前调用的群组ID，未设置 ChainGroupContext 时为 webase.front.group-id
+     */
+    private int groupId() {
+        ChainGroupContext group = ChainGroupContext.current();
+        return group != null ? group.getGroupId() : groupId;
     }
 
     public void setContractAddress(String contractAddress) {
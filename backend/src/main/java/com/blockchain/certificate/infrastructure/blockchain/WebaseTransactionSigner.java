@@ -0,0 +1,219 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.fisco.bcos.sdk.abi.ABICodec;
+import org.fisco.bcos.sdk.crypto.CryptoSuite;
+import org.fisco.bcos.sdk.crypto.keypair.CryptoKeyPair;
+import org.fisco.bcos.sdk.model.CryptoType;
+import org.fisco.bcos.sdk.transaction.codec.encode.TransactionEncoderService;
+import org.fisco.bcos.sdk.transaction.model.gas.DefaultGasProvider;
+import org.fisco.bcos.sdk.transaction.model.po.RawTransaction;
+import org.fisco.bcos.sdk.utils.Numeric;
+import org.springframework.util.StringUtils;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * WeBASE 模式的本地交易签名器
+ *
+ * 在本服务内完成 ABI 编码和签名，WeBASE-Front 只负责转发已签名交易（trans/signed-transaction），
+ * 签名的 CPU 开销随后端实例水平扩展，不再集中在 WeBASE-Front。
+ *
+ * FISCO BCOS 2.x 交易没有账户递增 nonce，防重放依赖随机 nonce（randomid）和 blockLimit：
+ * - randomid 为 250 位安全随机数，同一 blockLimit 窗口内不会重复
+ * - blockLimit = 缓存的区块高度 + block-limit-margin，区块高度按群组缓存，最多每 block-number-refresh-ms 刷新一次
+ */
+@Slf4j
+public class WebaseTransactionSigner {
+
+    private final CryptoSuite cryptoSuite;
+    private final ABICodec abiCodec;
+    private final TransactionEncoderService encoder;
+
+    /**
+     * 账户地址（小写）到密钥对的映射，第一个为默认账户（合约所有者）
+     */
+    private final Map<String, CryptoKeyPair> keyPairs = new LinkedHashMap<>();
+    private final String ownerAddress;
+
+    private final BigInteger chainId;
+    private final long blockLimitMargin;
+    private final long blockNumberRefreshMs;
+    private final Function<Integer, Long> blockNumberSupplier;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * 群组ID到区块高度缓存
+     */
+    private final Map<Integer, BlockNumberCache> blockNumbers = new ConcurrentHashMap<>();
+
+    /**
+     * @param smCrypto            是否使用国密算法
+     * @param ownerPrivateKey     默认账户（合约所有者）私钥
+     * @param issuerPrivateKeys   额外签发账户私钥
+     * @param chainId             链 ID
+     * @param blockLimitMargin    blockLimit 相对当前区块高度的余量（FISCO BCOS 要求不超过 1000）
+     * @param blockNumberRefreshMs 区块高度缓存时间（毫秒）
+     * @param blockNumberSupplier 按群组ID查询当前区块高度，失败时返回 null
+     */
+    public WebaseTransactionSigner(boolean smCrypto, String ownerPrivateKey, List<String> issuerPrivateKeys,
+                                   int chainId, long blockLimitMargin, long blockNumberRefreshMs,
+                                   Function<Integer, Long> blockNumberSupplier) {
+        if (!StringUtils.hasText(ownerPrivateKey)) {
+            throw new IllegalStateException("本地签名模式需要配置 webase.signing.private-key");
+        }
+        this.cryptoSuite = new CryptoSuite(smCrypto ? CryptoType.SM_TYPE : CryptoType.ECDSA_TYPE);
+        this.abiCodec = new ABICodec(cryptoSuite);
+        this.encoder = new TransactionEncoderService(cryptoSuite);
+        this.chainId = BigInteger.valueOf(chainId);
+        this.blockLimitMargin = blockLimitMargin;
+        this.blockNumberRefreshMs = blockNumberRefreshMs;
+        this.blockNumberSupplier = blockNumberSupplier;
+
+        this.ownerAddress = addKeyPair(ownerPrivateKey);
+        for (String privateKey : issuerPrivateKeys) {
+            if (StringUtils.hasText(privateKey)) {
+                addKeyPair(privateKey);
+            }
+        }
+    }
+
+    private String addKeyPair(String privateKey) {
+        CryptoKeyPair keyPair = cryptoSuite.createKeyPair(Numeric.cleanHexPrefix(privateKey.trim()));
+        keyPairs.put(keyPair.getAddress().toLowerCase(), keyPair);
+        return keyPair.getAddress();
+    }
+
+    /**
+     * 默认账户（合约所有者）地址
+     */
+    public String getOwnerAddress() {
+        return ownerAddress;
+    }
+
+    /**
+     * 额外签发账户地址
+     */
+    public List<String> getIssuerAddresses() {
+        List<String> addresses = new ArrayList<>();
+        for (CryptoKeyPair keyPair : keyPairs.values()) {
+            if (!keyPair.getAddress().equalsIgnoreCase(ownerAddress)) {
+                addresses.add(keyPair.getAddress());
+            }
+        }
+        return addresses;
+    }
+
+    /**
+     * 函数是否为只读调用（view/pure/constant），只读调用不需要签名
+     *
+     * @param functionAbi 只包含单个函数的 ABI 数组
+     */
+    public static boolean isReadOnly(JsonNode functionAbi) {
+        JsonNode function = functionAbi.path(0);
+        String mutability = function.path("stateMutability").asText();
+        return function.path("constant").asBoolean() || "view".equals(mutability) || "pure".equals(mutability);
+    }
+
+    /**
+     * 编码并签名合约调用交易
+     *
+     * @param groupId         群组ID
+     * @param from            签名账户地址
+     * @param contractAddress 合约地址
+     * @param functionAbi     只包含单个函数的 ABI 数组
+     * @param funcName        函数名
+     * @param funcParam       WeBASE 格式的参数（bytes32 为 0x 十六进制字符串，整数为 Long）
+     * @return 0x 前缀的已签名交易
+     */
+    public String sign(int groupId, String from, String contractAddress, JsonNode functionAbi, String funcName,
+                       List<?> funcParam) throws Exception {
+        CryptoKeyPair keyPair = keyPairs.get(String.valueOf(from).toLowerCase());
+        if (keyPair == null) {
+            throw new IllegalStateException("未配置账户私钥，无法本地签名，地址: " + from);
+        }
+
+        JsonNode inputs = functionAbi.path(0).path("inputs");
+        if (inputs.size() != funcParam.size()) {
+            throw new IllegalArgumentException(funcName + " 参数数量不匹配，需要: " + inputs.size()
+                    + ", 实际: " + funcParam.size());
+        }
+        List<Object> params = new ArrayList<>(funcParam.size());
+        for (int i = 0; i < funcParam.size(); i++) {
+            params.add(toAbiValue(inputs.get(i).path("type").asText(), funcParam.get(i)));
+        }
+
+        String data = abiCodec.encodeMethod(functionAbi.toString(), funcName, params);
+        RawTransaction rawTransaction = RawTransaction.createTransaction(
+                new BigInteger(250, random),
+                DefaultGasProvider.GAS_PRICE,
+                DefaultGasProvider.GAS_LIMIT,
+                blockLimit(groupId),
+                contractAddress,
+                BigInteger.ZERO,
+                data,
+                chainId,
+                BigInteger.valueOf(groupId),
+                "");
+        return encoder.encodeAndSign(rawTransaction, keyPair);
+    }
+
+    /**
+     * 群组当前 blockLimit，区块高度缓存过期时刷新；刷新失败时沿用上次高度
+     */
+    private BigInteger blockLimit(int groupId) {
+        BlockNumberCache cache = blockNumbers.computeIfAbsent(groupId, id -> new BlockNumberCache());
+        synchronized (cache) {
+            long now = System.currentTimeMillis();
+            if (cache.blockNumber < 0 || now - cache.blockNumberTime >= blockNumberRefreshMs) {
+                Long latest = blockNumberSupplier.apply(groupId);
+                if (latest != null) {
+                    cache.blockNumber = latest;
+                    cache.blockNumberTime = now;
+                } else if (cache.blockNumber < 0) {
+                    throw new IllegalStateException("获取区块高度失败，无法构造交易，群组: " + groupId);
+                } else {
+                    log.warn("刷新区块高度失败，沿用缓存高度: {}, 群组: {}", cache.blockNumber, groupId);
+                }
+            }
+            return BigInteger.valueOf(cache.blockNumber + blockLimitMargin);
+        }
+    }
+
+    /**
+     * 单个群组的区块高度缓存，由自身锁保护
+     */
+    private static class BlockNumberCache {
+        private long blockNumber = -1;
+        private long blockNumberTime;
+    }
+
+    /**
+     * 将 WeBASE 格式的参数转换为 ABICodec 需要的 Java 类型
+     */
+    private static Object toAbiValue(String type, Object value) {
+        if (type.endsWith("[]")) {
+            String elementType = type.substring(0, type.length() - 2);
+            List<Object> elements = new ArrayList<>();
+            for (Object element : (Collection<?>) value) {
+                elements.add(toAbiValue(elementType, element));
+            }
+            return elements;
+        }
+        if ("bool".equals(type)) {
+            return value instanceof Boolean ? value : Boolean.valueOf(String.valueOf(value));
+        }
+        if (type.startsWith("uint") || type.startsWith("int")) {
+            return value instanceof BigInteger ? value : new BigInteger(String.valueOf(value));
+        }
+        if (type.startsWith("bytes")) {
+            return value instanceof byte[] ? value : Numeric.hexStringToByteArray(String.valueOf(value));
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,82 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 区块链网关
+ * 业务代码统一通过网关访问区块链，不再区分 SDK 和 WeBASE 模式
+ *
+ * 调用按 chain.gateway.order 依次尝试已启用的后端，熔断中的后端直接跳过；
+ * 所有后端都不可用时快速失败，抛出 BusinessException（错误码 503）
+ */
+public interface BlockchainGateway {
+
+    /**
+     * 是否启用了至少一个区块链后端
+     */
+    boolean isAvailable();
+
+    /**
+     * 当前首选后端名称（webase、sdk），未启用时为 DISABLED
+     */
+    String getMode();
+
+    ChainTransactionResult storeCertificate(String certificateNo, String fileHash);
+
+    ChainTransactionResult storeBatchRoot(String batchRoot, int leafCount);
+
+    ChainTransactionResult revokeCertificate(String certificateNo);
+
+    /**
+     * 批量撤销证书，后端按分片发送多笔交易
+     */
+    ChainTransactionResult revokeCertificates(List<String> certificateNos);
+
+    /**
+     * 批量更新过期时间，后端按分片发送多笔交易
+     */
+    ChainTransactionResult updateExpiryDates(List<String> certificateNos, List<Long> newExpiryDates);
+
+    ChainTransactionResult migrateCertificates(List<String> certificateNos, List<String> fileHashes,
+                                               List<Long> timestamps, List<Long> expiryDates,
+                                               List<Boolean> revokedFlags);
+
+    ChainVerificationResult verifyCertificate(String certificateNo, String fileHash);
+
+    List<ChainVerificationResult> verifyCertificates(List<String> certificateNos, List<String> fileHashes);
+
+    ChainBatchRootResult getBatchRoot(String batchRoot);
+
+    /**
+     * 当前区块高度，获取失败时返回 null
+     */
+    Long getBlockNumber();
+
+    /**
+     * 节点版本等网络状态，获取失败时返回 null
+     */
+    Object getNetworkStatus();
+
+    /**
+     * 节点已连接的对等节点数，获取失败时返回 null
+     */
+    Integer getPeerCount();
+
+    /**
+     * 是否能连接到任一后端
+     */
+    boolean isConnected();
+
+    /**
+     * 网关状态：后端顺序、各后端熔断器和签发账户池状态
+     */
+    Map<String, Object> getStatus();
+
+    /**
+     * 指定群组的网关视图，调用发往该群组的合约（chain.sharding）
+     *
+     * @param groupId 证书记录的群组ID，为空时返回后端默认群组的网关
+     */
+    BlockchainGateway forGroup(Integer groupId);
+}
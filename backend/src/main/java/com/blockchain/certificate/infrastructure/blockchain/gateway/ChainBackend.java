@@ -0,0 +1,58 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 区块链后端
+ * 每种接入方式（SDK、WeBASE）提供一个实现，把各自的结果类转换为网关的统一结果
+ *
+ * 调用失败时抛出异常，由网关记入对应后端的熔断器
+ */
+public interface ChainBackend {
+
+    /**
+     * 后端名称，与 chain.gateway.order 中的名称对应
+     */
+    String getName();
+
+    ChainTransactionResult storeCertificate(String certificateNo, String fileHash);
+
+    ChainTransactionResult storeBatchRoot(String batchRoot, int leafCount);
+
+    ChainTransactionResult revokeCertificate(String certificateNo);
+
+    ChainTransactionResult revokeCertificates(List<String> certificateNos);
+
+    ChainTransactionResult updateExpiryDates(List<String> certificateNos, List<Long> newExpiryDates);
+
+    ChainTransactionResult migrateCertificates(List<String> certificateNos, List<String> fileHashes,
+                                               List<Long> timestamps, List<Long> expiryDates,
+                                               List<Boolean> revokedFlags);
+
+    ChainVerificationResult verifyCertificate(String certificateNo, String fileHash);
+
+    List<ChainVerificationResult> verifyCertificates(List<String> certificateNos, List<String> fileHashes);
+
+    ChainBatchRootResult getBatchRoot(String batchRoot);
+
+    /**
+     * 当前区块高度，获取失败时抛出异常
+     */
+    long getBlockNumber();
+
+    /**
+     * 签发账户池状态
+     */
+    Map<String, Object> getIssuerPoolStatus();
+
+    /**
+     * 节点版本等网络状态
+     */
+    Object getNetworkStatus();
+
+    /**
+     * 节点已连接的对等节点数，获取失败时返回 null
+     */
+    Integer getPeerCount();
+}
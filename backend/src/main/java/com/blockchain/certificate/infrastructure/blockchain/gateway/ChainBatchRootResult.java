@@ -0,0 +1,31 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 链上批量存证记录（Merkle 根）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChainBatchRootResult {
+
+    /**
+     * 处理本次调用的后端（webase、sdk）
+     */
+    private String backend;
+
+    private String batchRoot;
+
+    private boolean exists;
+
+    private String issuer;
+
+    private long timestamp;
+
+    private long leafCount;
+}
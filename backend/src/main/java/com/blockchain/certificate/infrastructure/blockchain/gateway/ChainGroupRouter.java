@@ -0,0 +1,129 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import com.blockchain.certificate.infrastructure.config.ShardingConfig;
+import com.blockchain.certificate.shared.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * 证书群组路由
+ *
+ * 按 chain.sharding 为新签发的证书确定性地选择群组：
+ * - hash：证书编号的 CRC32 对群组数取模
+ * - college：按学院映射选择群组，未映射的学院退回 hash
+ *
+ * 证书的群组在签发时写入 t_certificate.chain_group_id，之后的撤销、更新和验证都按记录的群组发送，
+ * 调整群组列表或映射不影响已签发的证书
+ */
+@Slf4j
+@Component
+public class ChainGroupRouter {
+
+    private final ShardingConfig shardingConfig;
+
+    /**
+     * 群组ID到群组配置
+     */
+    private final Map<Integer, ShardingConfig.Group> groups = new LinkedHashMap<>();
+
+    /**
+     * 按配置顺序排列的群组ID（hash 策略）
+     */
+    private final List<Integer> groupIds;
+
+    /**
+     * 学院ID到群组ID（college 策略）
+     */
+    private final Map<Long, Integer> collegeGroups = new HashMap<>();
+
+    public ChainGroupRouter(ShardingConfig shardingConfig) {
+        this.shardingConfig = shardingConfig;
+        for (ShardingConfig.Group group : shardingConfig.getGroups()) {
+            if (group.getGroupId() == null) {
+                throw new IllegalStateException("chain.sharding.groups 中的群组缺少 group-id");
+            }
+            if (groups.put(group.getGroupId(), group) != null) {
+                throw new IllegalStateException("chain.sharding.groups 中的群组重复: " + group.getGroupId());
+            }
+            for (Long collegeId : group.getColleges()) {
+                Integer previous = collegeGroups.put(collegeId, group.getGroupId());
+                if (previous != null && !previous.equals(group.getGroupId())) {
+                    throw new IllegalStateException("学院 " + collegeId + " 同时映射到群组 "
+                            + previous + " 和 " + group.getGroupId());
+                }
+            }
+            if (!StringUtils.hasText(group.getContractAddress())) {
+                log.warn("群组 {} 未配置合约地址，使用后端默认合约地址", group.getGroupId());
+            }
+        }
+
+        this.groupIds = new ArrayList<>(groups.keySet());
+
+        if (shardingConfig.isEnabled()) {
+            if (groups.isEmpty()) {
+                throw new IllegalStateException("已启用 chain.sharding，但未配置 chain.sharding.groups");
+            }
+            log.info("多群组分片存证已启用，策略: {}, 群组: {}", shardingConfig.getStrategy(), groups.keySet());
+        }
+    }
+
+    /**
+     * 是否为新签发的证书分配群组
+     */
+    public boolean isEnabled() {
+        return shardingConfig.isEnabled();
+    }
+
+    /**
+     * 为新签发的证书选择群组
+     *
+     * @param certificateNo 证书编号
+     * @param collegeId     证书所属学院ID，可为空
+     * @return 群组ID，未启用分片时返回 null（使用后端默认群组）
+     */
+    public Integer route(String certificateNo, Long collegeId) {
+        if (!shardingConfig.isEnabled()) {
+            return null;
+        }
+        if (ShardingConfig.STRATEGY_COLLEGE.equalsIgnoreCase(shardingConfig.getStrategy()) && collegeId != null) {
+            Integer groupId = collegeGroups.get(collegeId);
+            if (groupId != null) {
+                return groupId;
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(certificateNo.getBytes(StandardCharsets.UTF_8));
+        return groupIds.get((int) (crc.getValue() % groupIds.size()));
+    }
+
+    /**
+     * 查找群组配置
+     *
+     * @param groupId 证书记录的群组ID
+     * @return 群组配置，groupId 为空时返回 null（使用后端默认群组）
+     * @throws BusinessException 群组未在 chain.sharding.groups 中配置
+     */
+    public ShardingConfig.Group resolve(Integer groupId) {
+        if (groupId == null) {
+            return null;
+        }
+        ShardingConfig.Group group = groups.get(groupId);
+        if (group == null) {
+            throw new BusinessException("区块链群组未配置: " + groupId);
+        }
+        return group;
+    }
+
+    /**
+     * 已配置的群组
+     */
+    public Collection<ShardingConfig.Group> getGroups() {
+        return Collections.unmodifiableCollection(groups.values());
+    }
+}
@@ -0,0 +1,141 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import com.blockchain.certificate.infrastructure.blockchain.ChainReadCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 区块链节点状态监控
+ * 后台定时通过网关轮询区块高度，按较长间隔刷新节点版本和对等节点数，结果保存为内存快照
+ *
+ * - 状态接口、健康检查、读缓存和事件索引读取快照，调用方数量不影响节点负载
+ * - 快照超过 stale-ms 未刷新成功时标记为 DEGRADED
+ * - 后端熔断时网关快速失败，轮询不会继续冲击故障节点
+ */
+@Slf4j
+@Component
+public class ChainStatusMonitor {
+
+    public static final String STATE_UP = "UP";
+    public static final String STATE_DEGRADED = "DEGRADED";
+    public static final String STATE_DOWN = "DOWN";
+    public static final String STATE_DISABLED = "DISABLED";
+
+    private final BlockchainGateway blockchainGateway;
+    private final ChainReadCache chainReadCache;
+
+    @Value("${chain.status.stale-ms:15000}")
+    private long staleMs;
+
+    @Value("${chain.status.detail-refresh-ms:60000}")
+    private long detailRefreshMs;
+
+    /**
+     * 最近一次轮询的结果（state、ageMs 在读取时计算），只由轮询线程替换
+     */
+    private volatile ChainStatusSnapshot polled = new ChainStatusSnapshot();
+    private long lastDetailTime;
+
+    public ChainStatusMonitor(BlockchainGateway blockchainGateway, ChainReadCache chainReadCache) {
+        this.blockchainGateway = blockchainGateway;
+        this.chainReadCache = chainReadCache;
+    }
+
+    /**
+     * 定时轮询节点状态
+     */
+    @Scheduled(fixedDelayString = "${chain.status.poll-ms:3000}")
+    public void poll() {
+        refresh();
+    }
+
+    /**
+     * 立即轮询一次并返回最新快照，用于管理员主动测试连接
+     */
+    public synchronized ChainStatusSnapshot refresh() {
+        if (!blockchainGateway.isAvailable()) {
+            return getSnapshot();
+        }
+
+        long now = System.currentTimeMillis();
+        ChainStatusSnapshot previous = polled;
+        ChainStatusSnapshot.ChainStatusSnapshotBuilder next = previous.toBuilder()
+                .mode(blockchainGateway.getMode())
+                .lastPollTime(now);
+
+        Long blockNumber = blockchainGateway.getBlockNumber();
+        if (blockNumber == null) {
+            int failures = previous.getConsecutiveFailures() + 1;
+            if (failures == 1) {
+                log.warn("区块链状态轮询失败，保留上次快照，区块高度: {}", previous.getBlockNumber());
+            }
+            polled = next.consecutiveFailures(failures)
+                    .lastError("获取区块高度失败")
+                    .build();
+            return getSnapshot();
+        }
+
+        if (previous.getConsecutiveFailures() > 0) {
+            log.info("区块链状态轮询恢复，连续失败 {} 次，区块高度: {}", previous.getConsecutiveFailures(), blockNumber);
+        }
+        next.blockNumber(blockNumber)
+                .lastSuccessTime(now)
+                .consecutiveFailures(0)
+                .lastError(null);
+
+        // 节点版本和对等节点数很少变化，首次成功、恢复后或超过 detail-refresh-ms 时才刷新
+        if (previous.getLastSuccessTime() == 0 || previous.getConsecutiveFailures() > 0
+                || now - lastDetailTime >= detailRefreshMs) {
+            Object nodeVersion = blockchainGateway.getNetworkStatus();
+            if (nodeVersion != null) {
+                next.nodeVersion(nodeVersion);
+            }
+            Integer peerCount = blockchainGateway.getPeerCount();
+            if (peerCount != null) {
+                next.peerCount(peerCount);
+            }
+            lastDetailTime = now;
+        }
+
+        polled = next.build();
+        chainReadCache.onBlockHeight(blockNumber);
+        return getSnapshot();
+    }
+
+    /**
+     * 当前状态快照，不访问节点
+     */
+    public ChainStatusSnapshot getSnapshot() {
+        ChainStatusSnapshot current = polled;
+        long now = System.currentTimeMillis();
+        long lastSuccessTime = current.getLastSuccessTime();
+        long ageMs = lastSuccessTime == 0 ? -1 : now - lastSuccessTime;
+
+        String state;
+        if (!blockchainGateway.isAvailable()) {
+            state = STATE_DISABLED;
+        } else if (lastSuccessTime == 0) {
+            state = STATE_DOWN;
+        } else if (ageMs > staleMs) {
+            state = STATE_DEGRADED;
+        } else {
+            state = STATE_UP;
+        }
+
+        return current.toBuilder()
+                .state(state)
+                .mode(blockchainGateway.getMode())
+                .ageMs(ageMs)
+                .staleMs(staleMs)
+                .build();
+    }
+
+    /**
+     * 快照中的最新区块高度，区块链未启用或从未轮询成功时返回 null
+     */
+    public Long getLatestBlockNumber() {
+        return polled.getBlockNumber();
+    }
+}
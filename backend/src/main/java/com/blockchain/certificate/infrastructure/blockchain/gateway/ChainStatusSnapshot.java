@@ -0,0 +1,58 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 区块链节点状态快照
+ * 由 ChainStatusMonitor 定时轮询生成，状态查询和健康检查直接读取快照，不访问节点
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChainStatusSnapshot {
+
+    /**
+     * 状态：UP、DEGRADED（快照超过 stale-ms 未刷新成功）、DOWN（从未轮询成功）、DISABLED（未启用区块链）
+     */
+    private String state;
+
+    /**
+     * 当前首选后端（webase、sdk）
+     */
+    private String mode;
+
+    private Long blockNumber;
+
+    private Object nodeVersion;
+
+    private Integer peerCount;
+
+    /**
+     * 最近一次轮询成功的时间（毫秒时间戳，0 表示从未成功）
+     */
+    private long lastSuccessTime;
+
+    /**
+     * 最近一次轮询的时间（毫秒时间戳）
+     */
+    private long lastPollTime;
+
+    /**
+     * 距最近一次轮询成功的毫秒数，从未成功时为 -1
+     */
+    private long ageMs;
+
+    private long staleMs;
+
+    private int consecutiveFailures;
+
+    private String lastError;
+
+    public boolean isConnected() {
+        return ChainStatusMonitor.STATE_UP.equals(state);
+    }
+}
@@ -0,0 +1,55 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 上链交易结果（单笔交易或按分片发送的多笔交易）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChainTransactionResult {
+
+    /**
+     * 处理本次调用的后端（webase、sdk）
+     */
+    private String backend;
+
+    private boolean success;
+
+    /**
+     * 最后一笔交易的哈希
+     */
+    private String transactionHash;
+
+    /**
+     * 全部交易哈希（分片发送时有多笔）
+     */
+    private List<String> transactionHashes;
+
+    /**
+     * 最后一笔交易所在区块高度
+     */
+    private long blockNumber;
+
+    /**
+     * 发送交易的签发账户地址（存证交易使用签发账户池，撤销等交易为默认账户）
+     */
+    private String issuerAddress;
+
+    /**
+     * 涉及的证书数量
+     */
+    private int certificateCount;
+
+    /**
+     * 操作时间（毫秒）
+     */
+    private long operationTime;
+}
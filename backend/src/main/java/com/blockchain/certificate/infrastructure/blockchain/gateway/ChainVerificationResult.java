@@ -0,0 +1,44 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 链上证书验证结果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChainVerificationResult {
+
+    /**
+     * 处理本次调用的后端（webase、sdk）
+     */
+    private String backend;
+
+    private String certificateNo;
+
+    private String fileHash;
+
+    private boolean valid;
+
+    /**
+     * 链上存证时间戳
+     */
+    private long timestamp;
+
+    /**
+     * 状态码: 0=有效, 1=不存在, 2=已撤销, 3=已过期, 4=哈希不匹配；后端不返回状态码时为 null
+     */
+    private Integer status;
+
+    private String statusDescription;
+
+    /**
+     * 验证时间（毫秒）
+     */
+    private long verificationTime;
+}
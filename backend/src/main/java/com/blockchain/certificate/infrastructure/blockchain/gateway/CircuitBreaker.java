@@ -0,0 +1,151 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import com.blockchain.certificate.infrastructure.config.GatewayConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 区块链后端熔断器
+ *
+ * 状态转换：
+ * - CLOSED：正常放行，连续失败（含慢调用）达到 failure-threshold 后转为 OPEN
+ * - OPEN：直接拒绝调用，open-ms 后转为 HALF_OPEN
+ * - HALF_OPEN：放行最多 half-open-calls 个试探调用，成功则 CLOSED，失败则重新 OPEN
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final GatewayConfig.Breaker config;
+
+    /**
+     * 以下状态均由 this 锁保护
+     */
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int halfOpenInFlight;
+    private long openedAt;
+    private String lastError;
+    private long lastFailureTime;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong slowCalls = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public CircuitBreaker(String name, GatewayConfig.Breaker config) {
+        this.name = name;
+        this.config = config;
+    }
+
+    /**
+     * 申请调用许可
+     *
+     * @return false 表示熔断中，调用方应跳过该后端
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < config.getOpenMs()) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= Math.max(1, config.getHalfOpenCalls())) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        calls.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 记录调用成功，耗时超过 slow-call-ms 时按失败处理
+     *
+     * @param elapsedMs 调用耗时（毫秒）
+     */
+    public synchronized void onSuccess(long elapsedMs) {
+        if (elapsedMs > config.getSlowCallMs()) {
+            slowCalls.incrementAndGet();
+            recordFailure("慢调用: " + elapsedMs + "ms");
+            return;
+        }
+        releaseHalfOpen();
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    /**
+     * 记录调用失败
+     *
+     * @param error 失败原因
+     */
+    public synchronized void onFailure(Throwable error) {
+        recordFailure(error.getMessage());
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 熔断器状态快照
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("backend", name);
+        snapshot.put("state", state.name());
+        snapshot.put("consecutiveFailures", consecutiveFailures);
+        snapshot.put("calls", calls.get());
+        snapshot.put("failures", failures.get());
+        snapshot.put("slowCalls", slowCalls.get());
+        snapshot.put("rejected", rejected.get());
+        snapshot.put("lastError", lastError);
+        snapshot.put("lastFailureTime", lastFailureTime == 0 ? null : lastFailureTime);
+        snapshot.put("retryAfterMs", state == State.OPEN
+                ? Math.max(0, config.getOpenMs() - (System.currentTimeMillis() - openedAt)) : 0);
+        return snapshot;
+    }
+
+    private void recordFailure(String error) {
+        failures.incrementAndGet();
+        lastError = error;
+        lastFailureTime = System.currentTimeMillis();
+        releaseHalfOpen();
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= config.getFailureThreshold()) {
+            openedAt = System.currentTimeMillis();
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void releaseHalfOpen() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private void transitionTo(State newState) {
+        if (state != newState) {
+            log.warn("区块链后端熔断器状态变更，后端: {}, {} -> {}, 最近错误: {}", name, state, newState, lastError);
+            state = newState;
+            halfOpenInFlight = 0;
+        }
+    }
+}
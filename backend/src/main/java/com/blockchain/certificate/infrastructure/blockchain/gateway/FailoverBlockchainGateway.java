@@ -0,0 +1,452 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import com.blockchain.certificate.infrastructure.blockchain.ChainAccessException;
+import com.blockchain.certificate.infrastructure.blockchain.ChainGroupContext;
+import com.blockchain.certificate.infrastructure.blockchain.ChainMetrics;
+import com.blockchain.certificate.infrastructure.config.GatewayConfig;
+import com.blockchain.certificate.infrastructure.config.ShardingConfig;
+import com.blockchain.certificate.shared.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 带熔断和后端切换的区块链网关
+ *
+ * - 只读调用失败后按顺序尝试下一个后端（chain.gateway.read-fallback）
+ * - 交易调用只在后端熔断（交易未发送）时切换，发送失败后是否切换由 chain.gateway.write-fallback 决定
+ * - 所有后端都熔断时立即失败，不占用请求线程等待节点超时
+ * - 每个后端的只读调用和交易调用使用独立的熔断器，交易共识停滞不影响验证查询
+ * - 只有区块链访问异常（ChainAccessException 或非业务异常）计入熔断器；合约回滚等业务异常说明后端工作正常，
+ *   按成功调用记录，直接抛出，不切换后端
+ * - 慢调用按单笔交易耗时判断：分片提交的批量操作按交易数平均，证书迁移不做慢调用判断
+ * - 分片群组（chain.sharding）的调用通过 forGroup 视图发送，每个后端在每个群组有独立的熔断器，
+ *   单个群组共识停滞不影响其他群组
+ */
+@Slf4j
+@Service
+public class FailoverBlockchainGateway implements BlockchainGateway {
+
+    /**
+     * 区块链不可用的错误码
+     */
+    public static final String UNAVAILABLE_CODE = ChainAccessException.CODE;
+
+    private static final String MODE_DISABLED = "DISABLED";
+
+    private final GatewayConfig gatewayConfig;
+    private final ChainMetrics chainMetrics;
+    private final ChainGroupRouter chainGroupRouter;
+
+    /**
+     * 按 chain.gateway.order 排序的已启用后端
+     */
+    private final List<ChainBackend> backends;
+
+    /**
+     * 熔断器，键为 后端名称.read / 后端名称.write（默认群组）或 后端名称@群组ID.read 等（分片群组），构造后只读
+     */
+    private final Map<String, CircuitBreaker> breakers = new LinkedHashMap<>();
+
+    public FailoverBlockchainGateway(
+            GatewayConfig gatewayConfig,
+            ChainMetrics chainMetrics,
+            ChainGroupRouter chainGroupRouter,
+            @org.springframework.beans.factory.annotation.Autowired(required = false) List<ChainBackend> backends) {
+        this.gatewayConfig = gatewayConfig;
+        this.chainMetrics = chainMetrics;
+        this.chainGroupRouter = chainGroupRouter;
+        this.backends = orderBackends(backends == null ? Collections.emptyList() : backends, gatewayConfig.getOrder());
+        for (ChainBackend backend : this.backends) {
+            addBreakers(backend.getName(), null);
+            for (ShardingConfig.Group group : chainGroupRouter.getGroups()) {
+                addBreakers(backend.getName(), group.getGroupId());
+            }
+        }
+
+        if (this.backends.isEmpty()) {
+            log.warn("区块链网关初始化：区块链服务未启用");
+        } else {
+            log.info("区块链网关初始化：后端顺序 {}", backendNames());
+        }
+    }
+
+    private void addBreakers(String backendName, Integer groupId) {
+        for (boolean write : new boolean[]{false, true}) {
+            String key = breakerKey(backendName, groupId, write);
+            CircuitBreaker breaker = new CircuitBreaker(key, gatewayConfig.getBreaker());
+            breakers.put(key, breaker);
+            chainMetrics.gauge("chain.breaker." + key + ".state", () -> breaker.getState().name());
+        }
+    }
+
+    private static String breakerKey(String backendName, Integer groupId, boolean write) {
+        String key = groupId == null ? backendName : backendName + "@" + groupId;
+        return key + (write ? ".write" : ".read");
+    }
+
+    private List<String> backendNames() {
+        List<String> names = new ArrayList<>(backends.size());
+        for (ChainBackend backend : backends) {
+            names.add(backend.getName());
+        }
+        return names;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return !backends.isEmpty();
+    }
+
+    @Override
+    public String getMode() {
+        return backends.isEmpty() ? MODE_DISABLED : backends.get(0).getName();
+    }
+
+    @Override
+    public ChainTransactionResult storeCertificate(String certificateNo, String fileHash) {
+        return write("storeCertificate", backend -> backend.storeCertificate(certificateNo, fileHash));
+    }
+
+    @Override
+    public ChainTransactionResult storeBatchRoot(String batchRoot, int leafCount) {
+        return write("storeBatchRoot", backend -> backend.storeBatchRoot(batchRoot, leafCount));
+    }
+
+    @Override
+    public ChainTransactionResult revokeCertificate(String certificateNo) {
+        return write("revokeCertificate", backend -> backend.revokeCertificate(certificateNo));
+    }
+
+    @Override
+    public ChainTransactionResult revokeCertificates(List<String> certificateNos) {
+        return write("revokeCertificates", backend -> backend.revokeCertificates(certificateNos));
+    }
+
+    @Override
+    public ChainTransactionResult updateExpiryDates(List<String> certificateNos, List<Long> newExpiryDates) {
+        return write("updateExpiryDates", backend -> backend.updateExpiryDates(certificateNos, newExpiryDates));
+    }
+
+    @Override
+    public ChainTransactionResult migrateCertificates(List<String> certificateNos, List<String> fileHashes,
+                                                      List<Long> timestamps, List<Long> expiryDates,
+                                                      List<Boolean> revokedFlags) {
+        // 迁移为一次性的大交易，耗时随条目数增长，不按慢调用计入熔断器
+        return execute("migrateCertificates", true, gatewayConfig.isWriteFallback(), false,
+                backend -> backend.migrateCertificates(certificateNos, fileHashes, timestamps, expiryDates, revokedFlags));
+    }
+
+    @Override
+    public ChainVerificationResult verifyCertificate(String certificateNo, String fileHash) {
+        return read("verifyCertificate", backend -> backend.verifyCertificate(certificateNo, fileHash));
+    }
+
+    @Override
+    public List<ChainVerificationResult> verifyCertificates(List<String> certificateNos, List<String> fileHashes) {
+        return read("verifyCertificates", backend -> backend.verifyCertificates(certificateNos, fileHashes));
+    }
+
+    @Override
+    public ChainBatchRootResult getBatchRoot(String batchRoot) {
+        return read("getBatchRoot", backend -> backend.getBatchRoot(batchRoot));
+    }
+
+    @Override
+    public Long getBlockNumber() {
+        try {
+            return read("getBlockNumber", ChainBackend::getBlockNumber);
+        } catch (RuntimeException e) {
+            log.warn("获取区块高度失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Object getNetworkStatus() {
+        try {
+            return read("getNetworkStatus", ChainBackend::getNetworkStatus);
+        } catch (RuntimeException e) {
+            log.warn("获取区块链网络状态失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Integer getPeerCount() {
+        try {
+            return read("getPeerCount", ChainBackend::getPeerCount);
+        } catch (RuntimeException e) {
+            log.warn("获取节点连接数失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return getBlockNumber() != null;
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        List<Map<String, Object>> breakerStates = new ArrayList<>();
+        for (CircuitBreaker breaker : breakers.values()) {
+            breakerStates.add(breaker.snapshot());
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("mode", getMode());
+        status.put("order", backendNames());
+        status.put("readFallback", gatewayConfig.isReadFallback());
+        status.put("writeFallback", gatewayConfig.isWriteFallback());
+        status.put("breakers", breakerStates);
+
+        Map<String, Object> issuerPools = new LinkedHashMap<>();
+        for (ChainBackend backend : backends) {
+            issuerPools.put(backend.getName(), backend.getIssuerPoolStatus());
+        }
+        status.put("issuerPools", issuerPools);
+
+        List<Map<String, Object>> groups = new ArrayList<>();
+        for (ShardingConfig.Group group : chainGroupRouter.getGroups()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("groupId", group.getGroupId());
+            item.put("contractAddress", group.getContractAddress());
+            item.put("colleges", group.getColleges());
+            groups.add(item);
+        }
+        status.put("shardingEnabled", chainGroupRouter.isEnabled());
+        status.put("shardingGroups", groups);
+        return status;
+    }
+
+    @Override
+    public BlockchainGateway forGroup(Integer groupId) {
+        ShardingConfig.Group group = chainGroupRouter.resolve(groupId);
+        return group == null ? this : new GroupGateway(group);
+    }
+
+    // ========== 调用调度 ==========
+
+    private <T> T read(String operation, Function<ChainBackend, T> call) {
+        return execute(operation, false, gatewayConfig.isReadFallback(), true, call);
+    }
+
+    private <T> T write(String operation, Function<ChainBackend, T> call) {
+        return execute(operation, true, gatewayConfig.isWriteFallback(), true, call);
+    }
+
+    /**
+     * 按顺序调用后端
+     *
+     * @param write 是否为交易调用，决定使用后端的读或写熔断器
+     * @param fallbackOnFailure 调用失败后是否继续尝试下一个后端（熔断跳过的后端总是继续）
+     * @param slowCallCheck 是否按耗时判断慢调用
+     */
+    private <T> T execute(String operation, boolean write, boolean fallbackOnFailure, boolean slowCallCheck,
+                          Function<ChainBackend, T> call) {
+        if (backends.isEmpty()) {
+            throw new BusinessException(UNAVAILABLE_CODE, "区块链服务未启用");
+        }
+
+        ChainGroupContext group = ChainGroupContext.current();
+        Integer groupId = group == null ? null : group.getGroupId();
+
+        RuntimeException lastError = null;
+        for (ChainBackend backend : backends) {
+            CircuitBreaker breaker = breakers.get(breakerKey(backend.getName(), groupId, write));
+            if (!breaker.tryAcquire()) {
+                log.debug("后端熔断中，跳过，后端: {}, 群组: {}, 操作: {}", backend.getName(), groupId, operation);
+                chainMetrics.record(ChainMetrics.GATEWAY, backend.getName(), operation,
+                        ChainMetrics.OUTCOME_REJECTED, 0);
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try {
+                T result = call.apply(backend);
+                long elapsedNanos = System.nanoTime() - start;
+                breaker.onSuccess(slowCallCheck ? elapsedNanos / 1_000_000 / transactionCount(result) : 0);
+                chainMetrics.record(ChainMetrics.GATEWAY, backend.getName(), operation, outcomeOf(result),
+                        elapsedNanos);
+                return result;
+            } catch (RuntimeException e) {
+                long elapsedNanos = System.nanoTime() - start;
+                if (!isAccessFailure(e)) {
+                    // 合约回滚、参数校验等业务失败：后端已正常响应，换后端重试结果相同
+                    breaker.onSuccess(slowCallCheck ? elapsedNanos / 1_000_000 : 0);
+                    chainMetrics.record(ChainMetrics.GATEWAY, backend.getName(), operation,
+                            ChainMetrics.OUTCOME_FAILED, elapsedNanos);
+                    throw e;
+                }
+                breaker.onFailure(e);
+                chainMetrics.record(ChainMetrics.GATEWAY, backend.getName(), operation, ChainMetrics.OUTCOME_ERROR,
+                        elapsedNanos);
+                lastError = e;
+                if (!fallbackOnFailure) {
+                    break;
+                }
+                log.warn("后端调用失败，尝试下一个后端，后端: {}, 群组: {}, 操作: {}, 原因: {}",
+                        backend.getName(), groupId, operation, e.getMessage());
+            } catch (Error e) {
+                // LinkageError 等：计入失败并释放半开许可，否则该熔断器的试探调用永远占满
+                breaker.onFailure(e);
+                chainMetrics.record(ChainMetrics.GATEWAY, backend.getName(), operation, ChainMetrics.OUTCOME_ERROR,
+                        System.nanoTime() - start);
+                throw e;
+            }
+        }
+
+        if (lastError != null) {
+            throw lastError;
+        }
+        throw new BusinessException(UNAVAILABLE_CODE, "区块链服务熔断中，暂不可用");
+    }
+
+    /**
+     * 区块链访问异常和非业务异常计入熔断器，其他业务异常（合约回滚等）不计入
+     */
+    private static boolean isAccessFailure(RuntimeException e) {
+        return !(e instanceof BusinessException) || UNAVAILABLE_CODE.equals(((BusinessException) e).getCode());
+    }
+
+    /**
+     * 调用包含的交易数，分片提交的批量操作按交易数平均耗时
+     */
+    private static int transactionCount(Object result) {
+        if (result instanceof ChainTransactionResult) {
+            List<String> hashes = ((ChainTransactionResult) result).getTransactionHashes();
+            return hashes == null || hashes.isEmpty() ? 1 : hashes.size();
+        }
+        return 1;
+    }
+
+    /**
+     * 交易调用按回执结果区分成功和失败，其他调用正常返回即为成功
+     */
+    private static String outcomeOf(Object result) {
+        if (result instanceof ChainTransactionResult && !((ChainTransactionResult) result).isSuccess()) {
+            return ChainMetrics.OUTCOME_FAILED;
+        }
+        return ChainMetrics.OUTCOME_SUCCESS;
+    }
+
+    /**
+     * 按配置顺序排列后端，配置中未列出的后端排在最后
+     */
+    private static List<ChainBackend> orderBackends(List<ChainBackend> available, List<String> order) {
+        List<ChainBackend> ordered = new ArrayList<>(available);
+        ordered.sort(Comparator.comparingInt(backend -> {
+            int index = order.indexOf(backend.getName());
+            return index < 0 ? Integer.MAX_VALUE : index;
+        }));
+        return Collections.unmodifiableList(ordered);
+    }
+
+    /**
+     * 分片群组的网关视图：在群组上下文中调用网关，后端据此选择群组和合约地址
+     */
+    private class GroupGateway implements BlockchainGateway {
+
+        private final ShardingConfig.Group group;
+
+        private GroupGateway(ShardingConfig.Group group) {
+            this.group = group;
+        }
+
+        private <T> T inGroup(Supplier<T> call) {
+            return ChainGroupContext.call(group.getGroupId(), group.getContractAddress(), call);
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return FailoverBlockchainGateway.this.isAvailable();
+        }
+
+        @Override
+        public String getMode() {
+            return FailoverBlockchainGateway.this.getMode();
+        }
+
+        @Override
+        public ChainTransactionResult storeCertificate(String certificateNo, String fileHash) {
+            return inGroup(() -> FailoverBlockchainGateway.this.storeCertificate(certificateNo, fileHash));
+        }
+
+        @Override
+        public ChainTransactionResult storeBatchRoot(String batchRoot, int leafCount) {
+            return inGroup(() -> FailoverBlockchainGateway.this.storeBatchRoot(batchRoot, leafCount));
+        }
+
+        @Override
+        public ChainTransactionResult revokeCertificate(String certificateNo) {
+            return inGroup(() -> FailoverBlockchainGateway.this.revokeCertificate(certificateNo));
+        }
+
+        @Override
+        public ChainTransactionResult revokeCertificates(List<String> certificateNos) {
+            return inGroup(() -> FailoverBlockchainGateway.this.revokeCertificates(certificateNos));
+        }
+
+        @Override
+        public ChainTransactionResult updateExpiryDates(List<String> certificateNos, List<Long> newExpiryDates) {
+            return inGroup(() -> FailoverBlockchainGateway.this.updateExpiryDates(certificateNos, newExpiryDates));
+        }
+
+        @Override
+        public ChainTransactionResult migrateCertificates(List<String> certificateNos, List<String> fileHashes,
+                                                          List<Long> timestamps, List<Long> expiryDates,
+                                                          List<Boolean> revokedFlags) {
+            return inGroup(() -> FailoverBlockchainGateway.this.migrateCertificates(
+                    certificateNos, fileHashes, timestamps, expiryDates, revokedFlags));
+        }
+
+        @Override
+        public ChainVerificationResult verifyCertificate(String certificateNo, String fileHash) {
+            return inGroup(() -> FailoverBlockchainGateway.this.verifyCertificate(certificateNo, fileHash));
+        }
+
+        @Override
+        public List<ChainVerificationResult> verifyCertificates(List<String> certificateNos, List<String> fileHashes) {
+            return inGroup(() -> FailoverBlockchainGateway.this.verifyCertificates(certificateNos, fileHashes));
+        }
+
+        @Override
+        public ChainBatchRootResult getBatchRoot(String batchRoot) {
+            return inGroup(() -> FailoverBlockchainGateway.this.getBatchRoot(batchRoot));
+        }
+
+        @Override
+        public Long getBlockNumber() {
+            return inGroup(FailoverBlockchainGateway.this::getBlockNumber);
+        }
+
+        @Override
+        public Object getNetworkStatus() {
+            return inGroup(FailoverBlockchainGateway.this::getNetworkStatus);
+        }
+
+        @Override
+        public Integer getPeerCount() {
+            return inGroup(FailoverBlockchainGateway.this::getPeerCount);
+        }
+
+        @Override
+        public boolean isConnected() {
+            return getBlockNumber() != null;
+        }
+
+        @Override
+        public Map<String, Object> getStatus() {
+            return FailoverBlockchainGateway.this.getStatus();
+        }
+
+        @Override
+        public BlockchainGateway forGroup(Integer groupId) {
+            return FailoverBlockchainGateway.this.forGroup(groupId);
+        }
+    }
+}
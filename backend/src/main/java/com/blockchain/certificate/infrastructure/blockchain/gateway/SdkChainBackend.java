@@ -0,0 +1,167 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import com.blockchain.certificate.infrastructure.blockchain.BlockchainService;
+import com.blockchain.certificate.infrastructure.blockchain.ChainAccessException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SDK 模式的区块链后端，基于 BlockchainService
+ *
+ * 当 blockchain.enabled=true 时启用
+ */
+@Component
+@ConditionalOnProperty(name = "blockchain.enabled", havingValue = "true", matchIfMissing = false)
+public class SdkChainBackend implements ChainBackend {
+
+    public static final String NAME = "sdk";
+
+    private final BlockchainService blockchainService;
+
+    public SdkChainBackend(BlockchainService blockchainService) {
+        this.blockchainService = blockchainService;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ChainTransactionResult storeCertificate(String certificateNo, String fileHash) {
+        BlockchainService.BlockchainStorageResult result = blockchainService.storeCertificate(certificateNo, fileHash);
+        return stored(result, 1);
+    }
+
+    @Override
+    public ChainTransactionResult storeBatchRoot(String batchRoot, int leafCount) {
+        BlockchainService.BlockchainStorageResult result = blockchainService.storeBatchRoot(batchRoot, leafCount);
+        return stored(result, leafCount);
+    }
+
+    @Override
+    public ChainTransactionResult revokeCertificate(String certificateNo) {
+        BlockchainService.BlockchainRevocationResult result = blockchainService.revokeCertificate(certificateNo);
+        return transaction(result.isSuccess(), result.getTransactionHash(), result.getBlockNumber(), 1, result.getRevocationTime());
+    }
+
+    @Override
+    public ChainTransactionResult revokeCertificates(List<String> certificateNos) {
+        return bulk(blockchainService.revokeCertificates(certificateNos));
+    }
+
+    @Override
+    public ChainTransactionResult updateExpiryDates(List<String> certificateNos, List<Long> newExpiryDates) {
+        return bulk(blockchainService.updateExpiryDates(certificateNos, newExpiryDates));
+    }
+
+    @Override
+    public ChainTransactionResult migrateCertificates(List<String> certificateNos, List<String> fileHashes,
+                                                      List<Long> timestamps, List<Long> expiryDates,
+                                                      List<Boolean> revokedFlags) {
+        return bulk(blockchainService.migrateCertificates(certificateNos, fileHashes, timestamps, expiryDates, revokedFlags));
+    }
+
+    @Override
+    public ChainVerificationResult verifyCertificate(String certificateNo, String fileHash) {
+        return verification(blockchainService.verifyCertificate(certificateNo, fileHash));
+    }
+
+    @Override
+    public List<ChainVerificationResult> verifyCertificates(List<String> certificateNos, List<String> fileHashes) {
+        List<ChainVerificationResult> results = new ArrayList<>(certificateNos.size());
+        for (BlockchainService.CertificateVerificationResult result :
+                blockchainService.verifyCertificates(certificateNos, fileHashes)) {
+            results.add(verification(result));
+        }
+        return results;
+    }
+
+    @Override
+    public ChainBatchRootResult getBatchRoot(String batchRoot) {
+        BlockchainService.BatchRootResult result = blockchainService.getBatchRoot(batchRoot);
+        return ChainBatchRootResult.builder()
+                .backend(NAME)
+                .batchRoot(result.getBatchRoot())
+                .exists(result.isExists())
+                .issuer(result.getIssuer())
+                .timestamp(result.getTimestamp())
+                .leafCount(result.getLeafCount())
+                .build();
+    }
+
+    @Override
+    public long getBlockNumber() {
+        Long blockNumber = blockchainService.getCurrentBlockNumber();
+        if (blockNumber == null) {
+            throw new ChainAccessException("获取区块高度失败");
+        }
+        return blockNumber;
+    }
+
+    @Override
+    public Map<String, Object> getIssuerPoolStatus() {
+        return blockchainService.getIssuerPoolStatus();
+    }
+
+    @Override
+    public Object getNetworkStatus() {
+        return blockchainService.getNetworkStatus();
+    }
+
+    @Override
+    public Integer getPeerCount() {
+        return blockchainService.getPeerCount();
+    }
+
+    private ChainVerificationResult verification(BlockchainService.CertificateVerificationResult result) {
+        // 状态码来自合约返回值，不返回描述
+        return ChainVerificationResult.builder()
+                .backend(NAME)
+                .certificateNo(result.getCertificateNo())
+                .fileHash(result.getFileHash())
+                .valid(result.isValid())
+                .timestamp(result.getTimestamp())
+                .status(result.getStatus())
+                .verificationTime(result.getVerificationTime())
+                .build();
+    }
+
+    private ChainTransactionResult bulk(BlockchainService.BlockchainBulkResult result) {
+        List<String> hashes = result.getTransactionHashes();
+        return ChainTransactionResult.builder()
+                .backend(NAME)
+                .success(result.isSuccess())
+                .transactionHash(hashes.isEmpty() ? null : hashes.get(hashes.size() - 1))
+                .transactionHashes(hashes)
+                .blockNumber(result.getBlockNumber())
+                .certificateCount(result.getCertificateCount())
+                .operationTime(result.getOperationTime())
+                .build();
+    }
+
+    private static ChainTransactionResult stored(BlockchainService.BlockchainStorageResult result, int certificateCount) {
+        ChainTransactionResult transaction = transaction(result.isSuccess(), result.getTransactionHash(),
+                result.getBlockNumber(), certificateCount, result.getTimestamp());
+        transaction.setIssuerAddress(result.getIssuerAddress());
+        return transaction;
+    }
+
+    private static ChainTransactionResult transaction(boolean success, String transactionHash, long blockNumber,
+                                                      int certificateCount, long operationTime) {
+        return ChainTransactionResult.builder()
+                .backend(NAME)
+                .success(success)
+                .transactionHash(transactionHash)
+                .transactionHashes(Collections.singletonList(transactionHash))
+                .blockNumber(blockNumber)
+                .certificateCount(certificateCount)
+                .operationTime(operationTime)
+                .build();
+    }
+}
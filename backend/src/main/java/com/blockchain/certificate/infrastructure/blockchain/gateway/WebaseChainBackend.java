@@ -0,0 +1,167 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import com.blockchain.certificate.infrastructure.blockchain.ChainAccessException;
+import com.blockchain.certificate.infrastructure.blockchain.WebaseBlockchainService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WeBASE 模式的区块链后端，基于 WebaseBlockchainService（模拟账本同样走此后端）
+ *
+ * 当 webase.enabled=true 或 chain.simulator.enabled=true 时启用
+ */
+@Component
+@ConditionalOnExpression("${webase.enabled:false} or ${chain.simulator.enabled:false}")
+public class WebaseChainBackend implements ChainBackend {
+
+    public static final String NAME = "webase";
+
+    private final WebaseBlockchainService webaseBlockchainService;
+
+    public WebaseChainBackend(WebaseBlockchainService webaseBlockchainService) {
+        this.webaseBlockchainService = webaseBlockchainService;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ChainTransactionResult storeCertificate(String certificateNo, String fileHash) {
+        WebaseBlockchainService.BlockchainStorageResult result = webaseBlockchainService.storeCertificate(certificateNo, fileHash);
+        return stored(result, 1);
+    }
+
+    @Override
+    public ChainTransactionResult storeBatchRoot(String batchRoot, int leafCount) {
+        WebaseBlockchainService.BlockchainStorageResult result = webaseBlockchainService.storeBatchRoot(batchRoot, leafCount);
+        return stored(result, leafCount);
+    }
+
+    @Override
+    public ChainTransactionResult revokeCertificate(String certificateNo) {
+        WebaseBlockchainService.BlockchainRevocationResult result = webaseBlockchainService.revokeCertificate(certificateNo);
+        return transaction(result.isSuccess(), result.getTransactionHash(), result.getBlockNumber(), 1, result.getRevocationTime());
+    }
+
+    @Override
+    public ChainTransactionResult revokeCertificates(List<String> certificateNos) {
+        return bulk(webaseBlockchainService.revokeCertificates(certificateNos));
+    }
+
+    @Override
+    public ChainTransactionResult updateExpiryDates(List<String> certificateNos, List<Long> newExpiryDates) {
+        return bulk(webaseBlockchainService.updateExpiryDates(certificateNos, newExpiryDates));
+    }
+
+    @Override
+    public ChainTransactionResult migrateCertificates(List<String> certificateNos, List<String> fileHashes,
+                                                      List<Long> timestamps, List<Long> expiryDates,
+                                                      List<Boolean> revokedFlags) {
+        return bulk(webaseBlockchainService.migrateCertificates(certificateNos, fileHashes, timestamps, expiryDates, revokedFlags));
+    }
+
+    @Override
+    public ChainVerificationResult verifyCertificate(String certificateNo, String fileHash) {
+        return verification(webaseBlockchainService.verifyCertificate(certificateNo, fileHash));
+    }
+
+    @Override
+    public List<ChainVerificationResult> verifyCertificates(List<String> certificateNos, List<String> fileHashes) {
+        List<ChainVerificationResult> results = new ArrayList<>(certificateNos.size());
+        for (WebaseBlockchainService.CertificateVerificationResult result :
+                webaseBlockchainService.verifyCertificates(certificateNos, fileHashes)) {
+            results.add(verification(result));
+        }
+        return results;
+    }
+
+    @Override
+    public ChainBatchRootResult getBatchRoot(String batchRoot) {
+        WebaseBlockchainService.BatchRootResult result = webaseBlockchainService.getBatchRoot(batchRoot);
+        return ChainBatchRootResult.builder()
+                .backend(NAME)
+                .batchRoot(result.getBatchRoot())
+                .exists(result.isExists())
+                .issuer(result.getIssuer())
+                .timestamp(result.getTimestamp())
+                .leafCount(result.getLeafCount())
+                .build();
+    }
+
+    @Override
+    public long getBlockNumber() {
+        Long blockNumber = webaseBlockchainService.getCurrentBlockNumber();
+        if (blockNumber == null) {
+            throw new ChainAccessException("获取区块高度失败");
+        }
+        return blockNumber;
+    }
+
+    @Override
+    public Map<String, Object> getIssuerPoolStatus() {
+        return webaseBlockchainService.getIssuerPoolStatus();
+    }
+
+    @Override
+    public Object getNetworkStatus() {
+        return webaseBlockchainService.getNetworkStatus();
+    }
+
+    @Override
+    public Integer getPeerCount() {
+        return webaseBlockchainService.getPeerCount();
+    }
+
+    private ChainVerificationResult verification(WebaseBlockchainService.CertificateVerificationResult result) {
+        return ChainVerificationResult.builder()
+                .backend(NAME)
+                .certificateNo(result.getCertificateNo())
+                .fileHash(result.getFileHash())
+                .valid(result.isValid())
+                .timestamp(result.getTimestamp())
+                .status(result.getStatus())
+                .statusDescription(result.getStatusDescription())
+                .verificationTime(result.getVerificationTime())
+                .build();
+    }
+
+    private ChainTransactionResult bulk(WebaseBlockchainService.BlockchainBulkResult result) {
+        List<String> hashes = result.getTransactionHashes();
+        return ChainTransactionResult.builder()
+                .backend(NAME)
+                .success(result.isSuccess())
+                .transactionHash(hashes.isEmpty() ? null : hashes.get(hashes.size() - 1))
+                .transactionHashes(hashes)
+                .blockNumber(result.getBlockNumber())
+                .certificateCount(result.getCertificateCount())
+                .operationTime(result.getOperationTime())
+                .build();
+    }
+
+    private static ChainTransactionResult stored(WebaseBlockchainService.BlockchainStorageResult result, int certificateCount) {
+        ChainTransactionResult transaction = transaction(result.isSuccess(), result.getTransactionHash(),
+                result.getBlockNumber(), certificateCount, result.getTimestamp());
+        transaction.setIssuerAddress(result.getIssuerAddress());
+        return transaction;
+    }
+
+    private static ChainTransactionResult transaction(boolean success, String transactionHash, long blockNumber,
+                                                      int certificateCount, long operationTime) {
+        return ChainTransactionResult.builder()
+                .backend(NAME)
+                .success(success)
+                .transactionHash(transactionHash)
+                .transactionHashes(Collections.singletonList(transactionHash))
+                .blockNumber(blockNumber)
+                .certificateCount(certificateCount)
+                .operationTime(operationTime)
+                .build();
+    }
+}
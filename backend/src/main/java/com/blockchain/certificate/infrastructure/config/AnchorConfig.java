@@ -0,0 +1,90 @@
+package com.blockchain.certificate.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 区块链存证配置类
+ * 配置证书上链方式
+ *
+ * 当 batch.enabled=true 时，证书生成后不再逐条上链，
+ * 由 BatchAnchorService 按时间窗口聚合为 Merkle 树，只将 Merkle 根写入链上；
+ * 否则证书生成时写入 t_chain_outbox，由 ChainOutboxDispatcher 异步上链；
+ * 上链失败的撤销和过期时间更新也写入 t_chain_outbox 重试
+ */
+@Configuration
+@ConfigurationProperties(prefix = "anchor")
+@Data
+public class AnchorConfig {
+
+    /**
+     * 批量存证配置
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * 发件箱分发配置
+     */
+    private Outbox outbox = new Outbox();
+
+    @Data
+    public static class Batch {
+
+        /**
+         * 是否启用 Merkle 批量存证
+         * true: 证书按批次聚合，一笔交易存储一个 Merkle 根
+         * false: 每张证书单独发送一笔交易（默认）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 批次时间窗口（毫秒）
+         */
+        private long windowMs = 60000;
+
+        /**
+         * 单个批次最多包含的证书数量
+         */
+        private int maxSize = 256;
+    }
+
+    @Data
+    public static class Outbox {
+
+        /**
+         * 轮询间隔（毫秒）
+         */
+        private long pollMs = 2000;
+
+        /**
+         * 每次轮询最多领取的记录数
+         */
+        private int batchSize = 50;
+
+        /**
+         * 并发上链的最大线程数
+         */
+        private int parallelism = 4;
+
+        /**
+         * 最大尝试次数，超过后转入死信（FAILED）
+         */
+        private int maxAttempts = 10;
+
+        /**
+         * 首次重试退避时间（毫秒），之后按指数增长
+         */
+        private long initialBackoffMs = 2000;
+
+        /**
+         * 最大退避时间（毫秒）
+         */
+        private long maxBackoffMs = 300000;
+
+        /**
+         * 处理中记录的超时时间（毫秒），超时后重新放回待处理
+         */
+        private long processingTimeoutMs = 300000;
+    }
+}
@@ -0,0 +1,67 @@
+package com.blockchain.certificate.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 区块链网关配置类
+ *
+ * order: 后端调用顺序（webase、sdk），未启用的后端自动跳过
+ * 每个后端有独立的熔断器，熔断期间调用直接跳到下一个后端或快速失败，不再等待节点超时
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chain.gateway")
+@Data
+public class GatewayConfig {
+
+    /**
+     * 后端调用顺序
+     */
+    private List<String> order = new ArrayList<>(Arrays.asList("webase", "sdk"));
+
+    /**
+     * 只读调用失败后是否尝试下一个后端
+     */
+    private boolean readFallback = true;
+
+    /**
+     * 交易调用失败后是否尝试下一个后端
+     * 交易可能已上链但回执丢失，默认不切换，避免同一交易在两个后端重复发送；
+     * 熔断器打开时（交易未发送）总是切换
+     */
+    private boolean writeFallback = false;
+
+    /**
+     * 熔断器配置
+     */
+    private Breaker breaker = new Breaker();
+
+    @Data
+    public static class Breaker {
+
+        /**
+         * 连续失败多少次后打开熔断器（慢调用计为失败）
+         */
+        private int failureThreshold = 5;
+
+        /**
+         * 慢调用阈值（毫秒），分片提交的批量交易按单笔交易耗时计算
+         */
+        private long slowCallMs = 5000;
+
+        /**
+         * 熔断器打开后保持的时间（毫秒），之后进入半开状态放行试探调用
+         */
+        private long openMs = 30000;
+
+        /**
+         * 半开状态允许同时进行的试探调用数
+         */
+        private int halfOpenCalls = 1;
+    }
+}
@@ -44,4 +44,33 @@ public class IpfsConfig {
      * IPFS Gateway 端口（用于 HTTP 访问）
      */
     private int gatewayPort = 8081;
+
+    /**
+     * 同一申请的证明文件并发上传的线程数，超出时由提交请求的线程自己上传
+     */
+    private int uploadParallelism = 4;
+
+    /**
+     * RealIpfsClient 的 HTTP 连接池配置
+     */
+    private Http http = new Http();
+
+    @Data
+    public static class Http {
+
+        /**
+         * 连接池最大连接数
+         */
+        private int maxTotal = 50;
+
+        /**
+         * 单个路由最大连接数，所有请求都发往同一个 IPFS 节点，通常与 maxTotal 相同
+         */
+        private int maxPerRoute = 50;
+
+        /**
+         * 长连接保持时间（毫秒）
+         */
+        private long keepAlive = 30000;
+    }
 }
\ No newline at end of file
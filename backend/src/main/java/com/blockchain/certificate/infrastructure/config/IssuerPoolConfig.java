@@ -0,0 +1,46 @@
+package com.blockchain.certificate.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 签发账户池配置类
+ *
+ * 默认账户（fisco.account.private-key / webase.front.user-address）之外的签发账户，
+ * 交易按账户轮流发送，每个账户有独立的在途交易上限。
+ * 额外账户需要由合约所有者通过 addAuthorizedIssuer 授权，register-on-startup=true 时启动后自动授权
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chain.issuers")
+@Data
+public class IssuerPoolConfig {
+
+    /**
+     * SDK 模式和 WeBASE 本地签名模式（webase.signing.mode=local）的额外签发账户私钥（十六进制）
+     */
+    private List<String> privateKeys = new ArrayList<>();
+
+    /**
+     * WeBASE 模式的额外签发账户地址（需已在 WeBASE-Front 中创建私钥用户）
+     */
+    private List<String> addresses = new ArrayList<>();
+
+    /**
+     * 每个账户同时在途的最大交易数
+     */
+    private int maxInFlightPerKey = 8;
+
+    /**
+     * 所有账户都达到在途上限时等待空闲账户的超时时间（毫秒）
+     */
+    private long acquireTimeoutMs = 10000;
+
+    /**
+     * 启动后是否由默认账户（合约所有者）为未授权的额外账户调用 addAuthorizedIssuer
+     */
+    private boolean registerOnStartup = true;
+}
@@ -0,0 +1,47 @@
+package com.blockchain.certificate.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 数据库与链上数据对账配置类
+ *
+ * 对账任务按证书ID游标分页读取 t_certificate，每页按 chain.verify.chunk-size 分片并发调用批量验证，
+ * 差异写入 t_chain_reconcile_diff；auto-repair=true 时可修复的差异直接写入发件箱补发
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chain.reconcile")
+@Data
+public class ReconcileConfig {
+
+    /**
+     * 定时对账的 cron 表达式，"-" 表示只通过管理接口手动触发
+     */
+    private String cron = "-";
+
+    /**
+     * 每页读取的证书数量
+     */
+    private int pageSize = 1000;
+
+    /**
+     * 每次批量验证调用的证书数量（仍受 chain.verify 的分片限制）
+     */
+    private int chunkSize = 200;
+
+    /**
+     * 并发验证的最大线程数
+     */
+    private int parallelism = 4;
+
+    /**
+     * 每秒最多发起的批量验证调用数，0 表示不限制
+     */
+    private double maxCallsPerSecond = 10;
+
+    /**
+     * 是否在对账时直接将可修复的差异写入发件箱
+     */
+    private boolean autoRepair = false;
+}
@@ -0,0 +1,60 @@
+package com.blockchain.certificate.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 证书合约版本配置类
+ *
+ * version=1: 使用 CertificateRegistry（string 键，地址见 fisco.contract-address / webase.contract.address）
+ * version=2: 使用 CertificateRegistryV2（bytes32 键，地址见 v2-address）
+ *
+ * 切换到 v2 前先启用 migration，由 RegistryMigrationService 将已上链的证书从数据库重放到 v2 合约
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chain.registry")
+@Data
+public class RegistryConfig {
+
+    /**
+     * 当前读写使用的合约版本
+     */
+    private int version = 1;
+
+    /**
+     * v2 合约地址
+     */
+    private String v2Address;
+
+    /**
+     * 迁移配置
+     */
+    private Migration migration = new Migration();
+
+    /**
+     * 是否使用 v2 合约
+     */
+    public boolean isV2() {
+        return version >= 2;
+    }
+
+    @Data
+    public static class Migration {
+
+        /**
+         * 是否启用 v1 -> v2 迁移任务
+         */
+        private boolean enabled = false;
+
+        /**
+         * 每笔迁移交易包含的证书数量
+         */
+        private int batchSize = 100;
+
+        /**
+         * 轮询间隔（毫秒）
+         */
+        private long pollMs = 10000;
+    }
+}
@@ -0,0 +1,59 @@
+package com.blockchain.certificate.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 多群组分片存证配置类
+ *
+ * 启用后新签发的证书按 strategy 确定性地分配到 groups 中的一个群组，群组ID记录在 t_certificate.chain_group_id，
+ * 存证、撤销、更新过期时间和验证都发往该群组的合约；chain_group_id 为空的证书（启用前签发）使用后端默认群组
+ *
+ * 每个群组需要单独部署 CertificateRegistry（chain.registry.version=2 时为 CertificateRegistryV2）
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chain.sharding")
+@Data
+public class ShardingConfig {
+
+    public static final String STRATEGY_HASH = "hash";
+    public static final String STRATEGY_COLLEGE = "college";
+
+    /**
+     * 是否为新签发的证书分配群组
+     */
+    private boolean enabled = false;
+
+    /**
+     * 路由策略：hash=按证书编号哈希，college=按学院映射（未映射的学院按证书编号哈希）
+     */
+    private String strategy = STRATEGY_HASH;
+
+    /**
+     * 参与分片的群组，hash 策略按列表顺序取模，调整顺序只影响之后签发的证书
+     */
+    private List<Group> groups = new ArrayList<>();
+
+    @Data
+    public static class Group {
+
+        /**
+         * 群组ID
+         */
+        private Integer groupId;
+
+        /**
+         * 该群组的证书合约地址，为空时使用后端默认合约地址（只适用于后端默认群组）
+         */
+        private String contractAddress;
+
+        /**
+         * college 策略下分配到该群组的学院ID
+         */
+        private List<Long> colleges = new ArrayList<>();
+    }
+}
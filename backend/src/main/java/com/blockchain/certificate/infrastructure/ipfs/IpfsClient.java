@@ -1,5 +1,8 @@
 package com.blockchain.certificate.infrastructure.ipfs;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /**
  * IPFS 客户端接口
  * 定义 IPFS 文件操作的基本方法
@@ -17,6 +20,16 @@ public interface IpfsClient {
      */
     String uploadFile(String fileName, byte[] content) throws IpfsException;
 
+    /**
+     * 以流的方式上传文件到 IPFS，不在内存中缓冲完整文件
+     * 
+     * @param fileName 文件名
+     * @param content 文件内容，由调用方关闭
+     * @return IPFS CID
+     * @throws IpfsException IPFS 操作异常
+     */
+    String uploadFile(String fileName, InputStream content) throws IpfsException;
+
     /**
      * 从 IPFS 下载文件
      * 
@@ -26,6 +39,16 @@ public interface IpfsClient {
      */
     byte[] downloadFile(String cid) throws IpfsException;
 
+    /**
+     * 从 IPFS 下载文件并写入输出流，不在内存中缓冲完整文件
+     * 
+     * @param cid IPFS CID
+     * @param out 输出流，由调用方关闭
+     * @return 写入的字节数
+     * @throws IpfsException IPFS 操作异常（写入输出流失败时 cause 为 IOException）
+     */
+    long downloadFile(String cid, OutputStream out) throws IpfsException;
+
     /**
      * 检查文件是否存在于 IPFS
      * 
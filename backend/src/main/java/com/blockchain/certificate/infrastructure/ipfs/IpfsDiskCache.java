@@ -0,0 +1,394 @@
+package com.blockchain.certificate.infrastructure.ipfs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * IPFS 文件的本地磁盘缓存
+ * 以 CID 为文件名保存下载和上传过的文件，证书下载、预览和验证优先读取本地副本，不再每次请求 IPFS 节点的 /cat
+ *
+ * - CID 由内容决定，条目不需要失效；只有取消固定（deleteFile）时删除本地副本
+ * - 写入时按 CIDv0 增量计算内容的 CID，与期望的 CID 不一致（或无法校验的 CID）不写入
+ * - 先写临时文件再原子重命名，读取方不会看到写了一半的文件；下载时可以边向客户端输出边写入缓存
+ * - 总大小超过 max-bytes 时淘汰最久未访问的文件，启动时按文件修改时间恢复访问顺序
+ */
+@Slf4j
+@Component
+public class IpfsDiskCache {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * 只接受 base58/base32 字符组成的 CID 作为文件名
+     */
+    private static final Pattern CID_PATTERN = Pattern.compile("[A-Za-z0-9]{16,128}");
+
+    @Value("${ipfs.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ipfs.cache.dir:${java.io.tmpdir}/chaincert-ipfs-cache}")
+    private String dir;
+
+    @Value("${ipfs.cache.max-bytes:536870912}")
+    private long maxBytes;
+
+    private Path directory;
+
+    /**
+     * CID 到文件大小，按访问顺序排列，由 this 锁保护
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong readErrors = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("IPFS 本地缓存未启用");
+            return;
+        }
+        try {
+            this.directory = Paths.get(dir).toAbsolutePath();
+            Files.createDirectories(directory);
+            load();
+            log.info("IPFS 本地缓存初始化完成，目录: {}, 文件数: {}, 占用: {} bytes, 上限: {} bytes",
+                    directory, entries.size(), totalBytes, maxBytes);
+        } catch (IOException e) {
+            log.error("IPFS 本地缓存目录不可用，已停用缓存: {}", dir, e);
+            this.enabled = false;
+        }
+    }
+
+    /**
+     * 扫描缓存目录：清理残留的临时文件，其余文件按修改时间由旧到新登记
+     */
+    private void load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.forEach(files::add);
+        }
+
+        Map<Path, BasicFileAttributes> attributes = new HashMap<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(TEMP_SUFFIX)) {
+                Files.deleteIfExists(file);
+            } else if (CID_PATTERN.matcher(name).matches()) {
+                attributes.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+            }
+        }
+
+        List<Path> cached = new ArrayList<>(attributes.keySet());
+        cached.sort(Comparator.comparing(file -> attributes.get(file).lastModifiedTime()));
+        synchronized (this) {
+            for (Path file : cached) {
+                long size = attributes.get(file).size();
+                entries.put(file.getFileName().toString(), size);
+                totalBytes += size;
+            }
+            evictOverflow();
+        }
+    }
+
+    /**
+     * 读取缓存的文件
+     *
+     * @param cid IPFS CID
+     * @return 文件内容，未命中时返回 null
+     */
+    public byte[] get(String cid) {
+        Long size = lookup(cid);
+        if (size == null) {
+            return null;
+        }
+
+        try {
+            byte[] content = Files.readAllBytes(directory.resolve(cid));
+            if (content.length == size) {
+                hits.incrementAndGet();
+                return content;
+            }
+            log.warn("IPFS 缓存文件大小不一致，删除: {}, 期望: {}, 实际: {}", cid, size, content.length);
+        } catch (IOException e) {
+            // 读取前被淘汰或文件损坏，按未命中处理
+            log.debug("读取 IPFS 缓存文件失败: {}", cid, e);
+        }
+        onReadError(cid);
+        return null;
+    }
+
+    /**
+     * 打开缓存的文件
+     *
+     * @param cid IPFS CID
+     * @return 文件输入流，由调用方关闭；未命中时返回 null
+     */
+    public InputStream open(String cid) {
+        Long size = lookup(cid);
+        if (size == null) {
+            return null;
+        }
+
+        Path file = directory.resolve(cid);
+        try {
+            // 先打开再检查大小，之后即使文件被淘汰删除，已打开的流仍可读完
+            InputStream in = Files.newInputStream(file);
+            if (Files.size(file) == size) {
+                hits.incrementAndGet();
+                return in;
+            }
+            in.close();
+            log.warn("IPFS 缓存文件大小不一致，删除: {}, 期望: {}", cid, size);
+        } catch (IOException e) {
+            log.debug("打开 IPFS 缓存文件失败: {}", cid, e);
+        }
+        onReadError(cid);
+        return null;
+    }
+
+    /**
+     * 写入缓存，内容与 CID 不一致或超过容量时忽略
+     *
+     * @param cid     IPFS CID
+     * @param content 文件内容
+     */
+    public void put(String cid, byte[] content) {
+        if (content.length > maxBytes || contains(cid)) {
+            return;
+        }
+        try (Writer writer = newWriter()) {
+            writer.write(content, 0, content.length);
+            writer.commit(cid);
+        }
+    }
+
+    /**
+     * 创建缓存写入器：边写边计算 CID，commit 时校验并登记，未 commit 的临时文件在 close 时删除
+     * 写入器不会抛出异常，写入失败时放弃本次缓存
+     */
+    public Writer newWriter() {
+        return new Writer();
+    }
+
+    /**
+     * 文件是否已缓存
+     */
+    public synchronized boolean contains(String cid) {
+        return entries.containsKey(cid);
+    }
+
+    /**
+     * 查找缓存条目并更新访问顺序，未命中时计数
+     */
+    private Long lookup(String cid) {
+        if (!enabled || !CID_PATTERN.matcher(cid).matches()) {
+            return null;
+        }
+        Long size;
+        synchronized (this) {
+            size = entries.get(cid);
+        }
+        if (size == null) {
+            misses.incrementAndGet();
+        }
+        return size;
+    }
+
+    private void onReadError(String cid) {
+        readErrors.incrementAndGet();
+        misses.incrementAndGet();
+        evict(cid);
+    }
+
+    /**
+     * 登记写入完成的文件
+     */
+    private void register(String cid, long size) {
+        synchronized (this) {
+            if (entries.put(cid, size) == null) {
+                totalBytes += size;
+            }
+            evictOverflow();
+        }
+        writes.incrementAndGet();
+    }
+
+    /**
+     * 删除缓存的文件（文件取消固定时调用）
+     *
+     * @param cid IPFS CID
+     */
+    public void evict(String cid) {
+        if (!enabled || !CID_PATTERN.matcher(cid).matches()) {
+            return;
+        }
+        synchronized (this) {
+            Long size = entries.remove(cid);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        }
+        deleteQuietly(directory.resolve(cid));
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (this) {
+            stats.put("files", entries.size());
+            stats.put("bytes", totalBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("writes", writes.get());
+        stats.put("rejected", rejected.get());
+        stats.put("evictions", evictions.get());
+        stats.put("readErrors", readErrors.get());
+        return stats;
+    }
+
+    /**
+     * 总大小超过上限时按访问顺序淘汰，调用方持有 this 锁
+     */
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            evictions.incrementAndGet();
+            deleteQuietly(directory.resolve(eldest.getKey()));
+        }
+    }
+
+    /**
+     * 缓存写入器
+     */
+    public final class Writer extends OutputStream {
+
+        private final UnixfsCid cid = new UnixfsCid();
+        private Path temp;
+        private OutputStream out;
+        private long size;
+        private boolean failed;
+        private boolean committed;
+
+        private Writer() {
+            if (!enabled) {
+                failed = true;
+                return;
+            }
+            try {
+                this.temp = Files.createTempFile(directory, "ipfs.", TEMP_SUFFIX);
+                this.out = Files.newOutputStream(temp);
+            } catch (IOException e) {
+                fail("创建临时文件失败: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (failed) {
+                return;
+            }
+            size += len;
+            if (size > maxBytes) {
+                fail("文件超过缓存上限");
+                return;
+            }
+            try {
+                out.write(b, off, len);
+                cid.update(b, off, len);
+            } catch (IOException e) {
+                fail("写入临时文件失败: " + e.getMessage());
+            }
+        }
+
+        /**
+         * 校验内容的 CID 并登记到缓存，不一致时丢弃
+         *
+         * @param expectedCid 文件的 CID
+         */
+        public void commit(String expectedCid) {
+            if (failed || committed || !CID_PATTERN.matcher(expectedCid).matches()) {
+                return;
+            }
+            try {
+                out.close();
+                if (!UnixfsCid.isV0(expectedCid) || !expectedCid.equals(cid.finish())) {
+                    rejected.incrementAndGet();
+                    log.debug("内容与 CID 不一致或无法校验，不写入 IPFS 缓存: {}", expectedCid);
+                    return;
+                }
+                Files.move(temp, directory.resolve(expectedCid), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                committed = true;
+                register(expectedCid, size);
+            } catch (IOException e) {
+                log.warn("写入 IPFS 缓存失败: {}, 原因: {}", expectedCid, e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            if (committed || temp == null) {
+                return;
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.debug("关闭 IPFS 缓存临时文件失败: {}", temp, e);
+            }
+            deleteQuietly(temp);
+        }
+
+        private void fail(String reason) {
+            failed = true;
+            log.debug("放弃写入 IPFS 缓存: {}", reason);
+            close();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除 IPFS 缓存文件失败: {}", file, e);
+        }
+    }
+}
@@ -1,19 +1,30 @@
 package com.blockchain.certificate.infrastructure.ipfs;
 
+import com.blockchain.certificate.infrastructure.config.IpfsConfig;
 import com.blockchain.certificate.shared.exception.BusinessException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * IPFS 服务类
  * 提供文件上传、下载、验证等业务功能
+ *
+ * 下载优先读取 IpfsDiskCache 中的本地副本，上传成功的文件同时写入本地缓存
+ * 上传和下载以流的方式传递文件内容，不在内存中保留整个文件；写入本地缓存与上传/下载同步进行
+ * 多个文件通过有界线程池并发上传（ipfs.upload-parallelism），任一文件失败时清理已上传的文件
  */
 @Service
 @RequiredArgsConstructor
@@ -21,6 +32,10 @@ import java.util.List;
 public class IpfsService {
 
     private final IpfsClient ipfsClient;
+    private final IpfsDiskCache ipfsDiskCache;
+    private final IpfsConfig ipfsConfig;
+
+    private ExecutorService uploadExecutor;
 
     /**
      * 支持的文件格式
@@ -32,6 +47,26 @@ public class IpfsService {
      */
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024;
 
+    @PostConstruct
+    public void init() {
+        int parallelism = Math.max(1, ipfsConfig.getUploadParallelism());
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 队列有界，线程和队列都占满时由提交请求的线程自己上传，不拒绝请求
+        this.uploadExecutor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ipfs-upload-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+    }
+
     /**
      * 上传文件到 IPFS
      * 
@@ -43,13 +78,13 @@ public class IpfsService {
         // 验证文件
         validateFile(file);
 
-        try {
-            String fileName = file.getOriginalFilename();
-            byte[] content = file.getBytes();
-
-            log.info("开始上传文件到 IPFS: {}, 大小: {} bytes", fileName, content.length);
+        String fileName = file.getOriginalFilename();
+        try (IpfsDiskCache.Writer cacheWriter = ipfsDiskCache.newWriter();
+             InputStream content = new TeeInputStream(file.getInputStream(), cacheWriter)) {
+            log.info("开始上传文件到 IPFS: {}, 大小: {} bytes", fileName, file.getSize());
 
             String cid = ipfsClient.uploadFile(fileName, content);
+            cacheWriter.commit(cid);
 
             log.info("文件上传到 IPFS 成功: {} -> CID: {}", fileName, cid);
 
@@ -63,6 +98,63 @@ public class IpfsService {
         }
     }
 
+    /**
+     * 并发上传多个文件到 IPFS
+     * 全部文件先校验再上传；任一文件上传失败时删除其余已上传的文件，并抛出第一个失败原因
+     * 
+     * @param files 上传的文件
+     * @return 与 files 顺序一致的 IPFS CID
+     * @throws BusinessException 业务异常
+     */
+    public List<String> uploadFiles(List<MultipartFile> files) throws BusinessException {
+        for (MultipartFile file : files) {
+            validateFile(file);
+        }
+
+        List<Future<String>> futures = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            futures.add(uploadExecutor.submit(() -> uploadFile(file)));
+        }
+
+        // 等待全部上传结束，失败时才能知道哪些文件需要清理
+        List<String> cids = new ArrayList<>(files.size());
+        BusinessException failure = null;
+        boolean interrupted = false;
+        for (Future<String> future : futures) {
+            while (true) {
+                try {
+                    cids.add(future.get());
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof BusinessException
+                                ? (BusinessException) e.getCause()
+                                : new BusinessException("上传文件失败: " + e.getCause().getMessage());
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure != null) {
+            for (String cid : cids) {
+                try {
+                    deleteFile(cid);
+                } catch (Exception cleanupException) {
+                    log.warn("清理IPFS文件失败，CID: {}", cid, cleanupException);
+                }
+            }
+            throw failure;
+        }
+
+        return cids;
+    }
+
     /**
      * 上传字节数组到 IPFS
      * 
@@ -93,6 +185,7 @@ public class IpfsService {
             log.info("开始上传文件到 IPFS: {}, 大小: {} bytes", fileName, content.length);
 
             String cid = ipfsClient.uploadFile(fileName, content);
+            ipfsDiskCache.put(cid, content);
 
             log.info("文件上传到 IPFS 成功: {} -> CID: {}", fileName, cid);
 
@@ -115,10 +208,17 @@ public class IpfsService {
             throw new BusinessException("CID 不能为空");
         }
 
+        byte[] cached = ipfsDiskCache.get(cid);
+        if (cached != null) {
+            log.debug("从本地缓存读取 IPFS 文件: {}, 大小: {} bytes", cid, cached.length);
+            return cached;
+        }
+
         try {
             log.info("开始从 IPFS 下载文件: {}", cid);
 
             byte[] content = ipfsClient.downloadFile(cid);
+            ipfsDiskCache.put(cid, content);
 
             log.info("从 IPFS 下载文件成功: {}, 大小: {} bytes", cid, content.length);
 
@@ -129,6 +229,47 @@ public class IpfsService {
         }
     }
 
+    /**
+     * 从 IPFS 下载文件并写入输出流
+     * 文件在 IPFS 节点和输出流之间直接传递，未命中本地缓存时同时写入缓存
+     *
+     * @param cid IPFS CID
+     * @param out 输出流，由调用方关闭
+     * @return 写入的字节数
+     * @throws BusinessException 业务异常，已写出部分内容后也可能抛出
+     */
+    public long downloadFile(String cid, OutputStream out) throws BusinessException {
+        if (StringUtils.isBlank(cid)) {
+            throw new BusinessException("CID 不能为空");
+        }
+
+        InputStream cached = ipfsDiskCache.open(cid);
+        if (cached != null) {
+            try (InputStream in = cached) {
+                long size = StreamUtils.copy(in, out);
+                log.debug("从本地缓存读取 IPFS 文件: {}, 大小: {} bytes", cid, size);
+                return size;
+            } catch (IOException e) {
+                log.error("输出 IPFS 缓存文件失败: {}", cid, e);
+                throw new BusinessException("下载文件失败: " + e.getMessage());
+            }
+        }
+
+        try (IpfsDiskCache.Writer cacheWriter = ipfsDiskCache.newWriter()) {
+            log.info("开始从 IPFS 下载文件: {}", cid);
+
+            long size = ipfsClient.downloadFile(cid, new TeeOutputStream(out, cacheWriter));
+            cacheWriter.commit(cid);
+
+            log.info("从 IPFS 下载文件成功: {}, 大小: {} bytes", cid, size);
+
+            return size;
+        } catch (IpfsException e) {
+            log.error("从 IPFS 下载文件失败: {}", cid, e);
+            throw new BusinessException("下载文件失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 检查文件是否存在
      * 
@@ -163,6 +304,7 @@ public class IpfsService {
             log.info("开始删除 IPFS 文件: {}", cid);
 
             ipfsClient.deleteFile(cid);
+            ipfsDiskCache.evict(cid);
 
             log.info("删除 IPFS 文件成功: {}", cid);
         } catch (IpfsException e) {
@@ -266,6 +408,81 @@ public class IpfsService {
         return cid.startsWith("Qm") && cid.length() >= 46 && cid.length() <= 59;
     }
 
+    /**
+     * 读取时把读到的内容同时写入缓存写入器（写入器不抛出异常，不影响读取）
+     */
+    private static class TeeInputStream extends FilterInputStream {
+
+        private final OutputStream branch;
+
+        TeeInputStream(InputStream in, OutputStream branch) {
+            super(in);
+            this.branch = branch;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                branch.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                branch.write(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // 跳过的内容不会进入缓存，按读取处理
+            byte[] buffer = new byte[(int) Math.min(n, StreamUtils.BUFFER_SIZE)];
+            int read = read(buffer, 0, buffer.length);
+            return Math.max(read, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    /**
+     * 写入时同时写入缓存写入器，不关闭任何一方
+     */
+    private static class TeeOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final OutputStream branch;
+
+        TeeOutputStream(OutputStream out, OutputStream branch) {
+            this.out = out;
+            this.branch = branch;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            branch.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            branch.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
     /**
      * 获取文件大小的人类可读格式
      * 
@@ -1,17 +1,25 @@
 package com.blockchain.certificate.infrastructure.ipfs;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import java.security.MessageDigest;
-import java.util.Base64;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * 模拟的 IPFS 客户端，用于开发和测试环境
- * 在内存中模拟 IPFS 的文件存储功能
+ * 在本地磁盘上模拟 IPFS 的文件存储功能
+ *
+ * - CID 按 ipfs add 的默认参数计算（CIDv0），与真实节点返回的 CID 一致
+ * - 文件内容保存在内存映射的只追加分段存储（SegmentBlobStore）中，不占用 Java 堆，重启后仍然可读
  *
  * 启用条件：配置 ipfs.enabled=false 或未配置（默认）
  */
@@ -20,15 +28,34 @@ import java.util.concurrent.ConcurrentMap;
 @Slf4j
 public class MockIpfsClient implements IpfsClient {
 
-    // 模拟 IPFS 存储，使用内存存储文件
-    private final ConcurrentMap<String, byte[]> storage = new ConcurrentHashMap<>();
+    @Value("${ipfs.mock.dir:${java.io.tmpdir}/chaincert-ipfs-mock}")
+    private String dir;
+
+    @Value("${ipfs.mock.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    // 模拟 IPFS 存储
+    private SegmentBlobStore storage;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path directory = Paths.get(dir).toAbsolutePath();
+        this.storage = new SegmentBlobStore(directory, segmentBytes);
+        log.info("模拟 IPFS 存储初始化完成，目录: {}, 文件数: {}, 占用: {} bytes",
+                directory, storage.count(), storage.liveBytes());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        storage.close();
+    }
 
     /**
      * 上传文件到模拟 IPFS
      * 
      * @param fileName 文件名
      * @param content 文件内容
-     * @return 模拟的 IPFS CID
+     * @return IPFS CID
      * @throws IpfsException IPFS 操作异常
      */
     @Override
@@ -41,19 +68,46 @@ public class MockIpfsClient implements IpfsClient {
             throw new IpfsException("文件内容不能为空");
         }
         
+        return store(fileName, new ByteArrayInputStream(content));
+    }
+
+    /**
+     * 以流的方式上传文件到模拟 IPFS，内容直接写入分段存储
+     * 
+     * @param fileName 文件名
+     * @param content 文件内容
+     * @return IPFS CID
+     * @throws IpfsException IPFS 操作异常
+     */
+    @Override
+    public String uploadFile(String fileName, InputStream content) throws IpfsException {
+        if (fileName == null || fileName.trim().isEmpty()) {
+            throw new IpfsException("文件名不能为空");
+        }
+
+        if (content == null) {
+            throw new IpfsException("文件内容不能为空");
+        }
+
+        return store(fileName, content);
+    }
+
+    /**
+     * 保存文件内容
+     */
+    private String store(String fileName, InputStream content) throws IpfsException {
         try {
-            log.debug("模拟上传文件到 IPFS: {}, 大小: {} bytes", fileName, content.length);
+            log.debug("模拟上传文件到 IPFS: {}", fileName);
             
-            // 生成模拟的 CID（基于文件内容的哈希）
-            String cid = generateMockCid(content);
-            
-            // 存储文件内容
-            storage.put(cid, content.clone());
+            String cid = storage.put(content);
+            if (cid == null) {
+                throw new IpfsException("文件内容不能为空");
+            }
             
             log.debug("模拟文件上传成功: {} -> CID: {}", fileName, cid);
             
             return cid;
-        } catch (Exception e) {
+        } catch (IOException e) {
             log.error("模拟上传文件到 IPFS 失败: {}", fileName, e);
             throw new IpfsException("上传文件到 IPFS 失败: " + e.getMessage(), e);
         }
@@ -81,7 +135,34 @@ public class MockIpfsClient implements IpfsClient {
         
         log.debug("模拟文件下载成功: {}, 大小: {} bytes", cid, content.length);
         
-        return content.clone();
+        return content;
+    }
+
+    /**
+     * 从模拟 IPFS 下载文件并写入输出流，内容从分段存储分块写出
+     * 
+     * @param cid IPFS CID
+     * @param out 输出流
+     * @return 写入的字节数
+     * @throws IpfsException IPFS 操作异常
+     */
+    @Override
+    public long downloadFile(String cid, OutputStream out) throws IpfsException {
+        if (cid == null || cid.trim().isEmpty()) {
+            throw new IpfsException("CID 不能为空");
+        }
+
+        long size;
+        try {
+            size = storage.copyTo(cid, out);
+        } catch (IOException e) {
+            throw new IpfsException("写入文件内容失败: " + e.getMessage(), e);
+        }
+        if (size < 0) {
+            throw new IpfsException("文件不存在: " + cid);
+        }
+        log.debug("模拟文件下载成功: {}, 大小: {} bytes", cid, size);
+        return size;
     }
 
     /**
@@ -92,7 +173,7 @@ public class MockIpfsClient implements IpfsClient {
      */
     @Override
     public boolean fileExists(String cid) {
-        boolean exists = storage.containsKey(cid);
+        boolean exists = storage.contains(cid);
         log.debug("模拟检查 IPFS 文件是否存在: {} -> {}", cid, exists);
         return exists;
     }
@@ -107,8 +188,13 @@ public class MockIpfsClient implements IpfsClient {
     public void deleteFile(String cid) throws IpfsException {
         log.debug("模拟删除 IPFS 文件: {}", cid);
         
-        byte[] removed = storage.remove(cid);
-        if (removed == null) {
+        boolean removed;
+        try {
+            removed = storage.delete(cid);
+        } catch (IOException e) {
+            throw new IpfsException("删除文件失败: " + e.getMessage(), e);
+        }
+        if (!removed) {
             log.warn("尝试删除不存在的文件: {}", cid);
         } else {
             log.debug("模拟文件删除成功: {}", cid);
@@ -144,15 +230,19 @@ public class MockIpfsClient implements IpfsClient {
     @Override
     public String getNetworkStats() {
         return String.format("Mock IPFS Stats - Files: %d, Total Size: %d bytes", 
-                storage.size(), 
-                storage.values().stream().mapToInt(content -> content.length).sum());
+                storage.count(), 
+                storage.liveBytes());
     }
 
     /**
      * 清空模拟存储（用于测试清理）
      */
     public void clearStorage() {
-        storage.clear();
+        try {
+            storage.clear();
+        } catch (IOException e) {
+            throw new IllegalStateException("清空模拟 IPFS 存储失败", e);
+        }
         log.debug("模拟 IPFS 存储已清空");
     }
 
@@ -160,44 +250,6 @@ public class MockIpfsClient implements IpfsClient {
      * 获取存储的文件数量（用于测试验证）
      */
     public int getStoredFileCount() {
-        return storage.size();
-    }
-
-    /**
-     * 生成模拟的 CID
-     * 基于文件内容生成一个类似 IPFS CID 的字符串
-     * 
-     * @param content 文件内容
-     * @return 模拟的 CID
-     */
-    private String generateMockCid(byte[] content) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(content);
-            
-            // 取前 32 字节，编码为 Base58 风格的字符串
-            String base64Hash = Base64.getEncoder().encodeToString(hash);
-            
-            // 生成类似 IPFS CIDv0 的格式（以 Qm 开头）
-            String mockCid = "Qm" + base64Hash.substring(0, 44).replace("+", "A").replace("/", "B").replace("=", "");
-            
-            // 确保长度为 46（标准 CIDv0 长度）
-            if (mockCid.length() > 46) {
-                mockCid = mockCid.substring(0, 46);
-            } else if (mockCid.length() < 46) {
-                // 使用 StringBuilder 替代 String.repeat() 以兼容 Java 8
-                StringBuilder padding = new StringBuilder();
-                int repeatCount = 46 - mockCid.length();
-                for (int i = 0; i < repeatCount; i++) {
-                    padding.append("A");
-                }
-                mockCid = mockCid + padding.toString();
-            }
-            
-            return mockCid;
-        } catch (Exception e) {
-            // 如果哈希生成失败，使用简单的方法
-            return "Qm" + String.format("%044d", Math.abs(content.hashCode()));
-        }
+        return storage.count();
     }
-}
\ No newline at end of file
+}
@@ -12,14 +12,20 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 真实的 IPFS 客户端实现
@@ -47,6 +53,13 @@ public class RealIpfsClient implements IpfsClient {
         this.baseUrl = String.format("http://%s:%d/api/v0", 
                 ipfsConfig.getHost(), ipfsConfig.getPort());
         
+        // 连接池 + 长连接，并发上传和下载复用到 IPFS 节点的 TCP 连接
+        IpfsConfig.Http http = ipfsConfig.getHttp();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(http.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(http.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity(2000);
+        
         RequestConfig requestConfig = RequestConfig.custom()
                 .setConnectTimeout(ipfsConfig.getTimeout())
                 .setSocketTimeout(ipfsConfig.getTimeout())
@@ -54,10 +67,15 @@ public class RealIpfsClient implements IpfsClient {
                 .build();
         
         this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
                 .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> http.getKeepAlive())
+                .evictIdleConnections(http.getKeepAlive(), TimeUnit.MILLISECONDS)
+                .evictExpiredConnections()
                 .build();
         
-        log.info("IPFS 客户端初始化完成，连接地址: {}", baseUrl);
+        log.info("IPFS 客户端初始化完成，连接地址: {}, 连接池: {}/{}", baseUrl,
+                http.getMaxPerRoute(), http.getMaxTotal());
     }
 
     @PreDestroy
@@ -92,12 +110,41 @@ public class RealIpfsClient implements IpfsClient {
 
         log.debug("上传文件到 IPFS: {}, 大小: {} bytes", fileName, content.length);
 
-        HttpPost httpPost = new HttpPost(baseUrl + "/add");
-        
-        HttpEntity entity = MultipartEntityBuilder.create()
+        return add(fileName, MultipartEntityBuilder.create()
                 .addBinaryBody("file", content, ContentType.APPLICATION_OCTET_STREAM, fileName)
-                .build();
+                .build());
+    }
+
+    /**
+     * 以流的方式上传文件到 IPFS，请求体使用分块传输编码
+     * 
+     * @param fileName 文件名
+     * @param content 文件内容
+     * @return IPFS CID
+     * @throws IpfsException IPFS 操作异常
+     */
+    @Override
+    public String uploadFile(String fileName, InputStream content) throws IpfsException {
+        if (fileName == null || fileName.trim().isEmpty()) {
+            throw new IpfsException("文件名不能为空");
+        }
         
+        if (content == null) {
+            throw new IpfsException("文件内容不能为空");
+        }
+
+        log.debug("以流的方式上传文件到 IPFS: {}", fileName);
+
+        return add(fileName, MultipartEntityBuilder.create()
+                .addBinaryBody("file", content, ContentType.APPLICATION_OCTET_STREAM, fileName)
+                .build());
+    }
+
+    /**
+     * 调用 /add 接口上传文件
+     */
+    private String add(String fileName, HttpEntity entity) throws IpfsException {
+        HttpPost httpPost = new HttpPost(baseUrl + "/add");
         httpPost.setEntity(entity);
 
         try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
@@ -130,6 +177,21 @@ public class RealIpfsClient implements IpfsClient {
      */
     @Override
     public byte[] downloadFile(String cid) throws IpfsException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        downloadFile(cid, content);
+        return content.toByteArray();
+    }
+
+    /**
+     * 从 IPFS 下载文件并写入输出流，响应体边读边写
+     * 
+     * @param cid IPFS CID
+     * @param out 输出流
+     * @return 写入的字节数
+     * @throws IpfsException IPFS 操作异常
+     */
+    @Override
+    public long downloadFile(String cid, OutputStream out) throws IpfsException {
         if (cid == null || cid.trim().isEmpty()) {
             throw new IpfsException("CID 不能为空");
         }
@@ -147,9 +209,12 @@ public class RealIpfsClient implements IpfsClient {
                 throw new IpfsException("IPFS 下载失败，状态码: " + statusCode);
             }
             
-            byte[] content = EntityUtils.toByteArray(response.getEntity());
-            log.debug("文件下载成功: {}, 大小: {} bytes", cid, content.length);
-            return content;
+            long size;
+            try (InputStream content = response.getEntity().getContent()) {
+                size = StreamUtils.copy(content, out);
+            }
+            log.debug("文件下载成功: {}, 大小: {} bytes", cid, size);
+            return size;
             
         } catch (IOException e) {
             log.error("从 IPFS 下载文件失败: {}", cid, e);
@@ -0,0 +1,434 @@
+package com.blockchain.certificate.infrastructure.ipfs;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 按 CIDv0 寻址的只追加分段存储，供 MockIpfsClient 保存文件内容
+ *
+ * 文件内容写入内存映射的分段文件（segment-00000.dat …），不占用 Java 堆；内存中只保存 CID 到位置的索引，
+ * 启动时按记录头扫描分段重建索引，进程重启后文件仍然可读。
+ *
+ * 记录格式（大端）：魔数(4) + CID(46) + 内容长度(4) + 内容，删除时追加内容长度为 0 的删除记录。
+ * 魔数最后写入，写了一半的记录在重建索引时被忽略；不调用 force，掉电时可能丢失最近的写入。
+ * 删除不回收空间，只追加写入，追加操作串行执行，读取可以并发进行。
+ * 上传内容先在锁外读完并计算 CID（较小的内容放在内存中，较大的暂存到目录下的 upload-*.tmp），
+ * 锁内只分配空间并复制到分段，慢速上传不阻塞其他写入。
+ */
+@Slf4j
+final class SegmentBlobStore implements Closeable {
+
+    private static final int PUT = 0x50555431;
+    private static final int DELETE = 0x44454c31;
+
+    private static final int CID_LENGTH = 46;
+    private static final int HEADER_LENGTH = 4 + CID_LENGTH + 4;
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * 上传内容超过该大小时暂存到临时文件
+     */
+    private static final int SPOOL_MEMORY_BYTES = 1024 * 1024;
+    private static final String SPOOL_PREFIX = "upload-";
+    private static final String SPOOL_SUFFIX = ".tmp";
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.dat");
+
+    private final Path directory;
+    private final int segmentBytes;
+
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final AtomicLong liveBytes = new AtomicLong();
+
+    /**
+     * 全部分段，由 this 锁保护；只有最后一个分段接受追加
+     */
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment active;
+
+    SegmentBlobStore(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        load();
+    }
+
+    /**
+     * 打开已有分段并重建索引
+     */
+    private synchronized void load() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        List<Path> spools = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.forEach(file -> {
+                String name = file.getFileName().toString();
+                Matcher matcher = SEGMENT_NAME.matcher(name);
+                if (matcher.matches()) {
+                    ids.add(Integer.parseInt(matcher.group(1)));
+                } else if (name.startsWith(SPOOL_PREFIX) && name.endsWith(SPOOL_SUFFIX)) {
+                    spools.add(file);
+                }
+            });
+        }
+        // 上次进程退出时未完成的上传
+        for (Path spool : spools) {
+            Files.deleteIfExists(spool);
+        }
+        ids.sort(null);
+
+        for (int id : ids) {
+            Path path = segmentPath(id);
+            Segment segment;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = new Segment(id, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+            }
+            scan(segment);
+            segments.add(segment);
+        }
+
+        if (segments.isEmpty()) {
+            segments.add(createSegment(0, segmentBytes));
+        }
+        active = segments.get(segments.size() - 1);
+    }
+
+    /**
+     * 从头扫描分段中的记录，遇到未写完（魔数缺失）或越界的记录时结束
+     */
+    private void scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int position = 0;
+        byte[] cidBytes = new byte[CID_LENGTH];
+        while (position + HEADER_LENGTH <= segment.capacity) {
+            int magic = buffer.getInt(position);
+            if (magic != PUT && magic != DELETE) {
+                break;
+            }
+            int length = buffer.getInt(position + 4 + CID_LENGTH);
+            if (length < 0 || (long) position + HEADER_LENGTH + length > segment.capacity) {
+                log.warn("模拟 IPFS 分段记录损坏，忽略之后的内容: {}, 位置: {}", segmentPath(segment.id), position);
+                break;
+            }
+            buffer.position(position + 4);
+            buffer.get(cidBytes);
+            String cid = new String(cidBytes, StandardCharsets.US_ASCII);
+
+            Location previous = magic == PUT
+                    ? index.put(cid, new Location(segment, position + HEADER_LENGTH, length))
+                    : index.remove(cid);
+            if (previous != null) {
+                liveBytes.addAndGet(-previous.length);
+            }
+            if (magic == PUT) {
+                liveBytes.addAndGet(length);
+            }
+            position += HEADER_LENGTH + length;
+        }
+        segment.position = position;
+    }
+
+    /**
+     * 写入文件内容：锁外读完内容并计算 CIDv0，锁内写入分段；内容已存在时不重复保存
+     *
+     * @param in 文件内容，由调用方关闭
+     * @return CIDv0，内容为空时返回 null
+     * @throws IOException 读取或写入失败，或文件超过单层 DAG 上限无法计算 CIDv0
+     */
+    String put(InputStream in) throws IOException {
+        try (Spool spool = new Spool()) {
+            UnixfsCid cid = new UnixfsCid();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                spool.write(buffer, 0, n);
+                cid.update(buffer, 0, n);
+            }
+
+            if (spool.length == 0) {
+                return null;
+            }
+            String hash = cid.finish();
+            if (hash == null) {
+                throw new IOException("文件超过 " + UnixfsCid.MAX_LINKS + " 个分块，无法计算 CIDv0");
+            }
+            if (index.containsKey(hash)) {
+                return hash;
+            }
+            append(hash, spool);
+            return hash;
+        }
+    }
+
+    /**
+     * 分配空间并把暂存的内容复制到分段
+     */
+    private synchronized void append(String hash, Spool spool) throws IOException {
+        if (index.containsKey(hash)) {
+            // 并发上传了相同内容
+            return;
+        }
+        if (spool.length > Integer.MAX_VALUE - HEADER_LENGTH) {
+            throw new IOException("文件过大，超过单个分段上限");
+        }
+        int length = (int) spool.length;
+        Segment segment = active;
+        if ((long) segment.position + HEADER_LENGTH + length > segment.capacity) {
+            segment = roll(segment, (long) HEADER_LENGTH + length);
+        }
+        int start = segment.position;
+
+        ByteBuffer target = segment.buffer.duplicate();
+        target.position(start + HEADER_LENGTH);
+        target.limit(start + HEADER_LENGTH + length);
+        spool.copyTo(target);
+
+        commit(segment, start, PUT, hash, length);
+        index.put(hash, new Location(segment, start + HEADER_LENGTH, length));
+        liveBytes.addAndGet(length);
+    }
+
+    /**
+     * 将文件内容写入输出流
+     *
+     * @return 写入的字节数，文件不存在时返回 -1
+     */
+    long copyTo(String cid, OutputStream out) throws IOException {
+        Location location = index.get(cid);
+        if (location == null) {
+            return -1;
+        }
+        ByteBuffer source = location.slice();
+        byte[] buffer = new byte[Math.min(BUFFER_SIZE, location.length)];
+        while (source.hasRemaining()) {
+            int n = Math.min(buffer.length, source.remaining());
+            source.get(buffer, 0, n);
+            out.write(buffer, 0, n);
+        }
+        return location.length;
+    }
+
+    /**
+     * 读取文件内容
+     *
+     * @return 文件内容，不存在时返回 null
+     */
+    byte[] get(String cid) {
+        Location location = index.get(cid);
+        if (location == null) {
+            return null;
+        }
+        byte[] content = new byte[location.length];
+        location.slice().get(content);
+        return content;
+    }
+
+    boolean contains(String cid) {
+        return index.containsKey(cid);
+    }
+
+    /**
+     * 删除文件，追加删除记录，不回收空间
+     *
+     * @return 文件是否存在
+     */
+    synchronized boolean delete(String cid) throws IOException {
+        Location removed = index.remove(cid);
+        if (removed == null) {
+            return false;
+        }
+        liveBytes.addAndGet(-removed.length);
+
+        Segment segment = active;
+        if (segment.position + HEADER_LENGTH > segment.capacity) {
+            segment = roll(segment, HEADER_LENGTH);
+        }
+        commit(segment, segment.position, DELETE, cid, 0);
+        return true;
+    }
+
+    /**
+     * 删除全部文件
+     */
+    synchronized void clear() throws IOException {
+        for (String cid : new ArrayList<>(index.keySet())) {
+            delete(cid);
+        }
+    }
+
+    int count() {
+        return index.size();
+    }
+
+    long liveBytes() {
+        return liveBytes.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * 写入记录头：先清空下一条记录的魔数位置，最后写入本条记录的魔数
+     */
+    private void commit(Segment segment, int start, int magic, String cid, int length) {
+        int end = start + HEADER_LENGTH + length;
+        ByteBuffer buffer = segment.buffer.duplicate();
+        if (end + 4 <= segment.capacity) {
+            buffer.putInt(end, 0);
+        }
+        buffer.position(start + 4);
+        buffer.put(cid.getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt(start + 4 + CID_LENGTH, length);
+        buffer.putInt(start, magic);
+        segment.position = end;
+    }
+
+    /**
+     * 当前分段放不下时切换到新分段
+     *
+     * @param needed 记录需要的字节数（含记录头）
+     */
+    private Segment roll(Segment segment, long needed) throws IOException {
+        long capacity = Math.max(segmentBytes, needed * 2);
+        Segment next = createSegment(segment.id + 1, (int) Math.min(capacity, Integer.MAX_VALUE));
+
+        segments.add(next);
+        active = next;
+        log.info("模拟 IPFS 存储切换到新分段: {}, 大小: {} bytes", segmentPath(next.id), next.capacity);
+        return next;
+    }
+
+    private Segment createSegment(int id, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(id),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(id, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+    }
+
+    private Path segmentPath(int id) {
+        return directory.resolve(String.format("segment-%05d.dat", id));
+    }
+
+    /**
+     * 内存映射的分段文件，映射在关闭文件通道后仍然有效
+     */
+    private static final class Segment {
+
+        final int id;
+        final MappedByteBuffer buffer;
+        final int capacity;
+
+        /**
+         * 下一条记录的写入位置，由存储的 this 锁保护
+         */
+        int position;
+
+        Segment(int id, MappedByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+        }
+    }
+
+    /**
+     * 上传内容的暂存区：先写入内存，超过 SPOOL_MEMORY_BYTES 后转存到临时文件，关闭时删除临时文件
+     */
+    private final class Spool implements Closeable {
+
+        private byte[] memory = new byte[BUFFER_SIZE];
+        private Path file;
+        private OutputStream fileOut;
+        long length;
+
+        void write(byte[] bytes, int offset, int n) throws IOException {
+            if (file == null && length + n > SPOOL_MEMORY_BYTES) {
+                file = Files.createTempFile(directory, SPOOL_PREFIX, SPOOL_SUFFIX);
+                fileOut = Files.newOutputStream(file);
+                fileOut.write(memory, 0, (int) length);
+                memory = null;
+            }
+            if (file != null) {
+                fileOut.write(bytes, offset, n);
+            } else {
+                if (length + n > memory.length) {
+                    memory = Arrays.copyOf(memory, (int) Math.min(
+                            Math.max(memory.length * 2L, length + n), SPOOL_MEMORY_BYTES));
+                }
+                System.arraycopy(bytes, offset, memory, (int) length, n);
+            }
+            length += n;
+        }
+
+        /**
+         * 把暂存的内容写入目标缓冲区（剩余空间等于内容长度）
+         */
+        void copyTo(ByteBuffer target) throws IOException {
+            if (file == null) {
+                target.put(memory, 0, (int) length);
+                return;
+            }
+            fileOut.close();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                while (target.hasRemaining()) {
+                    if (channel.read(target) < 0) {
+                        throw new IOException("上传暂存文件被截断: " + file);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (file != null) {
+                fileOut.close();
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * 文件内容在分段中的位置
+     */
+    private static final class Location {
+
+        final Segment segment;
+        final int offset;
+        final int length;
+
+        Location(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        ByteBuffer slice() {
+            ByteBuffer buffer = segment.buffer.duplicate();
+            buffer.position(offset);
+            buffer.limit(offset + length);
+            return buffer;
+        }
+    }
+}
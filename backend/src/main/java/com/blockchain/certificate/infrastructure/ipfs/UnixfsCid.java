@@ -0,0 +1,213 @@
+package com.blockchain.certificate.infrastructure.ipfs;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IPFS CIDv0 计算，与 ipfs add 的默认参数一致（256 KiB 定长分块、dag-pb 叶子节点、balanced 布局）
+ *
+ * 每个分块编码为 UnixFS File 叶子节点；只有一个分块时叶子即根节点，否则根节点依次链接全部叶子，
+ * CID 为根节点 dag-pb 编码的 SHA-256 multihash 的 base58btc 编码。
+ * 单层最多 174 个链接（约 43 MiB），更大的文件需要多层 DAG，此处不计算。
+ *
+ * 按分块增量计算，同一时刻只缓冲一个分块
+ */
+final class UnixfsCid {
+
+    static final int CHUNK_SIZE = 256 * 1024;
+    static final int MAX_LINKS = 174;
+
+    private static final char[] BASE58_ALPHABET =
+            "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
+
+    /**
+     * multihash 前缀：sha2-256，32 字节
+     */
+    private static final byte[] MULTIHASH_PREFIX = {0x12, 0x20};
+
+    private final MessageDigest digest = sha256();
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+    private int chunkLength;
+
+    private final List<byte[]> leafHashes = new ArrayList<>();
+    private final List<Long> leafSizes = new ArrayList<>();
+    private final List<Integer> blockSizes = new ArrayList<>();
+    private long fileSize;
+
+    /**
+     * 计算完整内容的 CID
+     *
+     * @return CIDv0，文件超过单层链接上限时返回 null
+     */
+    static String of(byte[] content) {
+        UnixfsCid cid = new UnixfsCid();
+        cid.update(content, 0, content.length);
+        return cid.finish();
+    }
+
+    /**
+     * 是否为 CIDv0（sha2-256 multihash 的 base58btc 编码，以 Qm 开头）
+     */
+    static boolean isV0(String cid) {
+        return cid != null && cid.length() == 46 && cid.startsWith("Qm");
+    }
+
+    void update(byte[] data, int offset, int length) {
+        while (length > 0) {
+            if (chunkLength == CHUNK_SIZE) {
+                flushLeaf();
+            }
+            int n = Math.min(length, CHUNK_SIZE - chunkLength);
+            System.arraycopy(data, offset, chunk, chunkLength, n);
+            chunkLength += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * 结束计算
+     *
+     * @return CIDv0，文件超过单层链接上限时返回 null
+     */
+    String finish() {
+        if (chunkLength > 0 || leafHashes.isEmpty()) {
+            flushLeaf();
+        }
+        if (leafHashes.size() > MAX_LINKS) {
+            return null;
+        }
+        if (leafHashes.size() == 1) {
+            return toCid(leafHashes.get(0));
+        }
+
+        // 根节点：先写 Links（字段 2），再写 Data（字段 1）
+        ByteArrayOutputStream node = new ByteArrayOutputStream(leafHashes.size() * 48 + 64);
+        for (int i = 0; i < leafHashes.size(); i++) {
+            ByteArrayOutputStream link = new ByteArrayOutputStream(48);
+            link.write(0x0a);
+            writeVarint(link, MULTIHASH_PREFIX.length + 32);
+            link.write(MULTIHASH_PREFIX, 0, MULTIHASH_PREFIX.length);
+            link.write(leafHashes.get(i), 0, 32);
+            // 空链接名也要写出，与 go-merkledag 的编码一致
+            link.write(0x12);
+            link.write(0x00);
+            link.write(0x18);
+            writeVarint(link, leafSizes.get(i));
+
+            node.write(0x12);
+            writeVarint(node, link.size());
+            node.write(link.toByteArray(), 0, link.size());
+        }
+
+        ByteArrayOutputStream unixfs = new ByteArrayOutputStream(16 + blockSizes.size() * 4);
+        unixfs.write(0x08);
+        unixfs.write(0x02);
+        unixfs.write(0x18);
+        writeVarint(unixfs, fileSize);
+        for (int blockSize : blockSizes) {
+            unixfs.write(0x20);
+            writeVarint(unixfs, blockSize);
+        }
+        node.write(0x0a);
+        writeVarint(node, unixfs.size());
+        node.write(unixfs.toByteArray(), 0, unixfs.size());
+
+        return toCid(digest.digest(node.toByteArray()));
+    }
+
+    /**
+     * 编码并哈希当前分块的叶子节点：PBNode { Data: UnixFS { Type: File, Data: 分块, filesize } }
+     */
+    private void flushLeaf() {
+        ByteArrayOutputStream header = new ByteArrayOutputStream(16);
+        ByteArrayOutputStream trailer = new ByteArrayOutputStream(8);
+        int unixfsLength = 2;
+        if (chunkLength > 0) {
+            unixfsLength += 1 + varintLength(chunkLength) + chunkLength;
+        }
+        trailer.write(0x18);
+        writeVarint(trailer, chunkLength);
+        unixfsLength += trailer.size();
+
+        header.write(0x0a);
+        writeVarint(header, unixfsLength);
+        header.write(0x08);
+        header.write(0x02);
+        if (chunkLength > 0) {
+            header.write(0x12);
+            writeVarint(header, chunkLength);
+        }
+
+        digest.update(header.toByteArray());
+        digest.update(chunk, 0, chunkLength);
+        digest.update(trailer.toByteArray());
+
+        leafHashes.add(digest.digest());
+        leafSizes.add((long) header.size() + chunkLength + trailer.size());
+        blockSizes.add(chunkLength);
+        fileSize += chunkLength;
+        chunkLength = 0;
+    }
+
+    private static String toCid(byte[] hash) {
+        byte[] multihash = new byte[MULTIHASH_PREFIX.length + hash.length];
+        System.arraycopy(MULTIHASH_PREFIX, 0, multihash, 0, MULTIHASH_PREFIX.length);
+        System.arraycopy(hash, 0, multihash, MULTIHASH_PREFIX.length, hash.length);
+        return base58(multihash);
+    }
+
+    private static String base58(byte[] input) {
+        int zeros = 0;
+        while (zeros < input.length && input[zeros] == 0) {
+            zeros++;
+        }
+        byte[] number = input.clone();
+        char[] encoded = new char[input.length * 2];
+        int position = encoded.length;
+        for (int start = zeros; start < number.length; ) {
+            int remainder = 0;
+            for (int i = start; i < number.length; i++) {
+                int value = (remainder << 8) | (number[i] & 0xff);
+                number[i] = (byte) (value / 58);
+                remainder = value % 58;
+            }
+            encoded[--position] = BASE58_ALPHABET[remainder];
+            while (start < number.length && number[start] == 0) {
+                start++;
+            }
+        }
+        for (int i = 0; i < zeros; i++) {
+            encoded[--position] = BASE58_ALPHABET[0];
+        }
+        return new String(encoded, position, encoded.length - position);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7fL) != 0) {
+            out.write((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static int varintLength(long value) {
+        int length = 1;
+        while ((value & ~0x7fL) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
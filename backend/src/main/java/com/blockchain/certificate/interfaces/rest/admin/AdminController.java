@@ -7,14 +7,30 @@ import com.blockchain.certificate.domain.system.model.SystemLog;
 import com.blockchain.certificate.model.vo.StatisticsVO;
 import com.blockchain.certificate.domain.organization.service.CollegeService;
 import com.blockchain.certificate.domain.organization.service.MajorService;
+import com.blockchain.certificate.domain.certificate.service.CertificateService;
+import com.blockchain.certificate.domain.certificate.service.ChainEventIndexService;
+import com.blockchain.certificate.domain.certificate.service.ChainOutboxDispatcher;
+import com.blockchain.certificate.domain.certificate.service.ChainReconcileService;
+import com.blockchain.certificate.domain.certificate.model.ChainEvent;
+import com.blockchain.certificate.domain.certificate.model.ChainOutbox;
+import com.blockchain.certificate.domain.certificate.model.ChainReconcileDiff;
+import com.blockchain.certificate.domain.certificate.model.ChainReconcileRun;
 import com.blockchain.certificate.domain.certificate.service.TemplateService;
 import com.blockchain.certificate.domain.system.service.SystemLogService;
 import com.blockchain.certificate.domain.system.service.StatisticsService;
+import com.blockchain.certificate.infrastructure.blockchain.ChainMetrics;
+import com.blockchain.certificate.infrastructure.blockchain.ChainReadCache;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.BlockchainGateway;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainStatusMonitor;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainStatusSnapshot;
+import com.blockchain.certificate.infrastructure.ipfs.IpfsDiskCache;
+import com.blockchain.certificate.shared.exception.BusinessException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -23,6 +39,7 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 管理员控制器
@@ -41,6 +58,16 @@ public class AdminController {
     private final TemplateService templateService;
     private final SystemLogService systemLogService;
     private final StatisticsService statisticsService;
+    private final CertificateService certificateService;
+    private final ChainReadCache chainReadCache;
+    private final ChainMetrics chainMetrics;
+    private final BlockchainGateway blockchainGateway;
+    private final ChainStatusMonitor chainStatusMonitor;
+    private final ChainReconcileService chainReconcileService;
+    private final ChainOutboxDispatcher chainOutboxDispatcher;
+    private final IpfsDiskCache ipfsDiskCache;
+    /** chain.indexer.enabled=false 时不存在 */
+    private final ObjectProvider<ChainEventIndexService> chainEventIndexService;
     
     // ========== 学院管理 ==========
     
@@ -298,4 +325,169 @@ public class AdminController {
         StatisticsVO statistics = statisticsService.getStatisticsByDateRange(startTime, endTime);
         return Result.success(statistics);
     }
-}
\ No newline at end of file
+    
+    // ========== 证书批量操作 ==========
+    
+    @PostMapping("/certificates/bulk-revoke")
+    @Operation(summary = "批量撤销证书", description = "按证书编号批量撤销，数据库一次更新，区块链按分片批量撤销")
+    public Result<CertificateBulkResponse> bulkRevokeCertificates(
+            @Valid @RequestBody CertificateBulkRevokeRequest request) {
+        log.info("批量撤销证书请求: count={}", request.getCertificateNos().size());
+        CertificateBulkResponse response = certificateService.revokeCertificates(
+                request.getCertificateNos(), request.getReason());
+        return Result.success(response);
+    }
+    
+    @PutMapping("/certificates/bulk-expiry")
+    @Operation(summary = "批量更新证书过期日期", description = "按证书编号批量更新过期日期，数据库一次更新，区块链按分片批量更新")
+    public Result<CertificateBulkResponse> bulkUpdateExpiryDates(
+            @Valid @RequestBody CertificateBulkExpiryRequest request) {
+        log.info("批量更新证书过期日期请求: count={}, expiryDate={}",
+                request.getCertificateNos().size(), request.getExpiryDate());
+        CertificateBulkResponse response = certificateService.updateExpiryDates(
+                request.getCertificateNos(), request.getExpiryDate());
+        return Result.success(response);
+    }
+    
+    // ========== 区块链 ==========
+    
+    @GetMapping("/blockchain/cache-stats")
+    @Operation(summary = "区块链读缓存统计", description = "获取链上只读调用缓存的命中率、失效次数和区块滞后")
+    public Result<Map<String, Object>> getChainCacheStats() {
+        return Result.success(chainReadCache.getStats());
+    }
+    
+    @GetMapping("/blockchain/status")
+    @Operation(summary = "区块链节点状态", description = "获取后台轮询的区块高度、节点版本、对等节点数快照，不访问节点")
+    public Result<ChainStatusSnapshot> getChainStatus() {
+        return Result.success(chainStatusMonitor.getSnapshot());
+    }
+    
+    @GetMapping("/blockchain/gateway")
+    @Operation(summary = "区块链网关状态", description = "获取后端调用顺序和各后端熔断器状态")
+    public Result<Map<String, Object>> getGatewayStatus() {
+        return Result.success(blockchainGateway.getStatus());
+    }
+    
+    @GetMapping("/blockchain/metrics")
+    @Operation(summary = "区块链调用指标", description = "获取按后端、合约函数和结果分组的调用次数与耗时分布，以及在途交易数和熔断状态")
+    public Result<Map<String, Object>> getChainMetrics() {
+        return Result.success(chainMetrics.snapshot());
+    }
+    
+    @DeleteMapping("/blockchain/metrics")
+    @Operation(summary = "重置区块链调用指标", description = "清空调用次数与耗时统计，用于压测前后对比")
+    public Result<Void> resetChainMetrics() {
+        log.info("重置区块链调用指标");
+        chainMetrics.reset();
+        return Result.success();
+    }
+    
+    // ========== IPFS ==========
+    
+    @GetMapping("/ipfs/cache-stats")
+    @Operation(summary = "IPFS 本地缓存统计", description = "获取按 CID 缓存的文件数、占用空间、命中率和淘汰次数")
+    public Result<Map<String, Object>> getIpfsCacheStats() {
+        return Result.success(ipfsDiskCache.getStats());
+    }
+    
+    // ========== 上链发件箱 ==========
+    
+    @GetMapping("/blockchain/outbox")
+    @Operation(summary = "分页查询上链发件箱", description = "查询存证、撤销、过期时间更新的上链重试记录，status=FAILED 为死信")
+    public Result<PageResult<ChainOutbox>> getOutboxList(
+            @Parameter(description = "状态") @RequestParam(required = false) String status,
+            @Parameter(description = "上链操作") @RequestParam(required = false) String operation,
+            @Parameter(description = "页码") @RequestParam(defaultValue = "1") Integer page,
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "20") Integer size) {
+        return Result.success(chainOutboxDispatcher.listOutbox(status, operation, page, size));
+    }
+    
+    @GetMapping("/blockchain/outbox/stats")
+    @Operation(summary = "上链发件箱统计", description = "按状态和上链操作统计发件箱记录数")
+    public Result<Map<String, Map<String, Long>>> getOutboxStats() {
+        return Result.success(chainOutboxDispatcher.getStats());
+    }
+    
+    @PostMapping("/blockchain/outbox/redrive")
+    @Operation(summary = "重新投递死信", description = "将死信重置为待处理并清零尝试次数，不指定ID时投递全部死信")
+    public Result<Integer> redriveOutbox(
+            @Parameter(description = "发件箱ID列表") @RequestParam(required = false) List<Long> ids,
+            @Parameter(description = "上链操作") @RequestParam(required = false) String operation) {
+        log.info("重新投递死信请求: ids={}, operation={}", ids, operation);
+        return Result.success(chainOutboxDispatcher.redrive(ids, operation));
+    }
+    
+    // ========== 链上事件 ==========
+    
+    @GetMapping("/blockchain/events")
+    @Operation(summary = "查询证书的链上事件", description = "从本地事件索引查询证书的存证、撤销、过期时间更新记录，按区块顺序返回，用于审计")
+    public Result<List<ChainEvent>> getChainEvents(
+            @Parameter(description = "证书编号") @RequestParam String certificateNo) {
+        ChainEventIndexService indexService = chainEventIndexService.getIfAvailable();
+        if (indexService == null) {
+            throw new BusinessException("链上事件索引未启用");
+        }
+        return Result.success(indexService.getEvents(certificateNo));
+    }
+    
+    // ========== 链上对账 ==========
+    
+    @PostMapping("/blockchain/reconcile/runs")
+    @Operation(summary = "启动链上对账", description = "按证书ID分页比对数据库与链上存证、撤销状态，差异写入对账报告")
+    public Result<ChainReconcileRun> startReconcile() {
+        log.info("启动链上对账请求");
+        return Result.success(chainReconcileService.startRun(ChainReconcileService.TRIGGER_MANUAL));
+    }
+    
+    @GetMapping("/blockchain/reconcile/runs")
+    @Operation(summary = "分页查询对账任务", description = "按任务ID倒序分页查询对账任务及进度")
+    public Result<PageResult<ChainReconcileRun>> getReconcileRuns(
+            @Parameter(description = "页码") @RequestParam(defaultValue = "1") Integer page,
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") Integer size) {
+        return Result.success(chainReconcileService.listRuns(page, size));
+    }
+    
+    @GetMapping("/blockchain/reconcile/runs/{runId}")
+    @Operation(summary = "查询对账任务", description = "查询对账任务的进度、差异数量和修复数量")
+    public Result<ChainReconcileRun> getReconcileRun(
+            @Parameter(description = "任务ID") @PathVariable Long runId) {
+        return Result.success(chainReconcileService.getRun(runId));
+    }
+    
+    @PostMapping("/blockchain/reconcile/runs/{runId}/resume")
+    @Operation(summary = "继续对账任务", description = "从游标继续已中断、失败或取消的对账任务")
+    public Result<ChainReconcileRun> resumeReconcile(
+            @Parameter(description = "任务ID") @PathVariable Long runId) {
+        log.info("继续对账任务请求: runId={}", runId);
+        return Result.success(chainReconcileService.resumeRun(runId));
+    }
+    
+    @PostMapping("/blockchain/reconcile/runs/{runId}/cancel")
+    @Operation(summary = "取消对账任务", description = "当前页处理完成后停止对账任务")
+    public Result<Void> cancelReconcile(
+            @Parameter(description = "任务ID") @PathVariable Long runId) {
+        log.info("取消对账任务请求: runId={}", runId);
+        chainReconcileService.cancelRun(runId);
+        return Result.success();
+    }
+    
+    @GetMapping("/blockchain/reconcile/runs/{runId}/diffs")
+    @Operation(summary = "查询对账差异", description = "分页查询对账任务的差异报告，支持按差异类型和修复状态筛选")
+    public Result<PageResult<ChainReconcileDiff>> getReconcileDiffs(
+            @Parameter(description = "任务ID") @PathVariable Long runId,
+            @Parameter(description = "差异类型") @RequestParam(required = false) String diffType,
+            @Parameter(description = "修复状态") @RequestParam(required = false) String repairStatus,
+            @Parameter(description = "页码") @RequestParam(defaultValue = "1") Integer page,
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "20") Integer size) {
+        return Result.success(chainReconcileService.listDiffs(runId, diffType, repairStatus, page, size));
+    }
+    
+    @PostMapping("/blockchain/reconcile/runs/{runId}/repairs")
+    @Operation(summary = "修复对账差异", description = "将对账任务中可自动修复的差异（缺失存证、未上链撤销和过期时间）写入发件箱补发")
+    public Result<Integer> queueReconcileRepairs(
+            @Parameter(description = "任务ID") @PathVariable Long runId) {
+        log.info("修复对账差异请求: runId={}", runId);
+        return Result.success(chainReconcileService.queueRepairs(runId));
+    }
+}
@@ -1,7 +1,9 @@
 package com.blockchain.certificate.interfaces.rest.admin;
 
-import com.blockchain.certificate.infrastructure.blockchain.BlockchainService;
 import com.blockchain.certificate.infrastructure.blockchain.ContractDeployer;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.BlockchainGateway;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainStatusMonitor;
+import com.blockchain.certificate.infrastructure.blockchain.gateway.ChainStatusSnapshot;
 import com.blockchain.certificate.infrastructure.config.BlockchainConfig;
 import com.blockchain.certificate.shared.common.Result;
 import lombok.extern.slf4j.Slf4j;
@@ -26,7 +28,10 @@ public class BlockchainAdminController {
     private ContractDeployer contractDeployer;
 
     @Autowired
-    private BlockchainService blockchainService;
+    private BlockchainGateway blockchainGateway;
+
+    @Autowired
+    private ChainStatusMonitor chainStatusMonitor;
 
     @Autowired
     private BlockchainConfig blockchainConfig;
@@ -71,17 +76,20 @@ public class BlockchainAdminController {
 
     /**
      * 获取区块链状态
+     * 节点信息读取后台轮询的快照，不访问节点
      */
     @GetMapping("/status")
     public Result<Map<String, Object>> getBlockchainStatus() {
-        log.info("查询区块链状态");
+        log.debug("查询区块链状态");
         
         try {
             Map<String, Object> status = new HashMap<>();
             
             // 连接状态
-            boolean connected = blockchainService.isBlockchainConnected();
+            ChainStatusSnapshot snapshot = chainStatusMonitor.getSnapshot();
+            boolean connected = snapshot.isConnected();
             status.put("connected", connected);
+            status.put("state", snapshot.getState());
             
             // 合约状态
             boolean contractDeployed = contractDeployer.isContractDeployed();
@@ -91,15 +99,15 @@ public class BlockchainAdminController {
                 status.put("contractAddress", contractDeployer.getContractAddress());
             }
             
-            // 区块高度
-            if (connected) {
-                Long blockNumber = blockchainService.getCurrentBlockNumber();
-                status.put("blockNumber", blockNumber);
-                
-                // 网络版本
-                Object networkStatus = blockchainService.getNetworkStatus();
-                status.put("networkStatus", networkStatus);
-            }
+            // 区块高度、节点版本（快照过期时仍返回上次成功的值）
+            status.put("blockNumber", snapshot.getBlockNumber());
+            status.put("networkStatus", snapshot.getNodeVersion());
+            status.put("peerCount", snapshot.getPeerCount());
+            status.put("lastSuccessTime", snapshot.getLastSuccessTime());
+            status.put("ageMs", snapshot.getAgeMs());
+            
+            // 网关熔断状态
+            status.put("gateway", blockchainGateway.getStatus());
             
             // 配置信息
             status.put("nodes", blockchainConfig.getNodes());
@@ -137,6 +145,7 @@ public class BlockchainAdminController {
 
     /**
      * 测试区块链连接
+     * 立即轮询一次节点并刷新状态快照
      */
     @GetMapping("/test-connection")
     public Result<Map<String, Object>> testConnection() {
@@ -145,11 +154,12 @@ public class BlockchainAdminController {
         try {
             Map<String, Object> result = new HashMap<>();
             
-            boolean connected = blockchainService.isBlockchainConnected();
+            ChainStatusSnapshot snapshot = chainStatusMonitor.refresh();
+            boolean connected = snapshot.isConnected();
             result.put("connected", connected);
             
             if (connected) {
-                Long blockNumber = blockchainService.getCurrentBlockNumber();
+                Long blockNumber = snapshot.getBlockNumber();
                 result.put("blockNumber", blockNumber);
                 result.put("message", "区块链连接正常，当前区块高度: " + blockNumber);
             } else {
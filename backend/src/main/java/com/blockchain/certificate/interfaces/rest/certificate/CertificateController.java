@@ -3,20 +3,22 @@ package com.blockchain.certificate.interfaces.rest.certificate;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.blockchain.certificate.shared.common.Result;
 import com.blockchain.certificate.shared.exception.BusinessException;
+import com.blockchain.certificate.shared.util.DownloadResponseUtil;
 import com.blockchain.certificate.domain.certificate.model.Certificate;
 import com.blockchain.certificate.infrastructure.security.UserPrincipal;
 import com.blockchain.certificate.domain.certificate.service.CertificateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import java.time.LocalDate;
 
 /**
@@ -187,13 +189,14 @@ public class CertificateController {
      * 
      * @param id 证书ID
      * @param userPrincipal 当前用户
-     * @return 证书 PDF 文件
+     * @param response 证书 PDF 文件直接写入响应
      */
     @GetMapping("/{id}/download")
     @PreAuthorize("hasAnyRole('STUDENT', 'COLLEGE_TEACHER', 'SCHOOL_TEACHER', 'ADMIN')")
-    public ResponseEntity<byte[]> downloadCertificate(
+    public void downloadCertificate(
             @PathVariable String id,
-            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            HttpServletResponse response) {
         
         try {
             // 获取证书信息
@@ -202,29 +205,26 @@ public class CertificateController {
             // 学生只能下载自己的证书
             if ("STUDENT".equals(userPrincipal.getRole()) && 
                 !userPrincipal.getId().equals(certificate.getHolderId())) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+                response.setStatus(HttpStatus.FORBIDDEN.value());
+                return;
             }
             
-            // 下载证书
-            byte[] pdfContent = certificateService.downloadCertificate(id);
-            
             // 设置响应头
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", 
-                    certificate.getCertificateNo() + ".pdf");
-            headers.setContentLength(pdfContent.length);
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.formData()
+                    .name("attachment").filename(certificate.getCertificateNo() + ".pdf").build().toString());
             
-            log.info("证书下载成功，证书ID: {}, 用户ID: {}", id, userPrincipal.getId());
+            // 下载证书
+            certificateService.downloadCertificate(id, response.getOutputStream());
             
-            return new ResponseEntity<>(pdfContent, headers, HttpStatus.OK);
+            log.info("证书下载成功，证书ID: {}, 用户ID: {}", id, userPrincipal.getId());
             
         } catch (BusinessException e) {
             log.error("下载证书失败，证书ID: {}", id, e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            DownloadResponseUtil.fail(response, HttpStatus.BAD_REQUEST, e);
         } catch (Exception e) {
             log.error("下载证书异常，证书ID: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            DownloadResponseUtil.fail(response, HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 
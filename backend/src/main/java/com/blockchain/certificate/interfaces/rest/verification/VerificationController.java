@@ -2,15 +2,18 @@ package com.blockchain.certificate.interfaces.rest.verification;
 
 import com.blockchain.certificate.shared.common.Result;
 import com.blockchain.certificate.shared.exception.BusinessException;
+import com.blockchain.certificate.shared.util.DownloadResponseUtil;
 import com.blockchain.certificate.domain.certificate.service.VerificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+
 /**
  * 证书核验控制器
  * 提供公开的证书验证接口（无需登录）
@@ -90,33 +93,30 @@ public class VerificationController {
      * 公开接口，无需登录
      * 
      * @param certificateNo 证书编号
-     * @return 证书 PDF 文件
+     * @param response 证书 PDF 文件直接写入响应
      */
     @GetMapping("/download/{certificateNo}")
-    public ResponseEntity<byte[]> downloadCertificate(@PathVariable String certificateNo) {
+    public void downloadCertificate(@PathVariable String certificateNo, HttpServletResponse response) {
         
         try {
             log.info("收到证书下载请求，证书编号: {}", certificateNo);
             
-            // 下载证书
-            byte[] pdfContent = verificationService.downloadCertificateByNo(certificateNo);
-            
             // 设置响应头
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", certificateNo + ".pdf");
-            headers.setContentLength(pdfContent.length);
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.formData()
+                    .name("attachment").filename(certificateNo + ".pdf").build().toString());
             
-            log.info("证书下载成功，证书编号: {}", certificateNo);
+            // 下载证书
+            verificationService.downloadCertificateByNo(certificateNo, response.getOutputStream());
             
-            return new ResponseEntity<>(pdfContent, headers, HttpStatus.OK);
+            log.info("证书下载成功，证书编号: {}", certificateNo);
             
         } catch (BusinessException e) {
             log.error("下载证书失败，证书编号: {}, 原因: {}", certificateNo, e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            DownloadResponseUtil.fail(response, HttpStatus.BAD_REQUEST, e);
         } catch (Exception e) {
             log.error("下载证书异常，证书编号: {}", certificateNo, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            DownloadResponseUtil.fail(response, HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 
@@ -125,33 +125,29 @@ public class VerificationController {
      * 公开接口，无需登录
      * 
      * @param certificateNo 证书编号
-     * @return 证书 PDF 文件（inline 方式）
+     * @param response 证书 PDF 文件（inline 方式）直接写入响应
      */
     @GetMapping("/preview/{certificateNo}")
-    public ResponseEntity<byte[]> previewCertificate(@PathVariable String certificateNo) {
+    public void previewCertificate(@PathVariable String certificateNo, HttpServletResponse response) {
         
         try {
             log.info("收到证书预览请求，证书编号: {}", certificateNo);
             
-            // 下载证书
-            byte[] pdfContent = verificationService.downloadCertificateByNo(certificateNo);
-            
             // 设置响应头（inline 方式，浏览器直接打开）
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=" + certificateNo + ".pdf");
-            headers.setContentLength(pdfContent.length);
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=" + certificateNo + ".pdf");
             
-            log.info("证书预览成功，证书编号: {}", certificateNo);
+            // 下载证书
+            verificationService.downloadCertificateByNo(certificateNo, response.getOutputStream());
             
-            return new ResponseEntity<>(pdfContent, headers, HttpStatus.OK);
+            log.info("证书预览成功，证书编号: {}", certificateNo);
             
         } catch (BusinessException e) {
             log.error("预览证书失败，证书编号: {}, 原因: {}", certificateNo, e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            DownloadResponseUtil.fail(response, HttpStatus.BAD_REQUEST, e);
         } catch (Exception e) {
             log.error("预览证书异常，证书编号: {}", certificateNo, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            DownloadResponseUtil.fail(response, HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 
@@ -0,0 +1,33 @@
+package com.blockchain.certificate.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 证书批量更新过期日期请求DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateBulkExpiryRequest {
+    
+    /**
+     * 证书编号列表
+     */
+    @NotEmpty(message = "证书编号列表不能为空")
+    @Size(max = 1000, message = "单次最多更新1000张证书")
+    private List<String> certificateNos;
+    
+    /**
+     * 新的过期日期（为空表示永久有效）
+     */
+    private LocalDate expiryDate;
+}
@@ -0,0 +1,43 @@
+package com.blockchain.certificate.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 证书批量操作响应DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateBulkResponse {
+    
+    /**
+     * 请求的证书数量（去重后）
+     */
+    private Integer requestedCount;
+    
+    /**
+     * 数据库实际更新的证书数量
+     */
+    private Integer updatedCount;
+    
+    /**
+     * 提交到区块链的证书数量（仅单独存证的证书）
+     */
+    private Integer chainCount;
+    
+    /**
+     * 区块链交易哈希列表（每个分片一笔交易）
+     */
+    private List<String> transactionHashes;
+    
+    /**
+     * 区块链操作失败原因（成功时为空）
+     */
+    private String chainError;
+}
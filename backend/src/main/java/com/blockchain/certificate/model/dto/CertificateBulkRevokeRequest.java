@@ -0,0 +1,32 @@
+package com.blockchain.certificate.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 证书批量撤销请求DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateBulkRevokeRequest {
+    
+    /**
+     * 证书编号列表
+     */
+    @NotEmpty(message = "证书编号列表不能为空")
+    @Size(max = 1000, message = "单次最多撤销1000张证书")
+    private List<String> certificateNos;
+    
+    /**
+     * 撤销原因
+     */
+    private String reason;
+}
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import java.util.stream.Collectors;
@@ -23,10 +24,14 @@ public class GlobalExceptionHandler {
 
     /**
      * 处理业务异常
+     * 响应已提交时（如文件下载中途验证失败）无法再写出错误信息，重新抛出由容器中断连接
      */
     @ExceptionHandler(BusinessException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public Result<?> handleBusinessException(BusinessException e) {
+    public Result<?> handleBusinessException(BusinessException e, HttpServletResponse response) {
+        if (response.isCommitted()) {
+            throw e;
+        }
         log.error("业务异常: {}", e.getMessage());
         return Result.error(e.getCode(), e.getMessage());
     }
@@ -72,10 +77,14 @@ public class GlobalExceptionHandler {
 
     /**
      * 处理其他异常
+     * 响应已提交时同样重新抛出，由容器中断连接
      */
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public Result<?> handleException(Exception e) {
+    public Result<?> handleException(Exception e, HttpServletResponse response) throws Exception {
+        if (response.isCommitted()) {
+            throw e;
+        }
         log.error("系统异常: ", e);
         return Result.error("500", "系统内部错误，请联系管理员");
     }
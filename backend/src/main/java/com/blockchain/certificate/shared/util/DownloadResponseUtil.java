@@ -0,0 +1,38 @@
+package com.blockchain.certificate.shared.util;
+
+import org.springframework.http.HttpStatus;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 文件下载接口的失败处理
+ */
+public class DownloadResponseUtil {
+
+    private DownloadResponseUtil() {
+    }
+
+    /**
+     * 文件尚未开始写出时改为返回错误状态码；已写出部分内容时重新抛出异常，由容器中断连接，
+     * 客户端收到的是不完整的响应而不是被截断的文件
+     *
+     * @param response 下载响应
+     * @param status 尚未写出时返回的状态码
+     * @param e 失败原因，受检异常包装为运行时异常后抛出
+     */
+    public static void fail(HttpServletResponse response, HttpStatus status, Exception e) {
+        if (response.isCommitted()) {
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            if (e instanceof IOException) {
+                throw new UncheckedIOException((IOException) e);
+            }
+            throw new IllegalStateException(e);
+        }
+        response.reset();
+        response.setStatus(status.value());
+    }
+}
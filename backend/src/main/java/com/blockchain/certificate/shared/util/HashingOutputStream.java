@@ -0,0 +1,117 @@
+package com.blockchain.certificate.shared.util;
+
+import org.apache.commons.codec.binary.Hex;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 边写边计算 SHA-256 的输出流，用于证书文件下载时的完整性验证
+ *
+ * 最后 HOLD_BACK 字节暂不写出，调用方确认哈希一致后调用 release() 写出；
+ * 哈希不一致时不调用 release()，接收方拿到的始终是不完整的文件。
+ * 文件不超过 HOLD_BACK 时不会写出任何内容，调用方仍可以改为返回错误响应。
+ *
+ * close() 不关闭下层输出流
+ */
+public class HashingOutputStream extends FilterOutputStream {
+
+    private static final int HOLD_BACK = 8192;
+
+    private final MessageDigest digest = sha256();
+    private final byte[] tail = new byte[HOLD_BACK];
+    private int tailLength;
+    private long size;
+    private String hash;
+
+    public HashingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    /**
+     * 计算字节数组的 SHA-256
+     *
+     * @param content 文件内容
+     * @return 小写十六进制哈希值
+     */
+    public static String sha256Hex(byte[] content) {
+        return Hex.encodeHexString(sha256().digest(content));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (hash != null) {
+            throw new IllegalStateException("哈希已计算，不能继续写入");
+        }
+        digest.update(b, off, len);
+        size += len;
+
+        if (len >= HOLD_BACK) {
+            // 新数据足够填满保留区：写出原保留区和新数据的前段
+            out.write(tail, 0, tailLength);
+            out.write(b, off, len - HOLD_BACK);
+            System.arraycopy(b, off + len - HOLD_BACK, tail, 0, HOLD_BACK);
+            tailLength = HOLD_BACK;
+            return;
+        }
+
+        int overflow = tailLength + len - HOLD_BACK;
+        if (overflow > 0) {
+            out.write(tail, 0, overflow);
+            System.arraycopy(tail, overflow, tail, 0, tailLength - overflow);
+            tailLength -= overflow;
+        }
+        System.arraycopy(b, off, tail, tailLength, len);
+        tailLength += len;
+    }
+
+    /**
+     * 结束写入，返回已写入内容的哈希
+     *
+     * @return 小写十六进制 SHA-256
+     */
+    public String hash() {
+        if (hash == null) {
+            hash = Hex.encodeHexString(digest.digest());
+        }
+        return hash;
+    }
+
+    /**
+     * 写入的总字节数（含尚未写出的部分）
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 写出保留的末尾内容，应在哈希验证通过后调用
+     */
+    public void release() throws IOException {
+        hash();
+        out.write(tail, 0, tailLength);
+        tailLength = 0;
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        // 下层输出流由调用方关闭
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
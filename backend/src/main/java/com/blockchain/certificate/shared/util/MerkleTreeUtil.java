@@ -0,0 +1,205 @@
+package com.blockchain.certificate.shared.util;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merkle 树工具类
+ * 用于证书批量存证：叶子节点为 (certificateNo, fileHash)，链上只保存 Merkle 根
+ *
+ * 哈希规则（SHA-256，带前缀区分叶子和中间节点）：
+ * - 叶子节点: SHA256(0x00 || certificateNo || 0x00 || fileHash)
+ * - 中间节点: SHA256(0x01 || left || right)
+ * - 奇数个节点时，最后一个节点直接提升到上一层（不复制）
+ *
+ * 证明格式：每一层的兄弟节点，"L:" 表示兄弟在左侧，"R:" 表示兄弟在右侧
+ */
+public final class MerkleTreeUtil {
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+
+    private static final String LEFT = "L:";
+    private static final String RIGHT = "R:";
+
+    private MerkleTreeUtil() {
+    }
+
+    /**
+     * 计算叶子节点哈希
+     * @param certificateNo 证书编号
+     * @param fileHash 文件哈希值
+     * @return 叶子节点哈希
+     */
+    public static byte[] leafHash(String certificateNo, String fileHash) {
+        MessageDigest md = newDigest();
+        md.update(LEAF_PREFIX);
+        md.update(certificateNo.getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0x00);
+        md.update(fileHash.getBytes(StandardCharsets.UTF_8));
+        return md.digest();
+    }
+
+    /**
+     * 构建 Merkle 树
+     * @param leaves 叶子节点哈希列表（顺序即叶子序号）
+     * @return 包含根和每个叶子证明的构建结果
+     */
+    public static MerkleTree build(List<byte[]> leaves) {
+        if (leaves == null || leaves.isEmpty()) {
+            throw new IllegalArgumentException("Merkle 树叶子节点不能为空");
+        }
+
+        int leafCount = leaves.size();
+        List<List<String>> proofs = new ArrayList<>(leafCount);
+        // 每个叶子当前所在子树在本层的位置
+        int[] positions = new int[leafCount];
+        for (int i = 0; i < leafCount; i++) {
+            proofs.add(new ArrayList<>());
+            positions[i] = i;
+        }
+
+        List<byte[]> level = new ArrayList<>(leaves);
+        while (level.size() > 1) {
+            List<byte[]> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                if (i + 1 < level.size()) {
+                    next.add(nodeHash(level.get(i), level.get(i + 1)));
+                } else {
+                    next.add(level.get(i));
+                }
+            }
+
+            for (int leaf = 0; leaf < leafCount; leaf++) {
+                int pos = positions[leaf];
+                if ((pos & 1) == 0) {
+                    if (pos + 1 < level.size()) {
+                        proofs.get(leaf).add(RIGHT + Hex.encodeHexString(level.get(pos + 1)));
+                    }
+                } else {
+                    proofs.get(leaf).add(LEFT + Hex.encodeHexString(level.get(pos - 1)));
+                }
+                positions[leaf] = pos >> 1;
+            }
+
+            level = next;
+        }
+
+        return new MerkleTree(Hex.encodeHexString(level.get(0)), proofs);
+    }
+
+    /**
+     * 根据叶子和证明计算 Merkle 根
+     * @param leaf 叶子节点哈希
+     * @param proof Merkle 证明
+     * @return Merkle 根（十六进制）
+     */
+    public static String computeRoot(byte[] leaf, List<String> proof) {
+        byte[] current = leaf;
+        if (proof != null) {
+            for (String step : proof) {
+                byte[] sibling = decodeHex(step.substring(2));
+                if (step.startsWith(LEFT)) {
+                    current = nodeHash(sibling, current);
+                } else if (step.startsWith(RIGHT)) {
+                    current = nodeHash(current, sibling);
+                } else {
+                    throw new IllegalArgumentException("Merkle 证明格式错误: " + step);
+                }
+            }
+        }
+        return Hex.encodeHexString(current);
+    }
+
+    /**
+     * 验证证书是否包含在指定 Merkle 根中
+     * @param certificateNo 证书编号
+     * @param fileHash 文件哈希值
+     * @param proof Merkle 证明
+     * @param root Merkle 根（十六进制）
+     * @return 是否包含
+     */
+    public static boolean verify(String certificateNo, String fileHash, List<String> proof, String root) {
+        if (certificateNo == null || fileHash == null || root == null) {
+            return false;
+        }
+        try {
+            String computed = computeRoot(leafHash(certificateNo, fileHash), proof);
+            return computed.equalsIgnoreCase(stripHexPrefix(root));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 十六进制 Merkle 根转换为 bytes32
+     * @param root Merkle 根（十六进制，可带 0x 前缀）
+     * @return 32 字节数组
+     */
+    public static byte[] toBytes32(String root) {
+        byte[] bytes = decodeHex(stripHexPrefix(root));
+        if (bytes.length != 32) {
+            throw new IllegalArgumentException("Merkle 根长度必须为 32 字节");
+        }
+        return bytes;
+    }
+
+    private static byte[] nodeHash(byte[] left, byte[] right) {
+        MessageDigest md = newDigest();
+        md.update(NODE_PREFIX);
+        md.update(left);
+        md.update(right);
+        return md.digest();
+    }
+
+    private static String stripHexPrefix(String hex) {
+        return hex.startsWith("0x") || hex.startsWith("0X") ? hex.substring(2) : hex;
+    }
+
+    private static byte[] decodeHex(String hex) {
+        try {
+            return Hex.decodeHex(hex);
+        } catch (DecoderException e) {
+            throw new IllegalArgumentException("十六进制格式错误: " + hex, e);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * Merkle 树构建结果
+     */
+    public static class MerkleTree {
+        private final String root;
+        private final List<List<String>> proofs;
+
+        public MerkleTree(String root, List<List<String>> proofs) {
+            this.root = root;
+            this.proofs = proofs;
+        }
+
+        /**
+         * Merkle 根（十六进制，不带 0x 前缀）
+         */
+        public String getRoot() { return root; }
+
+        /**
+         * 第 index 个叶子的 Merkle 证明
+         */
+        public List<String> getProof(int index) { return proofs.get(index); }
+
+        public int getLeafCount() { return proofs.size(); }
+    }
+}
@@ -1,9 +1,13 @@
 pragma solidity ^0.4.25;
+pragma experimental ABIEncoderV2;
 
 /**
  * 证书存证智能合约
  * 用于在区块链上存储和验证证书信息
  * 版本: 1.1.0 - 添加过期功能
+ * 版本: 1.2.0 - 添加 Merkle 批量存证功能
+ * 版本: 1.3.0 - 添加批量验证功能
+ * 版本: 1.4.0 - 添加批量撤销和批量更新过期时间功能
  */
 contract CertificateRegistry {
     
@@ -18,9 +22,20 @@ contract CertificateRegistry {
         bool revoked;             // 是否已撤销
     }
     
+    // 批量存证记录结构（Merkle 根）
+    struct BatchRecord {
+        address issuer;           // 颁发者地址
+        uint256 timestamp;        // 存证时间戳
+        uint256 leafCount;        // 批次包含的证书数量
+        bool exists;              // 是否存在
+    }
+    
     // 证书编号到证书记录的映射
     mapping(string => CertificateRecord) private certificates;
     
+    // Merkle 根到批次记录的映射
+    mapping(bytes32 => BatchRecord) private batchRoots;
+    
     // 存证事件
     event CertificateStored(
         string indexed certificateNo,
@@ -45,6 +60,14 @@ contract CertificateRegistry {
         address indexed updater
     );
     
+    // 批量存证事件
+    event BatchRootStored(
+        bytes32 indexed batchRoot,
+        uint256 leafCount,
+        address indexed issuer,
+        uint256 timestamp
+    );
+    
     // 合约所有者
     address public owner;
     
@@ -138,6 +161,48 @@ contract CertificateRegistry {
         return storeCertificate(certificateNo, fileHash, 0);
     }
     
+    /**
+     * 存储批量证书的 Merkle 根
+     * 叶子节点为 (certificateNo, fileHash)，Merkle 证明由链下保存
+     * @param batchRoot Merkle 根
+     * @param leafCount 批次包含的证书数量
+     * @return 是否成功
+     */
+    function storeBatchRoot(
+        bytes32 batchRoot,
+        uint256 leafCount
+    ) public onlyAuthorizedIssuer returns (bool) {
+        require(batchRoot != bytes32(0), "Batch root cannot be empty");
+        require(leafCount > 0, "Leaf count must be positive");
+        require(!batchRoots[batchRoot].exists, "Batch root already exists");
+        
+        batchRoots[batchRoot] = BatchRecord({
+            issuer: msg.sender,
+            timestamp: block.timestamp,
+            leafCount: leafCount,
+            exists: true
+        });
+        
+        emit BatchRootStored(batchRoot, leafCount, msg.sender, block.timestamp);
+        
+        return true;
+    }
+    
+    /**
+     * 获取批量存证记录
+     * @param batchRoot Merkle 根
+     * @return exists 是否存在
+     * @return issuer 颁发者地址
+     * @return timestamp 存证时间戳
+     * @return leafCount 批次包含的证书数量
+     */
+    function getBatchRoot(
+        bytes32 batchRoot
+    ) public view returns (bool exists, address issuer, uint256 timestamp, uint256 leafCount) {
+        BatchRecord memory record = batchRoots[batchRoot];
+        return (record.exists, record.issuer, record.timestamp, record.leafCount);
+    }
+    
     /**
      * 验证证书
      * @param certificateNo 证书编号
@@ -150,7 +215,40 @@ contract CertificateRegistry {
         string memory certificateNo,
         string memory fileHash
     ) public view returns (bool isValid, uint256 timestamp, uint8 status) {
-        CertificateRecord memory record = certificates[certificateNo];
+        return _verifyCertificate(certificateNo, fileHash);
+    }
+    
+    /**
+     * 批量验证证书
+     * @param certificateNos 证书编号列表
+     * @param fileHashes 文件哈希值列表（与证书编号一一对应）
+     * @return isValid 每张证书是否有效
+     * @return timestamps 每张证书的存证时间戳
+     * @return statuses 每张证书的状态码，含义同 verifyCertificate
+     */
+    function verifyCertificates(
+        string[] memory certificateNos,
+        string[] memory fileHashes
+    ) public view returns (bool[] memory isValid, uint256[] memory timestamps, uint8[] memory statuses) {
+        require(certificateNos.length == fileHashes.length, "Length mismatch");
+        
+        isValid = new bool[](certificateNos.length);
+        timestamps = new uint256[](certificateNos.length);
+        statuses = new uint8[](certificateNos.length);
+        
+        for (uint256 i = 0; i < certificateNos.length; i++) {
+            (isValid[i], timestamps[i], statuses[i]) = _verifyCertificate(certificateNos[i], fileHashes[i]);
+        }
+    }
+    
+    /**
+     * 验证单张证书（内部实现，直接读取 storage 避免复制整条记录）
+     */
+    function _verifyCertificate(
+        string memory certificateNo,
+        string memory fileHash
+    ) internal view returns (bool, uint256, uint8) {
+        CertificateRecord storage record = certificates[certificateNo];
         
         // 检查证书是否存在
         if (!record.exists) {
@@ -236,6 +334,30 @@ contract CertificateRegistry {
         return true;
     }
     
+    /**
+     * 批量撤销证书
+     * 跳过不存在、已撤销或无权撤销的证书，不因单张证书失败回滚整批
+     * @param certificateNos 证书编号列表
+     * @return revokedCount 实际撤销的数量
+     */
+    function revokeCertificates(
+        string[] memory certificateNos
+    ) public onlyAuthorizedIssuer returns (uint256 revokedCount) {
+        for (uint256 i = 0; i < certificateNos.length; i++) {
+            CertificateRecord storage record = certificates[certificateNos[i]];
+            if (!record.exists || record.revoked) {
+                continue;
+            }
+            if (record.issuer != msg.sender && msg.sender != owner) {
+                continue;
+            }
+            
+            record.revoked = true;
+            emit CertificateRevoked(certificateNos[i], msg.sender, block.timestamp);
+            revokedCount++;
+        }
+    }
+    
     /**
      * 检查证书是否存在
      * @param certificateNo 证书编号
@@ -306,6 +428,38 @@ contract CertificateRegistry {
         return true;
     }
     
+    /**
+     * 批量更新证书过期时间
+     * 跳过不存在、已撤销或无权更新的证书；过期时间不合法时整批回滚
+     * @param certificateNos 证书编号列表
+     * @param newExpiryDates 新的过期时间戳列表（与证书编号一一对应，0表示永不过期）
+     * @return updatedCount 实际更新的数量
+     */
+    function updateExpiryDates(
+        string[] memory certificateNos,
+        uint256[] memory newExpiryDates
+    ) public onlyAuthorizedIssuer returns (uint256 updatedCount) {
+        require(certificateNos.length == newExpiryDates.length, "Length mismatch");
+        
+        for (uint256 i = 0; i < certificateNos.length; i++) {
+            require(newExpiryDates[i] == 0 || newExpiryDates[i] > block.timestamp,
+                    "New expiry date must be in the future");
+            
+            CertificateRecord storage record = certificates[certificateNos[i]];
+            if (!record.exists || record.revoked) {
+                continue;
+            }
+            if (record.issuer != msg.sender && msg.sender != owner) {
+                continue;
+            }
+            
+            uint256 oldExpiryDate = record.expiryDate;
+            record.expiryDate = newExpiryDates[i];
+            emit CertificateExpiryUpdated(certificateNos[i], oldExpiryDate, newExpiryDates[i], msg.sender);
+            updatedCount++;
+        }
+    }
+    
     /**
      * 获取证书状态
      * @param certificateNo 证书编号
@@ -330,6 +484,6 @@ contract CertificateRegistry {
      * 获取合约版本
      */
     function getVersion() public pure returns (string memory) {
-        return "1.1.0";
+        return "1.4.0";
     }
 }
\ No newline at end of file
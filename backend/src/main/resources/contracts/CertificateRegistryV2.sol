@@ -0,0 +1,460 @@
+pragma solidity ^0.4.25;
+
+/**
+ * 证书存证智能合约 v2
+ * 以 bytes32 为键存储证书，减少存储和调用数据
+ *
+ * 与 v1 的区别：
+ * - 证书键为 keccak256(证书编号)，由链下计算，合约内不再保存证书编号字符串
+ * - 文件哈希以 bytes32 保存（SHA-256 十六进制解码后的 32 字节），验证时直接比较，不再重复计算 keccak
+ * - 记录按槽位紧凑排列：文件哈希占一个槽位，颁发者、时间戳、过期时间和状态位共用一个槽位
+ * - 所有参数均为定长类型或定长类型数组，不需要 ABIEncoderV2
+ *
+ * 版本: 2.0.0
+ */
+contract CertificateRegistryV2 {
+
+    // 证书记录结构（2 个存储槽位）
+    struct CertificateRecord {
+        bytes32 fileHash;         // 文件哈希值
+        address issuer;           // 颁发者地址（20 字节）
+        uint64 timestamp;         // 存证时间戳
+        uint64 expiryDate;        // 过期时间戳 (0表示永不过期)
+        bool exists;              // 是否存在
+        bool revoked;             // 是否已撤销
+    }
+
+    // 批量存证记录结构（Merkle 根）
+    struct BatchRecord {
+        address issuer;           // 颁发者地址
+        uint64 timestamp;         // 存证时间戳
+        uint64 leafCount;         // 批次包含的证书数量
+        bool exists;              // 是否存在
+    }
+
+    // 证书键到证书记录的映射
+    mapping(bytes32 => CertificateRecord) private certificates;
+
+    // Merkle 根到批次记录的映射
+    mapping(bytes32 => BatchRecord) private batchRoots;
+
+    // 存证事件
+    event CertificateStored(
+        bytes32 indexed certificateKey,
+        bytes32 fileHash,
+        address indexed issuer,
+        uint256 timestamp,
+        uint256 expiryDate
+    );
+
+    // 撤销事件
+    event CertificateRevoked(
+        bytes32 indexed certificateKey,
+        address indexed revoker,
+        uint256 timestamp
+    );
+
+    // 过期时间更新事件
+    event CertificateExpiryUpdated(
+        bytes32 indexed certificateKey,
+        uint256 oldExpiryDate,
+        uint256 newExpiryDate,
+        address indexed updater
+    );
+
+    // 批量存证事件
+    event BatchRootStored(
+        bytes32 indexed batchRoot,
+        uint256 leafCount,
+        address indexed issuer,
+        uint256 timestamp
+    );
+
+    // 合约所有者
+    address public owner;
+
+    // 授权颁发者映射
+    mapping(address => bool) public authorizedIssuers;
+
+    /**
+     * 构造函数
+     */
+    constructor() public {
+        owner = msg.sender;
+        authorizedIssuers[msg.sender] = true;
+    }
+
+    /**
+     * 修饰符：仅所有者
+     */
+    modifier onlyOwner() {
+        require(msg.sender == owner, "Only owner can call this function");
+        _;
+    }
+
+    /**
+     * 修饰符：仅授权颁发者
+     */
+    modifier onlyAuthorizedIssuer() {
+        require(authorizedIssuers[msg.sender], "Only authorized issuer can call this function");
+        _;
+    }
+
+    /**
+     * 添加授权颁发者
+     */
+    function addAuthorizedIssuer(address issuer) public onlyOwner {
+        authorizedIssuers[issuer] = true;
+    }
+
+    /**
+     * 移除授权颁发者
+     */
+    function removeAuthorizedIssuer(address issuer) public onlyOwner {
+        authorizedIssuers[issuer] = false;
+    }
+
+    /**
+     * 存储证书信息
+     * @param certificateKey 证书键 keccak256(证书编号)
+     * @param fileHash 文件哈希值
+     * @param expiryDate 过期时间戳 (0表示永不过期)
+     * @return 是否成功
+     */
+    function storeCertificate(
+        bytes32 certificateKey,
+        bytes32 fileHash,
+        uint256 expiryDate
+    ) public onlyAuthorizedIssuer returns (bool) {
+        require(certificateKey != bytes32(0), "Certificate key cannot be empty");
+        require(fileHash != bytes32(0), "File hash cannot be empty");
+        require(!certificates[certificateKey].exists, "Certificate already exists");
+        require(expiryDate == 0 || expiryDate > block.timestamp, "Expiry date must be in the future");
+
+        certificates[certificateKey] = CertificateRecord({
+            fileHash: fileHash,
+            issuer: msg.sender,
+            timestamp: uint64(block.timestamp),
+            expiryDate: uint64(expiryDate),
+            exists: true,
+            revoked: false
+        });
+
+        emit CertificateStored(certificateKey, fileHash, msg.sender, block.timestamp, expiryDate);
+
+        return true;
+    }
+
+    /**
+     * 从 v1 合约迁移证书记录（仅限合约所有者）
+     * 保留原存证时间戳，已存在的证书跳过，可重复执行
+     * @param certificateKeys 证书键列表
+     * @param fileHashes 文件哈希值列表
+     * @param timestamps 原存证时间戳列表
+     * @param expiryDates 过期时间戳列表
+     * @param revokedFlags 是否已撤销列表
+     * @return migratedCount 实际迁移的数量
+     */
+    function migrateCertificates(
+        bytes32[] certificateKeys,
+        bytes32[] fileHashes,
+        uint256[] timestamps,
+        uint256[] expiryDates,
+        bool[] revokedFlags
+    ) public onlyOwner returns (uint256 migratedCount) {
+        require(certificateKeys.length == fileHashes.length
+                && certificateKeys.length == timestamps.length
+                && certificateKeys.length == expiryDates.length
+                && certificateKeys.length == revokedFlags.length, "Length mismatch");
+
+        for (uint256 i = 0; i < certificateKeys.length; i++) {
+            if (certificateKeys[i] == bytes32(0) || certificates[certificateKeys[i]].exists) {
+                continue;
+            }
+
+            certificates[certificateKeys[i]] = CertificateRecord({
+                fileHash: fileHashes[i],
+                issuer: msg.sender,
+                timestamp: uint64(timestamps[i]),
+                expiryDate: uint64(expiryDates[i]),
+                exists: true,
+                revoked: revokedFlags[i]
+            });
+
+            emit CertificateStored(certificateKeys[i], fileHashes[i], msg.sender, timestamps[i], expiryDates[i]);
+            if (revokedFlags[i]) {
+                emit CertificateRevoked(certificateKeys[i], msg.sender, block.timestamp);
+            }
+            migratedCount++;
+        }
+    }
+
+    /**
+     * 存储批量证书的 Merkle 根
+     * @param batchRoot Merkle 根
+     * @param leafCount 批次包含的证书数量
+     * @return 是否成功
+     */
+    function storeBatchRoot(
+        bytes32 batchRoot,
+        uint256 leafCount
+    ) public onlyAuthorizedIssuer returns (bool) {
+        require(batchRoot != bytes32(0), "Batch root cannot be empty");
+        require(leafCount > 0, "Leaf count must be positive");
+        require(!batchRoots[batchRoot].exists, "Batch root already exists");
+
+        batchRoots[batchRoot] = BatchRecord({
+            issuer: msg.sender,
+            timestamp: uint64(block.timestamp),
+            leafCount: uint64(leafCount),
+            exists: true
+        });
+
+        emit BatchRootStored(batchRoot, leafCount, msg.sender, block.timestamp);
+
+        return true;
+    }
+
+    /**
+     * 获取批量存证记录
+     * @param batchRoot Merkle 根
+     */
+    function getBatchRoot(
+        bytes32 batchRoot
+    ) public view returns (bool exists, address issuer, uint256 timestamp, uint256 leafCount) {
+        BatchRecord storage record = batchRoots[batchRoot];
+        return (record.exists, record.issuer, record.timestamp, record.leafCount);
+    }
+
+    /**
+     * 验证证书
+     * @param certificateKey 证书键
+     * @param fileHash 文件哈希值
+     * @return isValid 是否有效
+     * @return timestamp 存证时间戳
+     * @return status 状态码: 0=有效, 1=不存在, 2=已撤销, 3=已过期, 4=哈希不匹配
+     */
+    function verifyCertificate(
+        bytes32 certificateKey,
+        bytes32 fileHash
+    ) public view returns (bool isValid, uint256 timestamp, uint8 status) {
+        return _verifyCertificate(certificateKey, fileHash);
+    }
+
+    /**
+     * 批量验证证书
+     * @param certificateKeys 证书键列表
+     * @param fileHashes 文件哈希值列表（与证书键一一对应）
+     */
+    function verifyCertificates(
+        bytes32[] certificateKeys,
+        bytes32[] fileHashes
+    ) public view returns (bool[] isValid, uint256[] timestamps, uint8[] statuses) {
+        require(certificateKeys.length == fileHashes.length, "Length mismatch");
+
+        isValid = new bool[](certificateKeys.length);
+        timestamps = new uint256[](certificateKeys.length);
+        statuses = new uint8[](certificateKeys.length);
+
+        for (uint256 i = 0; i < certificateKeys.length; i++) {
+            (isValid[i], timestamps[i], statuses[i]) = _verifyCertificate(certificateKeys[i], fileHashes[i]);
+        }
+    }
+
+    /**
+     * 验证单张证书（内部实现）
+     */
+    function _verifyCertificate(
+        bytes32 certificateKey,
+        bytes32 fileHash
+    ) internal view returns (bool, uint256, uint8) {
+        CertificateRecord storage record = certificates[certificateKey];
+
+        if (!record.exists) {
+            return (false, 0, 1); // 状态1: 不存在
+        }
+        if (record.revoked) {
+            return (false, record.timestamp, 2); // 状态2: 已撤销
+        }
+        if (record.expiryDate != 0 && block.timestamp > record.expiryDate) {
+            return (false, record.timestamp, 3); // 状态3: 已过期
+        }
+        if (record.fileHash != fileHash) {
+            return (false, record.timestamp, 4); // 状态4: 哈希不匹配
+        }
+        return (true, record.timestamp, 0); // 状态0: 有效
+    }
+
+    /**
+     * 获取证书信息
+     * @param certificateKey 证书键
+     */
+    function getCertificate(
+        bytes32 certificateKey
+    ) public view returns (
+        bytes32 fileHash,
+        address issuer,
+        uint256 timestamp,
+        uint256 expiryDate,
+        bool exists,
+        bool revoked,
+        bool expired
+    ) {
+        CertificateRecord storage record = certificates[certificateKey];
+        bool isExpired = record.expiryDate != 0 && block.timestamp > record.expiryDate;
+        return (
+            record.fileHash,
+            record.issuer,
+            record.timestamp,
+            record.expiryDate,
+            record.exists,
+            record.revoked,
+            isExpired
+        );
+    }
+
+    /**
+     * 撤销证书
+     * @param certificateKey 证书键
+     * @return 是否成功
+     */
+    function revokeCertificate(
+        bytes32 certificateKey
+    ) public onlyAuthorizedIssuer returns (bool) {
+        CertificateRecord storage record = certificates[certificateKey];
+
+        require(record.exists, "Certificate does not exist");
+        require(!record.revoked, "Certificate already revoked");
+        require(record.issuer == msg.sender || msg.sender == owner,
+                "Only issuer or owner can revoke certificate");
+
+        record.revoked = true;
+
+        emit CertificateRevoked(certificateKey, msg.sender, block.timestamp);
+
+        return true;
+    }
+
+    /**
+     * 批量撤销证书
+     * 跳过不存在、已撤销或无权撤销的证书
+     * @param certificateKeys 证书键列表
+     * @return revokedCount 实际撤销的数量
+     */
+    function revokeCertificates(
+        bytes32[] certificateKeys
+    ) public onlyAuthorizedIssuer returns (uint256 revokedCount) {
+        for (uint256 i = 0; i < certificateKeys.length; i++) {
+            CertificateRecord storage record = certificates[certificateKeys[i]];
+            if (!record.exists || record.revoked) {
+                continue;
+            }
+            if (record.issuer != msg.sender && msg.sender != owner) {
+                continue;
+            }
+
+            record.revoked = true;
+            emit CertificateRevoked(certificateKeys[i], msg.sender, block.timestamp);
+            revokedCount++;
+        }
+    }
+
+    /**
+     * 检查证书是否存在
+     */
+    function certificateExists(bytes32 certificateKey) public view returns (bool) {
+        return certificates[certificateKey].exists;
+    }
+
+    /**
+     * 检查证书是否已撤销
+     */
+    function isCertificateRevoked(bytes32 certificateKey) public view returns (bool) {
+        return certificates[certificateKey].revoked;
+    }
+
+    /**
+     * 更新证书过期时间（仅限原颁发者或合约所有者）
+     * @param certificateKey 证书键
+     * @param newExpiryDate 新的过期时间戳
+     * @return 是否成功
+     */
+    function updateExpiryDate(
+        bytes32 certificateKey,
+        uint256 newExpiryDate
+    ) public onlyAuthorizedIssuer returns (bool) {
+        CertificateRecord storage record = certificates[certificateKey];
+
+        require(record.exists, "Certificate does not exist");
+        require(!record.revoked, "Certificate is revoked");
+        require(record.issuer == msg.sender || msg.sender == owner,
+                "Only issuer or owner can update expiry date");
+        require(newExpiryDate == 0 || newExpiryDate > block.timestamp,
+                "New expiry date must be in the future");
+
+        uint256 oldExpiryDate = record.expiryDate;
+        record.expiryDate = uint64(newExpiryDate);
+
+        emit CertificateExpiryUpdated(certificateKey, oldExpiryDate, newExpiryDate, msg.sender);
+
+        return true;
+    }
+
+    /**
+     * 批量更新证书过期时间
+     * 跳过不存在、已撤销或无权更新的证书；过期时间不合法时整批回滚
+     * @param certificateKeys 证书键列表
+     * @param newExpiryDates 新的过期时间戳列表
+     * @return updatedCount 实际更新的数量
+     */
+    function updateExpiryDates(
+        bytes32[] certificateKeys,
+        uint256[] newExpiryDates
+    ) public onlyAuthorizedIssuer returns (uint256 updatedCount) {
+        require(certificateKeys.length == newExpiryDates.length, "Length mismatch");
+
+        for (uint256 i = 0; i < certificateKeys.length; i++) {
+            require(newExpiryDates[i] == 0 || newExpiryDates[i] > block.timestamp,
+                    "New expiry date must be in the future");
+
+            CertificateRecord storage record = certificates[certificateKeys[i]];
+            if (!record.exists || record.revoked) {
+                continue;
+            }
+            if (record.issuer != msg.sender && msg.sender != owner) {
+                continue;
+            }
+
+            uint256 oldExpiryDate = record.expiryDate;
+            record.expiryDate = uint64(newExpiryDates[i]);
+            emit CertificateExpiryUpdated(certificateKeys[i], oldExpiryDate, newExpiryDates[i], msg.sender);
+            updatedCount++;
+        }
+    }
+
+    /**
+     * 获取证书状态
+     * @return status 状态: 0=有效, 1=不存在, 2=已撤销, 3=已过期
+     */
+    function getCertificateStatus(bytes32 certificateKey) public view returns (uint8 status) {
+        CertificateRecord storage record = certificates[certificateKey];
+
+        if (!record.exists) {
+            return 1; // 不存在
+        }
+        if (record.revoked) {
+            return 2; // 已撤销
+        }
+        if (record.expiryDate != 0 && block.timestamp > record.expiryDate) {
+            return 3; // 已过期
+        }
+        return 0; // 有效
+    }
+
+    /**
+     * 获取合约版本
+     */
+    function getVersion() public pure returns (string memory) {
+        return "2.0.0";
+    }
+}
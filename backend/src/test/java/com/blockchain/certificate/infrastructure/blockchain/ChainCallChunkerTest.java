@@ -0,0 +1,97 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChainCallChunker 分片测试
+ */
+class ChainCallChunkerTest {
+
+    @Test
+    void splitsByItemCount() {
+        List<String> column = values(10, 8);
+
+        List<int[]> chunks = ChainCallChunker.split(4, Integer.MAX_VALUE, column);
+
+        assertChunks(chunks, new int[]{0, 4}, new int[]{4, 8}, new int[]{8, 10});
+    }
+
+    @Test
+    void splitsByEncodedBytes() {
+        // 每个条目：两列各 64 字节开销 + 32 字节内容 = 192 字节
+        List<String> nos = values(5, 20);
+        List<String> hashes = values(5, 32);
+
+        List<int[]> chunks = ChainCallChunker.split(100, 400, nos, hashes);
+
+        assertChunks(chunks, new int[]{0, 2}, new int[]{2, 4}, new int[]{4, 5});
+    }
+
+    @Test
+    void fixedBytesPerItemCountTowardsLimit() {
+        // 每个条目：64 + 32 + 32 字节定长参数 = 128 字节
+        List<String> column = values(4, 10);
+
+        List<int[]> chunks = ChainCallChunker.split(100, 256, 32, column);
+
+        assertChunks(chunks, new int[]{0, 2}, new int[]{2, 4});
+    }
+
+    @Test
+    void oversizedItemGetsOwnChunk() {
+        List<String> column = Arrays.asList("a", repeat('x', 1000), "b");
+
+        List<int[]> chunks = ChainCallChunker.split(100, 200, column);
+
+        assertChunks(chunks, new int[]{0, 1}, new int[]{1, 2}, new int[]{2, 3});
+    }
+
+    @Test
+    void multiByteCharactersAreMeasuredInUtf8() {
+        // 11 个汉字为 33 字节，补齐到 64 字节，每个条目 128 字节
+        List<String> column = Collections.nCopies(3, repeat('证', 11));
+
+        List<int[]> chunks = ChainCallChunker.split(100, 256, column);
+
+        assertChunks(chunks, new int[]{0, 2}, new int[]{2, 3});
+    }
+
+    @Test
+    void emptyInputHasNoChunks() {
+        assertTrue(ChainCallChunker.split(10, 1000, Collections.<String>emptyList()).isEmpty());
+    }
+
+    @Test
+    void columnLengthsMustMatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ChainCallChunker.split(10, 1000, values(2, 4), values(3, 4)));
+    }
+
+    private static void assertChunks(List<int[]> chunks, int[]... expected) {
+        assertEquals(expected.length, chunks.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], chunks.get(i), "分片 " + i);
+        }
+    }
+
+    private static List<String> values(int count, int length) {
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(repeat((char) ('a' + i), length));
+        }
+        return values;
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
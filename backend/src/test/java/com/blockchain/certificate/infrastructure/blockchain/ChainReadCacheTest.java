@@ -0,0 +1,93 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChainReadCache 失效测试：按证书编号和按事件中的证书编号哈希失效，失效前发起的加载不写回，
+ * 失效未缓存的证书不新建索引
+ */
+class ChainReadCacheTest {
+
+    private ChainReadCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ChainReadCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60000L);
+        ReflectionTestUtils.setField(cache, "maxBlockLag", 50L);
+        cache.setKeyHasher(certificateNo -> "hash-" + certificateNo);
+    }
+
+    @Test
+    void eventInvalidatesByCertificateNo() {
+        assertEquals(1, load("CERT-1"));
+        assertEquals(1, load("CERT-1"));
+
+        cache.onChainEvent("CERT-1", 10);
+
+        assertEquals(2, load("CERT-1"));
+    }
+
+    @Test
+    void eventWithOnlyHashInvalidatesCachedCertificate() {
+        assertEquals(1, load("CERT-1"));
+
+        cache.onChainEventByHash("hash-CERT-1", 10);
+
+        assertEquals(2, load("CERT-1"));
+        assertEquals(1L, cache.getStats().get("eventInvalidations"));
+        assertEquals(0L, cache.getStats().get("unresolvedEventInvalidations"));
+    }
+
+    @Test
+    void unresolvedHashDropsLoadStartedBeforeEvent() {
+        // 加载期间到达的事件，哈希还没有对应的缓存证书
+        Integer value = cache.get("verify", "CERT-2", null, () -> {
+            cache.onChainEventByHash("hash-CERT-2", 10);
+            return loads.incrementAndGet();
+        });
+        assertEquals(1, value);
+
+        assertEquals(2, load("CERT-2"));
+        assertEquals(1L, cache.getStats().get("staleLoads"));
+        assertEquals(1L, cache.getStats().get("unresolvedEventInvalidations"));
+    }
+
+    @Test
+    void evictingUncachedCertificatesDoesNotGrowIndex() {
+        assertEquals(1, load("CERT-1"));
+
+        for (int i = 0; i < 1000; i++) {
+            cache.evict("CERT-UNCACHED-" + i);
+        }
+
+        assertEquals(1, cache.getStats().get("certificates"));
+        assertEquals(1, load("CERT-1"));
+    }
+
+    @Test
+    void evictingUncachedCertificateDropsLoadInFlight() {
+        Integer value = cache.get("verify", "CERT-3", null, () -> {
+            cache.evict("CERT-3");
+            return loads.incrementAndGet();
+        });
+        assertEquals(1, value);
+
+        assertEquals(0, cache.getStats().get("certificates"));
+        assertEquals(2, load("CERT-3"));
+        assertEquals(2, load("CERT-3"));
+    }
+
+    private int load(String certificateNo) {
+        return cache.get("verify", certificateNo, null, loads::incrementAndGet);
+    }
+}
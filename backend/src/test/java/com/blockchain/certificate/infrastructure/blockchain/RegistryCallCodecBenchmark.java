@@ -0,0 +1,160 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import org.fisco.bcos.sdk.abi.ABICodec;
+import org.fisco.bcos.sdk.abi.ABICodecException;
+import org.fisco.bcos.sdk.abi.FunctionEncoder;
+import org.fisco.bcos.sdk.abi.datatypes.Bool;
+import org.fisco.bcos.sdk.abi.datatypes.DynamicArray;
+import org.fisco.bcos.sdk.abi.datatypes.Type;
+import org.fisco.bcos.sdk.abi.datatypes.generated.Uint256;
+import org.fisco.bcos.sdk.abi.datatypes.generated.Uint8;
+import org.fisco.bcos.sdk.crypto.CryptoSuite;
+import org.fisco.bcos.sdk.model.CryptoType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 验证调用编解码基准：RegistryCallCodec 与 SDK ABICodec（CertificateContract 原先的 sendCall 路径）对比
+ *
+ * 覆盖 v1 合约的 verifyCertificate / verifyCertificates 编码和返回值解码。
+ * WeDPR 本地库不可用时两条路径都使用 BouncyCastle 模拟的 CryptoSuite，ABICodec 每次编码都要计算选择器，
+ * 此时它的结果包含模拟调用的开销
+ *
+ * 运行：mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.blockchain.certificate.infrastructure.blockchain.RegistryCallCodecBenchmark
+ * 命令行参数按 JMH 格式传入（-Dexec.args="-f 1 -wi 3 -i 5"）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryCallCodecBenchmark {
+
+    private static final String ABI = "["
+            + "{\"constant\":true,\"inputs\":[{\"name\":\"certificateNo\",\"type\":\"string\"},"
+            + "{\"name\":\"fileHash\",\"type\":\"string\"}],\"name\":\"verifyCertificate\","
+            + "\"outputs\":[{\"name\":\"isValid\",\"type\":\"bool\"},{\"name\":\"timestamp\",\"type\":\"uint256\"},"
+            + "{\"name\":\"status\",\"type\":\"uint8\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"},"
+            + "{\"constant\":true,\"inputs\":[{\"name\":\"certificateNos\",\"type\":\"string[]\"},"
+            + "{\"name\":\"fileHashes\",\"type\":\"string[]\"}],\"name\":\"verifyCertificates\","
+            + "\"outputs\":[{\"name\":\"isValid\",\"type\":\"bool[]\"},{\"name\":\"timestamps\",\"type\":\"uint256[]\"},"
+            + "{\"name\":\"statuses\",\"type\":\"uint8[]\"}],\"payable\":false,\"stateMutability\":\"view\",\"type\":\"function\"}"
+            + "]";
+
+    private static final String FILE_HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    /**
+     * 批量验证的证书数量
+     */
+    @Param({"1", "50", "200"})
+    public int batchSize;
+
+    private RegistryCallCodec codec;
+    private ABICodec abiCodec;
+
+    private List<String> certificateNos;
+    private List<String> fileHashes;
+    private List<Object> sdkParams;
+    private String singleOutput;
+    private String batchOutput;
+
+    @Setup
+    public void setUp() {
+        CryptoSuite cryptoSuite = TestCryptoSuites.nativeCryptoAvailable()
+                ? new CryptoSuite(CryptoType.ECDSA_TYPE) : TestCryptoSuites.keccak256();
+        codec = new RegistryCallCodec(cryptoSuite);
+        abiCodec = new ABICodec(cryptoSuite);
+
+        certificateNos = new ArrayList<>(batchSize);
+        fileHashes = new ArrayList<>(batchSize);
+        List<Bool> valid = new ArrayList<>(batchSize);
+        List<Uint256> timestamps = new ArrayList<>(batchSize);
+        List<Uint8> statuses = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            certificateNos.add(String.format("CERT-2024-%06d", i));
+            fileHashes.add(FILE_HASH);
+            valid.add(new Bool(i % 3 != 0));
+            timestamps.add(new Uint256(1700000000L + i));
+            statuses.add(new Uint8(i % 3 == 0 ? 1 : 0));
+        }
+        sdkParams = Arrays.<Object>asList(certificateNos, fileHashes);
+
+        singleOutput = "0x" + FunctionEncoder.encodeParameters(Arrays.<Type>asList(
+                new Bool(true), new Uint256(1700000000L), new Uint8(0)), new StringBuilder());
+        batchOutput = "0x" + FunctionEncoder.encodeParameters(Arrays.<Type>asList(
+                new DynamicArray<>(valid), new DynamicArray<>(timestamps), new DynamicArray<>(statuses)),
+                new StringBuilder());
+    }
+
+    // ========== 单条验证 ==========
+
+    @Benchmark
+    public String encodeSingleCodec() {
+        return codec.encodeVerifyCertificate(false, certificateNos.get(0), FILE_HASH);
+    }
+
+    @Benchmark
+    public String encodeSingleAbiCodec() throws ABICodecException {
+        return abiCodec.encodeMethod(ABI, "verifyCertificate", Arrays.<Object>asList(certificateNos.get(0), FILE_HASH));
+    }
+
+    @Benchmark
+    public Object decodeSingleCodec() {
+        return RegistryCallCodec.decodeVerifyCertificate(singleOutput);
+    }
+
+    @Benchmark
+    public Object decodeSingleAbiCodec() throws ABICodecException {
+        return abiCodec.decodeMethod(ABI, "verifyCertificate", singleOutput);
+    }
+
+    // ========== 批量验证 ==========
+
+    @Benchmark
+    public String encodeBatchCodec() {
+        return codec.encodeVerifyCertificates(false, certificateNos, fileHashes);
+    }
+
+    @Benchmark
+    public String encodeBatchAbiCodec() throws ABICodecException {
+        return abiCodec.encodeMethod(ABI, "verifyCertificates", sdkParams);
+    }
+
+    @Benchmark
+    public Object decodeBatchCodec() {
+        return RegistryCallCodec.decodeVerifyCertificates(batchOutput, batchSize);
+    }
+
+    @Benchmark
+    public Object decodeBatchAbiCodec() throws ABICodecException {
+        return abiCodec.decodeMethod(ABI, "verifyCertificates", batchOutput);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(RegistryCallCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
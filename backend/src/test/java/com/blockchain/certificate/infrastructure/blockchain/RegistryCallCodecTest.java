@@ -0,0 +1,195 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import org.apache.commons.codec.binary.Hex;
+import org.fisco.bcos.sdk.abi.FunctionEncoder;
+import org.fisco.bcos.sdk.abi.TypeEncoder;
+import org.fisco.bcos.sdk.abi.datatypes.Bool;
+import org.fisco.bcos.sdk.abi.datatypes.DynamicArray;
+import org.fisco.bcos.sdk.abi.datatypes.Function;
+import org.fisco.bcos.sdk.abi.datatypes.Type;
+import org.fisco.bcos.sdk.abi.datatypes.Utf8String;
+import org.fisco.bcos.sdk.abi.datatypes.generated.Bytes32;
+import org.fisco.bcos.sdk.abi.datatypes.generated.Uint256;
+import org.fisco.bcos.sdk.abi.datatypes.generated.Uint8;
+import org.fisco.bcos.sdk.crypto.CryptoSuite;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * RegistryCallCodec / RegistryV2Codec 测试：编码结果与 SDK 的 FunctionEncoder 逐字节一致
+ *
+ * v2 证书键直接调用 SDK 的 Keccak256，WeDPR 本地库不可用时跳过相关用例
+ */
+class RegistryCallCodecTest {
+
+    private static final CryptoSuite ECDSA = TestCryptoSuites.keccak256();
+    private static final CryptoSuite SM = TestCryptoSuites.sm3();
+
+    private static final String FILE_HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Test
+    void encodesVerifyCertificateV1() {
+        RegistryCallCodec codec = new RegistryCallCodec(ECDSA);
+
+        String expected = sdkEncode(ECDSA, "verifyCertificate",
+                new Utf8String("CERT-2024-0001"), new Utf8String(FILE_HASH));
+
+        assertEquals(expected, codec.encodeVerifyCertificate(false, "CERT-2024-0001", FILE_HASH));
+    }
+
+    @Test
+    void encodesMultiByteAndWordAlignedStrings() {
+        RegistryCallCodec codec = new RegistryCallCodec(ECDSA);
+        // 32 字节的证书编号正好占满一个字，不额外补齐
+        String certificateNo = "证书-0123456789abcdefghijklmno";
+        assertEquals(32, certificateNo.getBytes(StandardCharsets.UTF_8).length);
+
+        String expected = sdkEncode(ECDSA, "verifyCertificate",
+                new Utf8String(certificateNo), new Utf8String(""));
+
+        assertEquals(expected, codec.encodeVerifyCertificate(false, certificateNo, ""));
+    }
+
+    @Test
+    void encodesVerifyCertificatesV1() {
+        RegistryCallCodec codec = new RegistryCallCodec(ECDSA);
+        List<String> nos = Arrays.asList("CERT-1", "CERT-2-" + repeat('x', 40), "证书三");
+        List<String> hashes = Arrays.asList(FILE_HASH, "", "abc");
+
+        String expected = sdkEncode(ECDSA, "verifyCertificates",
+                new DynamicArray<>(utf8(nos)), new DynamicArray<>(utf8(hashes)));
+
+        assertEquals(expected, codec.encodeVerifyCertificates(false, nos, hashes));
+    }
+
+    @Test
+    void encodesVerifyCertificatesV2() {
+        assumeTrue(TestCryptoSuites.nativeCryptoAvailable(), "WeDPR 本地库不可用");
+        RegistryCallCodec codec = new RegistryCallCodec(ECDSA);
+        List<String> nos = Arrays.asList("CERT-1", "CERT-2");
+        List<String> hashes = Arrays.asList(FILE_HASH, "not-hex");
+
+        List<Bytes32> keys = new ArrayList<>();
+        List<Bytes32> fileHashes = new ArrayList<>();
+        for (int i = 0; i < nos.size(); i++) {
+            keys.add(new Bytes32(RegistryV2Codec.certificateKey(nos.get(i))));
+            fileHashes.add(new Bytes32(RegistryV2Codec.fileHash(hashes.get(i))));
+        }
+        String expected = sdkEncode(ECDSA, "verifyCertificates",
+                new DynamicArray<>(keys), new DynamicArray<>(fileHashes));
+
+        assertEquals(expected, codec.encodeVerifyCertificates(true, nos, hashes));
+        assertEquals(sdkEncode(ECDSA, "verifyCertificate", keys.get(0), fileHashes.get(0)),
+                codec.encodeVerifyCertificate(true, nos.get(0), hashes.get(0)));
+    }
+
+    @Test
+    void selectorFollowsChainHashAlgorithm() {
+        String ecdsa = new RegistryCallCodec(ECDSA).encodeVerifyCertificate(false, "CERT-1", FILE_HASH);
+        String sm = new RegistryCallCodec(SM).encodeVerifyCertificate(false, "CERT-1", FILE_HASH);
+
+        assertEquals(sdkEncode(SM, "verifyCertificate", new Utf8String("CERT-1"), new Utf8String(FILE_HASH)), sm);
+        assertNotEquals(ecdsa.substring(0, 10), sm.substring(0, 10));
+        assertEquals(ecdsa.substring(10), sm.substring(10));
+    }
+
+    @Test
+    void decodesVerifyCertificate() {
+        String withStatus = "0x" + TypeEncoder.encode(new Bool(true))
+                + TypeEncoder.encode(new Uint256(1700000000L))
+                + TypeEncoder.encode(new Uint8(3));
+        CertificateContract.CertificateVerificationResult result =
+                RegistryCallCodec.decodeVerifyCertificate(withStatus);
+        assertTrue(result.isValid());
+        assertEquals(1700000000L, result.getTimestamp());
+        assertEquals(Integer.valueOf(3), result.getStatus());
+
+        String withoutStatus = TypeEncoder.encode(new Bool(false))
+                + TypeEncoder.encode(new Uint256(0));
+        result = RegistryCallCodec.decodeVerifyCertificate(withoutStatus);
+        assertFalse(result.isValid());
+        assertNull(result.getStatus());
+
+        assertThrows(RuntimeException.class, () -> RegistryCallCodec.decodeVerifyCertificate("0x00"));
+    }
+
+    @Test
+    void decodesVerifyCertificates() {
+        String output = "0x" + FunctionEncoder.encodeParameters(Arrays.<Type>asList(
+                new DynamicArray<>(new Bool(true), new Bool(false)),
+                new DynamicArray<>(new Uint256(100), new Uint256(0)),
+                new DynamicArray<>(new Uint8(0), new Uint8(1))), new StringBuilder());
+
+        List<CertificateContract.CertificateVerificationResult> results =
+                RegistryCallCodec.decodeVerifyCertificates(output, 2);
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isValid());
+        assertEquals(100L, results.get(0).getTimestamp());
+        assertEquals(Integer.valueOf(0), results.get(0).getStatus());
+        assertFalse(results.get(1).isValid());
+        assertEquals(Integer.valueOf(1), results.get(1).getStatus());
+
+        String legacy = FunctionEncoder.encodeParameters(Arrays.<Type>asList(
+                new DynamicArray<>(new Bool(true)),
+                new DynamicArray<>(new Uint256(7))), new StringBuilder());
+        assertNull(RegistryCallCodec.decodeVerifyCertificates(legacy, 1).get(0).getStatus());
+
+        assertThrows(RuntimeException.class, () -> RegistryCallCodec.decodeVerifyCertificates(output, 3));
+    }
+
+    @Test
+    void v2CertificateKeyIsKeccakOfUtf8() {
+        assumeTrue(TestCryptoSuites.nativeCryptoAvailable(), "WeDPR 本地库不可用");
+        byte[] key = RegistryV2Codec.certificateKey("证书-1");
+
+        assertArrayEquals(ECDSA.hash("证书-1".getBytes(StandardCharsets.UTF_8)), key);
+        assertEquals("0x" + Hex.encodeHexString(key), RegistryV2Codec.toParam(key));
+    }
+
+    @Test
+    void v2FileHashDecodesHexOrHashesText() {
+        assumeTrue(TestCryptoSuites.nativeCryptoAvailable(), "WeDPR 本地库不可用");
+        assertEquals(FILE_HASH, RegistryV2Codec.toHex(RegistryV2Codec.fileHash(FILE_HASH)));
+        assertEquals(FILE_HASH, RegistryV2Codec.toHex(RegistryV2Codec.fileHash("0x" + FILE_HASH.toUpperCase())));
+
+        String text = repeat('z', 64);
+        assertArrayEquals(ECDSA.hash(text.getBytes(StandardCharsets.UTF_8)), RegistryV2Codec.fileHash(text));
+        assertEquals(32, RegistryV2Codec.fileHash("short").length);
+    }
+
+    @Test
+    void selectorIsKnownKeccakValue() {
+        // keccak256("transfer(address,uint256)") 的前 4 字节为 a9059cbb，校验模拟的 CryptoSuite
+        assertEquals("a9059cbb", Hex.encodeHexString(
+                Arrays.copyOf(ECDSA.hash("transfer(address,uint256)".getBytes(StandardCharsets.UTF_8)), 4)));
+    }
+
+    private static String sdkEncode(CryptoSuite cryptoSuite, String method, Type... params) {
+        Function function = new Function(method, Arrays.asList(params), Collections.emptyList());
+        String encoded = new FunctionEncoder(cryptoSuite).encode(function);
+        return encoded.startsWith("0x") ? encoded : "0x" + encoded;
+    }
+
+    private static List<Utf8String> utf8(List<String> values) {
+        List<Utf8String> result = new ArrayList<>(values.size());
+        for (String value : values) {
+            result.add(new Utf8String(value));
+        }
+        return result;
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
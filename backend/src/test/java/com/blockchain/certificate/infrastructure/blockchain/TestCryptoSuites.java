@@ -0,0 +1,59 @@
+package com.blockchain.certificate.infrastructure.blockchain;
+
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.bouncycastle.crypto.digests.SM3Digest;
+import org.fisco.bcos.sdk.crypto.CryptoSuite;
+import org.fisco.bcos.sdk.crypto.hash.Keccak256;
+
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 测试用 CryptoSuite
+ *
+ * CryptoSuite 的构造和 SDK 自带的哈希实现依赖 WeDPR 本地库，本地库不可用时
+ * 用 BouncyCastle 的 Keccak-256 / SM3 模拟 hash(byte[])，编解码只用到这一个方法
+ */
+final class TestCryptoSuites {
+
+    private TestCryptoSuites() {
+    }
+
+    static CryptoSuite keccak256() {
+        return of(() -> new KeccakDigest(256));
+    }
+
+    static CryptoSuite sm3() {
+        return of(SM3Digest::new);
+    }
+
+    /**
+     * SDK 的 WeDPR 本地库是否可用
+     */
+    static boolean nativeCryptoAvailable() {
+        try {
+            new Keccak256().hash(new byte[0]);
+            return true;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private static CryptoSuite of(Supplier<Digest> digests) {
+        CryptoSuite cryptoSuite = mock(CryptoSuite.class, withSettings().stubOnly());
+        when(cryptoSuite.hash(any(byte[].class))).thenAnswer(invocation -> {
+            byte[] input = invocation.getArgument(0);
+            Digest digest = digests.get();
+            digest.update(input, 0, input.length);
+            byte[] output = new byte[digest.getDigestSize()];
+            digest.doFinal(output, 0);
+            return output;
+        });
+        return cryptoSuite;
+    }
+}
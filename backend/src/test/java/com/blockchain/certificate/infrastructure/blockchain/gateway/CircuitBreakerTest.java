@@ -0,0 +1,117 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import com.blockchain.certificate.infrastructure.config.GatewayConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CircuitBreaker 状态转换测试
+ */
+class CircuitBreakerTest {
+
+    private static final RuntimeException ERROR = new RuntimeException("节点不可达");
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = breaker(3, 60000, 1);
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure(ERROR);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure(ERROR);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        Map<String, Object> snapshot = breaker.snapshot();
+        assertEquals(3L, snapshot.get("failures"));
+        assertEquals(1L, snapshot.get("rejected"));
+        assertEquals("节点不可达", snapshot.get("lastError"));
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        CircuitBreaker breaker = breaker(2, 60000, 1);
+
+        breaker.tryAcquire();
+        breaker.onFailure(ERROR);
+        breaker.tryAcquire();
+        breaker.onSuccess(10);
+        breaker.tryAcquire();
+        breaker.onFailure(ERROR);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void slowCallCountsAsFailure() {
+        CircuitBreaker breaker = breaker(1, 60000, 1);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess(1001);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(1L, breaker.snapshot().get("slowCalls"));
+    }
+
+    @Test
+    void halfOpenProbeSuccessCloses() {
+        CircuitBreaker breaker = breaker(1, 0, 1);
+        breaker.tryAcquire();
+        breaker.onFailure(ERROR);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // open-ms 已过：第一个调用作为试探放行，其余调用被拒绝
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess(10);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpenProbeFailureReopens() {
+        CircuitBreaker breaker = breaker(3, 0, 2);
+        for (int i = 0; i < 3; i++) {
+            breaker.tryAcquire();
+            breaker.onFailure(ERROR);
+        }
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        // 半开状态下一次失败即重新打开，不等连续失败达到阈值
+        breaker.onFailure(ERROR);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void staysOpenUntilOpenMsElapses() {
+        CircuitBreaker breaker = breaker(1, 60000, 1);
+        breaker.tryAcquire();
+        breaker.onFailure(ERROR);
+
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue((Long) breaker.snapshot().get("retryAfterMs") > 0);
+    }
+
+    private static CircuitBreaker breaker(int failureThreshold, long openMs, int halfOpenCalls) {
+        GatewayConfig.Breaker config = new GatewayConfig.Breaker();
+        config.setFailureThreshold(failureThreshold);
+        config.setSlowCallMs(1000);
+        config.setOpenMs(openMs);
+        config.setHalfOpenCalls(halfOpenCalls);
+        return new CircuitBreaker("test", config);
+    }
+}
@@ -0,0 +1,43 @@
+package com.blockchain.certificate.infrastructure.blockchain.gateway;
+
+import com.blockchain.certificate.infrastructure.blockchain.ChainMetrics;
+import com.blockchain.certificate.infrastructure.config.GatewayConfig;
+import com.blockchain.certificate.infrastructure.config.ShardingConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FailoverBlockchainGateway 熔断测试：后端抛出 Error 时同样计入失败并释放半开许可
+ */
+class FailoverBlockchainGatewayTest {
+
+    private static final ChainVerificationResult VALID = ChainVerificationResult.builder().valid(true).status(0).build();
+
+    @Test
+    void errorInHalfOpenReleasesPermit() {
+        ChainBackend backend = mock(ChainBackend.class);
+        when(backend.getName()).thenReturn("sdk");
+        when(backend.verifyCertificate("CERT-1", "hash"))
+                .thenThrow(new IllegalStateException("节点不可达"))
+                .thenThrow(new NoClassDefFoundError("com/webank/wedpr/crypto/NativeInterface"))
+                .thenReturn(VALID);
+
+        GatewayConfig config = new GatewayConfig();
+        config.getBreaker().setFailureThreshold(1);
+        config.getBreaker().setOpenMs(0);
+        FailoverBlockchainGateway gateway = new FailoverBlockchainGateway(config, new ChainMetrics(),
+                new ChainGroupRouter(new ShardingConfig()), Collections.singletonList(backend));
+
+        // 第一次失败后熔断，openMs=0 时下一次调用作为半开试探放行
+        assertThrows(IllegalStateException.class, () -> gateway.verifyCertificate("CERT-1", "hash"));
+        assertThrows(NoClassDefFoundError.class, () -> gateway.verifyCertificate("CERT-1", "hash"));
+
+        // 试探许可已释放，熔断器重新进入半开并放行
+        assertSame(VALID, gateway.verifyCertificate("CERT-1", "hash"));
+        verify(backend, times(3)).verifyCertificate("CERT-1", "hash");
+    }
+}
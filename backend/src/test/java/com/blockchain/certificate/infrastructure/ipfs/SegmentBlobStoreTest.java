@@ -0,0 +1,219 @@
+package com.blockchain.certificate.infrastructure.ipfs;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SegmentBlobStore 测试：重启后重建索引，写了一半的记录被忽略，慢速上传不阻塞其他写入
+ */
+class SegmentBlobStoreTest {
+
+    /**
+     * 记录头：魔数(4) + CID(46) + 内容长度(4)
+     */
+    private static final int HEADER_LENGTH = 54;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void contentSurvivesReopen() throws IOException {
+        byte[] first = bytes("first");
+        byte[] second = bytes("second file");
+        String firstCid;
+        String secondCid;
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 4096)) {
+            firstCid = store.put(new ByteArrayInputStream(first));
+            secondCid = store.put(new ByteArrayInputStream(second));
+            assertEquals(UnixfsCid.of(first), firstCid);
+            assertEquals(firstCid, store.put(new ByteArrayInputStream(first)));
+            assertTrue(store.delete(secondCid));
+        }
+
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 4096)) {
+            assertArrayEquals(first, store.get(firstCid));
+            assertFalse(store.contains(secondCid));
+            assertEquals(1, store.count());
+            assertEquals(first.length, store.liveBytes());
+        }
+    }
+
+    @Test
+    void tornWriteIsIgnoredAndOverwritten() throws IOException {
+        byte[] first = bytes("committed");
+        byte[] torn = bytes("torn record with a longer body than the next one");
+        byte[] next = bytes("next");
+        String firstCid;
+        String tornCid;
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 4096)) {
+            firstCid = store.put(new ByteArrayInputStream(first));
+            tornCid = store.put(new ByteArrayInputStream(torn));
+        }
+        // 模拟写入内容和记录头后、写入魔数前进程退出
+        int tornAt = HEADER_LENGTH + first.length;
+        writeInt(segment(0), tornAt, 0);
+
+        String nextCid;
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 4096)) {
+            assertArrayEquals(first, store.get(firstCid));
+            assertFalse(store.contains(tornCid));
+            assertEquals(1, store.count());
+
+            // 新记录覆盖写了一半的记录
+            nextCid = store.put(new ByteArrayInputStream(next));
+        }
+        assertEquals(readInt(segment(0), tornAt), readInt(segment(0), 0));
+
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 4096)) {
+            assertArrayEquals(first, store.get(firstCid));
+            assertArrayEquals(next, store.get(nextCid));
+            assertFalse(store.contains(tornCid));
+            assertEquals(2, store.count());
+        }
+    }
+
+    @Test
+    void corruptLengthStopsScan() throws IOException {
+        byte[] first = bytes("first");
+        String firstCid;
+        String secondCid;
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 4096)) {
+            firstCid = store.put(new ByteArrayInputStream(first));
+            secondCid = store.put(new ByteArrayInputStream(bytes("second")));
+        }
+        writeInt(segment(0), HEADER_LENGTH + first.length + 4 + 46, Integer.MAX_VALUE);
+
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 4096)) {
+            assertTrue(store.contains(firstCid));
+            assertFalse(store.contains(secondCid));
+        }
+    }
+
+    @Test
+    void rollsToNewSegmentWhenFull() throws IOException {
+        byte[] small = bytes("small");
+        byte[] large = new byte[1000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        String smallCid;
+        String largeCid;
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 256)) {
+            smallCid = store.put(new ByteArrayInputStream(small));
+            largeCid = store.put(new ByteArrayInputStream(large));
+            assertArrayEquals(large, store.get(largeCid));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 256)) {
+            assertArrayEquals(small, store.get(smallCid));
+            assertArrayEquals(large, store.get(largeCid));
+        }
+    }
+
+    @Test
+    void slowUploadDoesNotBlockOtherWrites() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        byte[] slow = bytes("slow upload");
+        InputStream slowStream = new SequenceInputStream(new ByteArrayInputStream(slow), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return -1;
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 4096)) {
+            Future<String> slowCid = executor.submit(() -> store.put(slowStream));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // 上传仍在读取时，其他写入和删除不等待
+            String fastCid = store.put(new ByteArrayInputStream(bytes("fast")));
+            assertTrue(store.delete(fastCid));
+
+            release.countDown();
+            assertArrayEquals(slow, store.get(slowCid.get(5, TimeUnit.SECONDS)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void largeUploadIsSpooledToTemporaryFile() throws IOException {
+        byte[] large = new byte[3 * 1024 * 1024 + 17];
+        new Random(7).nextBytes(large);
+        String cid;
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 4096)) {
+            cid = store.put(new ByteArrayInputStream(large));
+            assertEquals(UnixfsCid.of(large), cid);
+            assertArrayEquals(large, store.get(cid));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 4096)) {
+            assertArrayEquals(large, store.get(cid));
+        }
+    }
+
+    @Test
+    void emptyContentIsNotStored() throws IOException {
+        try (SegmentBlobStore store = new SegmentBlobStore(directory, 4096)) {
+            assertNull(store.put(new ByteArrayInputStream(new byte[0])));
+            assertEquals(0, store.count());
+            assertFalse(store.delete("QmT78zSuBmuS4z925WZfrqQ1qHaJ56DQaTfyMUF7F8ff5o"));
+        }
+    }
+
+    private Path segment(int id) {
+        return directory.resolve(String.format("segment-%05d.dat", id));
+    }
+
+    private static void writeInt(Path file, long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4).putInt(0, value);
+            channel.write(buffer, position);
+        }
+    }
+
+    private static int readInt(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4);
+            channel.read(buffer, position);
+            return buffer.getInt(0);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
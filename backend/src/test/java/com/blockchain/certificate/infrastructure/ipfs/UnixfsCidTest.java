@@ -0,0 +1,85 @@
+package com.blockchain.certificate.infrastructure.ipfs;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UnixfsCid 测试：与 ipfs add（CIDv0、256KiB 分块、balanced 布局）的结果一致
+ */
+class UnixfsCidTest {
+
+    @Test
+    void emptyFile() {
+        assertEquals("QmbFMke1KXqnYyBBWxB74N4c5SBnJMVAiMNRcGu6x1AwQH", UnixfsCid.of(new byte[0]));
+    }
+
+    @Test
+    void helloWorld() {
+        assertEquals("QmT78zSuBmuS4z925WZfrqQ1qHaJ56DQaTfyMUF7F8ff5o",
+                UnixfsCid.of("hello world\n".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void incrementalUpdatesMatchSingleUpdate() {
+        byte[] content = content(UnixfsCid.CHUNK_SIZE * 2 + 12345);
+        String expected = UnixfsCid.of(content);
+
+        UnixfsCid cid = new UnixfsCid();
+        int offset = 0;
+        Random random = new Random(1);
+        while (offset < content.length) {
+            int n = Math.min(content.length - offset, 1 + random.nextInt(100000));
+            cid.update(content, offset, n);
+            offset += n;
+        }
+
+        assertEquals(expected, cid.finish());
+        assertTrue(UnixfsCid.isV0(expected));
+    }
+
+    @Test
+    void chunkBoundaryChangesLayout() {
+        // 正好一个分块时根就是叶子，多一个字节时根是带两个链接的中间节点
+        String single = UnixfsCid.of(content(UnixfsCid.CHUNK_SIZE));
+        String split = UnixfsCid.of(content(UnixfsCid.CHUNK_SIZE + 1));
+
+        assertTrue(UnixfsCid.isV0(single));
+        assertTrue(UnixfsCid.isV0(split));
+        assertNotEquals(single, split);
+    }
+
+    @Test
+    void moreThanMaxLinksIsRejected() {
+        byte[] chunk = content(UnixfsCid.CHUNK_SIZE);
+
+        UnixfsCid atLimit = new UnixfsCid();
+        for (int i = 0; i < UnixfsCid.MAX_LINKS; i++) {
+            atLimit.update(chunk, 0, chunk.length);
+        }
+        assertNotNull(atLimit.finish());
+
+        UnixfsCid overLimit = new UnixfsCid();
+        for (int i = 0; i < UnixfsCid.MAX_LINKS; i++) {
+            overLimit.update(chunk, 0, chunk.length);
+        }
+        overLimit.update(chunk, 0, 1);
+        assertNull(overLimit.finish());
+    }
+
+    @Test
+    void recognisesV0() {
+        assertTrue(UnixfsCid.isV0("QmT78zSuBmuS4z925WZfrqQ1qHaJ56DQaTfyMUF7F8ff5o"));
+        assertFalse(UnixfsCid.isV0("bafybeigdyrzt5sfp7udm7hu76uh7y26nf3efuylqabf3oclgtqy55fbzdi"));
+        assertFalse(UnixfsCid.isV0(null));
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,101 @@
+package com.blockchain.certificate.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HashingOutputStream 测试：末尾 8192 字节在 release() 前不写出
+ */
+class HashingOutputStreamTest {
+
+    private static final int HOLD_BACK = 8192;
+
+    @Test
+    void smallContentIsNotWrittenBeforeRelease() throws IOException {
+        byte[] content = content(HOLD_BACK);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        HashingOutputStream out = new HashingOutputStream(target);
+
+        out.write(content);
+
+        assertEquals(0, target.size());
+        assertEquals(HashingOutputStream.sha256Hex(content), out.hash());
+        out.release();
+        assertArrayEquals(content, target.toByteArray());
+    }
+
+    @Test
+    void holdsBackTailAcrossSmallWrites() throws IOException {
+        byte[] content = content(20000);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        HashingOutputStream out = new HashingOutputStream(target);
+
+        for (int offset = 0; offset < content.length; offset += 1000) {
+            out.write(content, offset, Math.min(1000, content.length - offset));
+            assertEquals(Math.max(0, offset + 1000 - HOLD_BACK), target.size());
+        }
+
+        assertEquals(content.length - HOLD_BACK, target.size());
+        assertArrayEquals(Arrays.copyOf(content, content.length - HOLD_BACK), target.toByteArray());
+        assertEquals(content.length, out.size());
+        out.release();
+        assertArrayEquals(content, target.toByteArray());
+    }
+
+    @Test
+    void holdsBackTailAfterLargeWrite() throws IOException {
+        byte[] content = content(3 * HOLD_BACK + 17);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        HashingOutputStream out = new HashingOutputStream(target);
+
+        out.write(content, 0, 100);
+        out.write(content, 100, content.length - 100);
+
+        assertArrayEquals(Arrays.copyOf(content, content.length - HOLD_BACK), target.toByteArray());
+        assertEquals(HashingOutputStream.sha256Hex(content), out.hash());
+        out.release();
+        assertArrayEquals(content, target.toByteArray());
+    }
+
+    @Test
+    void singleByteWrites() throws IOException {
+        byte[] content = content(HOLD_BACK + 5);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        HashingOutputStream out = new HashingOutputStream(target);
+
+        for (byte b : content) {
+            out.write(b);
+        }
+
+        assertEquals(5, target.size());
+        out.release();
+        assertArrayEquals(content, target.toByteArray());
+    }
+
+    @Test
+    void hashMismatchLeavesOutputIncomplete() throws IOException {
+        byte[] content = content(HOLD_BACK * 2);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        HashingOutputStream out = new HashingOutputStream(target);
+
+        out.write(content);
+        assertNotEquals(HashingOutputStream.sha256Hex(new byte[0]), out.hash());
+        // 调用方发现哈希不一致，不调用 release()
+        out.close();
+
+        assertEquals(HOLD_BACK, target.size());
+        assertThrows(IllegalStateException.class, () -> out.write(1));
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+}
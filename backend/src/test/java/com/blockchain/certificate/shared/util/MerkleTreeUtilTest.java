@@ -0,0 +1,98 @@
+package com.blockchain.certificate.shared.util;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MerkleTreeUtil 测试：每个叶子的证明都能还原出根，篡改后验证失败
+ */
+class MerkleTreeUtilTest {
+
+    @Property(tries = 50)
+    void everyProofReconstructsRoot(@ForAll @IntRange(min = 1, max = 70) int leafCount) {
+        List<byte[]> leaves = leaves(leafCount);
+        MerkleTreeUtil.MerkleTree tree = MerkleTreeUtil.build(leaves);
+
+        assertEquals(leafCount, tree.getLeafCount());
+        for (int i = 0; i < leafCount; i++) {
+            assertEquals(tree.getRoot(), MerkleTreeUtil.computeRoot(leaves.get(i), tree.getProof(i)));
+            assertTrue(MerkleTreeUtil.verify("CERT-" + i, "hash-" + i, tree.getProof(i), tree.getRoot()));
+        }
+    }
+
+    @Test
+    void singleLeafIsRootWithEmptyProof() {
+        byte[] leaf = MerkleTreeUtil.leafHash("CERT-0", "hash-0");
+        MerkleTreeUtil.MerkleTree tree = MerkleTreeUtil.build(Collections.singletonList(leaf));
+
+        assertEquals(Hex.encodeHexString(leaf), tree.getRoot());
+        assertTrue(tree.getProof(0).isEmpty());
+    }
+
+    @Test
+    void oddNodeIsPromotedWithoutDuplication() {
+        // 3 个叶子：第 3 个叶子提升到上一层，证明只有一步
+        MerkleTreeUtil.MerkleTree tree = MerkleTreeUtil.build(leaves(3));
+
+        assertEquals(2, tree.getProof(0).size());
+        assertEquals(1, tree.getProof(2).size());
+        assertTrue(tree.getProof(2).get(0).startsWith("L:"));
+    }
+
+    @Test
+    void tamperedInputFailsVerification() {
+        MerkleTreeUtil.MerkleTree tree = MerkleTreeUtil.build(leaves(5));
+        List<String> proof = tree.getProof(3);
+
+        assertFalse(MerkleTreeUtil.verify("CERT-3", "other-hash", proof, tree.getRoot()));
+        assertFalse(MerkleTreeUtil.verify("CERT-4", "hash-3", proof, tree.getRoot()));
+        assertFalse(MerkleTreeUtil.verify("CERT-3", "hash-3", tree.getProof(2), tree.getRoot()));
+
+        List<String> flipped = new ArrayList<>(proof);
+        String step = flipped.get(0);
+        flipped.set(0, (step.startsWith("L:") ? "R:" : "L:") + step.substring(2));
+        assertFalse(MerkleTreeUtil.verify("CERT-3", "hash-3", flipped, tree.getRoot()));
+    }
+
+    @Test
+    void malformedProofIsRejected() {
+        MerkleTreeUtil.MerkleTree tree = MerkleTreeUtil.build(leaves(2));
+
+        assertFalse(MerkleTreeUtil.verify("CERT-0", "hash-0",
+                Collections.singletonList("X:" + tree.getRoot()), tree.getRoot()));
+        assertFalse(MerkleTreeUtil.verify("CERT-0", "hash-0", Collections.singletonList("R:zz"), tree.getRoot()));
+        assertFalse(MerkleTreeUtil.verify(null, "hash-0", tree.getProof(0), tree.getRoot()));
+    }
+
+    @Test
+    void rootAcceptsHexPrefix() {
+        MerkleTreeUtil.MerkleTree tree = MerkleTreeUtil.build(leaves(4));
+
+        assertTrue(MerkleTreeUtil.verify("CERT-1", "hash-1", tree.getProof(1), "0x" + tree.getRoot().toUpperCase()));
+        assertEquals(32, MerkleTreeUtil.toBytes32("0x" + tree.getRoot()).length);
+        assertThrows(IllegalArgumentException.class, () -> MerkleTreeUtil.toBytes32("0x1234"));
+    }
+
+    @Test
+    void emptyLeavesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> MerkleTreeUtil.build(Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> MerkleTreeUtil.build(null));
+    }
+
+    private static List<byte[]> leaves(int count) {
+        List<byte[]> leaves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            leaves.add(MerkleTreeUtil.leafHash("CERT-" + i, "hash-" + i));
+        }
+        return leaves;
+    }
+}
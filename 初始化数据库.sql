@@ -109,6 +109,10 @@ CREATE TABLE IF NOT EXISTS t_certificate (
     file_hash VARCHAR(255) NOT NULL COMMENT '文件哈希',
     blockchain_tx_hash VARCHAR(255) COMMENT '区块链交易哈希',
     block_height BIGINT COMMENT '区块高度',
+    merkle_root VARCHAR(66) COMMENT '批量存证Merkle根',
+    merkle_proof TEXT COMMENT '批量存证Merkle证明(JSON)',
+    issuer_address VARCHAR(42) COMMENT '存证交易的签发账户地址',
+    chain_group_id INT COMMENT '存证群组ID（为空表示默认群组）',
     issue_date DATE NOT NULL COMMENT '颁发日期',
     expiry_date DATE COMMENT '过期日期',
     revoke_reason TEXT COMMENT '撤销原因',
@@ -120,9 +124,92 @@ CREATE TABLE IF NOT EXISTS t_certificate (
     INDEX idx_holder (holder_id),
     INDEX idx_status (status),
     INDEX idx_tx_hash (blockchain_tx_hash),
+    INDEX idx_merkle_root (merkle_root),
+    INDEX idx_issuer_address (issuer_address),
+    INDEX idx_chain_group (chain_group_id),
     INDEX idx_deleted (deleted)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='证书表';
 
+-- 创建区块链存证发件箱表
+CREATE TABLE IF NOT EXISTS t_chain_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    certificate_id BIGINT NOT NULL COMMENT '证书ID',
+    certificate_no VARCHAR(50) NOT NULL COMMENT '证书编号',
+    file_hash VARCHAR(255) NOT NULL COMMENT '文件哈希',
+    operation VARCHAR(20) NOT NULL DEFAULT 'STORE' COMMENT '上链操作',
+    status ENUM('PENDING', 'PROCESSING', 'DONE', 'FAILED') DEFAULT 'PENDING' COMMENT '状态',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '已尝试次数',
+    next_attempt_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '下次尝试时间',
+    last_error TEXT COMMENT '最近一次错误信息',
+    tx_hash VARCHAR(255) COMMENT '区块链交易哈希',
+    block_height BIGINT COMMENT '区块高度',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_status_next (status, next_attempt_time),
+    INDEX idx_certificate (certificate_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='区块链存证发件箱表';
+
+-- 创建链上事件索引表
+CREATE TABLE IF NOT EXISTS t_chain_event (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    block_number BIGINT NOT NULL COMMENT '区块高度',
+    tx_hash VARCHAR(66) NOT NULL COMMENT '交易哈希',
+    log_index INT NOT NULL COMMENT '交易内日志序号',
+    event_name VARCHAR(50) NOT NULL COMMENT '事件名称',
+    certificate_no VARCHAR(50) COMMENT '证书编号',
+    certificate_no_hash VARCHAR(66) NOT NULL COMMENT '证书编号哈希(indexed topic)',
+    file_hash VARCHAR(255) COMMENT '文件哈希',
+    operator VARCHAR(42) COMMENT '操作地址(颁发/撤销/更新者)',
+    event_timestamp BIGINT COMMENT '事件时间戳(秒)',
+    expiry_date BIGINT COMMENT '过期时间戳(秒)',
+    old_expiry_date BIGINT COMMENT '原过期时间戳(秒)',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    UNIQUE KEY uk_tx_log (tx_hash, log_index),
+    INDEX idx_certificate_no (certificate_no),
+    INDEX idx_certificate_no_hash (certificate_no_hash),
+    INDEX idx_block_number (block_number)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='链上事件索引表';
+
+-- 创建链上对账任务表
+CREATE TABLE IF NOT EXISTS t_chain_reconcile_run (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    status ENUM('RUNNING', 'COMPLETED', 'CANCELLED', 'FAILED', 'INTERRUPTED') DEFAULT 'RUNNING' COMMENT '状态',
+    trigger_type VARCHAR(20) NOT NULL DEFAULT 'MANUAL' COMMENT '触发方式',
+    last_certificate_id BIGINT NOT NULL DEFAULT 0 COMMENT '已处理的最后一个证书ID',
+    scanned_count BIGINT NOT NULL DEFAULT 0 COMMENT '已扫描证书数',
+    checked_count BIGINT NOT NULL DEFAULT 0 COMMENT '已链上验证证书数',
+    skipped_count BIGINT NOT NULL DEFAULT 0 COMMENT '跳过证书数',
+    diff_count BIGINT NOT NULL DEFAULT 0 COMMENT '差异数',
+    repair_queued_count BIGINT NOT NULL DEFAULT 0 COMMENT '已写入发件箱的修复数',
+    last_error TEXT COMMENT '失败原因',
+    start_time DATETIME COMMENT '开始时间',
+    end_time DATETIME COMMENT '结束时间',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_status (status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='链上对账任务表';
+
+-- 创建链上对账差异表
+CREATE TABLE IF NOT EXISTS t_chain_reconcile_diff (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    run_id BIGINT NOT NULL COMMENT '对账任务ID',
+    certificate_id BIGINT NOT NULL COMMENT '证书ID',
+    certificate_no VARCHAR(50) NOT NULL COMMENT '证书编号',
+    diff_type VARCHAR(30) NOT NULL COMMENT '差异类型',
+    db_status VARCHAR(20) COMMENT '数据库证书状态',
+    db_tx_hash VARCHAR(255) COMMENT '数据库交易哈希',
+    chain_status TINYINT COMMENT '链上状态码',
+    repair_operation VARCHAR(20) COMMENT '修复操作',
+    repair_status ENUM('MANUAL', 'PENDING', 'QUEUED') DEFAULT 'MANUAL' COMMENT '修复状态',
+    outbox_id BIGINT COMMENT '修复发件箱记录ID',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    UNIQUE KEY uk_run_certificate (run_id, certificate_id),
+    INDEX idx_run_type (run_id, diff_type),
+    INDEX idx_run_repair (run_id, repair_status),
+    INDEX idx_certificate (certificate_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='链上对账差异表';
+
 -- 创建证书模板表
 CREATE TABLE IF NOT EXISTS t_certificate_template (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,